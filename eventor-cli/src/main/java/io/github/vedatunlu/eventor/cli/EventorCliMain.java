@@ -1,9 +1,13 @@
 package io.github.vedatunlu.eventor.cli;
 
+import io.github.vedatunlu.eventor.cli.dictionary.TrainDictionaryCommand;
+import io.github.vedatunlu.eventor.cli.loadtest.LoadTestCommand;
 import io.github.vedatunlu.eventor.core.generator.EventorGenerator;
 import picocli.CommandLine;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.Model.CommandSpec;
 import picocli.CommandLine.Option;
+import picocli.CommandLine.Spec;
 
 import java.util.concurrent.Callable;
 
@@ -11,33 +15,50 @@ import java.util.concurrent.Callable;
     name = "Eventor",
     mixinStandardHelpOptions = true,
     version = "Eventor 0.1.0-SNAPSHOT",
-    description = "Spring Event Generator - Generate DTOs, Producers, and Consumers from JSON definitions"
+    description = "Spring Event Generator - Generate DTOs, Producers, and Consumers from JSON definitions",
+    subcommands = {LoadTestCommand.class, TrainDictionaryCommand.class}
 )
 public class EventorCliMain implements Callable<Integer> {
 
     @Option(
         names = {"--jsonDir", "-j"},
-        description = "Directory containing JSON definition files",
-        required = true
+        description = "Directory containing JSON definition files (required to generate)"
     )
     private String jsonDir;
 
     @Option(
         names = {"--outputDir", "-o"},
-        description = "Output directory for generated Java classes",
-        required = true
+        description = "Output directory for generated Java classes (required to generate)"
     )
     private String outputDir;
 
+    @Option(
+        names = {"--benchmarkDir", "-b"},
+        description = "Output directory for JMH benchmarks of the generated DTOs; omit to skip them"
+    )
+    private String benchmarkDir;
+
+    @Spec
+    private CommandSpec spec;
+
     @Override
     public Integer call() throws Exception {
+        // Not declared required, so that subcommands can run without them
+        if (jsonDir == null || outputDir == null) {
+            throw new CommandLine.ParameterException(spec.commandLine(),
+                "Missing required options: '--jsonDir=<jsonDir>', '--outputDir=<outputDir>'");
+        }
         try {
             System.out.println("Eventor Spring Event Generator");
             System.out.println("JSON Directory: " + jsonDir);
             System.out.println("Output Directory: " + outputDir);
+            if (benchmarkDir != null) {
+                System.out.println("Benchmark Directory: " + benchmarkDir);
+            }
             System.out.println("Generating classes...");
 
             EventorGenerator generator = new EventorGenerator();
+            generator.setBenchmarkDir(benchmarkDir);
             generator.generateFromJsonDirectory(jsonDir, outputDir);
 
             System.out.println("Generation completed successfully!");
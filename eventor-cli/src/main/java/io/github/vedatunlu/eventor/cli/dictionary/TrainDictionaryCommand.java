@@ -0,0 +1,227 @@
+package io.github.vedatunlu.eventor.cli.dictionary;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.luben.zstd.Zstd;
+import com.github.luben.zstd.ZstdCompressCtx;
+import com.github.luben.zstd.ZstdDictCompress;
+import io.github.vedatunlu.eventor.core.generator.CompressionDictionaries;
+import io.github.vedatunlu.eventor.core.generator.DefinitionReader;
+import io.github.vedatunlu.eventor.core.model.DtoDefinition;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Trains the Zstandard dictionary of each DTO declaring compression "dictionary" from sample payloads, one JSON
+ * payload per line as the DTO's producers serialize it, and writes it where the generator looks for it. A dictionary
+ * it replaces is kept next to it, to be listed in the DTO's previousDictionaries while records compressed with it
+ * are still on the topics.
+ */
+@Command(
+    name = "train-dictionary",
+    mixinStandardHelpOptions = true,
+    description = "Train the compression dictionaries of DTOs declaring compression \"dictionary\" from sample payloads"
+)
+public class TrainDictionaryCommand implements Callable<Integer> {
+
+    /**
+     * Smallest dictionary worth training; zstd needs room for its entropy tables.
+     */
+    private static final int MIN_SIZE = 256;
+
+    @Option(
+        names = {"--jsonDir", "-j"},
+        description = "Directory containing JSON definition files; dictionaries are written into it",
+        required = true
+    )
+    private String jsonDir;
+
+    @Option(
+        names = "--dto",
+        description = "Only train this DTO (default: every DTO declaring compression \"dictionary\")"
+    )
+    private String dtoName;
+
+    @Option(
+        names = "--samples",
+        description = "File of sample payloads, one per line, for --dto; or a directory holding <DTO name>.ndjson "
+            + "for each DTO, outside the JSON directory",
+        required = true
+    )
+    private String samples;
+
+    @Option(
+        names = "--size",
+        description = "Dictionary size in bytes, at most " + CompressionDictionaries.MAX_SIZE
+            + " (default: ${DEFAULT-VALUE})",
+        defaultValue = "16384"
+    )
+    private int size;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Override
+    public Integer call() throws Exception {
+        if (size < MIN_SIZE || size > CompressionDictionaries.MAX_SIZE) {
+            System.err.println(String.format("Dictionary size must be between %d and %d bytes",
+                MIN_SIZE, CompressionDictionaries.MAX_SIZE));
+            return 1;
+        }
+        Path jsonPath = Paths.get(jsonDir);
+        Path samplesPath = Paths.get(samples);
+        List<DtoDefinition> dtos;
+        try {
+            dtos = loadDictionaryDtos(jsonPath);
+        } catch (IllegalArgumentException | IOException e) {
+            System.err.println("Error during dictionary training setup: " + e.getMessage());
+            return 1;
+        }
+        if (dtos.isEmpty()) {
+            System.err.println(dtoName != null
+                ? "DTO " + dtoName + " is not defined in " + jsonDir + " or does not declare compression \"dictionary\""
+                : "No DTO in " + jsonDir + " declares compression \"dictionary\"");
+            return 1;
+        }
+        if (!Files.isDirectory(samplesPath) && dtoName == null) {
+            System.err.println("--samples must be a directory of <DTO name>.ndjson files unless --dto is given");
+            return 1;
+        }
+
+        int failed = 0;
+        for (DtoDefinition dto : dtos) {
+            Path sampleFile = Files.isDirectory(samplesPath)
+                ? samplesPath.resolve(dto.getName() + ".ndjson")
+                : samplesPath;
+            try {
+                train(jsonPath, dto, sampleFile);
+            } catch (IllegalArgumentException | IOException e) {
+                System.err.println("Could not train the dictionary of " + dto.getName() + ": " + e.getMessage());
+                failed++;
+            }
+        }
+        return failed == 0 ? 0 : 1;
+    }
+
+    private List<DtoDefinition> loadDictionaryDtos(final Path jsonPath) throws IOException {
+        if (!Files.isDirectory(jsonPath)) {
+            throw new IllegalArgumentException("JSON directory does not exist: " + jsonPath.toAbsolutePath());
+        }
+        List<DtoDefinition> dtos = new ArrayList<>();
+        for (Path definitionFile : DefinitionReader.definitionFiles(jsonPath)) {
+            try (DefinitionReader reader = new DefinitionReader(objectMapper, definitionFile)) {
+                for (JsonNode definition = reader.next(); definition != null; definition = reader.next()) {
+                    if (!"dto".equalsIgnoreCase(definition.path("type").asText())) {
+                        continue;
+                    }
+                    DtoDefinition dto = objectMapper.treeToValue(definition, DtoDefinition.class);
+                    if (dto.isDictionaryCompressed() && (dtoName == null || dtoName.equals(dto.getName()))) {
+                        dtos.add(dto);
+                    }
+                }
+            }
+        }
+        return dtos;
+    }
+
+    private void train(final Path jsonPath, final DtoDefinition dto, final Path sampleFile) throws IOException {
+        byte[][] payloads = readSamples(sampleFile);
+        byte[] buffer = new byte[size];
+        long trained = Zstd.trainFromBuffer(payloads, buffer);
+        if (Zstd.isError(trained)) {
+            throw new IllegalArgumentException(String.format(
+                "training on %d samples failed (%s); provide more samples or a smaller --size",
+                payloads.length, Zstd.getErrorName(trained)));
+        }
+        byte[] dictionary = Arrays.copyOf(buffer, (int) trained);
+        Path dictionaryFile = CompressionDictionaries.resolve(jsonPath, dto);
+        if (dictionaryFile.getParent() != null) {
+            Files.createDirectories(dictionaryFile.getParent());
+        }
+        Path keptFile = keepPrevious(dictionaryFile, dictionary);
+        Files.write(dictionaryFile, dictionary);
+        report(dto, dictionaryFile, dictionary, payloads);
+        if (keptFile != null) {
+            System.out.println(String.format("  previous     kept as %s; add \"%s\" to previousDictionaries of %s so "
+                + "consumers still read the records compressed with it", keptFile,
+                jsonPath.relativize(keptFile).toString().replace('\\', '/'), dto.getName()));
+        }
+    }
+
+    /**
+     * Moves a different dictionary already at the file to &lt;name&gt;-&lt;id&gt;.dict next to it.
+     * @return the file the previous dictionary was moved to, or null when there was none to keep
+     */
+    private static Path keepPrevious(final Path dictionaryFile, final byte[] dictionary) throws IOException {
+        if (!Files.isRegularFile(dictionaryFile)) {
+            return null;
+        }
+        byte[] previous = Files.readAllBytes(dictionaryFile);
+        if (Arrays.equals(previous, dictionary)) {
+            return null;
+        }
+        String name = dictionaryFile.getFileName().toString();
+        String stem = name.endsWith(".dict") ? name.substring(0, name.length() - ".dict".length()) : name;
+        Path keptFile = dictionaryFile.resolveSibling(
+            String.format("%s-%08x.dict", stem, CompressionDictionaries.id(previous)));
+        Files.move(dictionaryFile, keptFile, StandardCopyOption.REPLACE_EXISTING);
+        return keptFile;
+    }
+
+    private static byte[][] readSamples(final Path sampleFile) throws IOException {
+        if (!Files.isRegularFile(sampleFile)) {
+            throw new IllegalArgumentException("sample file " + sampleFile.toAbsolutePath() + " does not exist");
+        }
+        List<byte[]> payloads = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(sampleFile, StandardCharsets.UTF_8)) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (!line.isBlank()) {
+                    payloads.add(line.strip().getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+        if (payloads.isEmpty()) {
+            throw new IllegalArgumentException("sample file " + sampleFile.toAbsolutePath() + " has no payloads");
+        }
+        return payloads.toArray(new byte[0][]);
+    }
+
+    /**
+     * Compares the average record size on the training samples: raw JSON, compressed alone, and with the dictionary.
+     */
+    private static void report(final DtoDefinition dto, final Path dictionaryFile, final byte[] dictionary,
+                               final byte[][] payloads) {
+        long raw = 0;
+        long plain = 0;
+        long compressed = 0;
+        try (ZstdDictCompress digested = new ZstdDictCompress(dictionary, CompressionDictionaries.LEVEL);
+             ZstdCompressCtx context = new ZstdCompressCtx()) {
+            context.loadDict(digested);
+            context.setDictID(false);
+            context.setChecksum(false);
+            for (byte[] payload : payloads) {
+                raw += payload.length;
+                plain += Zstd.compress(payload, CompressionDictionaries.LEVEL).length;
+                compressed += context.compress(payload).length;
+            }
+        }
+        System.out.println(String.format("%s: %,d byte dictionary written to %s (id %08x)",
+            dto.getName(), dictionary.length, dictionaryFile, CompressionDictionaries.id(dictionary)));
+        System.out.println(String.format("  samples      %,d, %.0f bytes/record raw", payloads.length,
+            (double) raw / payloads.length));
+        System.out.println(String.format(
+            "  compressed   %.0f bytes/record alone, %.0f bytes/record with the dictionary (%.1fx)",
+            (double) plain / payloads.length, (double) compressed / payloads.length, (double) raw / compressed));
+    }
+}
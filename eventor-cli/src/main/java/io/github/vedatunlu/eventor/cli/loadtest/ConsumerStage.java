@@ -0,0 +1,240 @@
+package io.github.vedatunlu.eventor.cli.loadtest;
+
+import io.github.vedatunlu.eventor.core.model.ConsumerDefinition;
+import io.github.vedatunlu.eventor.core.model.DtoDefinition;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The receive path of a generated consumer method, run with the generated classes: a Kafka record is read by the value
+ * deserializer the generated listener is configured with, its claim check is resolved by ClaimCheck and its envelope
+ * unwrapped, and each event is claimed in the method's IdempotencyCache and recorded once handled. Pooled events go
+ * back to their pool afterwards. Mmap methods read the DTO's binary codec, in place for pooled DTOs. Handlers and
+ * their dependencies are not called.
+ */
+final class ConsumerStage {
+
+    /**
+     * Size of the claim check cache of a generated method whose claimCheck sets no cacheMaxBytes.
+     */
+    private static final long DEFAULT_CLAIM_CHECK_CACHE_BYTES = 67108864L;
+
+    /**
+     * Entries of the idempotency cache of a generated method whose idempotencyCache sets no maxEntries.
+     */
+    private static final int DEFAULT_IDEMPOTENCY_ENTRIES = 100000;
+
+    /**
+     * Lifetime of an idempotency key of a generated method whose idempotencyCache sets no ttlSeconds.
+     */
+    private static final long DEFAULT_IDEMPOTENCY_TTL_SECONDS = 3600;
+
+    private final String name;
+    private final String topic;
+    private final String description;
+    private final KafkaValues kafka;
+    private final KafkaValues.Deserializer deserializer;
+    private final Object claimCheck;
+    private final String claimCheckHeader;
+    private final MethodHandle resolve;
+    private final Object claimCheckCache;
+    private final Class<?> eventType;
+    private final MethodHandle envelopeEvents;
+    private final Object idempotencyCache;
+    private final MethodHandle tryAcquire;
+    private final MethodHandle record;
+    private final MethodHandle idempotencyKey;
+    private final MethodHandle release;
+    private final MethodHandle readFrom;
+    private final ThreadLocal<Object> reuse;
+
+    private final LongAdder duplicates = new LongAdder();
+
+    ConsumerStage(final ConsumerDefinition consumer, final ConsumerDefinition.ConsumerMethod method,
+                  final DtoDefinition dto, final String transport, final GeneratedCode code, final KafkaValues kafka,
+                  final Object claimCheck) throws ReflectiveOperationException {
+        this.name = consumer.getName() + "." + method.getMethodName();
+        this.topic = method.getTopic();
+        this.kafka = kafka;
+        Class<?> dtoType = code.dto(dto.getName());
+        this.eventType = method.getFields() != null ? code.dto(method.getProjectionName()) : dtoType;
+        List<String> features = new ArrayList<>();
+
+        String valueSerde = dto.getValueSerde();
+        if ("kafka".equals(transport)) {
+            Map<String, Object> configs = new HashMap<>();
+            configs.put("spring.json.trusted.packages", "com.example.dto");
+            if (method.getFields() != null) {
+                configs.put("spring.json.value.default.type", eventType.getName());
+                configs.put("spring.json.use.type.headers", "false");
+            }
+            this.deserializer = kafka.deserializer(valueSerde != null
+                ? "com.example.dto." + valueSerde + "$Deserializer" : KafkaValues.JSON_DESERIALIZER, configs);
+            features.add(valueSerde != null ? valueSerde : method.getFields() != null ? "json, projected" : "json");
+        } else {
+            this.deserializer = null;
+            features.add("mmap".equals(transport) ? "binary codec" : "object hand-off");
+        }
+
+        if ("kafka".equals(transport) && method.getClaimCheck() != null) {
+            Class<?> claimCheckType = code.support("ClaimCheck");
+            Class<?> cacheType = code.support("ClaimCheckCache");
+            long cacheBytes = method.getClaimCheck().getCacheMaxBytes() != null
+                ? method.getClaimCheck().getCacheMaxBytes() : DEFAULT_CLAIM_CHECK_CACHE_BYTES;
+            this.claimCheck = claimCheck;
+            this.claimCheckHeader = (String) claimCheckType.getField("HEADER").get(null);
+            this.claimCheckCache = KafkaValues.newInstance(cacheType, cacheBytes);
+            this.resolve = KafkaValues.LOOKUP.findVirtual(claimCheckType, "resolve",
+                MethodType.methodType(Object.class, byte[].class, Class.class, cacheType));
+            features.add("claim checks");
+        } else {
+            this.claimCheck = null;
+            this.claimCheckHeader = null;
+            this.claimCheckCache = null;
+            this.resolve = null;
+        }
+
+        this.envelopeEvents = "kafka".equals(transport) && method.getEnvelope() != null
+            ? GeneratedDto.getter(code.dto(dto.getName() + "Envelope"), "events") : null;
+        if (envelopeEvents != null) {
+            features.add("envelopes");
+        }
+
+        if (method.getIdempotencyKey() != null) {
+            ConsumerDefinition.IdempotencyCache options = method.getIdempotencyCache();
+            Class<?> cacheType = code.support("IdempotencyCache");
+            int maxEntries = options != null && options.getMaxEntries() != null
+                ? options.getMaxEntries() : DEFAULT_IDEMPOTENCY_ENTRIES;
+            long ttlSeconds = options != null && options.getTtlSeconds() != null
+                ? options.getTtlSeconds() : DEFAULT_IDEMPOTENCY_TTL_SECONDS;
+            // A persisted cache writes to a file of the load test's own, never to the application's
+            Path persistFile = options != null && options.getPersistFile() != null
+                ? code.getDirectory().resolve(name + ".idempotency") : null;
+            this.idempotencyCache = KafkaValues.newInstance(cacheType, maxEntries,
+                TimeUnit.SECONDS.toMillis(ttlSeconds), persistFile);
+            this.tryAcquire = KafkaValues.LOOKUP.findVirtual(cacheType, "tryAcquire",
+                MethodType.methodType(boolean.class, String.class));
+            this.record = KafkaValues.LOOKUP.findVirtual(cacheType, "record",
+                MethodType.methodType(void.class, String.class));
+            this.idempotencyKey = GeneratedDto.getter(envelopeEvents != null ? dtoType : eventType,
+                method.getIdempotencyKey());
+            features.add(persistFile != null ? "idempotent, persisted" : "idempotent");
+        } else {
+            this.idempotencyCache = null;
+            this.tryAcquire = null;
+            this.record = null;
+            this.idempotencyKey = null;
+        }
+
+        boolean pooledKafka = "kafka".equals(transport) && (dto.getName() + "Binary").equals(valueSerde);
+        this.release = pooledKafka ? KafkaValues.LOOKUP.findStatic(code.dto(valueSerde), "release",
+            MethodType.methodType(void.class, dtoType)) : null;
+        if ("mmap".equals(transport) && dto.isPooled()) {
+            this.readFrom = KafkaValues.LOOKUP.findStatic(dtoType, "readFrom",
+                MethodType.methodType(dtoType, DataInput.class, dtoType));
+            MethodHandle constructor = KafkaValues.LOOKUP.findConstructor(dtoType, MethodType.methodType(void.class));
+            this.reuse = ThreadLocal.withInitial(() -> {
+                try {
+                    return constructor.invoke();
+                } catch (Throwable e) {
+                    throw KafkaValues.rethrow(e);
+                }
+            });
+        } else {
+            this.readFrom = "mmap".equals(transport) ? KafkaValues.LOOKUP.findStatic(dtoType, "readFrom",
+                MethodType.methodType(dtoType, DataInput.class)) : null;
+            this.reuse = null;
+        }
+        if (pooledKafka || reuse != null) {
+            features.add("pooled");
+        }
+        this.description = String.join(", ", features);
+    }
+
+    String getName() {
+        return name;
+    }
+
+    String getDescription() {
+        return description;
+    }
+
+    /**
+     * Events skipped as duplicates by the idempotency cache, or -1 when the method declares no idempotency key.
+     */
+    long getDuplicates() {
+        return idempotencyCache != null ? duplicates.sum() : -1;
+    }
+
+    /**
+     * Reads a message the way the generated listener does and records the latency of each of its events.
+     * @return the number of events the message carried
+     */
+    int receive(final Message message, final LatencyHistogram histogram) {
+        try {
+            Object value = read(message);
+            if (envelopeEvents != null) {
+                List<?> events = (List<?>) envelopeEvents.invoke(value);
+                long[] sentNanos = message.getEnvelopeSentNanos();
+                for (int i = 0; i < events.size(); i++) {
+                    handle(events.get(i));
+                    histogram.record(System.nanoTime() - sentNanos[i]);
+                }
+                return events.size();
+            }
+            handle(value);
+            histogram.record(System.nanoTime() - message.getSentNanos());
+            if (release != null) {
+                release.invoke(value);
+            }
+            return 1;
+        } catch (Throwable e) {
+            throw KafkaValues.rethrow(e);
+        }
+    }
+
+    private Object read(final Message message) throws Throwable {
+        if (deserializer != null) {
+            Object value = deserializer.deserialize(topic, message.getHeaders(), message.getValue());
+            if (claimCheck != null) {
+                byte[] reference = kafka.header(message.getHeaders(), claimCheckHeader);
+                if (reference != null) {
+                    value = resolve.invoke(claimCheck, reference, eventType, claimCheckCache);
+                }
+            }
+            return value;
+        }
+        if (readFrom != null) {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(message.getValue()));
+            return reuse != null ? readFrom.invoke((DataInput) in, reuse.get()) : readFrom.invoke((DataInput) in);
+        }
+        return message.getEvent();
+    }
+
+    /**
+     * Claims the event's key before the handler would run and records it after, as the generated listener does.
+     */
+    private void handle(final Object event) throws Throwable {
+        if (idempotencyCache == null) {
+            return;
+        }
+        String key = Objects.toString(idempotencyKey.invoke(event), null);
+        if (!(boolean) tryAcquire.invoke(idempotencyCache, key)) {
+            duplicates.increment();
+            return;
+        }
+        record.invoke(idempotencyCache, key);
+    }
+}
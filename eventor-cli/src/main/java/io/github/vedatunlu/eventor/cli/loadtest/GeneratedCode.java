@@ -0,0 +1,192 @@
+package io.github.vedatunlu.eventor.cli.loadtest;
+
+import freemarker.template.TemplateException;
+import io.github.vedatunlu.eventor.core.generator.EventorGenerator;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileObject;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+/**
+ * The DTOs, serdes and support classes Eventor generates from a definition directory, compiled with the system Java
+ * compiler against the application's classpath and loaded by a class loader of their own, which sees nothing of the
+ * CLI. Producers, consumers and their Kafka configurations are not compiled: they need the application's services
+ * and a broker.
+ */
+final class GeneratedCode implements Closeable {
+
+    /**
+     * Packages of the generated sources that are compiled.
+     */
+    private static final Set<String> PACKAGES = Set.of("com.example.dto", "com.example.support");
+
+    /**
+     * Compiler errors listed when the generated sources do not compile.
+     */
+    private static final int MAX_REPORTED_ERRORS = 10;
+
+    private final Path directory;
+    private final URLClassLoader classLoader;
+
+    private GeneratedCode(final Path directory, final URLClassLoader classLoader) {
+        this.directory = directory;
+        this.classLoader = classLoader;
+    }
+
+    /**
+     * Generates the code of the definitions in jsonDir into a temporary directory and compiles it.
+     * @param classpath the application's classpath, holding Kafka, Spring, Jackson and the other libraries the
+     *                  generated code uses; entries are separated like the java command's, and dir/* adds its jars
+     */
+    static GeneratedCode compile(final Path jsonDir, final String classpath) throws IOException {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        if (compiler == null) {
+            throw new IllegalArgumentException("Compiling the generated classes needs a JDK, not a JRE");
+        }
+        List<Path> libraries = libraries(classpath);
+        Path directory = Files.createTempDirectory("eventor-loadtest");
+        try {
+            Path sources = directory.resolve("sources");
+            Path classes = Files.createDirectories(directory.resolve("classes"));
+            new EventorGenerator().generateFromJsonDirectory(jsonDir.toString(), sources.toString());
+
+            List<Path> compiled;
+            try (Stream<Path> files = Files.list(sources)) {
+                compiled = files.filter(file -> PACKAGES.contains(packageOf(file)))
+                    .sorted()
+                    .collect(Collectors.toList());
+            }
+            DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+            try (StandardJavaFileManager fileManager =
+                     compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)) {
+                String libraryPath = libraries.stream().map(Path::toString)
+                    .collect(Collectors.joining(File.pathSeparator));
+                List<String> options = List.of("-classpath", libraryPath, "-d", classes.toString(), "-proc:none",
+                    "-nowarn");
+                if (!compiler.getTask(null, fileManager, diagnostics, options, null,
+                        fileManager.getJavaFileObjectsFromPaths(compiled)).call()) {
+                    throw new IllegalArgumentException("The generated classes do not compile against the classpath:"
+                        + errors(diagnostics));
+                }
+            }
+
+            List<URL> urls = new ArrayList<>();
+            urls.add(classes.toUri().toURL());
+            for (Path library : libraries) {
+                urls.add(library.toUri().toURL());
+            }
+            return new GeneratedCode(directory,
+                new URLClassLoader(urls.toArray(new URL[0]), ClassLoader.getPlatformClassLoader()));
+        } catch (TemplateException e) {
+            delete(directory);
+            throw new IllegalArgumentException("Could not generate the code of " + jsonDir + ": " + e.getMessage(), e);
+        } catch (IOException | RuntimeException e) {
+            delete(directory);
+            throw e;
+        }
+    }
+
+    ClassLoader getClassLoader() {
+        return classLoader;
+    }
+
+    /**
+     * A working directory that is deleted with the generated code, such as the blob store of claim checks.
+     */
+    Path getDirectory() {
+        return directory;
+    }
+
+    Class<?> load(final String className) {
+        try {
+            return Class.forName(className, true, classLoader);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException("Class " + className + " is neither generated nor on the classpath", e);
+        }
+    }
+
+    Class<?> dto(final String simpleName) {
+        return load("com.example.dto." + simpleName);
+    }
+
+    Class<?> support(final String simpleName) {
+        return load("com.example.support." + simpleName);
+    }
+
+    @Override
+    public void close() throws IOException {
+        classLoader.close();
+        delete(directory);
+    }
+
+    private static List<Path> libraries(final String classpath) throws IOException {
+        List<Path> libraries = new ArrayList<>();
+        for (String entry : classpath.split(File.pathSeparator)) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            if (entry.equals("*") || entry.endsWith(File.separator + "*")) {
+                Path jarDirectory = Paths.get(entry.substring(0, entry.length() - 1)).toAbsolutePath();
+                try (Stream<Path> jars = Files.list(jarDirectory)) {
+                    jars.filter(jar -> jar.toString().endsWith(".jar")).sorted().forEach(libraries::add);
+                }
+            } else {
+                libraries.add(Paths.get(entry).toAbsolutePath());
+            }
+        }
+        return libraries;
+    }
+
+    private static String packageOf(final Path source) {
+        try (Stream<String> lines = Files.lines(source, StandardCharsets.UTF_8)) {
+            return lines.map(String::trim)
+                .filter(line -> line.startsWith("package "))
+                .map(line -> line.substring("package ".length(), line.indexOf(';')).trim())
+                .findFirst()
+                .orElse("");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String errors(final DiagnosticCollector<JavaFileObject> diagnostics) {
+        return diagnostics.getDiagnostics().stream()
+            .filter(diagnostic -> diagnostic.getKind() == Diagnostic.Kind.ERROR)
+            .limit(MAX_REPORTED_ERRORS)
+            .map(diagnostic -> String.format("%n   %s:%d: %s",
+                diagnostic.getSource() != null ? Paths.get(diagnostic.getSource().toUri()).getFileName() : "",
+                diagnostic.getLineNumber(), diagnostic.getMessage(null)))
+            .collect(Collectors.joining());
+    }
+
+    private static void delete(final Path directory) throws IOException {
+        if (!Files.exists(directory)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).collect(Collectors.toList())) {
+                Files.delete(path);
+            }
+        }
+    }
+}
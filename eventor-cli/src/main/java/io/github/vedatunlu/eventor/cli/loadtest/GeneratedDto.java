@@ -0,0 +1,74 @@
+package io.github.vedatunlu.eventor.cli.loadtest;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A generated DTO class, instantiated with its public constructor and filled from synthetic events through its
+ * setters.
+ */
+final class GeneratedDto {
+
+    private final Class<?> type;
+    private final MethodHandle constructor;
+    private final Map<String, MethodHandle> setters = new LinkedHashMap<>();
+
+    GeneratedDto(final Class<?> type, final Iterable<String> fieldNames) throws ReflectiveOperationException {
+        this.type = type;
+        this.constructor = KafkaValues.LOOKUP.findConstructor(type, MethodType.methodType(void.class));
+        for (String fieldName : fieldNames) {
+            setters.put(fieldName, accessor(type, "set", fieldName, 1)
+                .asType(MethodType.methodType(void.class, Object.class, Object.class)));
+        }
+    }
+
+    Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * Creates an instance holding the values of a synthetic event; null values are left unset.
+     */
+    Object create(final Map<String, Object> event) {
+        try {
+            Object dto = constructor.invoke();
+            for (Map.Entry<String, Object> field : event.entrySet()) {
+                if (field.getValue() != null) {
+                    setters.get(field.getKey()).invokeExact(dto, field.getValue());
+                }
+            }
+            return dto;
+        } catch (Throwable e) {
+            throw KafkaValues.rethrow(e);
+        }
+    }
+
+    void set(final Object dto, final String fieldName, final Object value) {
+        try {
+            setters.get(fieldName).invokeExact(dto, value);
+        } catch (Throwable e) {
+            throw KafkaValues.rethrow(e);
+        }
+    }
+
+    /**
+     * The getter of a field of a generated class, typed (Object)Object.
+     */
+    static MethodHandle getter(final Class<?> type, final String fieldName) throws ReflectiveOperationException {
+        return accessor(type, "get", fieldName, 0).asType(MethodType.methodType(Object.class, Object.class));
+    }
+
+    private static MethodHandle accessor(final Class<?> type, final String prefix, final String fieldName,
+                                         final int parameters) throws ReflectiveOperationException {
+        String name = prefix + Character.toUpperCase(fieldName.charAt(0)) + fieldName.substring(1);
+        for (Method method : type.getMethods()) {
+            if (method.getName().equals(name) && method.getParameterCount() == parameters) {
+                return KafkaValues.LOOKUP.unreflect(method);
+            }
+        }
+        throw new NoSuchMethodException(type.getName() + "." + name);
+    }
+}
@@ -0,0 +1,185 @@
+package io.github.vedatunlu.eventor.cli.loadtest;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.Map;
+
+/**
+ * Kafka's value Serializer and Deserializer and its record headers, as loaded with the generated code and called
+ * through method handles: the CLI itself does not depend on kafka-clients or Spring Kafka.
+ */
+final class KafkaValues {
+
+    /**
+     * Spring Kafka's JSON serde, which generated Kafka configurations use for DTOs without a serde of their own.
+     */
+    static final String JSON_SERIALIZER = "org.springframework.kafka.support.serializer.JsonSerializer";
+
+    /**
+     * Deserializer of the JSON written by {@link #JSON_SERIALIZER}.
+     */
+    static final String JSON_DESERIALIZER = "org.springframework.kafka.support.serializer.JsonDeserializer";
+
+    /**
+     * Finds the public members of the classes loaded with the generated code, for every stage of the load test.
+     */
+    static final MethodHandles.Lookup LOOKUP = MethodHandles.publicLookup();
+
+    private final GeneratedCode code;
+    private final MethodHandle newHeaders;
+    private final MethodHandle lastHeader;
+    private final MethodHandle headerValue;
+    private final MethodHandle serialize;
+    private final MethodHandle deserialize;
+    private final MethodHandle configureSerializer;
+    private final MethodHandle configureDeserializer;
+
+    KafkaValues(final GeneratedCode code) throws ReflectiveOperationException {
+        this.code = code;
+        Class<?> headers = code.load("org.apache.kafka.common.header.Headers");
+        Class<?> header = code.load("org.apache.kafka.common.header.Header");
+        Class<?> serializer = code.load("org.apache.kafka.common.serialization.Serializer");
+        Class<?> deserializer = code.load("org.apache.kafka.common.serialization.Deserializer");
+        this.newHeaders = LOOKUP.findConstructor(code.load("org.apache.kafka.common.header.internals.RecordHeaders"),
+            MethodType.methodType(void.class));
+        this.lastHeader = LOOKUP.findVirtual(headers, "lastHeader", MethodType.methodType(header, String.class));
+        this.headerValue = LOOKUP.findVirtual(header, "value", MethodType.methodType(byte[].class));
+        // Typed for invokeExact on the hot path
+        this.serialize = LOOKUP.findVirtual(serializer, "serialize",
+                MethodType.methodType(byte[].class, String.class, headers, Object.class))
+            .asType(MethodType.methodType(byte[].class, Object.class, String.class, Object.class, Object.class));
+        this.deserialize = LOOKUP.findVirtual(deserializer, "deserialize",
+                MethodType.methodType(Object.class, String.class, headers, byte[].class))
+            .asType(MethodType.methodType(Object.class, Object.class, String.class, Object.class, byte[].class));
+        this.configureSerializer = LOOKUP.findVirtual(serializer, "configure",
+            MethodType.methodType(void.class, Map.class, boolean.class));
+        this.configureDeserializer = LOOKUP.findVirtual(deserializer, "configure",
+            MethodType.methodType(void.class, Map.class, boolean.class));
+    }
+
+    Object newHeaders() {
+        try {
+            return newHeaders.invoke();
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * The value of the last header with the given key, or null.
+     */
+    byte[] header(final Object headers, final String key) {
+        try {
+            Object header = lastHeader.invoke(headers, key);
+            return header != null ? (byte[]) headerValue.invoke(header) : null;
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+    }
+
+    /**
+     * Creates a value serializer and configures it the way the producer factory does.
+     */
+    Serializer serializer(final String className, final Map<String, Object> configs) {
+        Object serializer = newInstance(code.load(className));
+        try {
+            configureSerializer.invoke(serializer, configs, false);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+        return new Serializer(serializer);
+    }
+
+    /**
+     * Wraps a value serializer that was created reflectively, such as a ClaimCheckSerializer.
+     */
+    Serializer serializer(final Object serializer) {
+        return new Serializer(serializer);
+    }
+
+    /**
+     * Creates a value deserializer and configures it the way the consumer does with the listener's properties.
+     */
+    Deserializer deserializer(final String className, final Map<String, Object> configs) {
+        Object deserializer = newInstance(code.load(className));
+        try {
+            configureDeserializer.invoke(deserializer, configs, false);
+        } catch (Throwable e) {
+            throw rethrow(e);
+        }
+        return new Deserializer(deserializer);
+    }
+
+    static Object newInstance(final Class<?> type, final Object... arguments) {
+        for (Constructor<?> constructor : type.getConstructors()) {
+            if (constructor.getParameterCount() == arguments.length) {
+                try {
+                    return constructor.newInstance(arguments);
+                } catch (IllegalArgumentException e) {
+                    // Another constructor with as many parameters may take these arguments
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException("Could not create " + type.getName(), e);
+                }
+            }
+        }
+        throw new IllegalArgumentException("No public constructor of " + type.getName() + " takes "
+            + arguments.length + " argument(s)");
+    }
+
+    /**
+     * Converts a throwable of a method handle call into an unchecked exception.
+     */
+    static RuntimeException rethrow(final Throwable throwable) {
+        if (throwable instanceof RuntimeException) {
+            return (RuntimeException) throwable;
+        }
+        if (throwable instanceof Error) {
+            throw (Error) throwable;
+        }
+        return new IllegalStateException(throwable);
+    }
+
+    /**
+     * A Kafka Serializer of the generated code.
+     */
+    final class Serializer {
+        private final Object target;
+
+        private Serializer(final Object target) {
+            this.target = target;
+        }
+
+        Object getTarget() {
+            return target;
+        }
+
+        byte[] serialize(final String topic, final Object headers, final Object value) {
+            try {
+                return (byte[]) serialize.invokeExact(target, topic, headers, value);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+    }
+
+    /**
+     * A Kafka Deserializer of the generated code.
+     */
+    final class Deserializer {
+        private final Object target;
+
+        private Deserializer(final Object target) {
+            this.target = target;
+        }
+
+        Object deserialize(final String topic, final Object headers, final byte[] data) {
+            try {
+                return deserialize.invokeExact(target, topic, headers, data);
+            } catch (Throwable e) {
+                throw rethrow(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.vedatunlu.eventor.cli.loadtest;
+
+/**
+ * Log-linear histogram of nanosecond latencies: exact below 32 ns, then 16 buckets per power of two, so
+ * percentiles are within about 6% of the recorded values. Not thread-safe; each consumer thread keeps its own
+ * histogram and they are merged for the report.
+ */
+final class LatencyHistogram {
+
+    /**
+     * Values below this one get a bucket each.
+     */
+    private static final int LINEAR_BUCKETS = 32;
+
+    /**
+     * Buckets per power of two above the linear range.
+     */
+    private static final int SUB_BUCKETS = 16;
+
+    /**
+     * Powers of two above the linear range that a positive long can reach: bits 5 to 63.
+     */
+    private static final int LOG_RANGES = Long.SIZE - 5;
+
+    private final long[] counts = new long[LINEAR_BUCKETS + LOG_RANGES * SUB_BUCKETS];
+    private long total;
+    private long max;
+
+    void record(final long nanos) {
+        long value = Math.max(0, nanos);
+        counts[indexOf(value)]++;
+        total++;
+        max = Math.max(max, value);
+    }
+
+    void merge(final LatencyHistogram other) {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        total += other.total;
+        max = Math.max(max, other.max);
+    }
+
+    long getTotal() {
+        return total;
+    }
+
+    long getMax() {
+        return max;
+    }
+
+    /**
+     * Returns the latency below which the given fraction of the recorded values fall.
+     */
+    long percentile(final double fraction) {
+        if (total == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(fraction * total));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(max, upperBoundOf(i));
+            }
+        }
+        return max;
+    }
+
+    private static int indexOf(final long value) {
+        if (value < LINEAR_BUCKETS) {
+            return (int) value;
+        }
+        int highestBit = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        int shift = highestBit - 4;
+        return LINEAR_BUCKETS + (highestBit - 5) * SUB_BUCKETS + (int) ((value >> shift) - SUB_BUCKETS);
+    }
+
+    private static long upperBoundOf(final int index) {
+        if (index < LINEAR_BUCKETS) {
+            return index;
+        }
+        int highestBit = (index - LINEAR_BUCKETS) / SUB_BUCKETS + 5;
+        int subBucket = (index - LINEAR_BUCKETS) % SUB_BUCKETS;
+        int shift = highestBit - 4;
+        return ((long) (SUB_BUCKETS + subBucket + 1) << shift) - 1;
+    }
+}
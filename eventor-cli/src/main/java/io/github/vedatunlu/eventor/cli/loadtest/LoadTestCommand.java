@@ -0,0 +1,324 @@
+package io.github.vedatunlu.eventor.cli.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.vedatunlu.eventor.core.generator.DefinitionReader;
+import io.github.vedatunlu.eventor.core.model.ConsumerDefinition;
+import io.github.vedatunlu.eventor.core.model.DtoDefinition;
+import io.github.vedatunlu.eventor.core.model.ProducerDefinition;
+import io.github.vedatunlu.eventor.core.validation.DefinitionValidator;
+import io.github.vedatunlu.eventor.core.validation.ValidationError;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Option;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.stream.Collectors;
+
+/**
+ * Measures how many events per second each producer and its consumers sustain, without a Kafka cluster. The DTOs,
+ * serdes and support classes of the definitions are generated and compiled against the application's classpath;
+ * events synthesized from the DTO definitions are sent through the producer's backpressure, envelopes, claim checks
+ * and value serializer onto in-memory queues, and read back through each consumer method's deserializer, claim
+ * check and idempotency cache. Handlers and their dependency calls are not part of the measurement.
+ */
+@Command(
+    name = "loadtest",
+    mixinStandardHelpOptions = true,
+    description = "Measure throughput, latency, allocation and GC pauses of producer/consumer pipelines in memory"
+)
+public class LoadTestCommand implements Callable<Integer> {
+
+    /** Nanoseconds in a second. */
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    /** Nanoseconds in a microsecond. */
+    private static final double NANOS_PER_MICRO = 1e3;
+
+    /** Bytes in a megabyte, as used for rates. */
+    private static final double BYTES_PER_MB = 1e6;
+
+    /** Median latency. */
+    private static final double P50 = 0.5;
+
+    /** 90th percentile latency. */
+    private static final double P90 = 0.9;
+
+    /** 99th percentile latency. */
+    private static final double P99 = 0.99;
+
+    /** 99.9th percentile latency. */
+    private static final double P999 = 0.999;
+
+    @Option(
+        names = {"--jsonDir", "-j"},
+        description = "Directory containing JSON definition files",
+        required = true
+    )
+    private String jsonDir;
+
+    @Option(
+        names = {"--classpath", "-cp"},
+        description = "Classpath of the application, holding Kafka, Spring and Jackson; dir/* adds the jars of dir",
+        required = true
+    )
+    private String classpath;
+
+    @Option(
+        names = {"--producer", "-p"},
+        description = "Only test this producer (default: every producer with a consumer on its topic)"
+    )
+    private String producerName;
+
+    @Option(
+        names = {"--events", "-n"},
+        description = "Events sent per producer in the measured run (default: ${DEFAULT-VALUE})",
+        defaultValue = "1000000"
+    )
+    private int events;
+
+    @Option(
+        names = "--warmupEvents",
+        description = "Events sent per producer before measuring (default: ${DEFAULT-VALUE})",
+        defaultValue = "200000"
+    )
+    private int warmupEvents;
+
+    @Option(
+        names = "--rate",
+        description = "Events per second across all producer threads, 0 for unthrottled (default: ${DEFAULT-VALUE})",
+        defaultValue = "0"
+    )
+    private double rate;
+
+    @Option(
+        names = "--producerThreads",
+        description = "Threads sending events (default: ${DEFAULT-VALUE})",
+        defaultValue = "1"
+    )
+    private int producerThreads;
+
+    @Option(
+        names = "--consumerThreads",
+        description = "Threads receiving events per consumer method (default: ${DEFAULT-VALUE})",
+        defaultValue = "1"
+    )
+    private int consumerThreads;
+
+    @Option(
+        names = "--mix",
+        description = "Payload size mix as size:weight pairs of small, medium and large (default: ${DEFAULT-VALUE})",
+        defaultValue = "small:70,medium:25,large:5"
+    )
+    private String mix;
+
+    @Option(
+        names = "--queueCapacity",
+        description = "Capacity of the in-memory queue of each topic and group (default: ${DEFAULT-VALUE})",
+        defaultValue = "65536"
+    )
+    private int queueCapacity;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, DtoDefinition> dtos = new LinkedHashMap<>();
+    private final List<ProducerDefinition> producers = new ArrayList<>();
+    private final List<ConsumerDefinition> consumers = new ArrayList<>();
+
+    @Override
+    public Integer call() throws Exception {
+        if (events <= 0 || warmupEvents < 0 || rate < 0
+                || producerThreads <= 0 || consumerThreads <= 0 || queueCapacity <= 0) {
+            System.err.println("Event counts, rate, thread counts and queue capacity must be positive");
+            return 1;
+        }
+        PayloadMix payloadMix;
+        GeneratedCode code;
+        try {
+            payloadMix = PayloadMix.parse(mix);
+            readDefinitions(Paths.get(jsonDir));
+            code = GeneratedCode.compile(Paths.get(jsonDir), classpath);
+        } catch (IllegalArgumentException | IOException e) {
+            System.err.println("Error during load test setup: " + e.getMessage());
+            return 1;
+        }
+
+        // Spring Kafka's JSON type mapping resolves the DTOs with the context class loader
+        Thread thread = Thread.currentThread();
+        ClassLoader previousClassLoader = thread.getContextClassLoader();
+        thread.setContextClassLoader(code.getClassLoader());
+        List<LoadTestPipeline> pipelines = new ArrayList<>();
+        try (code) {
+            try {
+                loadPipelines(code, pipelines);
+            } catch (IllegalArgumentException | IllegalStateException | ReflectiveOperationException e) {
+                System.err.println("Error during load test setup: " + e.getMessage());
+                return 1;
+            }
+            if (pipelines.isEmpty()) {
+                System.err.println("No producer with a consumer on its topic found in " + jsonDir);
+                return 1;
+            }
+
+            System.out.println("Eventor Load Test");
+            System.out.println(String.format(
+                "Events: %,d after %,d warm-up, mix %s, %s, %d producer and %d consumer thread(s)",
+                events, warmupEvents, mix, rate > 0 ? String.format("%,.0f events/s", rate) : "unthrottled",
+                producerThreads, consumerThreads));
+            for (LoadTestPipeline pipeline : pipelines) {
+                if (warmupEvents > 0) {
+                    pipeline.run(warmupEvents, rate, payloadMix, producerThreads, consumerThreads, queueCapacity);
+                }
+                System.gc();
+                LoadTestPipeline.Result result;
+                try (GcMonitor gc = new GcMonitor()) {
+                    result = pipeline.run(events, rate, payloadMix, producerThreads, consumerThreads, queueCapacity);
+                    report(pipeline, result, gc);
+                }
+            }
+            return 0;
+        } finally {
+            pipelines.forEach(LoadTestPipeline::close);
+            thread.setContextClassLoader(previousClassLoader);
+        }
+    }
+
+    private void readDefinitions(final Path jsonPath) throws IOException {
+        if (!Files.isDirectory(jsonPath)) {
+            throw new IllegalArgumentException("JSON directory does not exist: " + jsonPath.toAbsolutePath());
+        }
+        List<Path> definitionFiles = DefinitionReader.definitionFiles(jsonPath);
+        List<ValidationError> errors = new DefinitionValidator(objectMapper).validate(definitionFiles);
+        if (!errors.isEmpty()) {
+            errors.forEach(error -> System.err.println("   " + error));
+            throw new IllegalArgumentException(errors.size() + " invalid definition(s)");
+        }
+
+        for (Path definitionFile : definitionFiles) {
+            try (DefinitionReader reader = new DefinitionReader(objectMapper, definitionFile)) {
+                for (JsonNode definition = reader.next(); definition != null; definition = reader.next()) {
+                    String type = definition.path("type").asText().toLowerCase();
+                    if ("dto".equals(type)) {
+                        DtoDefinition dto = objectMapper.treeToValue(definition, DtoDefinition.class);
+                        dtos.put(dto.getName(), dto);
+                    } else if ("producer".equals(type)) {
+                        producers.add(objectMapper.treeToValue(definition, ProducerDefinition.class));
+                    } else if ("consumer".equals(type)) {
+                        consumers.add(objectMapper.treeToValue(definition, ConsumerDefinition.class));
+                    }
+                }
+            }
+        }
+    }
+
+    private void loadPipelines(final GeneratedCode code, final List<LoadTestPipeline> pipelines)
+            throws ReflectiveOperationException {
+        KafkaValues kafka = new KafkaValues(code);
+        Object claimCheck = claimChecked() ? newClaimCheck(code) : null;
+        for (ProducerDefinition producer : producers) {
+            if (producerName != null && !producerName.equals(producer.getName())) {
+                continue;
+            }
+            DtoDefinition dto = dtos.get(producer.getDto());
+            if (dto == null) {
+                System.err.println("Skipping " + producer.getName() + ": DTO " + producer.getDto() + " is not defined");
+                continue;
+            }
+            String transport = producer.getTransport() != null ? producer.getTransport() : "kafka";
+            SyntheticEvents syntheticEvents = new SyntheticEvents(dto);
+            List<ConsumerStage> stages = new ArrayList<>();
+            List<String> idempotencyKeys = new ArrayList<>();
+            for (ConsumerDefinition consumer : consumers) {
+                for (ConsumerDefinition.ConsumerMethod method : consumer.getMethods()) {
+                    String methodTransport = method.getTransport() != null ? method.getTransport() : "kafka";
+                    if (producer.getTopic().equals(method.getTopic()) && producer.getDto().equals(method.getDto())
+                            && transport.equals(methodTransport)) {
+                        stages.add(new ConsumerStage(consumer, method, dto, transport, code, kafka, claimCheck));
+                        idempotencyKeys.add(method.getIdempotencyKey());
+                    }
+                }
+            }
+            if (stages.isEmpty()) {
+                if (producerName != null) {
+                    System.err.println(
+                        "Skipping " + producer.getName() + ": no consumer method reads " + producer.getTopic());
+                }
+                continue;
+            }
+            LoadTestPipeline pipeline = new LoadTestPipeline(producer.getName(), producer.getTopic(), syntheticEvents,
+                new GeneratedDto(code.dto(dto.getName()), dto.getFields().keySet()),
+                new ProducerStage(producer, dto, transport, code, kafka, claimCheck));
+            pipelines.add(pipeline);
+            for (int i = 0; i < stages.size(); i++) {
+                pipeline.addConsumer(stages.get(i), idempotencyKeys.get(i));
+            }
+        }
+    }
+
+    private boolean claimChecked() {
+        return producers.stream().anyMatch(producer -> producer.getClaimCheck() != null)
+            || consumers.stream().flatMap(consumer -> consumer.getMethods().stream())
+                .anyMatch(method -> method.getClaimCheck() != null);
+    }
+
+    /**
+     * The ClaimCheck shared by producers and consumers, with the generated default blob store in the working
+     * directory of the generated code.
+     */
+    private static Object newClaimCheck(final GeneratedCode code) throws ReflectiveOperationException {
+        Object beanFactory = KafkaValues.newInstance(
+            code.load("org.springframework.beans.factory.support.DefaultListableBeanFactory"));
+        Object blobStores = beanFactory.getClass().getMethod("getBeanProvider", Class.class)
+            .invoke(beanFactory, code.support("BlobStore"));
+        return KafkaValues.newInstance(code.support("ClaimCheck"), blobStores,
+            code.getDirectory().resolve("claim-check").toString());
+    }
+
+    private static void report(final LoadTestPipeline pipeline, final LoadTestPipeline.Result result,
+                               final GcMonitor gc) {
+        double seconds = result.getElapsedNanos() / NANOS_PER_SECOND;
+        System.out.println();
+        System.out.println(String.format("%s -> %s (%s, %s)", pipeline.getProducerName(),
+            pipeline.getGroups().stream().map(LoadTestPipeline.Group::getName).collect(Collectors.joining(", ")),
+            pipeline.getTopic(), pipeline.getProducer().getDescription()));
+        System.out.println(String.format("  throughput   %,.0f events/s (%,d events in %.2f s)",
+            result.getEvents() / seconds, result.getEvents(), seconds));
+        if (result.getPayloadBytes() > 0) {
+            System.out.println(String.format("  payload      %.0f bytes/event, %.1f MB/s",
+                (double) result.getPayloadBytes() / result.getEvents(),
+                result.getPayloadBytes() / seconds / BYTES_PER_MB));
+        }
+        long deliveries = (long) result.getEvents() * pipeline.getGroups().size();
+        System.out.println(String.format("  allocation   %.0f bytes/delivery, %.1f MB/s",
+            (double) result.getAllocatedBytes() / deliveries, result.getAllocatedBytes() / seconds / BYTES_PER_MB));
+        System.out.println(String.format("  gc pauses    %d, %d ms total, %d ms max",
+            gc.getPauses(), gc.getTotalMillis(), gc.getMaxMillis()));
+        if (result.getClaimChecks() >= 0) {
+            System.out.println(String.format("  claim checks %,d payloads offloaded", result.getClaimChecks()));
+        }
+        if (result.getBackpressureWaits() >= 0) {
+            System.out.println(String.format("  backpressure %,d sends held back", result.getBackpressureWaits()));
+        }
+        for (LoadTestPipeline.Group group : pipeline.getGroups()) {
+            LatencyHistogram latency = group.getHistogram();
+            System.out.println(String.format("  latency      %s [%s]: p50 %s  p90 %s  p99 %s  p99.9 %s  max %s",
+                group.getName(), group.getStage().getDescription(), micros(latency.percentile(P50)),
+                micros(latency.percentile(P90)), micros(latency.percentile(P99)),
+                micros(latency.percentile(P999)), micros(latency.getMax())));
+            if (group.getDuplicates() >= 0) {
+                System.out.println(String.format("  duplicates   %s: %,d skipped by the idempotency cache",
+                    group.getName(), group.getDuplicates()));
+            }
+        }
+    }
+
+    private static String micros(final long nanos) {
+        return String.format("%.1f us", nanos / NANOS_PER_MICRO);
+    }
+}
@@ -0,0 +1,315 @@
+package io.github.vedatunlu.eventor.cli.loadtest;
+
+import io.github.vedatunlu.eventor.core.model.FieldType;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * One producer and the consumer methods reading its topic, connected by bounded in-memory queues that stand in
+ * for the broker. Producer threads fill instances of the generated DTO from synthetic events and send them through
+ * the producer's stage, which offers each record to every consumer group; consumer threads read them through their
+ * method's stage and record the latency since the send.
+ */
+final class LoadTestPipeline implements AutoCloseable {
+
+    /**
+     * Distinct synthetic events per payload size; producers cycle through them.
+     */
+    private static final int TEMPLATES_PER_SIZE = 256;
+
+    /**
+     * How long a consumer thread waits on an empty queue before checking whether the run is over.
+     */
+    private static final long POLL_MILLIS = 10;
+
+    /**
+     * Seed of the synthetic events, so every run sends the same payloads.
+     */
+    private static final long SEED = 42;
+
+    /** Nanoseconds in a second. */
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    private final String producerName;
+    private final String topic;
+    private final SyntheticEvents events;
+    private final GeneratedDto dto;
+    private final ProducerStage producer;
+    private final List<Group> groups = new ArrayList<>();
+
+    // Fields consumers use as idempotency keys, given a value unique to each sent event
+    private final Map<String, FieldType> uniqueFields = new LinkedHashMap<>();
+    // Continues across runs, so the measured run does not resend the keys of the warm-up
+    private final AtomicLong sequence = new AtomicLong();
+
+    private volatile LongAdder payloadBytes = new LongAdder();
+
+    LoadTestPipeline(final String producerName, final String topic, final SyntheticEvents events,
+                     final GeneratedDto dto, final ProducerStage producer) {
+        this.producerName = producerName;
+        this.topic = topic;
+        this.events = events;
+        this.dto = dto;
+        this.producer = producer;
+        producer.connect(this::publish);
+    }
+
+    /**
+     * Adds a consumer method reading the producer's topic.
+     * @param idempotencyKey the field the method's idempotency cache is keyed by, or null
+     */
+    void addConsumer(final ConsumerStage stage, final String idempotencyKey) {
+        groups.add(new Group(stage));
+        FieldType keyType = idempotencyKey != null ? events.getFieldTypes().get(idempotencyKey) : null;
+        if (SyntheticEvents.unique(keyType, 0) != null) {
+            uniqueFields.put(idempotencyKey, keyType);
+        }
+    }
+
+    String getProducerName() {
+        return producerName;
+    }
+
+    String getTopic() {
+        return topic;
+    }
+
+    ProducerStage getProducer() {
+        return producer;
+    }
+
+    boolean hasConsumers() {
+        return !groups.isEmpty();
+    }
+
+    List<Group> getGroups() {
+        return groups;
+    }
+
+    /**
+     * Sends eventCount events and waits until every consumer group received them.
+     * With a positive rate the producers are paced to that many events per second in total, and latency is
+     * measured from the time each event was scheduled, so a stalled consumer is not hidden by a stalled producer.
+     */
+    Result run(final int eventCount, final double rate, final PayloadMix mix, final int producerThreads,
+               final int consumerThreads, final int queueCapacity) throws InterruptedException {
+        Map<PayloadMix.Size, List<Map<String, Object>>> templates = new EnumMap<>(PayloadMix.Size.class);
+        SplittableRandom seed = new SplittableRandom(SEED);
+        for (PayloadMix.Size size : mix.getSizes()) {
+            List<Map<String, Object>> sized = new ArrayList<>(TEMPLATES_PER_SIZE);
+            for (int i = 0; i < TEMPLATES_PER_SIZE; i++) {
+                sized.add(events.create(size, seed));
+            }
+            templates.put(size, sized);
+        }
+
+        LongAdder allocatedBytes = new LongAdder();
+        payloadBytes = new LongAdder();
+        List<Thread> workers = new ArrayList<>();
+        List<LatencyHistogram> histograms = new ArrayList<>();
+        for (Group group : groups) {
+            group.queue = new ArrayBlockingQueue<>(queueCapacity);
+            group.remaining = new AtomicLong(eventCount);
+            group.histogram = new LatencyHistogram();
+            group.duplicatesBefore = group.stage.getDuplicates();
+            for (int i = 0; i < consumerThreads; i++) {
+                LatencyHistogram histogram = new LatencyHistogram();
+                histograms.add(histogram);
+                workers.add(worker("eventor-loadtest-" + group.getName() + "-" + i, allocatedBytes,
+                    () -> consume(group, histogram)));
+            }
+        }
+        long intervalNanos = rate > 0 ? (long) (NANOS_PER_SECOND * producerThreads / rate) : 0;
+        for (int i = 0; i < producerThreads; i++) {
+            int count = eventCount / producerThreads + (i < eventCount % producerThreads ? 1 : 0);
+            SplittableRandom random = seed.split();
+            long firstSequence = sequence.getAndAdd(count);
+            workers.add(worker("eventor-loadtest-" + producerName + "-" + i, allocatedBytes,
+                () -> produce(count, firstSequence, intervalNanos, mix, templates, random)));
+        }
+
+        long claimChecksBefore = producer.getClaimChecks();
+        long waitsBefore = producer.getBackpressureWaits();
+        long start = System.nanoTime();
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        long elapsedNanos = System.nanoTime() - start;
+
+        int consumerIndex = 0;
+        for (Group group : groups) {
+            for (int i = 0; i < consumerThreads; i++) {
+                group.histogram.merge(histograms.get(consumerIndex++));
+            }
+        }
+        Result result = new Result(eventCount, elapsedNanos, allocatedBytes.sum(), payloadBytes.sum());
+        result.claimChecks = claimChecksBefore >= 0 ? producer.getClaimChecks() - claimChecksBefore : -1;
+        result.backpressureWaits = waitsBefore >= 0 ? producer.getBackpressureWaits() - waitsBefore : -1;
+        return result;
+    }
+
+    @Override
+    public void close() {
+        producer.close();
+    }
+
+    private void produce(final int count, final long firstSequence, final long intervalNanos, final PayloadMix mix,
+                         final Map<PayloadMix.Size, List<Map<String, Object>>> templates,
+                         final SplittableRandom random) throws InterruptedException {
+        long scheduledNanos = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            List<Map<String, Object>> sized = templates.get(mix.pick(random));
+            Map<String, Object> event = sized.get(random.nextInt(sized.size()));
+            long sentNanos;
+            if (intervalNanos > 0) {
+                scheduledNanos += intervalNanos;
+                long waitNanos = scheduledNanos - System.nanoTime();
+                if (waitNanos > 0) {
+                    LockSupport.parkNanos(waitNanos);
+                }
+                sentNanos = scheduledNanos;
+            } else {
+                sentNanos = System.nanoTime();
+            }
+            Object instance = dto.create(event);
+            for (Map.Entry<String, FieldType> field : uniqueFields.entrySet()) {
+                dto.set(instance, field.getKey(), SyntheticEvents.unique(field.getValue(), firstSequence + i));
+            }
+            producer.send(instance, sentNanos);
+        }
+    }
+
+    /**
+     * Offers a record to every consumer group, blocking while a group's queue is full.
+     */
+    private void publish(final Message message) throws InterruptedException {
+        payloadBytes.add(message.size());
+        for (Group group : groups) {
+            group.queue.put(message);
+        }
+    }
+
+    private static void consume(final Group group, final LatencyHistogram histogram) throws InterruptedException {
+        while (group.remaining.get() > 0) {
+            Message message = group.queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            if (message == null) {
+                continue;
+            }
+            group.remaining.addAndGet(-group.stage.receive(message, histogram));
+        }
+    }
+
+    private static Thread worker(final String name, final LongAdder allocatedBytes, final Task task) {
+        Thread thread = new Thread(() -> {
+            com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+            long before = threads.getCurrentThreadAllocatedBytes();
+            try {
+                task.run();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                allocatedBytes.add(threads.getCurrentThreadAllocatedBytes() - before);
+            }
+        }, name);
+        thread.setDaemon(true);
+        return thread;
+    }
+
+    @FunctionalInterface
+    private interface Task {
+        void run() throws InterruptedException;
+    }
+
+    static final class Group {
+        private final ConsumerStage stage;
+        private BlockingQueue<Message> queue;
+        private AtomicLong remaining;
+        private LatencyHistogram histogram;
+        private long duplicatesBefore;
+
+        private Group(final ConsumerStage stage) {
+            this.stage = stage;
+        }
+
+        String getName() {
+            return stage.getName();
+        }
+
+        ConsumerStage getStage() {
+            return stage;
+        }
+
+        LatencyHistogram getHistogram() {
+            return histogram;
+        }
+
+        /**
+         * Events of the last run the group's idempotency cache skipped as duplicates, or -1 without one.
+         */
+        long getDuplicates() {
+            return duplicatesBefore >= 0 ? stage.getDuplicates() - duplicatesBefore : -1;
+        }
+    }
+
+    static final class Result {
+        private final int events;
+        private final long elapsedNanos;
+        private final long allocatedBytes;
+        private final long payloadBytes;
+        private long claimChecks;
+        private long backpressureWaits;
+
+        private Result(final int events, final long elapsedNanos, final long allocatedBytes, final long payloadBytes) {
+            this.events = events;
+            this.elapsedNanos = elapsedNanos;
+            this.allocatedBytes = allocatedBytes;
+            this.payloadBytes = payloadBytes;
+        }
+
+        int getEvents() {
+            return events;
+        }
+
+        long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        long getAllocatedBytes() {
+            return allocatedBytes;
+        }
+
+        long getPayloadBytes() {
+            return payloadBytes;
+        }
+
+        /**
+         * Payloads offloaded to the blob store, or -1 when the producer declares no claim checks.
+         */
+        long getClaimChecks() {
+            return claimChecks;
+        }
+
+        /**
+         * Sends held back by the producer's backpressure, or -1 when it declares none.
+         */
+        long getBackpressureWaits() {
+            return backpressureWaits;
+        }
+    }
+}
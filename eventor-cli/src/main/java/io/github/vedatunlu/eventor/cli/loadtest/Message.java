@@ -0,0 +1,55 @@
+package io.github.vedatunlu.eventor.cli.loadtest;
+
+/**
+ * A record on the in-memory stand-in of a topic: a Kafka value with its headers, a frame of the binary codec, or an
+ * event handed over in process.
+ */
+final class Message {
+    private final long sentNanos;
+    private final long[] envelopeSentNanos;
+    private final byte[] value;
+    private final Object headers;
+    private final Object event;
+
+    Message(final long sentNanos, final long[] envelopeSentNanos, final byte[] value, final Object headers,
+            final Object event) {
+        this.sentNanos = sentNanos;
+        this.envelopeSentNanos = envelopeSentNanos;
+        this.value = value;
+        this.headers = headers;
+        this.event = event;
+    }
+
+    /**
+     * When the event was sent, or the first event of an envelope.
+     */
+    long getSentNanos() {
+        return sentNanos;
+    }
+
+    /**
+     * When each event of an envelope was sent, in envelope order; null for a single event.
+     */
+    long[] getEnvelopeSentNanos() {
+        return envelopeSentNanos;
+    }
+
+    byte[] getValue() {
+        return value;
+    }
+
+    Object getHeaders() {
+        return headers;
+    }
+
+    Object getEvent() {
+        return event;
+    }
+
+    /**
+     * Size of the value in bytes, or 0 when the event is handed over without encoding.
+     */
+    int size() {
+        return value != null ? value.length : 0;
+    }
+}
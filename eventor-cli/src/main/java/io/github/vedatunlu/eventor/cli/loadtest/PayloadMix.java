@@ -0,0 +1,81 @@
+package io.github.vedatunlu.eventor.cli.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * Weighted mix of payload sizes, parsed from a spec such as {@code small:70,medium:25,large:5}.
+ */
+final class PayloadMix {
+
+    enum Size {
+        /** Short strings and single-element collections. */
+        SMALL(8, 1),
+        /** Medium strings and a few collection elements. */
+        MEDIUM(32, 8),
+        /** Long strings and large collections. */
+        LARGE(256, 64);
+
+        private final int stringLength;
+        private final int collectionSize;
+
+        Size(final int stringLength, final int collectionSize) {
+            this.stringLength = stringLength;
+            this.collectionSize = collectionSize;
+        }
+
+        int getStringLength() {
+            return stringLength;
+        }
+
+        int getCollectionSize() {
+            return collectionSize;
+        }
+    }
+
+    private final List<Size> sizes = new ArrayList<>();
+    private final List<Integer> cumulativeWeights = new ArrayList<>();
+    private final int totalWeight;
+
+    private PayloadMix(final String spec) {
+        int total = 0;
+        for (String part : spec.split(",")) {
+            String[] entry = part.trim().split(":");
+            Size size;
+            try {
+                size = Size.valueOf(entry[0].trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException(String.format(
+                    "Unknown payload size '%s' in mix '%s'; expected small, medium or large", entry[0].trim(), spec));
+            }
+            int weight = entry.length > 1 ? Integer.parseInt(entry[1].trim()) : 1;
+            if (weight <= 0) {
+                throw new IllegalArgumentException("Payload weights must be positive in mix '" + spec + "'");
+            }
+            total += weight;
+            sizes.add(size);
+            cumulativeWeights.add(total);
+        }
+        this.totalWeight = total;
+    }
+
+    static PayloadMix parse(final String spec) {
+        return new PayloadMix(spec);
+    }
+
+    List<Size> getSizes() {
+        return sizes;
+    }
+
+    Size pick(final SplittableRandom random) {
+        int ticket = random.nextInt(totalWeight);
+        for (int i = 0; i < sizes.size(); i++) {
+            if (ticket < cumulativeWeights.get(i)) {
+                return sizes.get(i);
+            }
+        }
+        return sizes.get(sizes.size() - 1);
+    }
+}
@@ -0,0 +1,298 @@
+package io.github.vedatunlu.eventor.cli.loadtest;
+
+import io.github.vedatunlu.eventor.core.model.DtoDefinition;
+import io.github.vedatunlu.eventor.core.model.ProducerDefinition;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * The send path of a generated producer, run with the generated classes: an event is admitted by the producer's
+ * ProducerBackpressure, batched into the DTO's envelope by its EnvelopeCoalescer, and written by the value serializer
+ * its generated Kafka configuration uses, wrapped in the ClaimCheckSerializer when it declares claim checks. Mmap
+ * producers write the DTO's binary codec and in-process producers hand the instance over.
+ */
+final class ProducerStage implements AutoCloseable {
+
+    /**
+     * Largest payload the generated producer sends inline when its claimCheck sets no thresholdBytes.
+     */
+    private static final int DEFAULT_CLAIM_CHECK_THRESHOLD = 262144;
+
+    /**
+     * Events per envelope of the generated producer when its envelope sets no maxEvents.
+     */
+    private static final int DEFAULT_ENVELOPE_EVENTS = 100;
+
+    /**
+     * Delay of an envelope of the generated producer when its envelope sets no maxDelayMs.
+     */
+    private static final long DEFAULT_ENVELOPE_DELAY_MS = 10;
+
+    /**
+     * Initial buffer size of an event written with the binary codec; larger events grow it.
+     */
+    private static final int INITIAL_BUFFER_SIZE = 256;
+
+    private final String topic;
+    private final String description;
+    private final KafkaValues kafka;
+    private final KafkaValues.Serializer serializer;
+    private final Object backpressure;
+    private final MethodHandle acquire;
+    private final MethodHandle release;
+    private final MethodHandle waitCount;
+    private final Object claimCheck;
+    private final MethodHandle offloaded;
+    private final Object coalescer;
+    private final MethodHandle add;
+    private final MethodHandle newEnvelope;
+    private final MethodHandle writeTo;
+
+    // Send times of the events waiting in the coalescer, by identity: the sink only gets the events
+    private final Map<Object, Long> envelopeSentNanos = new IdentityHashMap<>();
+
+    private volatile Publisher publisher;
+
+    ProducerStage(final ProducerDefinition producer, final DtoDefinition dto, final String transport,
+                  final GeneratedCode code, final KafkaValues kafka, final Object claimCheck)
+            throws ReflectiveOperationException {
+        this.topic = producer.getTopic();
+        this.kafka = kafka;
+        List<String> features = new ArrayList<>();
+
+        if (producer.getMaxInFlight() != null || producer.getMaxRatePerSecond() != null) {
+            Class<?> type = code.support("ProducerBackpressure");
+            int maxInFlight = producer.getMaxInFlight() != null ? producer.getMaxInFlight() : 0;
+            double maxRate = producer.getMaxRatePerSecond() != null ? producer.getMaxRatePerSecond() : 0;
+            this.backpressure = KafkaValues.newInstance(type, maxInFlight, maxRate);
+            this.acquire = KafkaValues.LOOKUP.findVirtual(type, "acquire", MethodType.methodType(void.class));
+            this.release = KafkaValues.LOOKUP.findVirtual(type, "release", MethodType.methodType(void.class));
+            this.waitCount = KafkaValues.LOOKUP.findVirtual(type, "getWaitCount", MethodType.methodType(long.class));
+            features.add("backpressure " + (maxInFlight > 0 ? maxInFlight + " in flight" : "")
+                + (maxInFlight > 0 && maxRate > 0 ? ", " : "") + (maxRate > 0 ? String.format("%.0f/s", maxRate) : ""));
+        } else {
+            this.backpressure = null;
+            this.acquire = null;
+            this.release = null;
+            this.waitCount = null;
+        }
+
+        if ("kafka".equals(transport) && producer.getEnvelope() != null) {
+            Class<?> envelope = code.dto(dto.getName() + "Envelope");
+            Class<?> coalescerType = code.support("EnvelopeCoalescer");
+            Class<?> sinkType = code.support("EnvelopeCoalescer$Sink");
+            int maxEvents = producer.getEnvelope().getMaxEvents() != null
+                ? producer.getEnvelope().getMaxEvents() : DEFAULT_ENVELOPE_EVENTS;
+            long maxDelayMs = producer.getEnvelope().getMaxDelayMs() != null
+                ? producer.getEnvelope().getMaxDelayMs() : DEFAULT_ENVELOPE_DELAY_MS;
+            this.newEnvelope = KafkaValues.LOOKUP.findConstructor(envelope,
+                MethodType.methodType(void.class, List.class));
+            this.coalescer = KafkaValues.newInstance(coalescerType, producer.getName(), maxEvents, maxDelayMs,
+                Proxy.newProxyInstance(code.getClassLoader(), new Class<?>[] {sinkType},
+                    (proxy, method, arguments) -> sink(proxy, method, arguments)));
+            this.add = KafkaValues.LOOKUP.findVirtual(coalescerType, "add",
+                MethodType.methodType(CompletableFuture.class, String.class, Object.class));
+            features.add(String.format("envelopes of %d or %d ms", maxEvents, maxDelayMs));
+        } else {
+            this.newEnvelope = null;
+            this.coalescer = null;
+            this.add = null;
+        }
+
+        if ("kafka".equals(transport) && producer.getClaimCheck() != null) {
+            this.claimCheck = claimCheck;
+            this.offloaded = KafkaValues.LOOKUP.findVirtual(code.support("ClaimCheck"), "getOffloaded",
+                MethodType.methodType(long.class));
+        } else {
+            this.claimCheck = null;
+            this.offloaded = null;
+        }
+
+        if ("kafka".equals(transport)) {
+            String valueSerde = dto.getValueSerde();
+            KafkaValues.Serializer values = kafka.serializer(
+                valueSerde != null ? "com.example.dto." + valueSerde + "$Serializer" : KafkaValues.JSON_SERIALIZER,
+                Map.of());
+            if (producer.getClaimCheck() != null) {
+                int threshold = producer.getClaimCheck().getThresholdBytes() != null
+                    ? producer.getClaimCheck().getThresholdBytes() : DEFAULT_CLAIM_CHECK_THRESHOLD;
+                values = kafka.serializer(KafkaValues.newInstance(code.support("ClaimCheckSerializer"),
+                    claimCheck, values.getTarget(), threshold));
+                features.add(0, "claim checks over " + threshold + " bytes");
+            }
+            features.add(0, valueSerde != null ? valueSerde : "json");
+            this.serializer = values;
+            this.writeTo = null;
+        } else if ("mmap".equals(transport)) {
+            this.serializer = null;
+            this.writeTo = KafkaValues.LOOKUP.findVirtual(code.dto(dto.getName()), "writeTo",
+                MethodType.methodType(void.class, DataOutput.class));
+            features.add(0, "binary codec");
+        } else {
+            this.serializer = null;
+            this.writeTo = null;
+            features.add(0, "object hand-off");
+        }
+        this.description = String.join(", ", features);
+    }
+
+    String getDescription() {
+        return description;
+    }
+
+    /**
+     * Payloads offloaded to the blob store so far, or -1 when the producer declares no claim checks.
+     */
+    long getClaimChecks() {
+        if (claimCheck == null) {
+            return -1;
+        }
+        try {
+            return (long) offloaded.invoke(claimCheck);
+        } catch (Throwable e) {
+            throw KafkaValues.rethrow(e);
+        }
+    }
+
+    /**
+     * Sends the backpressure held back so far, or -1 when the producer declares no backpressure.
+     */
+    long getBackpressureWaits() {
+        if (backpressure == null) {
+            return -1;
+        }
+        try {
+            return (long) waitCount.invoke(backpressure);
+        } catch (Throwable e) {
+            throw KafkaValues.rethrow(e);
+        }
+    }
+
+    /**
+     * Sets where encoded events go: the in-memory stand-in of the topic.
+     */
+    void connect(final Publisher target) {
+        this.publisher = target;
+    }
+
+    /**
+     * Sends an event the way the generated producer's send method does, blocking while backpressure holds it back.
+     */
+    void send(final Object event, final long sentNanos) throws InterruptedException {
+        if (backpressure != null) {
+            call(acquire, backpressure);
+        }
+        if (coalescer != null) {
+            synchronized (envelopeSentNanos) {
+                envelopeSentNanos.put(event, sentNanos);
+            }
+            CompletableFuture<?> added;
+            try {
+                added = (CompletableFuture<?>) add.invoke(coalescer, (String) null, event);
+            } catch (Throwable e) {
+                throw KafkaValues.rethrow(e);
+            }
+            if (backpressure != null) {
+                added.whenComplete((result, failure) -> call(release, backpressure));
+            }
+            return;
+        }
+        try {
+            publisher.publish(encode(event, sentNanos));
+        } finally {
+            if (backpressure != null) {
+                call(release, backpressure);
+            }
+        }
+    }
+
+    /**
+     * Hands over the events still waiting in the coalescer.
+     */
+    @Override
+    public void close() {
+        if (coalescer != null) {
+            try {
+                ((AutoCloseable) coalescer).close();
+            } catch (Exception e) {
+                throw KafkaValues.rethrow(e);
+            }
+        }
+    }
+
+    private Message encode(final Object event, final long sentNanos) {
+        if (serializer != null) {
+            Object headers = kafka.newHeaders();
+            return new Message(sentNanos, null, serializer.serialize(topic, headers, event), headers, null);
+        }
+        if (writeTo != null) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(INITIAL_BUFFER_SIZE);
+            try {
+                writeTo.invoke(event, (DataOutput) new DataOutputStream(bytes));
+            } catch (Throwable e) {
+                throw KafkaValues.rethrow(e);
+            }
+            return new Message(sentNanos, null, bytes.toByteArray(), null, null);
+        }
+        return new Message(sentNanos, null, null, null, event);
+    }
+
+    /**
+     * The EnvelopeCoalescer.Sink of the producer: wraps a batch in the DTO's envelope and writes it like any event.
+     */
+    private Object sink(final Object proxy, final Method method, final Object[] arguments) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == arguments[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return "EnvelopeSink[" + topic + "]";
+            }
+        }
+        List<?> events = (List<?>) arguments[1];
+        long[] sentNanos = new long[events.size()];
+        synchronized (envelopeSentNanos) {
+            for (int i = 0; i < sentNanos.length; i++) {
+                sentNanos[i] = envelopeSentNanos.remove(events.get(i));
+            }
+        }
+        Object headers = kafka.newHeaders();
+        byte[] value = serializer.serialize(topic, headers, newEnvelope.invoke(events));
+        try {
+            publisher.publish(new Message(sentNanos[0], sentNanos, value, headers, null));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(e);
+        }
+        return CompletableFuture.completedFuture(null);
+    }
+
+    private static void call(final MethodHandle handle, final Object target) {
+        try {
+            handle.invoke(target);
+        } catch (Throwable e) {
+            throw KafkaValues.rethrow(e);
+        }
+    }
+
+    /**
+     * The topic stand-in encoded events are published to.
+     */
+    @FunctionalInterface
+    interface Publisher {
+        void publish(Message message) throws InterruptedException;
+    }
+}
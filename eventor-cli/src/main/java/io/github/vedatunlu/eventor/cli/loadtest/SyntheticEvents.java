@@ -0,0 +1,146 @@
+package io.github.vedatunlu.eventor.cli.loadtest;
+
+import io.github.vedatunlu.eventor.core.model.DtoDefinition;
+import io.github.vedatunlu.eventor.core.model.FieldType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Builds valid event instances of a DTO definition from its declared field types. An event is a map from field
+ * name to a value of the type the generated DTO would hold; fields of custom types stay null.
+ */
+final class SyntheticEvents {
+
+    /**
+     * Characters of generated strings.
+     */
+    private static final char[] ALPHABET =
+        "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789".toCharArray();
+
+    /**
+     * Upper bound of the unscaled value of generated decimals, which have two decimal places.
+     */
+    private static final long MAX_UNSCALED_DECIMAL = 1_000_000_000L;
+
+    /**
+     * Start of the range of generated timestamps.
+     */
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    /**
+     * Length of the range of generated timestamps: one year after {@link #EPOCH}.
+     */
+    private static final int SECONDS_PER_YEAR = 31_536_000;
+
+    /**
+     * Most significant bits of unique UUIDs.
+     */
+    private static final long SEED_BITS = 0x4576656e746f72L;
+
+    private final DtoDefinition dto;
+    private final Map<String, FieldType> fieldTypes = new LinkedHashMap<>();
+
+    SyntheticEvents(final DtoDefinition dto) {
+        this.dto = dto;
+        dto.getFields().forEach((fieldName, declaredType) ->
+            fieldTypes.put(fieldName, FieldType.of(declaredType).orElse(null)));
+    }
+
+    DtoDefinition getDto() {
+        return dto;
+    }
+
+    /**
+     * Field types in declaration order; null for custom types.
+     */
+    Map<String, FieldType> getFieldTypes() {
+        return fieldTypes;
+    }
+
+    Map<String, Object> create(final PayloadMix.Size size, final SplittableRandom random) {
+        Map<String, Object> event = new LinkedHashMap<>();
+        fieldTypes.forEach((fieldName, fieldType) -> event.put(fieldName, value(fieldType, size, random)));
+        return event;
+    }
+
+    /**
+     * A value of the field type that is unique to the sequence number, for fields consumers use as idempotency keys;
+     * null for types that cannot hold one, which keep their synthetic value.
+     */
+    static Object unique(final FieldType fieldType, final long sequence) {
+        if (fieldType == null) {
+            return null;
+        }
+        switch (fieldType) {
+            case STRING:
+                return "event-" + sequence;
+            case UUID:
+                return new UUID(SEED_BITS, sequence);
+            case LONG:
+                return sequence;
+            case INTEGER:
+                return (int) sequence;
+            default:
+                return null;
+        }
+    }
+
+    private static Object value(final FieldType fieldType, final PayloadMix.Size size, final SplittableRandom random) {
+        if (fieldType == null) {
+            return null;
+        }
+        switch (fieldType) {
+            case STRING:
+                return string(size.getStringLength(), random);
+            case UUID:
+                return new UUID(random.nextLong(), random.nextLong());
+            case BIG_DECIMAL:
+                return BigDecimal.valueOf(random.nextLong(MAX_UNSCALED_DECIMAL), 2);
+            case LOCAL_DATE_TIME:
+                return EPOCH.plusSeconds(random.nextInt(SECONDS_PER_YEAR));
+            case INTEGER:
+                return random.nextInt();
+            case LONG:
+                return random.nextLong();
+            case DOUBLE:
+                return random.nextDouble();
+            case BOOLEAN:
+                return random.nextBoolean();
+            case STRING_LIST:
+                List<String> strings = new ArrayList<>(size.getCollectionSize());
+                for (int i = 0; i < size.getCollectionSize(); i++) {
+                    strings.add(string(size.getStringLength(), random));
+                }
+                return strings;
+            case UUID_LIST:
+                List<UUID> uuids = new ArrayList<>(size.getCollectionSize());
+                for (int i = 0; i < size.getCollectionSize(); i++) {
+                    uuids.add(new UUID(random.nextLong(), random.nextLong()));
+                }
+                return uuids;
+            case STRING_MAP:
+                Map<String, String> map = new LinkedHashMap<>();
+                for (int i = 0; i < size.getCollectionSize(); i++) {
+                    map.put("key" + i, string(size.getStringLength(), random));
+                }
+                return map;
+            default:
+                throw new IllegalStateException("Unhandled field type " + fieldType);
+        }
+    }
+
+    private static String string(final int length, final SplittableRandom random) {
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++) {
+            chars[i] = ALPHABET[random.nextInt(ALPHABET.length)];
+        }
+        return new String(chars);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.consumer;
+
+import com.example.dto.OrderPlacedEvent;
+import com.example.service.OrderService;
+import com.example.support.ClaimCheck;
+import com.example.support.DeadLetterHandler;
+import com.example.support.InProcessEventBus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.annotation.RetryableTopicAnnotationProcessor;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.retrytopic.DestinationTopic;
+import org.springframework.kafka.retrytopic.RetryTopicConfiguration;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderListenerRetryTest {
+
+    private final OrderService orderService = mock(OrderService.class);
+    private final DeadLetterHandler deadLetterHandler = mock(DeadLetterHandler.class);
+    @SuppressWarnings("unchecked")
+    private final ObjectProvider<DeadLetterHandler> deadLetterHandlers = mock(ObjectProvider.class);
+    private final OrderListener listener = new OrderListener(orderService, mock(InProcessEventBus.class),
+        mock(KafkaListenerEndpointRegistry.class), mock(ApplicationEventPublisher.class), mock(ClaimCheck.class),
+        deadLetterHandlers);
+
+    @Test
+    void failedEventsRouteThroughIndexedRetryTopicsToTheDeadLetterTopic() throws Exception {
+        Method method = Arrays.stream(OrderListener.class.getMethods())
+            .filter(candidate -> candidate.isAnnotationPresent(RetryableTopic.class))
+            .findFirst()
+            .orElseThrow();
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("kafkaTemplate", new KafkaTemplate<>(
+            new DefaultKafkaProducerFactory<>(Map.<String, Object>of("bootstrap.servers", "localhost:9092"))));
+
+        RetryTopicConfiguration configuration = new RetryableTopicAnnotationProcessor(beanFactory)
+            .processAnnotation(new String[] {"orders"}, method, method.getAnnotation(RetryableTopic.class), listener);
+
+        List<DestinationTopic.Properties> destinations = configuration.getDestinationTopicProperties();
+        assertEquals(List.of("", "-retry-0", "-retry-1", "-dlt"),
+            destinations.stream().map(DestinationTopic.Properties::suffix).toList());
+        assertEquals(List.of(0L, 1000L, 1000L, 0L),
+            destinations.stream().map(DestinationTopic.Properties::delay).toList());
+        assertEquals("handleDeadLetter", configuration.getDltHandlerMethod().getMethod().getName());
+    }
+
+    @Test
+    void failedEventIsRethrownForTheRetryTopicAndHandledWhenRedelivered() {
+        OrderPlacedEvent event = order();
+        doThrow(new IllegalStateException("Inventory unavailable")).doNothing()
+            .when(orderService).fulfil(any());
+
+        assertThrows(IllegalStateException.class, () -> listener.onOrder(event));
+        listener.onOrder(event);
+        // The redelivery from the retry topic is handled, and only then does the key count as seen
+        listener.onOrder(event);
+
+        verify(orderService, times(2)).fulfil(event);
+    }
+
+    @Test
+    void deadLettersGoToTheApplicationsHandler() {
+        OrderPlacedEvent event = order();
+        when(deadLetterHandlers.getIfUnique()).thenReturn(deadLetterHandler);
+
+        listener.handleDeadLetter(event, "orders-dlt", 2, 42L, "Inventory unavailable");
+
+        verify(deadLetterHandler).handle("OrderListener", event, "orders-dlt", 2, 42L, "Inventory unavailable");
+    }
+
+    @Test
+    void deadLettersAreLoggedWithoutAHandler() {
+        when(deadLetterHandlers.getIfUnique()).thenReturn(null);
+
+        listener.handleDeadLetter(order(), "orders-dlt", 0, 7L, null);
+
+        verify(deadLetterHandlers).getIfUnique();
+    }
+
+    private static OrderPlacedEvent order() {
+        OrderPlacedEvent event = new OrderPlacedEvent();
+        event.setOrderId(UUID.randomUUID());
+        return event;
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.consumer;
+
+import com.example.dto.OrderPlacedEvent;
+import com.example.dto.OrderPlacedEventEnvelope;
+import com.example.dto.OrderPlacedEventOnOrderSummaryProjection;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderListenerWarmupTest {
+    private static final int KAFKA_METHODS = 4;
+    private static final int ITERATIONS = 10;
+
+    private static final AtomicInteger deserialized = new AtomicInteger();
+    private static final Map<String, Class<?>> valueTypes = new ConcurrentHashMap<>();
+
+    @BeforeEach
+    void reset() {
+        deserialized.set(0);
+        valueTypes.clear();
+    }
+
+    @Test
+    void configuredValueDeserializerReadsEveryKafkaMethod() {
+        OrderListenerWarmup warmup = new OrderListenerWarmup(beanFactory(new DefaultKafkaConsumerFactory<>(Map.of(
+            "bootstrap.servers", "localhost:9092",
+            "value.deserializer", CountingDeserializer.class.getName(),
+            "spring.json.trusted.packages", "com.example.dto"))));
+
+        warmup.start();
+
+        assertTrue(warmup.isRunning());
+        assertEquals(KAFKA_METHODS * ITERATIONS, deserialized.get());
+        // The listener's projection properties are applied on top of the consumer factory's
+        assertEquals(OrderPlacedEventOnOrderSummaryProjection.class, valueTypes.get("orders-tx"));
+        assertEquals(OrderPlacedEventEnvelope.class, valueTypes.get("orders-batched"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void sharedValueDeserializerIsWarmedAndLeftOpen() {
+        Deserializer<Object> shared = mock(Deserializer.class);
+        when(shared.deserialize(anyString(), any(Headers.class), any(byte[].class))).thenAnswer(invocation ->
+            switch (invocation.<String>getArgument(0)) {
+                case "orders-batched" -> new OrderPlacedEventEnvelope(List.of(new OrderPlacedEvent()));
+                case "orders-tx" -> new OrderPlacedEventOnOrderSummaryProjection();
+                default -> new OrderPlacedEvent();
+            });
+        OrderListenerWarmup warmup = new OrderListenerWarmup(beanFactory(new DefaultKafkaConsumerFactory<>(
+            Map.of("bootstrap.servers", "localhost:9092"), null, shared)));
+
+        warmup.start();
+
+        verify(shared, times(ITERATIONS)).deserialize(eq("orders"), any(Headers.class), any(byte[].class));
+        verify(shared, times(ITERATIONS)).deserialize(eq("orders-tx"), any(Headers.class), any(byte[].class));
+        verify(shared, never()).close();
+    }
+
+    private static DefaultListableBeanFactory beanFactory(ConsumerFactory<Object, Object> consumerFactory) {
+        ConcurrentKafkaListenerContainerFactory<Object, Object> containerFactory =
+            new ConcurrentKafkaListenerContainerFactory<>();
+        containerFactory.setConsumerFactory(consumerFactory);
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("kafkaListenerContainerFactory", containerFactory);
+        return beanFactory;
+    }
+
+    /**
+     * JSON value deserializer the consumer factory names by class, counting the records it reads
+     */
+    public static class CountingDeserializer extends JsonDeserializer<Object> {
+
+        @Override
+        public Object deserialize(String topic, Headers headers, byte[] data) {
+            Object value = super.deserialize(topic, headers, data);
+            deserialized.incrementAndGet();
+            valueTypes.put(topic, value.getClass());
+            return value;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.example.consumer;
+
+import com.example.dto.ShipmentEvent;
+import com.example.dto.ShipmentEventBinary;
+import com.example.service.ShipmentService;
+import com.example.support.MappedJournalTransport;
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+class ShipmentListenerTest {
+
+    private final ShipmentService shipmentService = mock(ShipmentService.class);
+    private final MappedJournalTransport journalTransport = mock(MappedJournalTransport.class);
+    private final ShipmentListener listener = new ShipmentListener(shipmentService, journalTransport);
+    private final ShipmentEventBinary.Serializer serializer = new ShipmentEventBinary.Serializer();
+    private final ShipmentEventBinary.Deserializer deserializer = new ShipmentEventBinary.Deserializer();
+
+    @Test
+    void handledKafkaEventIsDecodedIntoByTheNextRecord() {
+        ShipmentEvent first = deserializer.deserialize("shipments-tracked", payload(1L, "DHL"));
+        assertEquals("DHL", first.getCarrier());
+
+        listener.onTrackedShipmentRecord(first);
+        ShipmentEvent second = deserializer.deserialize("shipments-tracked", payload(2L, "UPS"));
+
+        verify(shipmentService).track(first);
+        assertSame(first, second);
+        assertEquals(2L, second.getShipmentId());
+        assertEquals("UPS", second.getCarrier());
+    }
+
+    @Test
+    void failedKafkaEventIsNotReused() {
+        ShipmentEvent failed = deserializer.deserialize("shipments-tracked", payload(1L, "DHL"));
+        doThrow(new IllegalStateException("Tracking unavailable")).when(shipmentService).track(any());
+
+        assertThrows(IllegalStateException.class, () -> listener.onTrackedShipmentRecord(failed));
+        ShipmentEvent next = deserializer.deserialize("shipments-tracked", payload(2L, "UPS"));
+
+        assertNotSame(failed, next);
+        assertEquals(1L, failed.getShipmentId());
+    }
+
+    @Test
+    void undecodableKafkaRecordReturnsItsInstance() {
+        ShipmentEvent handled = deserializer.deserialize("shipments-tracked", payload(1L, "DHL"));
+        listener.onTrackedShipmentRecord(handled);
+
+        assertThrows(SerializationException.class,
+            () -> deserializer.deserialize("shipments-tracked", new byte[] {0, 0}));
+
+        assertSame(handled, deserializer.deserialize("shipments-tracked", payload(2L, "UPS")));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void undecodableJournalRecordReturnsItsInstance() throws Exception {
+        ArgumentCaptor<MappedJournalTransport.Decoder<ShipmentEvent>> decoder =
+            ArgumentCaptor.forClass(MappedJournalTransport.Decoder.class);
+        ArgumentCaptor<Consumer<ShipmentEvent>> handler = ArgumentCaptor.forClass(Consumer.class);
+        listener.afterPropertiesSet();
+        verify(journalTransport).subscribe(eq("shipments"), eq("shipments"), decoder.capture(), handler.capture());
+
+        ShipmentEvent handled = decoder.getValue().readFrom(input(payload(1L, "DHL")));
+        handler.getValue().accept(handled);
+        assertThrows(EOFException.class, () -> decoder.getValue().readFrom(input(new byte[] {0, 0})));
+
+        assertSame(handled, decoder.getValue().readFrom(input(payload(2L, "UPS"))));
+    }
+
+    private byte[] payload(long shipmentId, String carrier) {
+        ShipmentEvent event = new ShipmentEvent();
+        event.setShipmentId(shipmentId);
+        event.setCarrier(carrier);
+        event.setWeight(2.5);
+        return serializer.serialize("shipments-tracked", event);
+    }
+
+    private static DataInputStream input(byte[] payload) {
+        return new DataInputStream(new ByteArrayInputStream(payload));
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.dto;
+
+import com.example.support.DictionaryCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.JacksonUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs the classes generated from src/test/resources/eventor, which the build generates and compiles before the tests.
+ */
+class GeneratedDtoTest {
+    private static final ObjectMapper OBJECT_MAPPER = JacksonUtils.enhancedObjectMapper();
+
+    @Test
+    void binaryCodecRoundTrips() throws IOException {
+        OrderPlacedEvent event = new OrderPlacedEvent(UUID.randomUUID(), "c-1", new BigDecimal("12.50"), 3,
+            List.of("gift", "express"), LocalDateTime.of(2026, 1, 2, 3, 4, 5));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        event.writeTo(new DataOutputStream(bytes));
+
+        OrderPlacedEvent decoded = OrderPlacedEvent.readFrom(
+            new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        assertEquals(event, decoded);
+    }
+
+    @Test
+    void projectionReadsOnlyItsFields() throws IOException {
+        UUID orderId = UUID.randomUUID();
+        String json = "{\"customerId\": \"c-1\", \"tags\": [\"a\", {\"nested\": [1, 2]}], \"orderId\": \"" + orderId
+            + "\", \"quantity\": 3, \"amount\": 12.50, \"placedAt\": \"2026-01-02T03:04:05\"}";
+
+        OrderPlacedEventOnOrderSummaryProjection projection =
+            OBJECT_MAPPER.readValue(json, OrderPlacedEventOnOrderSummaryProjection.class);
+
+        assertEquals(orderId, projection.getOrderId());
+        assertEquals(new BigDecimal("12.50"), projection.getAmount());
+    }
+
+    @Test
+    void previousVersionIsUpcastOnRead() {
+        UUID id = UUID.randomUUID();
+        byte[] v1 = ("{\"id\": \"" + id + "\", \"name\": \"Ada\", \"credit\": 250}").getBytes(StandardCharsets.UTF_8);
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(CustomerUpdatedEventVersions.HEADER, "1".getBytes(StandardCharsets.US_ASCII));
+
+        CustomerUpdatedEvent event = new CustomerUpdatedEventVersions.Deserializer().deserialize("customers", headers, v1);
+
+        assertEquals(id.toString(), event.getCustomerId());
+        assertEquals("Ada", event.getName());
+        assertEquals(250L, event.getCredit());
+        assertEquals(1, event.getTier());
+    }
+
+    @Test
+    void currentVersionIsStampedAndReadBack() {
+        CustomerUpdatedEvent event = new CustomerUpdatedEvent("c-1", "Ada", 250L, 2);
+        RecordHeaders headers = new RecordHeaders();
+
+        byte[] data = new CustomerUpdatedEventVersions.Serializer().serialize("customers", headers, event);
+
+        assertEquals("2", new String(headers.lastHeader(CustomerUpdatedEventVersions.HEADER).value(),
+            StandardCharsets.US_ASCII));
+        assertEquals(event, new CustomerUpdatedEventVersions.Deserializer().deserialize("customers", headers, data));
+    }
+
+    @Test
+    void dictionarySerdeRoundTripsAndReadsPlainJson() throws IOException {
+        PriceChangedEvent event = new PriceChangedEvent("SKU-00042", "EUR", new BigDecimal("19.99"),
+            LocalDateTime.of(2026, 3, 14, 10, 30));
+        RecordHeaders headers = new RecordHeaders();
+
+        byte[] compressed = new PriceChangedEventDictionary.Serializer().serialize("prices", headers, event);
+        byte[] plain = OBJECT_MAPPER.writeValueAsBytes(event);
+
+        assertTrue(compressed.length < plain.length, compressed.length + " >= " + plain.length);
+        PriceChangedEventDictionary.Deserializer deserializer = new PriceChangedEventDictionary.Deserializer();
+        assertEquals(event, deserializer.deserialize("prices", headers, compressed));
+        assertEquals(event, deserializer.deserialize("prices", new RecordHeaders(), plain));
+        assertNull(deserializer.deserialize("prices", headers, (byte[]) null));
+    }
+
+    @Test
+    void dictionarySerdeReadsRecordsOfAPreviousDictionary() throws IOException {
+        PriceChangedEvent event = new PriceChangedEvent("SKU-00042", "EUR", new BigDecimal("19.99"),
+            LocalDateTime.of(2026, 3, 14, 10, 30));
+        byte[] previous;
+        try (InputStream in = getClass().getResourceAsStream("/eventor/PriceChangedEvent-a31692e5.dict")) {
+            previous = in.readAllBytes();
+        }
+        byte[] compressed = new DictionaryCodec(previous, PriceChangedEventDictionary.LEVEL)
+            .encode(OBJECT_MAPPER.writerFor(PriceChangedEvent.class), event);
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(DictionaryCodec.HEADER, new byte[] {(byte) 0xa3, 0x16, (byte) 0x92, (byte) 0xe5});
+
+        PriceChangedEventDictionary.Deserializer deserializer = new PriceChangedEventDictionary.Deserializer();
+        assertEquals(event, deserializer.deserialize("prices", headers, compressed));
+
+        RecordHeaders unknown = new RecordHeaders();
+        unknown.add(DictionaryCodec.HEADER, new byte[] {0, 0, 0, 1});
+        SerializationException error = assertThrows(SerializationException.class,
+            () -> deserializer.deserialize("prices", unknown, compressed));
+        assertTrue(error.getMessage().contains("00000001"), error.getMessage());
+    }
+}
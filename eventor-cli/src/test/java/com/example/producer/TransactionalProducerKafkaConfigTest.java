@@ -0,0 +1,34 @@
+package com.example.producer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransactionalProducerKafkaConfigTest {
+    private final DefaultKafkaProducerFactory<Object, Object> baseProducerFactory =
+        new DefaultKafkaProducerFactory<>(Map.of("bootstrap.servers", "localhost:9092"));
+
+    @Test
+    void prefixesTransactionalIdsWithTheConfiguredPrefixAndTheProducerName() {
+        OrderTransactionalProducerKafkaConfig config =
+            new OrderTransactionalProducerKafkaConfig(baseProducerFactory, "orders-0");
+
+        assertEquals("orders-0-OrderTransactionalProducer-", config.getProducerFactory().getTransactionIdPrefix());
+        assertTrue(config.getProducerFactory().transactionCapable());
+        assertEquals("true", config.getProducerFactory().getConfigurationProperties().get("enable.idempotence"));
+        config.destroy();
+    }
+
+    @Test
+    void failsWithoutATransactionIdPrefix() {
+        IllegalStateException error = assertThrows(IllegalStateException.class,
+            () -> new OrderTransactionalProducerKafkaConfig(baseProducerFactory, " "));
+
+        assertTrue(error.getMessage().contains("eventor.transaction-id-prefix"));
+    }
+}
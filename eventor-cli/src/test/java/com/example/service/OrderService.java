@@ -0,0 +1,21 @@
+package com.example.service;
+
+import com.example.dto.OrderPlacedEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The dependency the generated OrderListener calls.
+ */
+public class OrderService {
+    private final List<OrderPlacedEvent> fulfilled = new ArrayList<>();
+
+    public void fulfil(OrderPlacedEvent event) {
+        fulfilled.add(event);
+    }
+
+    public List<OrderPlacedEvent> getFulfilled() {
+        return fulfilled;
+    }
+}
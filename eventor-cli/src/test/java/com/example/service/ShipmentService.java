@@ -0,0 +1,12 @@
+package com.example.service;
+
+import com.example.dto.ShipmentEvent;
+
+/**
+ * The dependency the generated ShipmentListener calls.
+ */
+public class ShipmentService {
+
+    public void track(ShipmentEvent event) {
+    }
+}
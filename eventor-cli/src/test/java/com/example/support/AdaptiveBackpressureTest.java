@@ -0,0 +1,137 @@
+package com.example.support;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class AdaptiveBackpressureTest {
+    private static final TopicPartition PARTITION = new TopicPartition("orders", 0);
+
+    private final KafkaListenerEndpointRegistry registry = mock(KafkaListenerEndpointRegistry.class);
+    private final MessageListenerContainer container = mock(MessageListenerContainer.class);
+    private final ApplicationEventPublisher publisher = mock(ApplicationEventPublisher.class);
+    private AdaptiveBackpressure backpressure;
+
+    @AfterEach
+    void close() {
+        if (backpressure != null) {
+            backpressure.close();
+        }
+    }
+
+    @Test
+    void slowDependenciesPauseUntilPauseMillisPass() throws InterruptedException {
+        backpressure = open(50, 0, 20);
+
+        backpressure.afterDependencies(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(10));
+        assertFalse(backpressure.isPaused());
+        backpressure.afterDependencies(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(200));
+
+        assertTrue(backpressure.isPaused());
+        verify(container).pause();
+        verify(publisher).publishEvent(any(ListenerBackpressureEvent.class));
+        await(() -> !backpressure.isPaused());
+        verify(container).resume();
+        assertEquals(1, backpressure.getPauseCount());
+    }
+
+    @Test
+    void averageCarriesOverAPause() throws InterruptedException {
+        backpressure = open(50, 0, 10);
+        backpressure.afterDependencies(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(200));
+        await(() -> !backpressure.isPaused());
+
+        assertTrue(backpressure.getLatencyMillis() > 50);
+        // A dependency that is still slow pauses again on the first call after resuming
+        backpressure.afterDependencies(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(60));
+        assertTrue(backpressure.isPaused());
+        assertEquals(2, backpressure.getPauseCount());
+    }
+
+    @Test
+    void deepQueuePausesTheListener() {
+        backpressure = open(60_000, 100, 60_000);
+        Consumer<?, ?> consumer = consumer(PARTITION);
+        when(consumer.position(PARTITION)).thenReturn(500L);
+
+        backpressure.received(consumer, "orders", 0, 10);
+
+        assertEquals(489, backpressure.getQueueDepth());
+        assertTrue(backpressure.isPaused());
+        verify(container).pause();
+    }
+
+    @Test
+    void positionsAreSampledOncePerInterval() {
+        backpressure = open(60_000, 100, 60_000);
+        Consumer<?, ?> consumer = consumer(PARTITION);
+        when(consumer.position(PARTITION)).thenReturn(1_000L);
+
+        for (long offset = 950; offset < 1_000; offset++) {
+            backpressure.received(consumer, "orders", 0, offset);
+        }
+
+        verify(consumer, times(1)).assignment();
+        verify(consumer, times(1)).position(PARTITION);
+        assertEquals(49, backpressure.getQueueDepth());
+        assertFalse(backpressure.isPaused());
+    }
+
+    @Test
+    void eachContainerThreadMeasuresItsOwnConsumer() throws InterruptedException {
+        backpressure = open(60_000, 100, 60_000);
+        TopicPartition other = new TopicPartition("orders", 1);
+        Consumer<?, ?> first = consumer(PARTITION);
+        Consumer<?, ?> second = consumer(other);
+        when(first.position(PARTITION)).thenReturn(70L);
+        when(second.position(other)).thenReturn(70L);
+
+        Thread thread = new Thread(() -> backpressure.received(second, "orders", 1, 9));
+        thread.start();
+        backpressure.received(first, "orders", 0, 9);
+        thread.join();
+
+        // 60 records behind on each thread stays below the threshold, though together they are 120
+        assertFalse(backpressure.isPaused());
+        verify(container, never()).pause();
+        assertEquals(120, backpressure.getQueueDepth());
+    }
+
+    private AdaptiveBackpressure open(long maxLatencyMillis, int maxQueueDepth, long pauseMillis) {
+        when(registry.getListenerContainer("test")).thenReturn(container);
+        return new AdaptiveBackpressure("test", maxLatencyMillis, maxQueueDepth, pauseMillis, 0.5, registry,
+            publisher);
+    }
+
+    private static Consumer<?, ?> consumer(TopicPartition partition) {
+        Consumer<?, ?> consumer = mock(Consumer.class);
+        when(consumer.assignment()).thenReturn(Set.of(partition));
+        return consumer;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+}
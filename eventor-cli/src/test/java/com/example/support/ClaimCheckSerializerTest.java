@@ -0,0 +1,116 @@
+package com.example.support;
+
+import com.example.dto.OrderPlacedEvent;
+import com.example.producer.OrderClaimProducerKafkaConfig;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.Serializer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ClaimCheckSerializerTest {
+    private static final int THRESHOLD = 1024;
+
+    @TempDir
+    Path directory;
+
+    private final AtomicInteger serializations = new AtomicInteger();
+
+    @Test
+    void smallEventsAreSentInline() {
+        ClaimCheck claimCheck = claimCheck();
+        RecordHeaders headers = new RecordHeaders();
+
+        byte[] value = serializer(claimCheck).serialize("orders-claimed", headers, order(10));
+
+        assertNull(headers.lastHeader(ClaimCheck.HEADER));
+        assertEquals(order(10), new JsonDeserializer<>(OrderPlacedEvent.class, false).deserialize("orders", value));
+        assertEquals(0, claimCheck.getOffloaded());
+    }
+
+    @Test
+    void largeEventsAreOffloadedOnceSerializedAndSentWithAStub() throws Exception {
+        ClaimCheck claimCheck = claimCheck();
+        RecordHeaders headers = new RecordHeaders();
+        OrderPlacedEvent order = order(THRESHOLD);
+
+        byte[] value = serializer(claimCheck).serialize("orders-claimed", headers, order);
+
+        assertEquals(1, serializations.get());
+        Header reference = headers.lastHeader(ClaimCheck.HEADER);
+        assertNotNull(reference);
+        // A null value would be a tombstone for compacted topics and materialized views
+        assertNotNull(value);
+        assertTrue(new String(value, StandardCharsets.UTF_8).contains(new String(reference.value(),
+            StandardCharsets.UTF_8)));
+        assertArrayEquals(new JsonSerializer<>().serialize("orders-claimed", order),
+            claimCheck.getBlobStore().get(new String(reference.value(), StandardCharsets.UTF_8)));
+        assertEquals(order, claimCheck.resolve(reference.value(), OrderPlacedEvent.class, new ClaimCheckCache(0)));
+        assertEquals(1, claimCheck.getOffloaded());
+    }
+
+    @Test
+    void stubIsReadAsAnEventWithoutFields() {
+        ClaimCheck claimCheck = claimCheck();
+        RecordHeaders headers = new RecordHeaders();
+
+        byte[] value = serializer(claimCheck).serialize("orders-claimed", headers, order(THRESHOLD));
+
+        assertEquals(new OrderPlacedEvent(),
+            new JsonDeserializer<>(OrderPlacedEvent.class, false).deserialize("orders-claimed", headers, value));
+    }
+
+    @Test
+    void claimCheckedProducersWriteValuesWithTheSerializer() {
+        OrderClaimProducerKafkaConfig config = new OrderClaimProducerKafkaConfig(
+            new DefaultKafkaProducerFactory<>(Map.of("bootstrap.servers", "localhost:9092")), claimCheck());
+
+        assertInstanceOf(ClaimCheckSerializer.class, config.getProducerFactory().getValueSerializerSupplier().get());
+        config.destroy();
+    }
+
+    private ClaimCheck claimCheck() {
+        return new ClaimCheck(new DefaultListableBeanFactory().getBeanProvider(BlobStore.class),
+            directory.toString());
+    }
+
+    private Serializer<OrderPlacedEvent> serializer(ClaimCheck claimCheck) {
+        JsonSerializer<OrderPlacedEvent> json = new JsonSerializer<>();
+        Serializer<OrderPlacedEvent> counting = new Serializer<>() {
+            @Override
+            public byte[] serialize(String topic, OrderPlacedEvent data) {
+                serializations.incrementAndGet();
+                return json.serialize(topic, data);
+            }
+        };
+        return new ClaimCheckSerializer<>(claimCheck, counting, THRESHOLD);
+    }
+
+    private static OrderPlacedEvent order(int tagCount) {
+        OrderPlacedEvent order = new OrderPlacedEvent();
+        order.setOrderId(new UUID(1, 2));
+        order.setCustomerId("customer-1");
+        order.setAmount(new BigDecimal("12.50"));
+        order.setTags(Collections.nCopies(tagCount, "tag"));
+        return order;
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.support;
+
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommitCoalescerTest {
+    private static final String TOPIC = "orders";
+    private static final TopicPartition PARTITION = new TopicPartition(TOPIC, 0);
+
+    private MockConsumer<String, String> consumer;
+
+    @BeforeEach
+    void setUp() {
+        consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        consumer.assign(List.of(PARTITION, new TopicPartition("other", 0)));
+    }
+
+    @Test
+    void rejectsANonPositiveInterval() {
+        assertThrows(IllegalArgumentException.class, () -> new CommitCoalescer("orders-listener", TOPIC, 0));
+    }
+
+    @Test
+    void commitsUpToTheOldestRecordNotAcknowledged() throws InterruptedException {
+        CommitCoalescer coalescer = new CommitCoalescer("orders-listener", TOPIC, 1);
+        Acknowledgment first = coalescer.received(consumer, 0, 0);
+        Acknowledgment second = coalescer.received(consumer, 0, 1);
+        Acknowledgment third = coalescer.received(consumer, 0, 2);
+
+        third.acknowledge();
+        first.acknowledge();
+        commit(coalescer);
+        assertEquals(1, committed());
+        assertEquals(1, coalescer.getPending());
+
+        second.acknowledge();
+        second.acknowledge();
+        commit(coalescer);
+        assertEquals(3, committed());
+        assertEquals(0, coalescer.getPending());
+        assertEquals(3, coalescer.getAcknowledged());
+        assertEquals(0, coalescer.getFailedCommits());
+    }
+
+    @Test
+    void failedRecordHoldsTheCommitUntilRedeliveredOrGivenUp() throws InterruptedException {
+        CommitCoalescer coalescer = new CommitCoalescer("orders-listener", TOPIC, 1);
+        coalescer.received(consumer, 0, 0).acknowledge();
+        coalescer.received(consumer, 0, 1);
+        coalescer.failed(0, 1);
+        commit(coalescer);
+        assertEquals(1, committed());
+
+        coalescer.received(consumer, 0, 1).acknowledge();
+        commit(coalescer);
+        assertEquals(2, committed());
+
+        coalescer.received(consumer, 0, 2);
+        coalescer.failed(0, 2);
+        // The error handler gave up on offset 2 and moved on
+        coalescer.received(consumer, 0, 3).acknowledge();
+        commit(coalescer);
+        assertEquals(4, committed());
+    }
+
+    @Test
+    void commitsRevokedPartitionsSynchronouslyAndCallsTheDelegate() {
+        List<Collection<TopicPartition>> revocations = new ArrayList<>();
+        CommitCoalescer coalescer = new CommitCoalescer("orders-listener", TOPIC, TimeUnit.HOURS.toMillis(1));
+        coalescer.wrap(new ConsumerRebalanceListener() {
+            @Override
+            public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+                revocations.add(partitions);
+            }
+
+            @Override
+            public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+            }
+        });
+        coalescer.received(consumer, 0, 0).acknowledge();
+        coalescer.received(consumer, 0, 1).acknowledge();
+        coalescer.received(consumer, 0, 2);
+        // Only the commit made with the first record went out; the interval holds back the rest
+        assertEquals(0, committed());
+
+        coalescer.onPartitionsRevokedBeforeCommit(consumer, List.of(PARTITION));
+
+        assertEquals(2, committed());
+        assertEquals(0, coalescer.getPending());
+        assertEquals(List.of(List.of(PARTITION)), revocations);
+    }
+
+    @Test
+    void commitsOnIdleEventsOfItsOwnListenerOnly() throws InterruptedException {
+        CommitCoalescer coalescer = new CommitCoalescer("orders-listener", TOPIC, 1);
+        Acknowledgment ack = coalescer.received(consumer, 0, 0);
+        ack.acknowledge();
+        TimeUnit.MILLISECONDS.sleep(2);
+
+        coalescer.onIdle(idleEvent("payments-listener-0"));
+        assertEquals(0, committed());
+
+        coalescer.onIdle(idleEvent("orders-listener-0"));
+        assertEquals(1, committed());
+    }
+
+    @Test
+    void acceptsAcknowledgmentsFromOtherThreadsInAnyOrder() throws InterruptedException {
+        CommitCoalescer coalescer = new CommitCoalescer("orders-listener", TOPIC, 1);
+        List<Acknowledgment> acks = new ArrayList<>();
+        for (int offset = 0; offset < 1000; offset++) {
+            acks.add(coalescer.received(consumer, 0, offset));
+        }
+        Collections.shuffle(acks);
+        ExecutorService handlers = Executors.newFixedThreadPool(4);
+        acks.forEach(ack -> handlers.execute(ack::acknowledge));
+        handlers.shutdown();
+        assertTrue(handlers.awaitTermination(10, TimeUnit.SECONDS));
+
+        commit(coalescer);
+        assertEquals(1000, committed());
+        assertEquals(1000, coalescer.getAcknowledged());
+    }
+
+    @Test
+    void doesNotCommitWithoutAcknowledgedRecords() {
+        CommitCoalescer coalescer = new CommitCoalescer("orders-listener", TOPIC, 1);
+        coalescer.commitIfDue(consumer);
+
+        assertNull(consumer.committed(Set.of(PARTITION)).get(PARTITION));
+        assertEquals(0, coalescer.getCommits());
+    }
+
+    private void commit(CommitCoalescer coalescer) throws InterruptedException {
+        // Let the commit interval elapse
+        TimeUnit.MILLISECONDS.sleep(2);
+        coalescer.commitIfDue(consumer);
+    }
+
+    private long committed() {
+        OffsetAndMetadata offset = consumer.committed(Set.of(PARTITION)).get(PARTITION);
+        return offset == null ? -1 : offset.offset();
+    }
+
+    private ListenerContainerIdleEvent idleEvent(String listenerId) {
+        return new ListenerContainerIdleEvent(this, this, 1000, listenerId, List.of(PARTITION), consumer, false);
+    }
+}
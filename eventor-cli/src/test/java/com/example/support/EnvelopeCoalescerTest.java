@@ -0,0 +1,114 @@
+package com.example.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EnvelopeCoalescerTest {
+
+    private final List<String> sent = new CopyOnWriteArrayList<>();
+
+    @Test
+    void sendsABatchOnceMaxEventsAreAdded() throws Exception {
+        EnvelopeCoalescer<String> coalescer = new EnvelopeCoalescer<>("test", 3, 60_000, this::record);
+
+        coalescer.add("a", "1");
+        coalescer.add("b", "x");
+        coalescer.add("a", "2");
+        CompletableFuture<?> third = coalescer.add("a", "3");
+
+        third.get(1, TimeUnit.SECONDS);
+        assertEquals(List.of("a=[1, 2, 3]"), sent);
+        assertEquals(1, coalescer.getBatchCount());
+        assertEquals(3, coalescer.getEventCount());
+        coalescer.close();
+    }
+
+    @Test
+    void sendsAPartialBatchAfterMaxDelay() throws Exception {
+        EnvelopeCoalescer<String> coalescer = new EnvelopeCoalescer<>("test", 100, 10, this::record);
+
+        coalescer.add(null, "1").get(5, TimeUnit.SECONDS);
+
+        assertEquals(List.of("null=[1]"), sent);
+        coalescer.close();
+    }
+
+    @Test
+    void addsDoNotWaitForTheSinkAndBatchesOfAKeyStayInOrder() throws Exception {
+        CountDownLatch sinkBlocked = new CountDownLatch(1);
+        CountDownLatch releaseSink = new CountDownLatch(1);
+        EnvelopeCoalescer<String> coalescer = new EnvelopeCoalescer<>("test", 2, 60_000, (key, events) -> {
+            if (events.contains("1")) {
+                sinkBlocked.countDown();
+                try {
+                    releaseSink.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            return record(key, events);
+        });
+        coalescer.add("a", "1");
+        CompletableFuture<?> blocked = CompletableFuture.runAsync(() -> coalescer.add("a", "2"));
+        assertTrue(sinkBlocked.await(5, TimeUnit.SECONDS));
+
+        // The same key, so the same stripe: these must not wait for the sink that is still busy
+        CompletableFuture<?> next = CompletableFuture.runAsync(() -> {
+            coalescer.add("a", "3");
+            coalescer.add("a", "4");
+        });
+        next.get(5, TimeUnit.SECONDS);
+        assertTrue(sent.isEmpty());
+
+        releaseSink.countDown();
+        blocked.get(5, TimeUnit.SECONDS);
+        assertEquals(List.of("a=[1, 2]", "a=[3, 4]"), sent);
+        coalescer.close();
+    }
+
+    @Test
+    void closeSendsOpenBatchesAndFailsLaterAdds() {
+        EnvelopeCoalescer<String> coalescer = new EnvelopeCoalescer<>("test", 100, 60_000, this::record);
+        CompletableFuture<?> open = coalescer.add("a", "1");
+
+        coalescer.close();
+
+        assertTrue(open.isDone());
+        assertFalse(open.isCompletedExceptionally());
+        assertEquals(List.of("a=[1]"), sent);
+        CompletableFuture<?> late = coalescer.add("a", "2");
+        ExecutionException failure = assertThrows(ExecutionException.class, late::get);
+        assertInstanceOf(IllegalStateException.class, failure.getCause());
+        assertEquals(1, sent.size());
+    }
+
+    @Test
+    void sinkFailureFailsEveryEventOfTheBatch() {
+        EnvelopeCoalescer<String> coalescer = new EnvelopeCoalescer<>("test", 2, 60_000,
+            (key, events) -> CompletableFuture.failedFuture(new IllegalStateException("Broker unavailable")));
+
+        CompletableFuture<?> first = coalescer.add("a", "1");
+        CompletableFuture<?> second = coalescer.add("a", "2");
+
+        assertTrue(first.isCompletedExceptionally());
+        assertTrue(second.isCompletedExceptionally());
+        coalescer.close();
+    }
+
+    private CompletableFuture<?> record(String key, List<String> events) {
+        sent.add(key + "=" + events);
+        return CompletableFuture.completedFuture(null);
+    }
+}
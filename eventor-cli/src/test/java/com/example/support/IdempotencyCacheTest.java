@@ -0,0 +1,182 @@
+package com.example.support;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class IdempotencyCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void claimsEachKeyOnce() {
+        IdempotencyCache cache = new IdempotencyCache(100, 60_000, null);
+
+        assertTrue(cache.tryAcquire("a"));
+        assertFalse(cache.tryAcquire("a"));
+        assertTrue(cache.isDuplicate("a"));
+        assertFalse(cache.isDuplicate("b"));
+        assertTrue(cache.tryAcquire(null));
+        assertFalse(cache.isDuplicate(null));
+    }
+
+    @Test
+    void releasedKeyIsClaimedAgain() {
+        IdempotencyCache cache = new IdempotencyCache(100, 60_000, null);
+        cache.tryAcquire("a");
+
+        cache.release("a");
+
+        assertTrue(cache.tryAcquire("a"));
+    }
+
+    @Test
+    void evictsOldestKeyOnceFull() {
+        IdempotencyCache cache = new IdempotencyCache(3, 60_000, null);
+        for (String key : new String[] {"a", "b", "c", "d"}) {
+            cache.tryAcquire(key);
+        }
+
+        assertEquals(3, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        assertFalse(cache.isDuplicate("a"));
+        assertTrue(cache.isDuplicate("d"));
+    }
+
+    @Test
+    void expiredKeyIsClaimedAgain() throws InterruptedException {
+        IdempotencyCache cache = new IdempotencyCache(100, 20, null);
+        cache.tryAcquire("a");
+
+        Thread.sleep(40);
+
+        assertFalse(cache.isDuplicate("a"));
+        assertTrue(cache.tryAcquire("a"));
+    }
+
+    @Test
+    void concurrentClaimsOfOneKeyHaveOneWinner() throws InterruptedException {
+        IdempotencyCache cache = new IdempotencyCache(1000, 60_000, null);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        AtomicInteger winners = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        for (int i = 0; i < 100; i++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                if (cache.tryAcquire("order-1")) {
+                    winners.incrementAndGet();
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+        assertEquals(1, winners.get());
+    }
+
+    @Test
+    void recordedKeysSurviveRestart() {
+        Path persistFile = tempDir.resolve("orders.idempotency");
+        IdempotencyCache cache = new IdempotencyCache(10, 60_000, persistFile);
+        cache.tryAcquire("recorded");
+        cache.record("recorded");
+        cache.tryAcquire("claimed-only");
+
+        IdempotencyCache restarted = new IdempotencyCache(10, 60_000, persistFile);
+
+        assertTrue(restarted.isDuplicate("recorded"));
+        assertFalse(restarted.isDuplicate("claimed-only"));
+        assertFalse(restarted.tryAcquire("recorded"));
+    }
+
+    @Test
+    void resizedCacheKeepsNewestRecordedKeys() {
+        Path persistFile = tempDir.resolve("orders.idempotency");
+        IdempotencyCache cache = new IdempotencyCache(10, 60_000, persistFile);
+        for (String key : new String[] {"a", "b", "c", "d"}) {
+            cache.tryAcquire(key);
+            cache.record(key);
+        }
+
+        IdempotencyCache shrunk = new IdempotencyCache(2, 60_000, persistFile);
+
+        assertEquals(2, shrunk.size());
+        assertFalse(shrunk.isDuplicate("b"));
+        assertTrue(shrunk.isDuplicate("c"));
+        assertTrue(shrunk.isDuplicate("d"));
+
+        shrunk.tryAcquire("e");
+        shrunk.record("e");
+        IdempotencyCache grown = new IdempotencyCache(20, 60_000, persistFile);
+
+        assertEquals(2, grown.size());
+        assertTrue(grown.isDuplicate("d"));
+        assertTrue(grown.isDuplicate("e"));
+        assertTrue(grown.tryAcquire("f"));
+    }
+
+    @Test
+    void tornSlotIsSkippedOnRestore() throws Exception {
+        Path persistFile = tempDir.resolve("orders.idempotency");
+        IdempotencyCache cache = new IdempotencyCache(10, 60_000, persistFile);
+        cache.tryAcquire("intact");
+        cache.record("intact");
+        cache.tryAcquire("torn");
+        cache.record("torn");
+
+        // Overwrite the first key byte of the second slot, as a write cut short by a crash would leave it
+        try (FileChannel channel = FileChannel.open(persistFile, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] {'X'}), 16 + 256 + 22);
+        }
+        IdempotencyCache restarted = new IdempotencyCache(10, 60_000, persistFile);
+
+        assertTrue(restarted.isDuplicate("intact"));
+        assertFalse(restarted.isDuplicate("torn"));
+        assertFalse(restarted.isDuplicate("Xorn"));
+    }
+
+    @Test
+    void concurrentRecordsPersistIntactSlots() throws InterruptedException {
+        Path persistFile = tempDir.resolve("orders.idempotency");
+        IdempotencyCache cache = new IdempotencyCache(64, 60_000, persistFile);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int i = 0; i < 2000; i++) {
+            String key = "order-" + i;
+            executor.execute(() -> {
+                if (cache.tryAcquire(key)) {
+                    cache.record(key);
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        IdempotencyCache restarted = new IdempotencyCache(64, 60_000, persistFile);
+
+        assertTrue(restarted.size() <= 64);
+        for (int i = 0; i < 2000; i++) {
+            if (restarted.isDuplicate("order-" + i)) {
+                assertTrue(cache.isDuplicate("order-" + i));
+            }
+        }
+    }
+}
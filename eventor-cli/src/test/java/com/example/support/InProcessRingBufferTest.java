@@ -0,0 +1,259 @@
+package com.example.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class InProcessRingBufferTest {
+
+    @Test
+    void rejectsSizesThatAreNotPowersOfTwo() {
+        assertThrows(IllegalArgumentException.class, () -> new InProcessRingBuffer(0));
+        assertThrows(IllegalArgumentException.class, () -> new InProcessRingBuffer(100));
+    }
+
+    @Test
+    void deliversEveryEventOfConcurrentPublishersInTheirOrder() throws Exception {
+        int publishers = 4;
+        int eventsPerPublisher = 20_000;
+        InProcessRingBuffer ringBuffer = new InProcessRingBuffer(64);
+        Map<String, List<Integer>> received = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch(publishers * eventsPerPublisher);
+        InProcessRingBuffer.Processor processor = ringBuffer.newProcessor("test",
+            new InProcessRingBuffer.BlockingWaitStrategy(), 16, (key, event, endOfBatch) -> {
+                received.computeIfAbsent(key, k -> new ArrayList<>()).add((Integer) event);
+                done.countDown();
+            });
+        processor.start();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < publishers; p++) {
+            String key = "publisher-" + p;
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < eventsPerPublisher; i++) {
+                    ringBuffer.publish(key, i);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        assertEquals(publishers, received.size());
+        for (List<Integer> events : received.values()) {
+            for (int i = 0; i < eventsPerPublisher; i++) {
+                assertEquals(i, events.get(i));
+            }
+        }
+        processor.halt(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void buffersEventsUntilTheProcessorStarts() throws Exception {
+        InProcessRingBuffer ringBuffer = new InProcessRingBuffer(8);
+        List<Object> received = new CopyOnWriteArrayList<>();
+        List<Boolean> batchEnds = new CopyOnWriteArrayList<>();
+        InProcessRingBuffer.Processor processor = ringBuffer.newProcessor("test",
+            new InProcessRingBuffer.YieldingWaitStrategy(), 256, (key, event, endOfBatch) -> {
+                received.add(event);
+                batchEnds.add(endOfBatch);
+            });
+        for (int i = 0; i < 8; i++) {
+            ringBuffer.publish(null, i);
+        }
+
+        // Full, and nothing would ever drain it
+        assertThrows(IllegalStateException.class, () -> ringBuffer.publish(null, 8));
+
+        processor.start();
+        awaitSize(received, 8);
+        assertEquals(List.of(0, 1, 2, 3, 4, 5, 6, 7), received);
+        assertEquals(Boolean.TRUE, batchEnds.get(7));
+        processor.halt(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void resumesAfterTheLastHandledEventWhenRestarted() throws Exception {
+        InProcessRingBuffer ringBuffer = new InProcessRingBuffer(8);
+        List<Object> received = new CopyOnWriteArrayList<>();
+        InProcessRingBuffer.Processor processor = ringBuffer.newProcessor("test",
+            new InProcessRingBuffer.SleepingWaitStrategy(), 256, (key, event, endOfBatch) -> received.add(event));
+        processor.start();
+        ringBuffer.publish(null, "before");
+        awaitSize(received, 1);
+
+        processor.halt(1, TimeUnit.SECONDS);
+        for (int i = 0; i < 8; i++) {
+            ringBuffer.publish(null, "halted-" + i);
+        }
+        assertThrows(IllegalStateException.class, () -> ringBuffer.publish(null, "overflow"));
+        processor.start();
+        ringBuffer.publish(null, "after");
+
+        awaitSize(received, 10);
+        assertEquals("before", received.get(0));
+        assertEquals("halted-0", received.get(1));
+        assertEquals("after", received.get(9));
+        assertEquals(9, processor.getSequence());
+        processor.halt(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void handlerFailuresDoNotStopTheProcessor() throws Exception {
+        InProcessRingBuffer ringBuffer = new InProcessRingBuffer(8);
+        List<Object> received = new CopyOnWriteArrayList<>();
+        InProcessRingBuffer.Processor processor = ringBuffer.newProcessor("test",
+            InProcessRingBuffer.WaitStrategy.named("busy-spin"), 1, (key, event, endOfBatch) -> {
+                if ("poison".equals(event)) {
+                    throw new IllegalStateException("poison");
+                }
+                received.add(event);
+            });
+        processor.start();
+
+        ringBuffer.publish(null, "poison");
+        ringBuffer.publish(null, "next");
+
+        awaitSize(received, 1);
+        assertEquals(List.of("next"), received);
+        processor.halt(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void haltPolicyStopsBeforeTheFailedEventAndRedeliversIt() throws Exception {
+        InProcessRingBuffer ringBuffer = new InProcessRingBuffer(8);
+        List<Object> received = new CopyOnWriteArrayList<>();
+        AtomicBoolean failing = new AtomicBoolean(true);
+        InProcessRingBuffer.Processor processor = ringBuffer.newProcessor("test",
+            new InProcessRingBuffer.BlockingWaitStrategy(), 256, InProcessRingBuffer.FailurePolicy.HALT,
+            (key, event, endOfBatch) -> {
+                if ("poison".equals(event) && failing.get()) {
+                    throw new IllegalStateException("poison");
+                }
+                received.add(event);
+            });
+        processor.start();
+
+        ringBuffer.publish(null, "first");
+        ringBuffer.publish(null, "poison");
+        ringBuffer.publish(null, "last");
+        awaitSize(received, 1);
+        awaitHalted(processor);
+
+        assertEquals(0, processor.getSequence());
+        failing.set(false);
+        processor.start();
+        awaitSize(received, 3);
+        assertEquals(List.of("first", "poison", "last"), received);
+        processor.halt(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void haltLetsTheRunningHandlerFinishWithoutInterrupting() throws Exception {
+        InProcessRingBuffer ringBuffer = new InProcessRingBuffer(8);
+        CountDownLatch handling = new CountDownLatch(1);
+        AtomicBoolean interrupted = new AtomicBoolean();
+        List<Object> received = new CopyOnWriteArrayList<>();
+        InProcessRingBuffer.Processor processor = ringBuffer.newProcessor("test",
+            new InProcessRingBuffer.BlockingWaitStrategy(), 256, (key, event, endOfBatch) -> {
+                handling.countDown();
+                try {
+                    Thread.sleep(100);
+                } catch (InterruptedException e) {
+                    interrupted.set(true);
+                }
+                received.add(event);
+            });
+        processor.start();
+        ringBuffer.publish(null, "slow");
+        ringBuffer.publish(null, "after-halt");
+        assertTrue(handling.await(5, TimeUnit.SECONDS));
+
+        processor.halt(5, TimeUnit.SECONDS);
+
+        assertFalse(interrupted.get());
+        assertEquals(List.of("slow"), received);
+        assertEquals(0, processor.getSequence());
+    }
+
+    @Test
+    void blockingProcessorWakesForEveryPublish() throws Exception {
+        InProcessRingBuffer ringBuffer = new InProcessRingBuffer(2);
+        List<Object> received = new CopyOnWriteArrayList<>();
+        InProcessRingBuffer.Processor processor = ringBuffer.newProcessor("test",
+            new InProcessRingBuffer.BlockingWaitStrategy(), 1, (key, event, endOfBatch) -> received.add(event));
+        processor.start();
+
+        // Each publish waits for the processor to take the previous one, so a lost wake-up would stall here
+        for (int i = 0; i < 5_000; i++) {
+            ringBuffer.publish(null, i);
+            awaitSize(received, i + 1);
+        }
+        processor.halt(1, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void slotsDropTheirEventsOnceEveryProcessorHandledThem() throws Exception {
+        InProcessRingBuffer ringBuffer = new InProcessRingBuffer(8);
+        List<Object> first = new CopyOnWriteArrayList<>();
+        List<Object> second = new CopyOnWriteArrayList<>();
+        InProcessRingBuffer.Processor fast = ringBuffer.newProcessor("fast",
+            new InProcessRingBuffer.YieldingWaitStrategy(), 256, (key, event, endOfBatch) -> first.add(event));
+        InProcessRingBuffer.Processor slow = ringBuffer.newProcessor("slow",
+            new InProcessRingBuffer.YieldingWaitStrategy(), 256, (key, event, endOfBatch) -> second.add(event));
+        fast.start();
+        ringBuffer.publish("key", "event");
+        awaitSize(first, 1);
+
+        assertNotNull(slot(ringBuffer, "events"));
+        slow.start();
+        awaitSize(second, 1);
+        fast.halt(1, TimeUnit.SECONDS);
+        slow.halt(1, TimeUnit.SECONDS);
+
+        assertNull(slot(ringBuffer, "events"));
+        assertNull(slot(ringBuffer, "keys"));
+    }
+
+    private static Object slot(InProcessRingBuffer ringBuffer, String array) throws ReflectiveOperationException {
+        Field field = InProcessRingBuffer.class.getDeclaredField(array);
+        field.setAccessible(true);
+        return ((Object[]) field.get(ringBuffer))[0];
+    }
+
+    private static void awaitHalted(InProcessRingBuffer.Processor processor) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (processor.isRunning() && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertFalse(processor.isRunning());
+        // The processor thread finishes right after it stops running
+        Thread.sleep(50);
+    }
+
+    private static void awaitSize(List<?> list, int size) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (list.size() < size && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(size, list.size());
+    }
+}
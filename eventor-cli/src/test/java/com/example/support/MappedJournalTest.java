@@ -0,0 +1,209 @@
+package com.example.support;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MappedJournalTest {
+    // 120 usable bytes per segment: three of the 20-byte records below
+    private static final int SEGMENT_SIZE = 128;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void readsRecordsInOrderAcrossSegments() throws IOException {
+        try (MappedJournal journal = new MappedJournal(directory, SEGMENT_SIZE, 0)) {
+            MappedJournal.Reader reader = journal.reader("consumer");
+            assertNull(reader.poll());
+
+            append(journal, 10);
+
+            assertEquals(records(0, 10), pollAll(reader));
+            assertEquals(3, reader.getSegmentIndex());
+            assertEquals(4, segmentCount());
+        }
+    }
+
+    @Test
+    void readerResumesFromItsCommittedPosition() throws IOException {
+        try (MappedJournal journal = new MappedJournal(directory, SEGMENT_SIZE, 0)) {
+            append(journal, 5);
+            MappedJournal.Reader reader = journal.reader("consumer");
+            reader.poll();
+            reader.poll();
+            reader.commit();
+            reader.poll();
+
+            assertEquals(records(2, 5), pollAll(journal.reader("consumer")));
+            assertEquals(records(0, 5), pollAll(journal.reader("other")));
+        }
+    }
+
+    @Test
+    void reopenedWriterAppendsAfterTheLastRecord() throws IOException {
+        try (MappedJournal journal = new MappedJournal(directory, SEGMENT_SIZE, 0)) {
+            append(journal, 4);
+        }
+        try (MappedJournal journal = new MappedJournal(directory, SEGMENT_SIZE, 0)) {
+            byte[] record = bytes(record(4));
+            journal.append(record, 0, record.length);
+
+            assertEquals(records(0, 5), pollAll(journal.reader("consumer")));
+        }
+    }
+
+    @Test
+    void allowsOneWriterPerDirectory() throws IOException {
+        try (MappedJournal journal = new MappedJournal(directory, SEGMENT_SIZE, 0);
+             MappedJournal other = new MappedJournal(directory, SEGMENT_SIZE, 0)) {
+            append(journal, 1);
+
+            assertThrows(IllegalStateException.class, () -> other.append(bytes("x"), 0, 1));
+        }
+    }
+
+    @Test
+    void retentionKeepsSegmentsAReaderHasNotCommittedPast() throws IOException {
+        try (MappedJournal journal = new MappedJournal(directory, SEGMENT_SIZE, 2)) {
+            MappedJournal.Reader reader = journal.reader("consumer");
+            append(journal, 12);
+
+            // The reader is still on segment 0, so every segment stays
+            assertEquals(4, segmentCount());
+            assertEquals(records(0, 7), pollN(reader, 7));
+            reader.commit();
+
+            byte[] record = bytes(record(12));
+            journal.append(record, 0, record.length);
+
+            // Rolling to segment 4 now deletes segments 0 and 1, which the reader committed past
+            assertEquals(3, segmentCount());
+            assertEquals(records(7, 13), pollAll(reader));
+        }
+    }
+
+    @Test
+    void retentionWithoutReadersKeepsTheLastSegments() throws IOException {
+        try (MappedJournal journal = new MappedJournal(directory, SEGMENT_SIZE, 2)) {
+            append(journal, 12);
+
+            assertEquals(2, segmentCount());
+            assertEquals(records(6, 12), pollAll(journal.reader("late")));
+        }
+    }
+
+    @Test
+    void readerOnADeletedSegmentMovesOn() throws IOException {
+        try (MappedJournal journal = new MappedJournal(directory, SEGMENT_SIZE, 0)) {
+            MappedJournal.Reader reader = journal.reader("consumer");
+            append(journal, 12);
+
+            journal.deleteSegmentsBefore(2);
+
+            // Segments 0 and 1 are gone, so the reader continues with the first record of segment 2
+            assertEquals(records(6, 12), pollAll(reader));
+        }
+    }
+
+    @Test
+    void closedJournalTakesTheWriterLockAgainBeforeAppending() throws IOException {
+        MappedJournal journal = new MappedJournal(directory, SEGMENT_SIZE, 0);
+        append(journal, 1);
+        journal.close();
+
+        try (MappedJournal other = new MappedJournal(directory, SEGMENT_SIZE, 0)) {
+            byte[] record = bytes(record(1));
+            other.append(record, 0, record.length);
+
+            assertThrows(IllegalStateException.class, () -> journal.append(record, 0, record.length));
+        }
+        byte[] record = bytes(record(2));
+        journal.append(record, 0, record.length);
+        journal.close();
+
+        try (MappedJournal reopened = new MappedJournal(directory, SEGMENT_SIZE, 0)) {
+            assertEquals(records(0, 3), pollAll(reopened.reader("consumer")));
+        }
+    }
+
+    @Test
+    void commitsThePositionAsOneWord() throws IOException {
+        try (MappedJournal journal = new MappedJournal(directory, SEGMENT_SIZE, 0)) {
+            append(journal, 5);
+            MappedJournal.Reader reader = journal.reader("consumer");
+            pollN(reader, 4);
+            reader.commit();
+
+            assertEquals(Long.BYTES, Files.size(directory.resolve("readers").resolve("consumer.position")));
+            MappedJournal.Reader resumed = journal.reader("consumer");
+            assertEquals(1, resumed.getSegmentIndex());
+            assertEquals(records(4, 5), pollAll(resumed));
+        }
+    }
+
+    @Test
+    void rejectsRecordsThatDoNotFitASegment() throws IOException {
+        assertThrows(IllegalArgumentException.class, () -> new MappedJournal(directory, 100, 0));
+        try (MappedJournal journal = new MappedJournal(directory, SEGMENT_SIZE, 0)) {
+            assertThrows(IllegalArgumentException.class, () -> journal.append(new byte[SEGMENT_SIZE], 0, SEGMENT_SIZE));
+            assertThrows(IllegalArgumentException.class, () -> journal.append(new byte[0], 0, 0));
+        }
+    }
+
+    private static void append(MappedJournal journal, int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            byte[] record = bytes(record(i));
+            journal.append(record, 0, record.length);
+        }
+    }
+
+    private static List<String> pollAll(MappedJournal.Reader reader) throws IOException {
+        List<String> records = new ArrayList<>();
+        for (byte[] record = reader.poll(); record != null; record = reader.poll()) {
+            records.add(new String(record, StandardCharsets.UTF_8));
+        }
+        return records;
+    }
+
+    private static List<String> pollN(MappedJournal.Reader reader, int count) throws IOException {
+        List<String> records = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            records.add(new String(reader.poll(), StandardCharsets.UTF_8));
+        }
+        return records;
+    }
+
+    private static List<String> records(int from, int to) {
+        List<String> records = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            records.add(record(i));
+        }
+        return records;
+    }
+
+    private static String record(int index) {
+        return String.format("record-%013d", index);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private long segmentCount() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.toString().endsWith(".segment")).count();
+        }
+    }
+}
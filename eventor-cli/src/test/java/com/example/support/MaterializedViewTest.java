@@ -0,0 +1,155 @@
+package com.example.support;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MaterializedViewTest {
+    private static final long SLAB_SIZE = 16 * 1024 * 1024;
+    private static final int LARGE = 1024 * 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void keepsTheLatestValuePerKeyAndDropsTombstones() {
+        for (boolean offHeap : new boolean[] {false, true}) {
+            MaterializedView<String> view = open(offHeap, null);
+
+            view.apply(0, 0, "a", "1");
+            view.apply(0, 1, "b", "2");
+            view.apply(0, 2, "a", "3");
+            view.apply(0, 3, "b", null);
+
+            assertEquals("3", view.get("a"));
+            assertNull(view.get("b"));
+            assertEquals(1, view.size());
+            view.close();
+        }
+    }
+
+    @Test
+    void overwritesAreCompactedIntoTheSlabsAlreadyHeld() {
+        MaterializedView<String> view = open(true, null);
+        Map<String, String> latest = new HashMap<>();
+
+        for (int round = 0; round < 40; round++) {
+            for (int key = 0; key < 4; key++) {
+                String value = large(round * 4 + key);
+                view.apply(0, round * 4L + key, "key-" + key, value);
+                latest.put("key-" + key, value);
+            }
+        }
+
+        assertEquals(SLAB_SIZE, view.getAllocatedBytes());
+        latest.forEach((key, value) -> assertEquals(value, view.get(key)));
+        view.close();
+    }
+
+    @Test
+    void deletedValuesTriggerCompaction() {
+        MaterializedView<String> view = open(true, null);
+        for (int key = 0; key < 40; key++) {
+            view.apply(0, key, "key-" + key, large(key));
+        }
+        assertEquals(3 * SLAB_SIZE, view.getAllocatedBytes());
+
+        for (int key = 0; key < 36; key++) {
+            view.apply(0, 40L + key, "key-" + key, null);
+        }
+
+        assertEquals(SLAB_SIZE, view.getAllocatedBytes());
+        assertEquals(4, view.size());
+        for (int key = 36; key < 40; key++) {
+            assertEquals(large(key), view.get("key-" + key));
+        }
+        view.close();
+    }
+
+    @Test
+    void snapshotIsRestoredAfterARestart() {
+        Path snapshotFile = directory.resolve("users.snapshot");
+        MaterializedView<String> view = open(true, snapshotFile);
+        view.apply(0, 0, "a", "1");
+        view.apply(1, 0, "b", "2");
+        view.apply(0, 1, "a", null);
+        view.close();
+
+        MaterializedView<String> restarted = open(true, snapshotFile);
+
+        assertNull(restarted.get("a"));
+        assertEquals("2", restarted.get("b"));
+        assertEquals(1, restarted.size());
+        restarted.close();
+    }
+
+    @Test
+    void recordsAreAppliedWhileASnapshotIsWritten() throws Exception {
+        CountDownLatch encoding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Path snapshotFile = directory.resolve("users.snapshot");
+        MaterializedView<String> view = new MaterializedView<>("test", "users", false, (value, out) -> {
+            encoding.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            write(value, out);
+        }, MaterializedViewTest::read, snapshotFile, 0, null);
+        view.apply(0, 0, "a", "1");
+
+        CompletableFuture<Void> snapshot = CompletableFuture.runAsync(() -> {
+            try {
+                view.snapshot();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(encoding.await(5, TimeUnit.SECONDS));
+        CompletableFuture.runAsync(() -> view.apply(0, 1, "b", "2")).get(5, TimeUnit.SECONDS);
+        release.countDown();
+        snapshot.get(5, TimeUnit.SECONDS);
+
+        assertEquals("2", view.get("b"));
+        // The snapshot holds the view as it was copied
+        MaterializedView<String> restarted = open(false, snapshotFile);
+        assertEquals("1", restarted.get("a"));
+        assertNull(restarted.get("b"));
+    }
+
+    private static MaterializedView<String> open(boolean offHeap, Path snapshotFile) {
+        return new MaterializedView<>("test", "users", offHeap, MaterializedViewTest::write,
+            MaterializedViewTest::read, snapshotFile, 0, null);
+    }
+
+    private static String large(int version) {
+        return version + "-" + "x".repeat(LARGE);
+    }
+
+    private static void write(String value, DataOutput out) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String read(DataInput in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
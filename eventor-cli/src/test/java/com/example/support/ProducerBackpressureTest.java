@@ -0,0 +1,90 @@
+package com.example.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProducerBackpressureTest {
+
+    @Test
+    void windowBoundsSendsInFlight() {
+        ProducerBackpressure backpressure = new ProducerBackpressure(2, 0);
+
+        assertTrue(backpressure.tryAcquire());
+        assertTrue(backpressure.tryAcquire());
+        assertFalse(backpressure.tryAcquire());
+        assertEquals(2, backpressure.getInFlight());
+        assertEquals(1, backpressure.getRejectedCount());
+
+        backpressure.release();
+        assertTrue(backpressure.tryAcquire());
+    }
+
+    @Test
+    void timedAcquireWaitsForACompletedSend() throws Exception {
+        ProducerBackpressure backpressure = new ProducerBackpressure(1, 0);
+        backpressure.acquire();
+
+        CompletableFuture.runAsync(() -> {
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            backpressure.release();
+        });
+
+        assertTrue(backpressure.tryAcquire(5, TimeUnit.SECONDS));
+        assertEquals(1, backpressure.getWaitCount());
+        assertTrue(backpressure.getWaitTimeNanos() > 0);
+    }
+
+    @Test
+    void timedAcquireGivesUpAtTheDeadline() throws InterruptedException {
+        ProducerBackpressure backpressure = new ProducerBackpressure(1, 0);
+        backpressure.acquire();
+
+        assertFalse(backpressure.tryAcquire(20, TimeUnit.MILLISECONDS));
+        assertEquals(1, backpressure.getRejectedCount());
+        assertEquals(1, backpressure.getInFlight());
+    }
+
+    @Test
+    void rateLimitRejectionReturnsTheWindowSlot() throws InterruptedException {
+        ProducerBackpressure backpressure = new ProducerBackpressure(10, 1);
+        assertTrue(backpressure.tryAcquire());
+
+        assertFalse(backpressure.tryAcquire(10, TimeUnit.MILLISECONDS));
+        assertEquals(1, backpressure.getInFlight());
+    }
+
+    @Test
+    void interruptedWaitForTheRateLimitReturnsTheWindowSlot() throws Exception {
+        ProducerBackpressure backpressure = new ProducerBackpressure(10, 1);
+        assertTrue(backpressure.tryAcquire());
+        CompletableFuture<Throwable> outcome = new CompletableFuture<>();
+        Thread sender = new Thread(() -> {
+            try {
+                backpressure.tryAcquire(5, TimeUnit.SECONDS);
+                outcome.complete(null);
+            } catch (Throwable e) {
+                outcome.complete(e);
+            }
+        });
+        sender.start();
+
+        // The window slot is taken at once, then the sender parks on the rate limit
+        while (backpressure.getInFlight() < 2) {
+            Thread.onSpinWait();
+        }
+        sender.interrupt();
+
+        assertTrue(outcome.get(5, TimeUnit.SECONDS) instanceof InterruptedException);
+        assertEquals(1, backpressure.getInFlight());
+    }
+}
@@ -0,0 +1,185 @@
+package com.example.support;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SpilloverJournalTest {
+    private static final int SEGMENT_SIZE = 4096;
+
+    @TempDir
+    Path directory;
+
+    private final Broker broker = new Broker();
+    private final List<SpilloverJournal<String>> opened = new ArrayList<>();
+
+    @AfterEach
+    void closeJournals() throws IOException {
+        for (SpilloverJournal<String> journal : opened) {
+            journal.close();
+        }
+    }
+
+    @Test
+    void sendsDirectlyWhileTheBrokerKeepsUp() throws Exception {
+        SpilloverJournal<String> spillover = started(10);
+
+        send(spillover, 0, 3);
+
+        assertEquals(events(0, 3), broker.received);
+        assertEquals(0, spillover.getSpilledCount());
+        assertFalse(spillover.isSpilling());
+    }
+
+    @Test
+    void outageSpillsAndReplaysInOrder() throws Exception {
+        SpilloverJournal<String> spillover = started(10);
+        broker.down = true;
+
+        send(spillover, 0, 4);
+
+        assertTrue(spillover.isSpilling());
+        assertEquals(4, spillover.getSpilledCount());
+        broker.down = false;
+        await(() -> !spillover.isSpilling());
+        assertEquals(events(0, 4), broker.received);
+        assertEquals(4, spillover.getDrainedCount());
+
+        send(spillover, 4, 5);
+        assertEquals(events(0, 5), broker.received);
+    }
+
+    @Test
+    void failedDirectSendsReplayBeforeLaterOverflow() throws Exception {
+        SpilloverJournal<String> spillover = started(2);
+        broker.holding = true;
+
+        // Two direct sends in flight, so the third overflows into the journal
+        send(spillover, 0, 3);
+        assertEquals(1, spillover.getSpilledCount());
+        broker.holding = false;
+        broker.fail("event-0");
+        broker.fail("event-1");
+
+        await(() -> !spillover.isSpilling());
+        assertEquals(events(0, 3), broker.received);
+    }
+
+    @Test
+    void failedReplayResumesAfterTheLastAcknowledgedEvent() throws Exception {
+        SpilloverJournal<String> spillover = open(10);
+        send(spillover, 0, 5);
+        broker.failOnce.add("event-2");
+
+        spillover.start();
+
+        await(() -> !spillover.isSpilling());
+        // event-0 and event-1 are committed before the failed event-2, so the replay repeats event-2 onwards only
+        assertEquals(List.of("event-0", "event-1", "event-3", "event-4", "event-2", "event-3", "event-4"),
+            broker.received);
+        assertEquals(5, spillover.getDrainedCount());
+    }
+
+    @Test
+    void eventsSpilledBeforeARestartAreReplayedFirst() throws Exception {
+        SpilloverJournal<String> stopped = open(10);
+        send(stopped, 0, 3);
+        stopped.close();
+        opened.remove(stopped);
+
+        SpilloverJournal<String> restarted = open(10);
+        send(restarted, 3, 4);
+        restarted.start();
+
+        await(() -> !restarted.isSpilling());
+        assertEquals(events(0, 4), broker.received);
+    }
+
+    private SpilloverJournal<String> started(int maxPending) throws InterruptedException {
+        SpilloverJournal<String> spillover = open(maxPending);
+        spillover.start();
+        await(() -> !spillover.isSpilling());
+        return spillover;
+    }
+
+    private SpilloverJournal<String> open(int maxPending) {
+        SpilloverJournal<String> spillover = new SpilloverJournal<>("test", directory, SEGMENT_SIZE, maxPending,
+            SpilloverJournalTest::write, SpilloverJournalTest::read, broker);
+        opened.add(spillover);
+        return spillover;
+    }
+
+    private static void write(String event, DataOutput out) throws IOException {
+        out.writeUTF(event);
+    }
+
+    private static String read(DataInput in) throws IOException {
+        return in.readUTF();
+    }
+
+    private static void send(SpilloverJournal<String> spillover, int from, int to) {
+        for (int i = from; i < to; i++) {
+            spillover.send("key", "event-" + i);
+        }
+    }
+
+    private static List<String> events(int from, int to) {
+        List<String> events = new ArrayList<>();
+        for (int i = from; i < to; i++) {
+            events.add("event-" + i);
+        }
+        return events;
+    }
+
+    private static void await(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertTrue(condition.getAsBoolean());
+    }
+
+    private static final class Broker implements SpilloverJournal.Sender<String> {
+        private final List<String> received = new CopyOnWriteArrayList<>();
+        private final Set<String> failOnce = ConcurrentHashMap.newKeySet();
+        private final Map<String, CompletableFuture<Object>> held = new ConcurrentHashMap<>();
+        private volatile boolean down;
+        private volatile boolean holding;
+
+        @Override
+        public CompletableFuture<?> send(String key, String event) {
+            if (down || failOnce.remove(event)) {
+                return CompletableFuture.failedFuture(new IllegalStateException("Broker unavailable"));
+            }
+            if (holding) {
+                CompletableFuture<Object> ack = new CompletableFuture<>();
+                held.put(event, ack);
+                return ack;
+            }
+            received.add(event);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        private void fail(String event) {
+            held.remove(event).completeExceptionally(new IllegalStateException("Send timed out"));
+        }
+    }
+}
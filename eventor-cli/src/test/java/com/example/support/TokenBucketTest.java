@@ -0,0 +1,62 @@
+package com.example.support;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketTest {
+
+    @Test
+    void startsFullWithTheBurst() {
+        TokenBucket bucket = new TokenBucket(10, 5);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(bucket.tryAcquire(), "permit " + i);
+        }
+        assertFalse(bucket.tryAcquire());
+    }
+
+    @Test
+    void timedAcquireWaitsForTheNextPermit() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(10, 1);
+        bucket.tryAcquire();
+
+        long start = System.nanoTime();
+        assertTrue(bucket.tryAcquire(1, TimeUnit.SECONDS));
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertTrue(waitedMillis >= 50 && waitedMillis < 1000, waitedMillis + " ms");
+    }
+
+    @Test
+    void timedAcquireThatWouldWaitTooLongClaimsNothing() throws InterruptedException {
+        TokenBucket bucket = new TokenBucket(10, 1);
+        bucket.tryAcquire();
+
+        assertFalse(bucket.tryAcquire(10, TimeUnit.MILLISECONDS));
+        assertFalse(bucket.tryAcquire(10, TimeUnit.MILLISECONDS));
+
+        // Had the failed attempts reserved permits, the next one would be 300 ms away
+        assertTrue(bucket.tryAcquire(200, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    void timedAcquireIsInterruptible() {
+        TokenBucket bucket = new TokenBucket(1, 1);
+        bucket.tryAcquire();
+
+        Thread.currentThread().interrupt();
+        assertThrows(InterruptedException.class, () -> bucket.tryAcquire(5, TimeUnit.SECONDS));
+        assertFalse(Thread.interrupted());
+    }
+
+    @Test
+    void rejectsNonPositiveLimits() {
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new TokenBucket(10, 0));
+    }
+}
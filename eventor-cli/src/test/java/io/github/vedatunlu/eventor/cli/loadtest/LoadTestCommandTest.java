@@ -0,0 +1,63 @@
+package io.github.vedatunlu.eventor.cli.loadtest;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import picocli.CommandLine;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoadTestCommandTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void drivesGeneratedSerdesAndSupportClasses() throws IOException {
+        Files.writeString(directory.resolve("load-event.json"), "{\"type\": \"dto\", \"name\": \"LoadEvent\", "
+            + "\"fields\": {\"id\": \"UUID\", \"customer\": \"String\", \"tags\": \"List<String>\"}}");
+        Files.writeString(directory.resolve("producers.ndjson"), String.join("\n",
+            "{\"type\": \"producer\", \"name\": \"LoadProducer\", \"dto\": \"LoadEvent\", \"topic\": \"loads\", "
+                + "\"maxInFlight\": 100, \"claimCheck\": {\"thresholdBytes\": 1024}}",
+            "{\"type\": \"producer\", \"name\": \"LoadBatchProducer\", \"dto\": \"LoadEvent\", "
+                + "\"topic\": \"loads-batched\", \"envelope\": {\"maxEvents\": 10, \"maxDelayMs\": 5}}"));
+        Files.writeString(directory.resolve("consumers.json"), "{\"type\": \"consumer\", \"name\": \"LoadListener\", "
+            + "\"methods\": ["
+            + "{\"methodName\": \"onLoad\", \"dto\": \"LoadEvent\", \"topic\": \"loads\", \"groupId\": \"loads\", "
+            + "\"idempotencyKey\": \"id\", \"claimCheck\": {}}, "
+            + "{\"methodName\": \"onLoadBatch\", \"dto\": \"LoadEvent\", \"topic\": \"loads-batched\", "
+            + "\"groupId\": \"loads\", \"idempotencyKey\": \"id\", \"envelope\": {\"delivery\": \"each\"}}]}");
+
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        PrintStream standardOut = System.out;
+        int exitCode;
+        System.setOut(new PrintStream(output, true, StandardCharsets.UTF_8));
+        try {
+            exitCode = new CommandLine(new LoadTestCommand()).execute("-j", directory.toString(),
+                "-cp", System.getProperty("java.class.path"), "-n", "200", "--warmupEvents", "50", "--mix", "large:1");
+        } finally {
+            System.setOut(standardOut);
+        }
+        String report = output.toString(StandardCharsets.UTF_8);
+
+        assertEquals(0, exitCode, report);
+        assertTrue(report.contains("LoadProducer -> LoadListener.onLoad "
+            + "(loads, json, claim checks over 1024 bytes, backpressure 100 in flight)"), report);
+        assertTrue(report.contains("claim checks 200 payloads offloaded"), report);
+        assertTrue(report.contains("backpressure "), report);
+        assertTrue(report.contains("LoadListener.onLoad [json, claim checks, idempotent]"), report);
+        assertTrue(report.contains("LoadBatchProducer -> LoadListener.onLoadBatch "
+            + "(loads-batched, json, envelopes of 10 or 5 ms)"), report);
+        assertTrue(report.contains("LoadListener.onLoadBatch [json, envelopes, idempotent]"), report);
+        // The warm-up sends other keys than the measured run
+        assertTrue(report.contains("duplicates   LoadListener.onLoad: 0 skipped"), report);
+        assertTrue(report.contains("duplicates   LoadListener.onLoadBatch: 0 skipped"), report);
+    }
+}
@@ -0,0 +1,92 @@
+package io.github.vedatunlu.eventor.core.generator;
+
+import io.github.vedatunlu.eventor.core.model.DtoDefinition;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Locates and checks the compression dictionaries of DTOs declaring compression "dictionary". A dictionary is
+ * trained by the CLI's train-dictionary command and embedded into the generated code, so it lives next to the
+ * definitions: at the DTO's dictionary path, relative to the JSON directory, or at &lt;DTO name&gt;.dict.
+ * Dictionaries a DTO was compressed with before are listed in its previousDictionaries, relative to the same directory.
+ */
+public final class CompressionDictionaries {
+
+    /**
+     * The generated code embeds the dictionary as a Base64 string constant, which the class file limits to 64 KB.
+     */
+    public static final int MAX_SIZE = 32768;
+
+    /**
+     * Zstandard level the generated serializers compress at.
+     */
+    public static final int LEVEL = 3;
+
+    private CompressionDictionaries() {
+    }
+
+    /**
+     * The dictionary file of a DTO, whether or not it exists yet.
+     */
+    public static Path resolve(final Path jsonPath, final DtoDefinition dto) {
+        String dictionary = dto.getDictionary() != null ? dto.getDictionary() : dto.getName() + ".dict";
+        return jsonPath.resolve(dictionary);
+    }
+
+    /**
+     * Reads the dictionary of a DTO, failing with the command that trains it when it is missing.
+     */
+    public static byte[] read(final Path jsonPath, final DtoDefinition dto) throws IOException {
+        Path file = resolve(jsonPath, dto);
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalArgumentException(String.format(
+                "DTO %s declares dictionary compression but %s does not exist; "
+                    + "train it with: eventor train-dictionary -j <jsonDir> --dto %s --samples <payloads>",
+                dto.getName(), file.toAbsolutePath(), dto.getName()));
+        }
+        return readChecked(file, dto);
+    }
+
+    /**
+     * Reads the dictionaries listed in a DTO's previousDictionaries, in their declared order.
+     */
+    public static List<byte[]> readPrevious(final Path jsonPath, final DtoDefinition dto) throws IOException {
+        List<byte[]> dictionaries = new ArrayList<>();
+        if (dto.getPreviousDictionaries() == null) {
+            return dictionaries;
+        }
+        for (String previous : dto.getPreviousDictionaries()) {
+            Path file = jsonPath.resolve(previous);
+            if (!Files.isRegularFile(file)) {
+                throw new IllegalArgumentException(String.format(
+                    "Previous dictionary %s of DTO %s does not exist", file.toAbsolutePath(), dto.getName()));
+            }
+            dictionaries.add(readChecked(file, dto));
+        }
+        return dictionaries;
+    }
+
+    private static byte[] readChecked(final Path file, final DtoDefinition dto) throws IOException {
+        byte[] dictionary = Files.readAllBytes(file);
+        if (dictionary.length == 0 || dictionary.length > MAX_SIZE) {
+            throw new IllegalArgumentException(String.format(
+                "Dictionary %s of DTO %s has %d bytes; expected 1 to %d",
+                file.toAbsolutePath(), dto.getName(), dictionary.length, MAX_SIZE));
+        }
+        return dictionary;
+    }
+
+    /**
+     * The id records carry in their dictionary header, so consumers can tell which dictionary compressed them.
+     */
+    public static int id(final byte[] dictionary) {
+        CRC32 crc = new CRC32();
+        crc.update(dictionary);
+        return (int) crc.getValue();
+    }
+}
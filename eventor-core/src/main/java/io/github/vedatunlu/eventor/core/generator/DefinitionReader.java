@@ -0,0 +1,91 @@
+package io.github.vedatunlu.eventor.core.generator;
+
+import com.fasterxml.jackson.core.JsonLocation;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Streams the definitions of one file, one object at a time. A file holds a single definition, a top-level
+ * array of definitions, or a sequence of definitions such as NDJSON, one object per line; only the definition
+ * being read is kept in memory.
+ */
+public final class DefinitionReader implements Closeable {
+    private final Path file;
+    private final JsonParser parser;
+    private final boolean array;
+    private JsonToken pending;
+    private int index = -1;
+    private int line;
+
+    public DefinitionReader(final ObjectMapper objectMapper, final Path file) throws IOException {
+        this.file = file;
+        this.parser = objectMapper.createParser(file.toFile());
+        JsonToken first = parser.nextToken();
+        this.array = first == JsonToken.START_ARRAY;
+        this.pending = array ? null : first;
+    }
+
+    /**
+     * Every .json and .ndjson file under a directory, in path order.
+     */
+    public static List<Path> definitionFiles(final Path jsonPath) throws IOException {
+        try (Stream<Path> paths = Files.walk(jsonPath)) {
+            return paths.filter(Files::isRegularFile)
+                    .filter(path -> path.toString().endsWith(".json") || path.toString().endsWith(".ndjson"))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Reads the next definition, or returns null once the file is exhausted.
+     */
+    public JsonNode next() throws IOException {
+        JsonToken token = pending != null ? pending : parser.nextToken();
+        pending = null;
+        if (token == null || (array && token == JsonToken.END_ARRAY)) {
+            return null;
+        }
+        index++;
+        JsonLocation location = parser.currentTokenLocation();
+        line = location.getLineNr();
+        if (token != JsonToken.START_OBJECT) {
+            throw new IllegalArgumentException(String.format(
+                "Expected a definition object at %s but found %s", getLocation(), token));
+        }
+        return parser.readValueAsTree();
+    }
+
+    /**
+     * Where the last definition read starts: the file name, with the array pointer or line number inside a bundle.
+     */
+    public String getLocation() {
+        String fileName = file.getFileName().toString();
+        if (array) {
+            return fileName + "#/" + index;
+        }
+        if (index > 0 || fileName.endsWith(".ndjson")) {
+            return fileName + ":" + line;
+        }
+        return fileName;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
@@ -1,12 +1,18 @@
 package io.github.vedatunlu.eventor.core.generator;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import freemarker.template.Configuration;
 import freemarker.template.Template;
 import freemarker.template.TemplateException;
 import io.github.vedatunlu.eventor.core.model.ConsumerDefinition;
 import io.github.vedatunlu.eventor.core.model.DtoDefinition;
+import io.github.vedatunlu.eventor.core.model.FieldType;
+import io.github.vedatunlu.eventor.core.model.MaterializeOptions;
 import io.github.vedatunlu.eventor.core.model.ProducerDefinition;
+import io.github.vedatunlu.eventor.core.model.TransactionBatchOptions;
+import io.github.vedatunlu.eventor.core.validation.DefinitionValidator;
+import io.github.vedatunlu.eventor.core.validation.ValidationError;
 
 import java.io.File;
 import java.io.FileWriter;
@@ -14,12 +20,36 @@ import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Base64;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
 
 public class EventorGenerator {
+    /**
+     * Values of the ackMode option of a consumer method.
+     */
+    private static final List<String> ACK_MODES = List.of("record", "batch", "time", "count", "manual", "manual-async");
+
+    /**
+     * Length of the Base64 string literals an embedded dictionary is split into.
+     */
+    private static final int DICTIONARY_LINE_LENGTH = 100;
+
     private final ObjectMapper objectMapper;
     private final Configuration freemarkerConfig;
+    private final Set<String> generatedSupportClasses = new HashSet<>();
+    private final Set<String> generatedEnvelopes = new HashSet<>();
+    private final Map<String, DtoDefinition> dtoDefinitions = new HashMap<>();
+    private final Set<String> generatedProjections = new HashSet<>();
+    private Path benchmarkPath;
+    private Path jsonPath;
+    private DefinitionValidator definitionValidator;
 
     public EventorGenerator() {
         this.objectMapper = new ObjectMapper();
@@ -28,9 +58,17 @@ public class EventorGenerator {
         this.freemarkerConfig.setDefaultEncoding("UTF-8");
     }
 
+    /**
+     * Sets the directory that JMH benchmarks for every DTO are generated into; null, the default, skips them.
+     */
+    public void setBenchmarkDir(final String benchmarkDir) {
+        this.benchmarkPath = benchmarkDir != null ? Paths.get(benchmarkDir) : null;
+    }
+
     public void generateFromJsonDirectory(String jsonDir, String outputDir) throws IOException, TemplateException {
         Path jsonPath = Paths.get(jsonDir);
         Path outputPath = Paths.get(outputDir);
+        this.jsonPath = jsonPath;
 
         // Validate input directory exists
         if (!Files.exists(jsonPath)) {
@@ -40,9 +78,8 @@ public class EventorGenerator {
         }
 
         // Check if directory has any JSON files
-        long jsonFileCount = Files.walk(jsonPath)
-                .filter(path -> path.toString().endsWith(".json"))
-                .count();
+        List<Path> definitionFiles = DefinitionReader.definitionFiles(jsonPath);
+        long jsonFileCount = definitionFiles.size();
 
         if (jsonFileCount == 0) {
             System.out.println(String.format(
@@ -50,23 +87,37 @@ public class EventorGenerator {
                 "💡 Create JSON files with these patterns:%n" +
                 "   - *-event.json (for DTOs)%n" +
                 "   - *-producer.json (for Producers)%n" +
-                "   - *-consumer.json (for Consumers)", jsonPath.toAbsolutePath()));
+                "   - *-consumer.json (for Consumers)%n"
+                + "   - *.ndjson or a JSON array (for bundles of definitions)", jsonPath.toAbsolutePath()));
             return;
         }
 
+        validateDefinitions(definitionFiles);
+
         // Create output directory if it doesn't exist
         Files.createDirectories(outputPath);
+        if (benchmarkPath != null) {
+            Files.createDirectories(benchmarkPath);
+        }
+        generatedSupportClasses.clear();
+        generatedEnvelopes.clear();
+        generatedProjections.clear();
 
         System.out.println(String.format("🔄 Processing %d JSON files from: %s", jsonFileCount, jsonPath.toAbsolutePath()));
 
-        // Process all JSON files in the directory
-        Files.walk(jsonPath)
-                .filter(path -> path.toString().endsWith(".json"))
-                .forEach(jsonFile -> {
+        // Process every definition as it is read, so bundles are never held in memory as a whole
+        for (Path definitionFile : definitionFiles) {
+            try (DefinitionReader reader = new DefinitionReader(objectMapper, definitionFile)) {
+                while (true) {
+                    String location = definitionFile.getFileName().toString();
                     try {
-                        processJsonFile(jsonFile.toFile(), outputPath);
+                        JsonNode definition = reader.next();
+                        if (definition == null) {
+                            break;
+                        }
+                        location = reader.getLocation();
+                        processDefinition(definition, location, outputPath);
                     } catch (Exception e) {
-                        String fileName = jsonFile.getFileName().toString();
                         System.err.println(String.format(
                             "❌ Failed to process %s:%n" +
                             "   Error: %s%n" +
@@ -74,39 +125,159 @@ public class EventorGenerator {
                             "   - Validate JSON syntax with jsonlint%n" +
                             "   - Check field types against schema%n" +
                             "   - Ensure 'type' field is 'dto', 'producer', or 'consumer'",
-                            fileName, e.getMessage()));
-                        throw new RuntimeException("Failed to process JSON file: " + fileName, e);
+                            location, e.getMessage()));
+                        throw new RuntimeException("Failed to process JSON file: " + location, e);
                     }
-                });
+                }
+            }
+        }
 
         System.out.println("✅ Code generation completed successfully!");
     }
 
-    private void processJsonFile(File jsonFile, Path outputPath) throws IOException, TemplateException {
-        Map<String, Object> jsonContent = objectMapper.readValue(jsonFile, Map.class);
-        String type = (String) jsonContent.get("type");
+    /**
+     * Checks all definitions against the schema and each other before anything is written, and reports every error.
+     * Definitions that pass the schema are then checked for the option combinations the generator supports.
+     */
+    private void validateDefinitions(final List<Path> definitionFiles) throws IOException {
+        if (definitionValidator == null) {
+            definitionValidator = new DefinitionValidator(objectMapper);
+        }
+        long start = System.nanoTime();
+        List<ValidationError> errors = definitionValidator.validate(definitionFiles);
+        if (errors.isEmpty()) {
+            loadDtoDefinitions(definitionFiles);
+            checkDefinitions(definitionFiles, errors);
+        }
+        if (!errors.isEmpty()) {
+            System.err.println(String.format("❌ %d definition error(s):", errors.size()));
+            errors.forEach(error -> System.err.println("   " + error));
+            System.err.println(
+                "💡 Every location is a file and a JSON pointer; the schema rules are in eventor-schema.json");
+            throw new IllegalArgumentException(String.format(
+                "%d invalid definition(s), first: %s", errors.size(), errors.get(0)));
+        }
+        System.out.println(String.format("🔎 Validated %d JSON files in %d ms",
+            definitionFiles.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+    }
+
+    /**
+     * Reads every DTO definition up front, so consumers can be checked against DTOs in files processed after them.
+     * Only the DTOs are kept; the other definitions are dropped as soon as they are read.
+     */
+    private void loadDtoDefinitions(final List<Path> definitionFiles) throws IOException {
+        dtoDefinitions.clear();
+        for (Path definitionFile : definitionFiles) {
+            try (DefinitionReader reader = new DefinitionReader(objectMapper, definitionFile)) {
+                for (JsonNode definition = reader.next(); definition != null; definition = reader.next()) {
+                    if ("dto".equalsIgnoreCase(definition.path("type").asText())) {
+                        DtoDefinition dto = objectMapper.treeToValue(definition, DtoDefinition.class);
+                        dtoDefinitions.put(dto.getName(), dto);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks the options of every definition, and their combinations with the DTOs they use, the way the generator
+     * would meet them while rendering; each definition, or consumer method, reports its first error.
+     */
+    private void checkDefinitions(final List<Path> definitionFiles, final List<ValidationError> errors)
+            throws IOException {
+        Map<String, List<String>> projections = new HashMap<>();
+        for (Path definitionFile : definitionFiles) {
+            try (DefinitionReader reader = new DefinitionReader(objectMapper, definitionFile)) {
+                for (JsonNode definition = reader.next(); definition != null; definition = reader.next()) {
+                    String location = reader.getLocation();
+                    switch (definition.path("type").asText().toLowerCase()) {
+                        case "dto":
+                            DtoDefinition dto = objectMapper.treeToValue(definition, DtoDefinition.class);
+                            check(location, "", errors, () -> checkDto(dto));
+                            break;
+                        case "producer":
+                            ProducerDefinition producer =
+                                objectMapper.treeToValue(definition, ProducerDefinition.class);
+                            check(location, "", errors, () -> checkProducer(producer));
+                            break;
+                        case "consumer":
+                            ConsumerDefinition consumer =
+                                objectMapper.treeToValue(definition, ConsumerDefinition.class);
+                            checkConsumer(consumer, location, projections, errors);
+                            break;
+                        default:
+                            break;
+                    }
+                }
+            }
+        }
+    }
+
+    private static void check(final String location, final String pointer, final List<ValidationError> errors,
+                              final Runnable check) {
+        try {
+            check.run();
+        } catch (IllegalArgumentException e) {
+            errors.add(new ValidationError(location, pointer, e.getMessage()));
+        }
+    }
+
+    private void processDefinition(final JsonNode definition, final String location, final Path outputPath)
+            throws IOException, TemplateException {
+        String type = definition.path("type").asText(null);
+        if (type == null) {
+            throw new IllegalArgumentException("Definition at " + location + " has no 'type'");
+        }
 
         switch (type.toLowerCase()) {
             case "dto":
-                generateDto(jsonFile, outputPath);
+                generateDto(objectMapper.treeToValue(definition, DtoDefinition.class), outputPath);
                 break;
             case "producer":
-                generateProducer(jsonFile, outputPath);
+                generateProducer(objectMapper.treeToValue(definition, ProducerDefinition.class), outputPath);
                 break;
             case "consumer":
-                generateConsumer(jsonFile, outputPath);
+                generateConsumer(objectMapper.treeToValue(definition, ConsumerDefinition.class), outputPath);
                 break;
             default:
-                System.out.println("Unknown type: " + type + " in file: " + jsonFile.getName());
+                System.out.println("Unknown type: " + type + " in: " + location);
+        }
+    }
+
+    private void checkDto(final DtoDefinition dto) {
+        resolveCodecFieldTypes(dto);
+        if (dto.isPooled() && !dto.hasCodec("binary")) {
+            throw new IllegalArgumentException(
+                "DTO " + dto.getName() + " is pooled but does not declare the binary codec it is decoded with");
+        }
+        if (dto.getCompression() != null && !dto.isDictionaryCompressed()) {
+            throw new IllegalArgumentException(String.format(
+                "Unknown compression '%s' in DTO %s; expected 'dictionary'", dto.getCompression(), dto.getName()));
+        }
+        if ((dto.getDictionary() != null || dto.getPreviousDictionaries() != null) && !dto.isDictionaryCompressed()) {
+            throw new IllegalArgumentException(
+                "DTO " + dto.getName() + " declares a dictionary file but not compression 'dictionary'");
+        }
+        VersionUpcasters.compile(dto, objectMapper);
+        if (dto.isDictionaryCompressed()) {
+            try {
+                CompressionDictionaries.read(jsonPath, dto);
+                CompressionDictionaries.readPrevious(jsonPath, dto);
+            } catch (IOException e) {
+                throw new IllegalArgumentException(String.format("Dictionary %s of DTO %s cannot be read: %s",
+                    CompressionDictionaries.resolve(jsonPath, dto), dto.getName(), e.getMessage()), e);
+            }
         }
     }
 
-    private void generateDto(File jsonFile, Path outputPath) throws IOException, TemplateException {
-        DtoDefinition dto = objectMapper.readValue(jsonFile, DtoDefinition.class);
+    private void generateDto(final DtoDefinition dto, final Path outputPath) throws IOException, TemplateException {
+        Map<String, FieldType> fieldTypes = resolveCodecFieldTypes(dto);
+        List<Map<String, Object>> upcasters = VersionUpcasters.compile(dto, objectMapper);
 
         Template template = freemarkerConfig.getTemplate("dto.ftl");
         Map<String, Object> dataModel = new HashMap<>();
         dataModel.put("dto", dto);
+        dataModel.put("fieldTypes", fieldTypes);
 
         String fileName = dto.getName() + ".java";
         File outputFile = outputPath.resolve(fileName).toFile();
@@ -116,14 +287,246 @@ public class EventorGenerator {
         }
 
         System.out.println("Generated DTO: " + fileName);
+
+        if (dto.hasCodec("binary")) {
+            generateSupportClass("BinaryCodec", outputPath);
+        }
+        if (dto.isPooled()) {
+            generateAllocationBenchmark(dto, fieldTypes, outputPath);
+        }
+        if ((dto.getName() + "Binary").equals(valueSerdeOf(dto.getName()))) {
+            generateBinarySerde(dto, outputPath);
+        }
+        if (dto.isDictionaryCompressed()) {
+            generateDictionary(dto, outputPath);
+        }
+        if (dto.isVersioned()) {
+            generateVersions(dto, upcasters, outputPath);
+        }
+        if (benchmarkPath != null) {
+            generateJmhBenchmark(dto);
+        }
+    }
+
+    /**
+     * Generates the Kafka serializer and deserializer of a DTO with its trained dictionary embedded.
+     */
+    private void generateDictionary(final DtoDefinition dto, final Path outputPath)
+            throws IOException, TemplateException {
+        byte[] dictionary = CompressionDictionaries.read(jsonPath, dto);
+        int dictionaryId = CompressionDictionaries.id(dictionary);
+        // Keyed by id, so a previous dictionary listed twice, or equal to the current one, is embedded once
+        Map<Integer, Map<String, Object>> previousDictionaries = new LinkedHashMap<>();
+        for (byte[] previous : CompressionDictionaries.readPrevious(jsonPath, dto)) {
+            int previousId = CompressionDictionaries.id(previous);
+            if (previousId != dictionaryId) {
+                previousDictionaries.putIfAbsent(previousId, Map.of(
+                    "id", String.format("0x%08x", previousId), "lines", base64Lines(previous)));
+            }
+        }
+
+        Template template = freemarkerConfig.getTemplate("dto-dictionary.ftl");
+        Map<String, Object> dataModel = new HashMap<>();
+        dataModel.put("dto", dto);
+        dataModel.put("dictionaryFile", jsonPath.relativize(CompressionDictionaries.resolve(jsonPath, dto)).toString());
+        dataModel.put("dictionaryId", String.format("0x%08x", dictionaryId));
+        dataModel.put("dictionaryLines", base64Lines(dictionary));
+        dataModel.put("previousDictionaries", new ArrayList<>(previousDictionaries.values()));
+        dataModel.put("level", CompressionDictionaries.LEVEL);
+
+        String fileName = dto.getName() + "Dictionary.java";
+        File outputFile = outputPath.resolve(fileName).toFile();
+
+        try (FileWriter writer = new FileWriter(outputFile)) {
+            template.process(dataModel, writer);
+        }
+
+        System.out.println("Generated Dictionary: " + fileName);
+        generateSupportClass("DictionaryCodec", outputPath);
     }
 
-    private void generateProducer(File jsonFile, Path outputPath) throws IOException, TemplateException {
-        ProducerDefinition producer = objectMapper.readValue(jsonFile, ProducerDefinition.class);
+    /**
+     * Splits a dictionary into the Base64 string literals the generated class embeds.
+     */
+    private static List<String> base64Lines(final byte[] dictionary) {
+        String encoded = Base64.getEncoder().encodeToString(dictionary);
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < encoded.length(); i += DICTIONARY_LINE_LENGTH) {
+            lines.add(encoded.substring(i, Math.min(encoded.length(), i + DICTIONARY_LINE_LENGTH)));
+        }
+        return lines;
+    }
+
+    /**
+     * Generates the Kafka serializer and deserializer that write a pooled DTO with its binary codec and read it into
+     * pooled instances.
+     */
+    private void generateBinarySerde(final DtoDefinition dto, final Path outputPath)
+            throws IOException, TemplateException {
+        Template template = freemarkerConfig.getTemplate("dto-binary.ftl");
+        Map<String, Object> dataModel = new HashMap<>();
+        dataModel.put("dto", dto);
+
+        String fileName = dto.getName() + "Binary.java";
+        File outputFile = outputPath.resolve(fileName).toFile();
+
+        try (FileWriter writer = new FileWriter(outputFile)) {
+            template.process(dataModel, writer);
+        }
+
+        System.out.println("Generated Binary Serde: " + fileName);
+        generateSupportClass("ObjectPool", outputPath);
+    }
+
+    /**
+     * Generates the version header handling of a DTO, with a streaming deserializer for each previous version.
+     */
+    private void generateVersions(final DtoDefinition dto, final List<Map<String, Object>> upcasters,
+                                  final Path outputPath)
+            throws IOException, TemplateException {
+        Map<String, FieldType> fieldTypes = new HashMap<>();
+        dto.getFields().forEach((fieldName, declaredType) ->
+            FieldType.of(declaredType).ifPresent(fieldType -> fieldTypes.put(fieldName, fieldType)));
+
+        Template template = freemarkerConfig.getTemplate("dto-versions.ftl");
+        Map<String, Object> dataModel = new HashMap<>();
+        dataModel.put("dto", dto);
+        dataModel.put("fieldTypes", fieldTypes);
+        dataModel.put("upcasters", upcasters);
+        // Records without a version header were written before the DTO was versioned, so by its oldest version
+        dataModel.put("untaggedVersion", upcasters.isEmpty() ? dto.getVersion() : upcasters.get(0).get("version"));
+
+        String fileName = dto.getName() + "Versions.java";
+        File outputFile = outputPath.resolve(fileName).toFile();
+
+        try (FileWriter writer = new FileWriter(outputFile)) {
+            template.process(dataModel, writer);
+        }
+
+        System.out.println("Generated Versions: " + fileName);
+    }
+
+    /**
+     * Generates the JMH benchmark of a DTO; fields of custom types are left null in its synthetic samples.
+     */
+    private void generateJmhBenchmark(final DtoDefinition dto) throws IOException, TemplateException {
+        Map<String, FieldType> fieldTypes = new HashMap<>();
+        dto.getFields().forEach((fieldName, declaredType) ->
+            FieldType.of(declaredType).ifPresent(fieldType -> fieldTypes.put(fieldName, fieldType)));
+
+        Template template = freemarkerConfig.getTemplate("jmh-benchmark.ftl");
+        Map<String, Object> dataModel = new HashMap<>();
+        dataModel.put("dto", dto);
+        dataModel.put("fieldTypes", fieldTypes);
+        dataModel.put("valueSerde", valueSerdeOf(dto.getName()));
+
+        String fileName = dto.getName() + "Benchmark.java";
+        File outputFile = benchmarkPath.resolve(fileName).toFile();
+
+        try (FileWriter writer = new FileWriter(outputFile)) {
+            template.process(dataModel, writer);
+        }
+
+        System.out.println("Generated Benchmark: " + fileName);
+    }
+
+    /**
+     * Generates a runnable benchmark comparing the bytes allocated per decoded record with and without reuse.
+     */
+    private void generateAllocationBenchmark(final DtoDefinition dto, final Map<String, FieldType> fieldTypes,
+                                             final Path outputPath)
+            throws IOException, TemplateException {
+        Template template = freemarkerConfig.getTemplate("allocation-benchmark.ftl");
+        Map<String, Object> dataModel = new HashMap<>();
+        dataModel.put("dto", dto);
+        dataModel.put("fieldTypes", fieldTypes);
+
+        String fileName = dto.getName() + "AllocationBenchmark.java";
+        File outputFile = outputPath.resolve(fileName).toFile();
+
+        try (FileWriter writer = new FileWriter(outputFile)) {
+            template.process(dataModel, writer);
+        }
+
+        System.out.println("Generated Benchmark: " + fileName);
+    }
+
+    /**
+     * Resolves the field types of a DTO that declares codecs; codecs only support the built-in field types.
+     */
+    private Map<String, FieldType> resolveCodecFieldTypes(final DtoDefinition dto) {
+        Map<String, FieldType> fieldTypes = new LinkedHashMap<>();
+        List<String> codecs = dto.getCodecs();
+        if (codecs == null || codecs.isEmpty()) {
+            return fieldTypes;
+        }
+        for (String codec : codecs) {
+            if (!"binary".equals(codec)) {
+                throw new IllegalArgumentException(String.format(
+                    "Unknown codec '%s' in DTO %s; expected 'binary'", codec, dto.getName()));
+            }
+        }
+        dto.getFields().forEach((fieldName, declaredType) -> fieldTypes.put(fieldName,
+            FieldType.of(declaredType).orElseThrow(() -> new IllegalArgumentException(String.format(
+                "Field %s.%s has type '%s', which codecs do not support", dto.getName(), fieldName, declaredType)))));
+        return fieldTypes;
+    }
+
+    private void checkProducer(final ProducerDefinition producer) {
+        String transport = resolveTransport(producer.getTransport(), producer.getName());
+        if (producer.getProfile() != null && !"kafka".equals(transport)) {
+            throw new IllegalArgumentException(
+                "Producer " + producer.getName() + " declares a Kafka profile but uses transport '" + transport + "'");
+        }
+        if (producer.hasBackpressure() && !"kafka".equals(transport)) {
+            throw new IllegalArgumentException(
+                "Producer " + producer.getName() + " declares backpressure limits but uses transport '"
+                    + transport + "'");
+        }
+        if (producer.getSpillover() != null && !"kafka".equals(transport)) {
+            throw new IllegalArgumentException(
+                "Producer " + producer.getName() + " declares spillover but uses transport '" + transport + "'");
+        }
+        if (producer.getEnvelope() != null && !"kafka".equals(transport)) {
+            throw new IllegalArgumentException(
+                "Producer " + producer.getName() + " declares an envelope but uses transport '" + transport + "'");
+        }
+        if (producer.getSpillover() != null) {
+            requireBinaryCodec(producer.getDto(), "Producer " + producer.getName() + " declares spillover");
+        } else if ("mmap".equals(transport)) {
+            requireBinaryCodec(producer.getDto(), "Producer " + producer.getName() + " uses transport 'mmap'");
+        }
+        if (producer.getEnvelope() != null && producer.getSpillover() != null) {
+            throw new IllegalArgumentException(
+                "Producer " + producer.getName() + " cannot combine envelope and spillover");
+        }
+        if (producer.getClaimCheck() != null) {
+            validateProducerClaimCheck(producer, transport);
+        }
+        // The serializer is set on the producer's own factory, so a value serde brings a KafkaConfig like a profile
+        String valueSerde = "kafka".equals(transport) ? valueSerdeOf(producer.getDto()) : null;
+        if (valueSerde != null && producer.getEnvelope() != null) {
+            throw new IllegalArgumentException("Producer " + producer.getName()
+                + " cannot combine an envelope with DTO " + producer.getDto()
+                + ", whose values are written by " + valueSerde);
+        }
+        if (producer.isTransactional() || producer.getTransactionBatch() != null) {
+            validateTransactional(producer, transport);
+        }
+        kafkaProperties(producer);
+    }
+
+    private void generateProducer(final ProducerDefinition producer, final Path outputPath)
+            throws IOException, TemplateException {
+        String transport = resolveTransport(producer.getTransport(), producer.getName());
+        String valueSerde = "kafka".equals(transport) ? valueSerdeOf(producer.getDto()) : null;
+        boolean kafkaConfig = producer.getProfile() != null || valueSerde != null || producer.isTransactional()
+            || producer.getSpillover() != null || producer.getClaimCheck() != null;
 
         Template template = freemarkerConfig.getTemplate("producer.ftl");
         Map<String, Object> dataModel = new HashMap<>();
         dataModel.put("producer", producer);
+        dataModel.put("kafkaConfig", kafkaConfig);
 
         String fileName = producer.getName() + ".java";
         File outputFile = outputPath.resolve(fileName).toFile();
@@ -133,14 +536,243 @@ public class EventorGenerator {
         }
 
         System.out.println("Generated Producer: " + fileName);
+
+        if (kafkaConfig) {
+            generateProducerKafkaConfig(producer, valueSerde, outputPath);
+        }
+        if (producer.hasBackpressure()) {
+            generateSupportClass("ProducerBackpressure", outputPath);
+            generateSupportClass("TokenBucket", outputPath);
+        }
+        if (producer.getSpillover() != null) {
+            generateSupportClass("SpilloverJournal", outputPath);
+            generateSupportClass("MappedJournal", outputPath);
+            generateSupportClass("BinaryCodec", outputPath);
+        }
+        if (producer.getEnvelope() != null) {
+            generateEnvelope(producer.getDto(), outputPath);
+            generateSupportClass("EnvelopeCoalescer", outputPath);
+        }
+        if (producer.getClaimCheck() != null) {
+            generateClaimCheckSupport(outputPath);
+            generateSupportClass("ClaimCheckSerializer", outputPath);
+        }
+        if (producer.isTransactional()) {
+            generateSupportClass("TransactionBatcher", outputPath);
+        }
+        generateTransportSupport(transport, outputPath);
+    }
+
+    /**
+     * Spillover journals, the mmap transport and encoded views write events with the DTO's binary codec.
+     */
+    private void requireBinaryCodec(final String dtoName, final String owner) {
+        DtoDefinition dto = dtoDefinitions.get(dtoName);
+        if (dto != null && !dto.hasCodec("binary")) {
+            throw new IllegalArgumentException(String.format(
+                "%s, which writes events with the binary codec, but DTO %s does not declare it", owner, dtoName));
+        }
+    }
+
+    /**
+     * Transactions are committed by a single sender thread per producer, so the events of a transaction must leave
+     * through it: spilled events and envelopes are sent later, from other threads, and could not be part of it.
+     */
+    private void validateTransactional(final ProducerDefinition producer, final String transport) {
+        if (!producer.isTransactional()) {
+            throw new IllegalArgumentException(
+                "Producer " + producer.getName() + " declares transactionBatch but is not transactional");
+        }
+        if (!"kafka".equals(transport)) {
+            throw new IllegalArgumentException(
+                "Producer " + producer.getName() + " is transactional but uses transport '" + transport + "'");
+        }
+        if (producer.getSpillover() != null || producer.getEnvelope() != null) {
+            throw new IllegalArgumentException(
+                "Producer " + producer.getName() + " is transactional and cannot declare spillover or an envelope");
+        }
+        TransactionBatchOptions batch = producer.getTransactionBatch();
+        if (batch != null && (batch.getMaxEvents() != null && batch.getMaxEvents() < 1
+                || batch.getMaxDelayMs() != null && batch.getMaxDelayMs() < 0
+                || batch.getMaxPending() != null && batch.getMaxPending() < 1)) {
+            throw new IllegalArgumentException("Producer " + producer.getName()
+                + " declares a transactionBatch with maxEvents or maxPending below 1, or a negative maxDelayMs");
+        }
+    }
+
+    private void validateProducerClaimCheck(final ProducerDefinition producer, final String transport) {
+        if (!"kafka".equals(transport)) {
+            throw new IllegalArgumentException(
+                "Producer " + producer.getName() + " declares claimCheck but uses transport '" + transport + "'");
+        }
+        if (producer.getEnvelope() != null) {
+            throw new IllegalArgumentException(
+                "Producer " + producer.getName() + " cannot combine envelope and claimCheck");
+        }
+        requireJsonValues(producer.getDto(), "Producer " + producer.getName());
+        Integer threshold = producer.getClaimCheck().getThresholdBytes();
+        if (threshold != null && threshold < 1) {
+            throw new IllegalArgumentException(
+                "Producer " + producer.getName() + " declares claimCheck with thresholdBytes " + threshold);
+        }
     }
 
-    private void generateConsumer(File jsonFile, Path outputPath) throws IOException, TemplateException {
-        ConsumerDefinition consumer = objectMapper.readValue(jsonFile, ConsumerDefinition.class);
+    /**
+     * Offloaded payloads are written by JsonSerializer and read back with Jackson, so a DTO whose values go through
+     * a generated serde would be stored in a different format than its inline records.
+     */
+    private void requireJsonValues(final String dtoName, final String owner) {
+        String valueSerde = valueSerdeOf(dtoName);
+        if (valueSerde != null) {
+            throw new IllegalArgumentException(owner + " declares claimCheck, but the values of DTO " + dtoName
+                + " are written by " + valueSerde + " rather than as JSON");
+        }
+    }
+
+    /**
+     * Generates the ProducerFactory/KafkaTemplate pair dedicated to a producer that declares a profile or spillover
+     * or is transactional, or whose DTO has its own value serde.
+     */
+    private void generateProducerKafkaConfig(final ProducerDefinition producer, final String valueSerde,
+                                             final Path outputPath)
+            throws IOException, TemplateException {
+        Template template = freemarkerConfig.getTemplate("producer-kafka-config.ftl");
+        Map<String, Object> dataModel = new HashMap<>();
+        dataModel.put("producer", producer);
+        dataModel.put("profileProperties", kafkaProperties(producer));
+        dataModel.put("valueSerde", valueSerde);
+        dataModel.put("transactional", producer.isTransactional());
+
+        String fileName = producer.getName() + "KafkaConfig.java";
+        File outputFile = outputPath.resolve(fileName).toFile();
+
+        try (FileWriter writer = new FileWriter(outputFile)) {
+            template.process(dataModel, writer);
+        }
+
+        System.out.println("Generated Producer Config: " + fileName);
+    }
+
+    /**
+     * The producer properties of a producer's own factory: its profile, then what transactions and spillover need.
+     */
+    private static Map<String, String> kafkaProperties(final ProducerDefinition producer) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        if (producer.getProfile() != null) {
+            properties.putAll(ProducerProfiles.resolve(producer.getProfile(), producer.getName()));
+        }
+        if (producer.isTransactional()) {
+            ProducerProfiles.applyTransactional(properties, producer.getName());
+        }
+        if (producer.getSpillover() != null) {
+            ProducerProfiles.applySpillover(properties);
+        }
+        return properties;
+    }
+
+    /**
+     * Checks each method of a consumer on its own, so every broken method is reported with its pointer.
+     */
+    private void checkConsumer(final ConsumerDefinition consumer, final String location, final Map<String,
+                               List<String>> projections,
+                               final List<ValidationError> errors) {
+        List<ConsumerDefinition.ConsumerMethod> methods = consumer.getMethods();
+        for (int i = 0; i < methods.size(); i++) {
+            ConsumerDefinition.ConsumerMethod method = methods.get(i);
+            String pointer = "/methods/" + i;
+            check(location, pointer, errors, () -> checkConsumerMethod(consumer, method));
+            if (method.getFields() != null) {
+                // Projections of the same DTO and fields share one generated class, whichever consumer declares them
+                List<String> previous = projections.putIfAbsent(method.getProjectionName(), method.getFields());
+                if (previous != null && !previous.equals(method.getFields())) {
+                    errors.add(new ValidationError(location, pointer + "/fields", String.format(
+                        "Projection %s is declared elsewhere with fields %s", method.getProjectionName(), previous)));
+                }
+            }
+        }
+        Integer warmupIterations = consumer.getWarmup() != null ? consumer.getWarmup().getIterations() : null;
+        if (warmupIterations != null && warmupIterations < 1) {
+            errors.add(new ValidationError(location, "/warmup/iterations",
+                "Consumer " + consumer.getName() + " declares warmup with " + warmupIterations + " iterations"));
+        }
+    }
+
+    private void checkConsumerMethod(final ConsumerDefinition consumer,
+                                     final ConsumerDefinition.ConsumerMethod method) {
+        String owner = consumer.getName() + "." + method.getMethodName();
+        String transport = resolveTransport(method.getTransport(), owner);
+        if (method.getEnvelope() != null) {
+            validateEnvelopeDelivery(method, transport, owner);
+        }
+        if (method.getRetry() != null) {
+            validateRetry(method, transport, owner);
+        }
+        if (method.getAdaptiveBackpressure() != null && !"kafka".equals(transport)) {
+            throw new IllegalArgumentException(
+                "Consumer method " + owner + " declares adaptiveBackpressure but uses transport '" + transport + "'");
+        }
+        validateMode(consumer, method, transport, owner);
+        if (method.getFields() != null) {
+            validateProjection(method, transport, owner);
+        }
+        if (method.getClaimCheck() != null) {
+            validateConsumerClaimCheck(method, transport, owner);
+        }
+        if (method.getAckMode() != null || method.getAckTimeMs() != null || method.getAckCount() != null) {
+            validateAckMode(method, transport, owner);
+        }
+        if ("mmap".equals(transport)) {
+            requireBinaryCodec(method.getDto(), "Consumer method " + owner + " uses transport 'mmap'");
+        }
+        MaterializeOptions view = method.getMaterialize();
+        if (view != null && ("offheap".equals(view.getStorage()) || view.getSnapshotFile() != null)) {
+            requireBinaryCodec(method.getDto(),
+                "Consumer method " + owner + " keeps its view off-heap or in a snapshot");
+        }
+        String valueSerde = valueSerdeOf(method.getDto());
+        DtoDefinition dto = dtoDefinitions.get(method.getDto());
+        if ("kafka".equals(transport) && dto != null && dto.isPooled()) {
+            validatePooledKafka(method, dto, valueSerde, owner);
+        }
+        if ("kafka".equals(transport) && valueSerde != null
+                && (method.getEnvelope() != null || method.getFields() != null)) {
+            throw new IllegalArgumentException("Consumer method " + owner + " cannot combine an envelope or fields "
+                + "with DTO " + method.getDto() + ", whose values are read by " + valueSerde);
+        }
+    }
+
+    private void generateConsumer(final ConsumerDefinition consumer, final Path outputPath)
+            throws IOException, TemplateException {
+        Set<String> transports = new HashSet<>();
+        for (ConsumerDefinition.ConsumerMethod method : consumer.getMethods()) {
+            transports.add(resolveTransport(method.getTransport(), consumer.getName() + "." + method.getMethodName()));
+        }
+
+        List<String> pooledDtos = new ArrayList<>();
+        List<String> kafkaPooledDtos = new ArrayList<>();
+        Map<String, String> valueSerdes = new HashMap<>();
+        for (ConsumerDefinition.ConsumerMethod method : consumer.getMethods()) {
+            DtoDefinition dto = dtoDefinitions.get(method.getDto());
+            boolean kafka = method.getTransport() == null || "kafka".equals(method.getTransport());
+            if (dto != null && dto.isPooled() && "mmap".equals(method.getTransport())
+                    && !pooledDtos.contains(dto.getName())) {
+                pooledDtos.add(dto.getName());
+            }
+            if (dto != null && dto.isPooled() && kafka && !kafkaPooledDtos.contains(dto.getName())) {
+                kafkaPooledDtos.add(dto.getName());
+            }
+            String valueSerde = valueSerdeOf(method.getDto());
+            if (valueSerde != null) {
+                valueSerdes.put(method.getDto(), valueSerde);
+            }
+        }
 
         Template template = freemarkerConfig.getTemplate("consumer.ftl");
         Map<String, Object> dataModel = new HashMap<>();
         dataModel.put("consumer", consumer);
+        dataModel.put("pooledDtos", pooledDtos);
+        dataModel.put("kafkaPooledDtos", kafkaPooledDtos);
+        dataModel.put("valueSerdes", valueSerdes);
 
         String fileName = consumer.getName() + ".java";
         File outputFile = outputPath.resolve(fileName).toFile();
@@ -150,5 +782,415 @@ public class EventorGenerator {
         }
 
         System.out.println("Generated Consumer: " + fileName);
+
+        if (consumer.getWarmup() != null) {
+            generateConsumerWarmup(consumer, pooledDtos, valueSerdes, outputPath);
+        }
+        for (String transport : transports) {
+            generateTransportSupport(transport, outputPath);
+        }
+        for (ConsumerDefinition.ConsumerMethod method : consumer.getMethods()) {
+            if (method.getEnvelope() != null) {
+                generateEnvelope(method.getDto(), outputPath);
+            }
+            if (method.getFields() != null) {
+                generateProjection(method, outputPath);
+            }
+        }
+
+        boolean idempotent = consumer.getMethods().stream()
+                .anyMatch(method -> method.getIdempotencyKey() != null);
+        if (idempotent) {
+            generateSupportClass("IdempotencyCache", outputPath);
+        }
+
+        boolean adaptive = consumer.getMethods().stream()
+                .anyMatch(method -> method.getAdaptiveBackpressure() != null);
+        if (adaptive) {
+            generateSupportClass("AdaptiveBackpressure", outputPath);
+            generateSupportClass("ListenerBackpressureEvent", outputPath);
+        }
+
+        if (!pooledDtos.isEmpty()) {
+            generateSupportClass("ObjectPool", outputPath);
+        }
+
+        boolean materialized = consumer.getMethods().stream()
+                .anyMatch(ConsumerDefinition.ConsumerMethod::isMaterialized);
+        if (materialized) {
+            generateSupportClass("MaterializedView", outputPath);
+        }
+
+        boolean manualAsync = consumer.getMethods().stream()
+                .anyMatch(method -> "manual-async".equals(method.getAckMode()));
+        if (manualAsync) {
+            generateSupportClass("CommitCoalescer", outputPath);
+        }
+
+        boolean claimChecked = consumer.getMethods().stream()
+                .anyMatch(method -> method.getClaimCheck() != null);
+        if (claimChecked) {
+            generateClaimCheckSupport(outputPath);
+            generateSupportClass("ClaimCheckCache", outputPath);
+        }
+
+        boolean retried = consumer.getMethods().stream()
+                .anyMatch(method -> method.getRetry() != null);
+        if (retried) {
+            generateSupportClass("DeadLetterHandler", outputPath);
+        }
+    }
+
+    /**
+     * A pooled DTO is read from Kafka by its binary serde and returned to the pool once the handler returns, so its
+     * values must not be JSON read by another serde, and the handler must be done with the event when it returns.
+     */
+    private void validatePooledKafka(final ConsumerDefinition.ConsumerMethod method, final DtoDefinition dto,
+                                     final String valueSerde, final String owner) {
+        if (!(dto.getName() + "Binary").equals(valueSerde)) {
+            throw new IllegalArgumentException("Consumer method " + owner + " reads pooled DTO " + dto.getName()
+                + " from Kafka, whose values are JSON read by " + valueSerde + "; only the binary serde of a DTO "
+                + "without dictionary compression or versions decodes into pooled instances");
+        }
+        if ("manual-async".equals(method.getAckMode())) {
+            throw new IllegalArgumentException("Consumer method " + owner + " acknowledges asynchronously, so it may "
+                + "use pooled DTO " + dto.getName() + " after it returns, when the event is decoded into again");
+        }
+    }
+
+    /**
+     * Claim checks resolve a record header before the handler runs, so they need a Kafka listener of the single
+     * event. Offloaded records carry a stub value rather than null, so materialized views can resolve them too.
+     */
+    private void validateConsumerClaimCheck(final ConsumerDefinition.ConsumerMethod method, final String transport,
+                                            final String owner) {
+        if (!"kafka".equals(transport)) {
+            throw new IllegalArgumentException(
+                "Consumer method " + owner + " declares claimCheck but uses transport '" + transport + "'");
+        }
+        if (method.getEnvelope() != null) {
+            throw new IllegalArgumentException(
+                "Consumer method " + owner + " cannot combine envelope and claimCheck");
+        }
+        requireJsonValues(method.getDto(), "Consumer method " + owner);
+        Long cacheMaxBytes = method.getClaimCheck().getCacheMaxBytes();
+        if (cacheMaxBytes != null && cacheMaxBytes < 0) {
+            throw new IllegalArgumentException(
+                "Consumer method " + owner + " declares claimCheck with cacheMaxBytes " + cacheMaxBytes);
+        }
+    }
+
+    /**
+     * Generates the SmartLifecycle that runs synthetic events through a consumer's decoders before its listeners start.
+     */
+    private void generateConsumerWarmup(final ConsumerDefinition consumer, final List<String> pooledDtos,
+                                        final Map<String, String> valueSerdes, final Path outputPath)
+            throws IOException, TemplateException {
+        Map<String, Map<String, FieldType>> dtoFieldTypes = new HashMap<>();
+        for (ConsumerDefinition.ConsumerMethod method : consumer.getMethods()) {
+            DtoDefinition dto = dtoDefinitions.get(method.getDto());
+            if (dto != null && !dtoFieldTypes.containsKey(dto.getName())) {
+                Map<String, FieldType> fieldTypes = new LinkedHashMap<>();
+                dto.getFields().forEach((fieldName, declaredType) ->
+                    FieldType.of(declaredType).ifPresent(fieldType -> fieldTypes.put(fieldName, fieldType)));
+                dtoFieldTypes.put(dto.getName(), fieldTypes);
+            }
+        }
+
+        Template template = freemarkerConfig.getTemplate("consumer-warmup.ftl");
+        Map<String, Object> dataModel = new HashMap<>();
+        dataModel.put("consumer", consumer);
+        dataModel.put("pooledDtos", pooledDtos);
+        dataModel.put("valueSerdes", valueSerdes);
+        dataModel.put("dtoFieldTypes", dtoFieldTypes);
+
+        String fileName = consumer.getName() + "Warmup.java";
+        File outputFile = outputPath.resolve(fileName).toFile();
+
+        try (FileWriter writer = new FileWriter(outputFile)) {
+            template.process(dataModel, writer);
+        }
+
+        System.out.println("Generated Consumer Warmup: " + fileName);
+    }
+
+    /**
+     * A materialized method replaces the handler with a view of the topic, so it takes none of the handler options.
+     */
+    private void validateMode(final ConsumerDefinition consumer, final ConsumerDefinition.ConsumerMethod method,
+                              final String transport, final String owner) {
+        String mode = method.getMode();
+        if (mode != null && !"handle".equals(mode) && !"materialize".equals(mode)) {
+            throw new IllegalArgumentException(String.format(
+                "Unknown mode '%s' in %s; expected 'handle' or 'materialize'", mode, owner));
+        }
+        if (!method.isMaterialized()) {
+            if (method.getMaterialize() != null) {
+                throw new IllegalArgumentException(
+                    "Consumer method " + owner + " declares materialize options but is not in materialize mode");
+            }
+            return;
+        }
+        if (!"kafka".equals(transport)) {
+            throw new IllegalArgumentException(
+                "Consumer method " + owner + " is materialized but uses transport '" + transport + "'");
+        }
+        boolean handlerOptions = method.getEnvelope() != null || method.getRetry() != null
+                || method.getIdempotencyKey() != null || method.getAdaptiveBackpressure() != null
+                || (method.getDependencies() != null && !method.getDependencies().isEmpty());
+        if (handlerOptions) {
+            throw new IllegalArgumentException("Consumer method " + owner
+                + " is materialized and cannot declare dependencies, envelope, retry, idempotencyKey"
+                + " or adaptiveBackpressure");
+        }
+        String storage = method.getMaterialize() != null ? method.getMaterialize().getStorage() : null;
+        if (storage != null && !"heap".equals(storage) && !"offheap".equals(storage)) {
+            throw new IllegalArgumentException(String.format(
+                "Unknown materialize storage '%s' in %s; expected 'heap' or 'offheap'", storage, owner));
+        }
+        // Partition assignments of the whole consumer are rewound for the view, so the topic must be its alone.
+        long sameTopic = consumer.getMethods().stream()
+                .filter(other -> other.getTopic().equals(method.getTopic()))
+                .count();
+        if (sameTopic > 1) {
+            throw new IllegalArgumentException("Consumer " + consumer.getName() + " materializes topic '"
+                + method.getTopic() + "' and cannot have other methods on the same topic");
+        }
+    }
+
+    /**
+     * Ack modes are applied to the listener container, so they need a Kafka listener whose offsets the container
+     * commits; the manual modes also need the handler to be called once per record on the listener thread.
+     */
+    private void validateAckMode(final ConsumerDefinition.ConsumerMethod method, final String transport,
+                                 final String owner) {
+        String ackMode = method.getAckMode();
+        if (ackMode == null) {
+            throw new IllegalArgumentException(
+                "Consumer method " + owner + " declares ackTimeMs or ackCount without an ackMode");
+        }
+        if (!ACK_MODES.contains(ackMode)) {
+            throw new IllegalArgumentException(String.format(
+                "Unknown ackMode '%s' in %s; expected one of %s", ackMode, owner, String.join(", ", ACK_MODES)));
+        }
+        if (!"kafka".equals(transport)) {
+            throw new IllegalArgumentException(
+                "Consumer method " + owner + " declares ackMode but uses transport '" + transport + "'");
+        }
+        if (method.isMaterialized()) {
+            throw new IllegalArgumentException(
+                "Consumer method " + owner + " is materialized and commits no offsets, so it cannot declare ackMode");
+        }
+        if (method.isManualAck() && (method.getEnvelope() != null || method.getRetry() != null)) {
+            throw new IllegalArgumentException("Consumer method " + owner
+                + " cannot combine ackMode '" + ackMode + "' with an envelope or retry");
+        }
+        if (method.getAckTimeMs() != null
+                && (!"time".equals(ackMode) && !"manual-async".equals(ackMode) || method.getAckTimeMs() < 1)) {
+            throw new IllegalArgumentException("Consumer method " + owner + " declares ackTimeMs "
+                + method.getAckTimeMs() + "; it must be positive and needs ackMode 'time' or 'manual-async'");
+        }
+        if (method.getAckCount() != null && (!"count".equals(ackMode) || method.getAckCount() < 1)) {
+            throw new IllegalArgumentException("Consumer method " + owner
+                + " declares ackCount " + method.getAckCount() + "; it must be positive and needs ackMode 'count'");
+        }
+    }
+
+    private void validateEnvelopeDelivery(final ConsumerDefinition.ConsumerMethod method, final String transport,
+                                          final String owner) {
+        if (!"kafka".equals(transport)) {
+            throw new IllegalArgumentException(
+                "Consumer method " + owner + " declares an envelope but uses transport '" + transport + "'");
+        }
+        String delivery = method.getEnvelope().getDelivery();
+        if (delivery != null && !"each".equals(delivery) && !"batch".equals(delivery)) {
+            throw new IllegalArgumentException(String.format(
+                "Unknown envelope delivery '%s' in %s; expected 'each' or 'batch'", delivery, owner));
+        }
+        if ("batch".equals(delivery) && method.getIdempotencyKey() != null) {
+            throw new IllegalArgumentException(
+                "Consumer method " + owner + " cannot combine batch envelope delivery with an idempotency key");
+        }
+    }
+
+    /**
+     * Retry topics are derived from the main topic by suffix, so a custom DLT name must extend the topic name.
+     */
+    private void validateRetry(final ConsumerDefinition.ConsumerMethod method, final String transport,
+                               final String owner) {
+        if (!"kafka".equals(transport)) {
+            throw new IllegalArgumentException(
+                "Consumer method " + owner + " declares retry but uses transport '" + transport + "'");
+        }
+        String dlt = method.getRetry().getDlt();
+        if (dlt != null && (!dlt.startsWith(method.getTopic()) || dlt.length() == method.getTopic().length())) {
+            throw new IllegalArgumentException(String.format(
+                "DLT '%s' of %s must be the topic name '%s' followed by a suffix", dlt, owner, method.getTopic()));
+        }
+    }
+
+    /**
+     * A projection is decoded from the full DTO's JSON, so it needs the DTO definition and a Kafka listener.
+     */
+    private void validateProjection(final ConsumerDefinition.ConsumerMethod method, final String transport,
+                                    final String owner) {
+        if (!"kafka".equals(transport)) {
+            throw new IllegalArgumentException(
+                "Consumer method " + owner + " declares fields but uses transport '" + transport + "'");
+        }
+        if (method.getEnvelope() != null || method.isMaterialized()) {
+            throw new IllegalArgumentException(
+                "Consumer method " + owner + " cannot combine fields with an envelope or materialize mode");
+        }
+        DtoDefinition dto = dtoDefinitions.get(method.getDto());
+        if (dto == null) {
+            throw new IllegalArgumentException(String.format(
+                "Consumer method %s projects DTO %s, which is not defined in the JSON directory",
+                owner, method.getDto()));
+        }
+        List<String> fields = method.getFields();
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException("Consumer method " + owner + " declares an empty fields projection");
+        }
+        Set<String> seen = new HashSet<>();
+        for (String field : fields) {
+            if (!dto.getFields().containsKey(field)) {
+                throw new IllegalArgumentException(String.format(
+                    "Consumer method %s projects field '%s', which DTO %s does not declare",
+                    owner, field, dto.getName()));
+            }
+            if (!seen.add(field)) {
+                throw new IllegalArgumentException(String.format(
+                    "Consumer method %s projects field '%s' more than once", owner, field));
+            }
+        }
+        if (method.getIdempotencyKey() != null && !seen.contains(method.getIdempotencyKey())) {
+            throw new IllegalArgumentException(String.format(
+                "Consumer method %s uses idempotency key '%s', which is not among its projected fields",
+                owner, method.getIdempotencyKey()));
+        }
+    }
+
+    /**
+     * Generates the projected DTO of a consumer method with a streaming deserializer that skips the other fields.
+     */
+    private void generateProjection(final ConsumerDefinition.ConsumerMethod method, final Path outputPath)
+            throws IOException, TemplateException {
+        String projectionName = method.getProjectionName();
+        if (!generatedProjections.add(projectionName)) {
+            return;
+        }
+
+        DtoDefinition dto = dtoDefinitions.get(method.getDto());
+        Map<String, String> fields = new LinkedHashMap<>();
+        Map<String, FieldType> fieldTypes = new HashMap<>();
+        for (String field : method.getFields()) {
+            String declaredType = dto.getFields().get(field);
+            fields.put(field, declaredType);
+            FieldType.of(declaredType).ifPresent(fieldType -> fieldTypes.put(field, fieldType));
+        }
+
+        Template template = freemarkerConfig.getTemplate("projection.ftl");
+        Map<String, Object> dataModel = new HashMap<>();
+        dataModel.put("projectionName", projectionName);
+        dataModel.put("dtoName", dto.getName());
+        dataModel.put("fields", fields);
+        dataModel.put("fieldTypes", fieldTypes);
+
+        String fileName = projectionName + ".java";
+        File outputFile = outputPath.resolve(fileName).toFile();
+
+        try (FileWriter writer = new FileWriter(outputFile)) {
+            template.process(dataModel, writer);
+        }
+
+        System.out.println("Generated Projection: " + fileName);
+    }
+
+    /**
+     * Generates the envelope class that carries a batch of one DTO in a single Kafka record, once per DTO.
+     */
+    private void generateEnvelope(final String dtoName, final Path outputPath) throws IOException, TemplateException {
+        if (!generatedEnvelopes.add(dtoName)) {
+            return;
+        }
+
+        Template template = freemarkerConfig.getTemplate("envelope.ftl");
+        Map<String, Object> dataModel = new HashMap<>();
+        dataModel.put("dtoName", dtoName);
+
+        String fileName = dtoName + "Envelope.java";
+        File outputFile = outputPath.resolve(fileName).toFile();
+
+        try (FileWriter writer = new FileWriter(outputFile)) {
+            template.process(dataModel, writer);
+        }
+
+        System.out.println("Generated Envelope: " + fileName);
+    }
+
+    /**
+     * The generated class holding the Kafka Serializer and Deserializer of a DTO's values, or null for plain JSON.
+     */
+    private String valueSerdeOf(final String dtoName) {
+        DtoDefinition dto = dtoDefinitions.get(dtoName);
+        return dto != null ? dto.getValueSerde() : null;
+    }
+
+    private String resolveTransport(final String transport, final String owner) {
+        if (transport == null) {
+            return "kafka";
+        }
+        switch (transport) {
+            case "kafka":
+            case "inprocess":
+            case "mmap":
+                return transport;
+            default:
+                throw new IllegalArgumentException(String.format(
+                    "Unknown transport '%s' in %s; expected 'kafka', 'inprocess' or 'mmap'", transport, owner));
+        }
+    }
+
+    private void generateTransportSupport(final String transport, final Path outputPath)
+            throws IOException, TemplateException {
+        if ("inprocess".equals(transport)) {
+            generateSupportClass("InProcessEventBus", outputPath);
+            generateSupportClass("InProcessRingBuffer", outputPath);
+        } else if ("mmap".equals(transport)) {
+            generateSupportClass("MappedJournalTransport", outputPath);
+            generateSupportClass("MappedJournal", outputPath);
+            generateSupportClass("BinaryCodec", outputPath);
+        }
+    }
+
+    /**
+     * Renders the claim-check runtime shared by producers and consumers: the payload offloading and the blob
+     * store it writes to, with its file-system default.
+     */
+    private void generateClaimCheckSupport(final Path outputPath) throws IOException, TemplateException {
+        generateSupportClass("ClaimCheck", outputPath);
+        generateSupportClass("BlobStore", outputPath);
+        generateSupportClass("FileSystemBlobStore", outputPath);
+    }
+
+    /**
+     * Renders a shared runtime class from templates/support once per generation run.
+     */
+    private void generateSupportClass(final String className, final Path outputPath)
+            throws IOException, TemplateException {
+        if (!generatedSupportClasses.add(className)) {
+            return;
+        }
+
+        Template template = freemarkerConfig.getTemplate("support/" + className + ".ftl");
+        String fileName = className + ".java";
+        File outputFile = outputPath.resolve(fileName).toFile();
+
+        try (FileWriter writer = new FileWriter(outputFile)) {
+            template.process(new HashMap<String, Object>(), writer);
+        }
+
+        System.out.println("Generated Support: " + fileName);
     }
 }
@@ -0,0 +1,111 @@
+package io.github.vedatunlu.eventor.core.generator;
+
+import io.github.vedatunlu.eventor.core.model.ProducerDefinition;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Resolves producer profiles into Kafka producer properties: a named preset first,
+ * then explicit overrides on top of it.
+ */
+final class ProducerProfiles {
+
+    /**
+     * Producer properties of each named preset.
+     */
+    private static final Map<String, Map<String, String>> PRESETS = new LinkedHashMap<>();
+
+    /**
+     * Short override keys and the Kafka property each one stands for.
+     */
+    private static final Map<String, String> ALIASES = new LinkedHashMap<>();
+
+    /**
+     * How long a send of a spillover producer may block on metadata or a full buffer before it fails and is spilled.
+     */
+    private static final String SPILLOVER_MAX_BLOCK_MS = "100";
+
+    static {
+        Map<String, String> throughput = new LinkedHashMap<>();
+        throughput.put("batch.size", "262144");
+        throughput.put("linger.ms", "20");
+        throughput.put("compression.type", "lz4");
+        throughput.put("buffer.memory", "67108864");
+        throughput.put("acks", "all");
+        throughput.put("enable.idempotence", "true");
+        throughput.put("max.in.flight.requests.per.connection", "5");
+        PRESETS.put("throughput", throughput);
+
+        Map<String, String> lowLatency = new LinkedHashMap<>();
+        lowLatency.put("batch.size", "16384");
+        lowLatency.put("linger.ms", "0");
+        lowLatency.put("compression.type", "none");
+        lowLatency.put("acks", "1");
+        lowLatency.put("enable.idempotence", "false");
+        lowLatency.put("max.in.flight.requests.per.connection", "1");
+        PRESETS.put("low-latency", lowLatency);
+
+        Map<String, String> durable = new LinkedHashMap<>();
+        durable.put("acks", "all");
+        durable.put("enable.idempotence", "true");
+        durable.put("max.in.flight.requests.per.connection", "5");
+        durable.put("linger.ms", "5");
+        durable.put("delivery.timeout.ms", "300000");
+        PRESETS.put("durable", durable);
+
+        ALIASES.put("max.in.flight", "max.in.flight.requests.per.connection");
+        ALIASES.put("idempotence", "enable.idempotence");
+        ALIASES.put("compression", "compression.type");
+    }
+
+    private ProducerProfiles() {
+    }
+
+    static Map<String, String> resolve(final ProducerDefinition.Profile profile, final String producerName) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        if (profile.getPreset() != null) {
+            Map<String, String> preset = PRESETS.get(profile.getPreset());
+            if (preset == null) {
+                throw new IllegalArgumentException(String.format(
+                    "Unknown profile preset '%s' in %s; expected one of %s",
+                    profile.getPreset(), producerName, PRESETS.keySet()));
+            }
+            properties.putAll(preset);
+        }
+        if (profile.getOverrides() != null) {
+            profile.getOverrides().forEach((key, value) -> properties.put(ALIASES.getOrDefault(key, key), value));
+        }
+        if (properties.isEmpty()) {
+            throw new IllegalArgumentException(
+                "Profile of " + producerName + " declares neither a preset nor overrides");
+        }
+        return properties;
+    }
+
+    /**
+     * Adds the settings a transactional producer needs on top of its profile; Kafka rejects a transactional
+     * producer without idempotence, and idempotence needs acks=all.
+     */
+    static void applyTransactional(final Map<String, String> properties, final String producerName) {
+        String acks = properties.get("acks");
+        if ("false".equals(properties.get("enable.idempotence"))
+                || acks != null && !"all".equals(acks) && !"-1".equals(acks)) {
+            throw new IllegalArgumentException(String.format(
+                "Producer %s is transactional, which needs enable.idempotence=true and acks=all, "
+                    + "but its profile sets enable.idempotence=%s and acks=%s",
+                producerName, properties.get("enable.idempotence"), acks));
+        }
+        properties.put("enable.idempotence", "true");
+        properties.put("acks", "all");
+    }
+
+    /**
+     * Bounds how long KafkaTemplate.send may block the caller of a spillover producer, which would otherwise wait
+     * up to the client's default max.block.ms of 60 seconds for an unavailable broker instead of spilling.
+     * An explicit max.block.ms of the profile wins.
+     */
+    static void applySpillover(final Map<String, String> properties) {
+        properties.putIfAbsent("max.block.ms", SPILLOVER_MAX_BLOCK_MS);
+    }
+}
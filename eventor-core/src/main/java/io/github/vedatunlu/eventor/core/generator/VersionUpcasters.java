@@ -0,0 +1,195 @@
+package io.github.vedatunlu.eventor.core.generator;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.vedatunlu.eventor.core.model.DtoDefinition;
+import io.github.vedatunlu.eventor.core.model.DtoVersion;
+import io.github.vedatunlu.eventor.core.model.FieldType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Checks the previousVersions of a versioned DTO and compiles each one into what its generated deserializer does:
+ * which current field every JSON name of the version is read into, and which Java constant fills each current field
+ * the version did not have. A field may change type only by widening, which the parser does while reading the token.
+ */
+final class VersionUpcasters {
+
+    /**
+     * The types each field type may widen to between versions.
+     */
+    private static final Map<FieldType, Set<FieldType>> WIDENINGS = Map.of(
+        FieldType.INTEGER, EnumSet.of(FieldType.LONG, FieldType.DOUBLE, FieldType.BIG_DECIMAL),
+        FieldType.LONG, EnumSet.of(FieldType.BIG_DECIMAL),
+        FieldType.DOUBLE, EnumSet.of(FieldType.BIG_DECIMAL),
+        FieldType.UUID, EnumSet.of(FieldType.STRING)
+    );
+
+    private VersionUpcasters() {
+    }
+
+    /**
+     * @return one entry per previous version, oldest first, with its "version", its "reads" from JSON name to
+     * current field and its "defaults" from current field to a Java expression of the field's type
+     */
+    static List<Map<String, Object>> compile(final DtoDefinition dto, final ObjectMapper objectMapper) {
+        List<DtoVersion> previousVersions = dto.getPreviousVersions() != null ? dto.getPreviousVersions() : List.of();
+        if (!dto.isVersioned()) {
+            if (!previousVersions.isEmpty()) {
+                throw new IllegalArgumentException(
+                    "DTO " + dto.getName() + " declares previousVersions but not its current version");
+            }
+            return List.of();
+        }
+        if (dto.getVersion() < 1) {
+            throw new IllegalArgumentException("DTO " + dto.getName() + " declares version " + dto.getVersion());
+        }
+
+        List<Map<String, Object>> upcasters = new ArrayList<>();
+        Set<Integer> versions = new HashSet<>();
+        for (DtoVersion previous : previousVersions) {
+            Integer version = previous.getVersion();
+            if (version == null || version < 1 || version >= dto.getVersion() || !versions.add(version)) {
+                throw new IllegalArgumentException(String.format(
+                    "DTO %s declares previous version %s; expected distinct versions from 1 to %d",
+                    dto.getName(), version, dto.getVersion() - 1));
+            }
+            String owner = dto.getName() + " version " + version;
+            if (previous.getFields() == null || previous.getFields().isEmpty()) {
+                throw new IllegalArgumentException("DTO " + owner + " declares no fields");
+            }
+            Map<String, Object> upcaster = new HashMap<>();
+            upcaster.put("version", version);
+            upcaster.put("reads", reads(dto, previous, owner));
+            upcaster.put("defaults", defaults(dto, previous, owner, objectMapper));
+            upcasters.add(upcaster);
+        }
+        upcasters.sort((a, b) -> Integer.compare((Integer) a.get("version"), (Integer) b.get("version")));
+        return upcasters;
+    }
+
+    private static Map<String, String> reads(final DtoDefinition dto, final DtoVersion previous, final String owner) {
+        Map<String, String> renamed = previous.getRenamed() != null ? previous.getRenamed() : Map.of();
+        for (String oldName : renamed.keySet()) {
+            if (!previous.getFields().containsKey(oldName)) {
+                throw new IllegalArgumentException(
+                    "DTO " + owner + " renames " + oldName + ", which is not one of its fields");
+            }
+        }
+        Map<String, String> reads = new LinkedHashMap<>();
+        Set<String> targets = new HashSet<>();
+        for (Map.Entry<String, String> field : previous.getFields().entrySet()) {
+            String target = renamed.getOrDefault(field.getKey(), field.getKey());
+            String currentType = dto.getFields().get(target);
+            if (currentType == null) {
+                if (renamed.containsKey(field.getKey())) {
+                    throw new IllegalArgumentException(String.format(
+                        "DTO %s renames %s to %s, which is not a field of %s",
+                        owner, field.getKey(), target, dto.getName()));
+                }
+                // Removed since; the parser skips it
+                continue;
+            }
+            if (!targets.add(target)) {
+                throw new IllegalArgumentException(
+                    "DTO " + owner + " reads two of its fields into " + dto.getName() + "." + target);
+            }
+            checkWidening(dto, owner, field.getKey(), field.getValue(), target, currentType);
+            reads.put(field.getKey(), target);
+        }
+        return reads;
+    }
+
+    private static void checkWidening(final DtoDefinition dto, final String owner, final String oldName,
+                                      final String oldType,
+                                      final String target, final String currentType) {
+        if (oldType.replace(" ", "").equals(currentType.replace(" ", ""))) {
+            return;
+        }
+        FieldType from = FieldType.of(oldType).orElse(null);
+        FieldType to = FieldType.of(currentType).orElse(null);
+        if (from == null || to == null || !WIDENINGS.getOrDefault(from, Set.of()).contains(to)) {
+            throw new IllegalArgumentException(String.format(
+                "DTO %s cannot read %s of type %s into %s.%s of type %s; a type may only widen from Integer to Long, "
+                    + "Double or BigDecimal, from Long or Double to BigDecimal, or from UUID to String",
+                owner, oldName, oldType, dto.getName(), target, currentType));
+        }
+    }
+
+    private static Map<String, String> defaults(final DtoDefinition dto, final DtoVersion previous, final String owner,
+                                                final ObjectMapper objectMapper) {
+        Map<String, String> defaults = new LinkedHashMap<>();
+        if (previous.getDefaults() == null) {
+            return defaults;
+        }
+        Map<String, String> renamed = previous.getRenamed() != null ? previous.getRenamed() : Map.of();
+        for (Map.Entry<String, Object> entry : previous.getDefaults().entrySet()) {
+            String field = entry.getKey();
+            String declaredType = dto.getFields().get(field);
+            if (declaredType == null) {
+                throw new IllegalArgumentException(String.format(
+                    "DTO %s declares a default for %s, which is not a field of %s", owner, field, dto.getName()));
+            }
+            boolean read = previous.getFields().keySet().stream()
+                .anyMatch(oldName -> field.equals(renamed.getOrDefault(oldName, oldName)));
+            if (read) {
+                throw new IllegalArgumentException(String.format(
+                    "DTO %s declares a default for %s, which it already has", owner, field));
+            }
+            defaults.put(field, literal(owner, field, declaredType, entry.getValue(), objectMapper));
+        }
+        return defaults;
+    }
+
+    /**
+     * The default as a Java expression of the field's type; the generated code evaluates it once, into a constant.
+     */
+    private static String literal(final String owner, final String field, final String declaredType, final Object value,
+                                  final ObjectMapper objectMapper) {
+        FieldType type = FieldType.of(declaredType).orElse(null);
+        try {
+            if (type == FieldType.STRING && value instanceof String) {
+                return objectMapper.writeValueAsString(value);
+            }
+            if (type == FieldType.UUID && value instanceof String) {
+                return "UUID.fromString(\"" + UUID.fromString((String) value) + "\")";
+            }
+            if (type == FieldType.LOCAL_DATE_TIME && value instanceof String) {
+                return "LocalDateTime.parse(\"" + LocalDateTime.parse((String) value) + "\")";
+            }
+            if (type == FieldType.BIG_DECIMAL && (value instanceof Number || value instanceof String)) {
+                return "new BigDecimal(\"" + new BigDecimal(value.toString()) + "\")";
+            }
+            if (type == FieldType.INTEGER && value instanceof Integer) {
+                return value.toString();
+            }
+            if (type == FieldType.LONG && (value instanceof Integer || value instanceof Long)) {
+                return value + "L";
+            }
+            if (type == FieldType.DOUBLE && value instanceof Number) {
+                return Double.toString(((Number) value).doubleValue());
+            }
+            if (type == FieldType.BOOLEAN && value instanceof Boolean) {
+                return value.toString();
+            }
+        } catch (IllegalArgumentException | DateTimeParseException | JsonProcessingException e) {
+            // Reported below with the expected type
+        }
+        throw new IllegalArgumentException(String.format(
+            "DTO %s declares the default %s for %s, which is not a %s; defaults are supported for String, UUID, "
+                + "BigDecimal, LocalDateTime, Integer, Long, Double and Boolean fields",
+            owner, Objects.toString(value), field, declaredType));
+    }
+}
@@ -0,0 +1,52 @@
+package io.github.vedatunlu.eventor.core.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public final class AdaptiveBackpressureOptions {
+    @JsonProperty("maxLatencyMs")
+    private Long maxLatencyMs;
+
+    @JsonProperty("maxQueueDepth")
+    private Integer maxQueueDepth;
+
+    @JsonProperty("pauseMs")
+    private Long pauseMs;
+
+    @JsonProperty("smoothing")
+    private Double smoothing;
+
+    public AdaptiveBackpressureOptions() {
+    }
+
+    public Long getMaxLatencyMs() {
+        return maxLatencyMs;
+    }
+
+    public void setMaxLatencyMs(final Long maxLatencyMs) {
+        this.maxLatencyMs = maxLatencyMs;
+    }
+
+    public Integer getMaxQueueDepth() {
+        return maxQueueDepth;
+    }
+
+    public void setMaxQueueDepth(final Integer maxQueueDepth) {
+        this.maxQueueDepth = maxQueueDepth;
+    }
+
+    public Long getPauseMs() {
+        return pauseMs;
+    }
+
+    public void setPauseMs(final Long pauseMs) {
+        this.pauseMs = pauseMs;
+    }
+
+    public Double getSmoothing() {
+        return smoothing;
+    }
+
+    public void setSmoothing(final Double smoothing) {
+        this.smoothing = smoothing;
+    }
+}
@@ -0,0 +1,30 @@
+package io.github.vedatunlu.eventor.core.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public final class ClaimCheckOptions {
+    @JsonProperty("thresholdBytes")
+    private Integer thresholdBytes;
+
+    @JsonProperty("cacheMaxBytes")
+    private Long cacheMaxBytes;
+
+    public ClaimCheckOptions() {
+    }
+
+    public Integer getThresholdBytes() {
+        return thresholdBytes;
+    }
+
+    public void setThresholdBytes(final Integer thresholdBytes) {
+        this.thresholdBytes = thresholdBytes;
+    }
+
+    public Long getCacheMaxBytes() {
+        return cacheMaxBytes;
+    }
+
+    public void setCacheMaxBytes(final Long cacheMaxBytes) {
+        this.cacheMaxBytes = cacheMaxBytes;
+    }
+}
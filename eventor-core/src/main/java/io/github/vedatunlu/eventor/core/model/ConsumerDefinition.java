@@ -13,6 +13,9 @@ public class ConsumerDefinition {
     @JsonProperty("methods")
     private List<ConsumerMethod> methods;
 
+    @JsonProperty("warmup")
+    private WarmupOptions warmup;
+
     public ConsumerDefinition() {}
 
     public ConsumerDefinition(String type, String name, List<ConsumerMethod> methods) {
@@ -45,6 +48,14 @@ public class ConsumerDefinition {
         this.methods = methods;
     }
 
+    public WarmupOptions getWarmup() {
+        return warmup;
+    }
+
+    public void setWarmup(final WarmupOptions warmup) {
+        this.warmup = warmup;
+    }
+
     public static class ConsumerMethod {
         @JsonProperty("methodName")
         private String methodName;
@@ -64,6 +75,48 @@ public class ConsumerDefinition {
         @JsonProperty("dependencies")
         private List<Dependency> dependencies;
 
+        @JsonProperty("idempotencyKey")
+        private String idempotencyKey;
+
+        @JsonProperty("idempotencyCache")
+        private IdempotencyCache idempotencyCache;
+
+        @JsonProperty("transport")
+        private String transport;
+
+        @JsonProperty("inProcess")
+        private InProcessOptions inProcess;
+
+        @JsonProperty("envelope")
+        private EnvelopeOptions envelope;
+
+        @JsonProperty("retry")
+        private RetryOptions retry;
+
+        @JsonProperty("adaptiveBackpressure")
+        private AdaptiveBackpressureOptions adaptiveBackpressure;
+
+        @JsonProperty("mode")
+        private String mode;
+
+        @JsonProperty("materialize")
+        private MaterializeOptions materialize;
+
+        @JsonProperty("fields")
+        private List<String> fields;
+
+        @JsonProperty("claimCheck")
+        private ClaimCheckOptions claimCheck;
+
+        @JsonProperty("ackMode")
+        private String ackMode;
+
+        @JsonProperty("ackTimeMs")
+        private Long ackTimeMs;
+
+        @JsonProperty("ackCount")
+        private Integer ackCount;
+
         public ConsumerMethod() {}
 
         public String getMethodName() {
@@ -113,6 +166,139 @@ public class ConsumerDefinition {
         public void setDependencies(List<Dependency> dependencies) {
             this.dependencies = dependencies;
         }
+
+        public String getIdempotencyKey() {
+            return idempotencyKey;
+        }
+
+        public void setIdempotencyKey(final String idempotencyKey) {
+            this.idempotencyKey = idempotencyKey;
+        }
+
+        public IdempotencyCache getIdempotencyCache() {
+            return idempotencyCache;
+        }
+
+        public void setIdempotencyCache(final IdempotencyCache idempotencyCache) {
+            this.idempotencyCache = idempotencyCache;
+        }
+
+        public String getTransport() {
+            return transport;
+        }
+
+        public void setTransport(final String transport) {
+            this.transport = transport;
+        }
+
+        public InProcessOptions getInProcess() {
+            return inProcess;
+        }
+
+        public void setInProcess(final InProcessOptions inProcess) {
+            this.inProcess = inProcess;
+        }
+
+        public EnvelopeOptions getEnvelope() {
+            return envelope;
+        }
+
+        public void setEnvelope(final EnvelopeOptions envelope) {
+            this.envelope = envelope;
+        }
+
+        public RetryOptions getRetry() {
+            return retry;
+        }
+
+        public void setRetry(final RetryOptions retry) {
+            this.retry = retry;
+        }
+
+        public AdaptiveBackpressureOptions getAdaptiveBackpressure() {
+            return adaptiveBackpressure;
+        }
+
+        public void setAdaptiveBackpressure(final AdaptiveBackpressureOptions adaptiveBackpressure) {
+            this.adaptiveBackpressure = adaptiveBackpressure;
+        }
+
+        public String getMode() {
+            return mode;
+        }
+
+        public void setMode(final String mode) {
+            this.mode = mode;
+        }
+
+        public MaterializeOptions getMaterialize() {
+            return materialize;
+        }
+
+        public void setMaterialize(final MaterializeOptions materialize) {
+            this.materialize = materialize;
+        }
+
+        public boolean isMaterialized() {
+            return "materialize".equals(mode);
+        }
+
+        public List<String> getFields() {
+            return fields;
+        }
+
+        public void setFields(final List<String> fields) {
+            this.fields = fields;
+        }
+
+        public ClaimCheckOptions getClaimCheck() {
+            return claimCheck;
+        }
+
+        public void setClaimCheck(final ClaimCheckOptions claimCheck) {
+            this.claimCheck = claimCheck;
+        }
+
+        public String getAckMode() {
+            return ackMode;
+        }
+
+        public void setAckMode(final String ackMode) {
+            this.ackMode = ackMode;
+        }
+
+        public Long getAckTimeMs() {
+            return ackTimeMs;
+        }
+
+        public void setAckTimeMs(final Long ackTimeMs) {
+            this.ackTimeMs = ackTimeMs;
+        }
+
+        public Integer getAckCount() {
+            return ackCount;
+        }
+
+        public void setAckCount(final Integer ackCount) {
+            this.ackCount = ackCount;
+        }
+
+        /**
+         * Whether the handler receives an Acknowledgment and commits its records itself.
+         */
+        public boolean isManualAck() {
+            return "manual".equals(ackMode) || "manual-async".equals(ackMode);
+        }
+
+        /**
+         * Name of the projected DTO this method receives, or null when it receives the full DTO.
+         */
+        public String getProjectionName() {
+            if (fields == null) {
+                return null;
+            }
+            return dto + Character.toUpperCase(methodName.charAt(0)) + methodName.substring(1) + "Projection";
+        }
     }
 
     public static class Dependency {
@@ -151,4 +337,42 @@ public class ConsumerDefinition {
             this.methodCalls = methodCalls;
         }
     }
+
+    public static class IdempotencyCache {
+        @JsonProperty("maxEntries")
+        private Integer maxEntries;
+
+        @JsonProperty("ttlSeconds")
+        private Long ttlSeconds;
+
+        @JsonProperty("persistFile")
+        private String persistFile;
+
+        public IdempotencyCache() {
+        }
+
+        public Integer getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(final Integer maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public Long getTtlSeconds() {
+            return ttlSeconds;
+        }
+
+        public void setTtlSeconds(final Long ttlSeconds) {
+            this.ttlSeconds = ttlSeconds;
+        }
+
+        public String getPersistFile() {
+            return persistFile;
+        }
+
+        public void setPersistFile(final String persistFile) {
+            this.persistFile = persistFile;
+        }
+    }
 }
@@ -1,6 +1,7 @@
 package io.github.vedatunlu.eventor.core.model;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.List;
 import java.util.Map;
 
 public class DtoDefinition {
@@ -13,6 +14,27 @@ public class DtoDefinition {
     @JsonProperty("fields")
     private Map<String, String> fields;
 
+    @JsonProperty("codecs")
+    private List<String> codecs;
+
+    @JsonProperty("pooled")
+    private boolean pooled;
+
+    @JsonProperty("compression")
+    private String compression;
+
+    @JsonProperty("dictionary")
+    private String dictionary;
+
+    @JsonProperty("previousDictionaries")
+    private List<String> previousDictionaries;
+
+    @JsonProperty("version")
+    private Integer version;
+
+    @JsonProperty("previousVersions")
+    private List<DtoVersion> previousVersions;
+
     public DtoDefinition() {}
 
     public DtoDefinition(String type, String name, Map<String, String> fields) {
@@ -44,4 +66,86 @@ public class DtoDefinition {
     public void setFields(Map<String, String> fields) {
         this.fields = fields;
     }
+
+    public List<String> getCodecs() {
+        return codecs;
+    }
+
+    public void setCodecs(final List<String> codecs) {
+        this.codecs = codecs;
+    }
+
+    public boolean isPooled() {
+        return pooled;
+    }
+
+    public void setPooled(final boolean pooled) {
+        this.pooled = pooled;
+    }
+
+    public String getCompression() {
+        return compression;
+    }
+
+    public void setCompression(final String compression) {
+        this.compression = compression;
+    }
+
+    public String getDictionary() {
+        return dictionary;
+    }
+
+    public void setDictionary(final String dictionary) {
+        this.dictionary = dictionary;
+    }
+
+    public List<String> getPreviousDictionaries() {
+        return previousDictionaries;
+    }
+
+    public void setPreviousDictionaries(final List<String> previousDictionaries) {
+        this.previousDictionaries = previousDictionaries;
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(final Integer version) {
+        this.version = version;
+    }
+
+    public List<DtoVersion> getPreviousVersions() {
+        return previousVersions;
+    }
+
+    public void setPreviousVersions(final List<DtoVersion> previousVersions) {
+        this.previousVersions = previousVersions;
+    }
+
+    public boolean isVersioned() {
+        return version != null;
+    }
+
+    public boolean isDictionaryCompressed() {
+        return "dictionary".equals(compression);
+    }
+
+    /**
+     * The generated class holding the Kafka Serializer and Deserializer of this DTO's values, or null for plain JSON.
+     * The dictionary serde of a versioned DTO also stamps and reads its version; other pooled DTOs are binary.
+     */
+    public String getValueSerde() {
+        if (isDictionaryCompressed()) {
+            return name + "Dictionary";
+        }
+        if (isVersioned()) {
+            return name + "Versions";
+        }
+        return pooled ? name + "Binary" : null;
+    }
+
+    public boolean hasCodec(final String codec) {
+        return codecs != null && codecs.contains(codec);
+    }
 }
@@ -0,0 +1,57 @@
+package io.github.vedatunlu.eventor.core.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.Map;
+
+/**
+ * An earlier version of a DTO, read into the current DTO class: fields keep their name unless renamed, and current
+ * fields the version did not have take their default or stay null.
+ */
+public final class DtoVersion {
+    @JsonProperty("version")
+    private Integer version;
+
+    @JsonProperty("fields")
+    private Map<String, String> fields;
+
+    @JsonProperty("renamed")
+    private Map<String, String> renamed;
+
+    @JsonProperty("defaults")
+    private Map<String, Object> defaults;
+
+    public DtoVersion() {
+    }
+
+    public Integer getVersion() {
+        return version;
+    }
+
+    public void setVersion(final Integer version) {
+        this.version = version;
+    }
+
+    public Map<String, String> getFields() {
+        return fields;
+    }
+
+    public void setFields(final Map<String, String> fields) {
+        this.fields = fields;
+    }
+
+    public Map<String, String> getRenamed() {
+        return renamed;
+    }
+
+    public void setRenamed(final Map<String, String> renamed) {
+        this.renamed = renamed;
+    }
+
+    public Map<String, Object> getDefaults() {
+        return defaults;
+    }
+
+    public void setDefaults(final Map<String, Object> defaults) {
+        this.defaults = defaults;
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.vedatunlu.eventor.core.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public final class EnvelopeOptions {
+    @JsonProperty("maxEvents")
+    private Integer maxEvents;
+
+    @JsonProperty("maxDelayMs")
+    private Long maxDelayMs;
+
+    @JsonProperty("delivery")
+    private String delivery;
+
+    public EnvelopeOptions() {
+    }
+
+    public Integer getMaxEvents() {
+        return maxEvents;
+    }
+
+    public void setMaxEvents(final Integer maxEvents) {
+        this.maxEvents = maxEvents;
+    }
+
+    public Long getMaxDelayMs() {
+        return maxDelayMs;
+    }
+
+    public void setMaxDelayMs(final Long maxDelayMs) {
+        this.maxDelayMs = maxDelayMs;
+    }
+
+    public String getDelivery() {
+        return delivery;
+    }
+
+    public void setDelivery(final String delivery) {
+        this.delivery = delivery;
+    }
+}
@@ -0,0 +1,76 @@
+package io.github.vedatunlu.eventor.core.model;
+
+import java.util.Optional;
+
+/**
+ * Field types that DTO definitions support natively. Custom types are still accepted in
+ * DTO definitions, but only these types can be used with generated codecs.
+ */
+public enum FieldType {
+    /** Declared as {@code String}. */
+    STRING("String", "String", true),
+    /** Declared as {@code UUID}. */
+    UUID("UUID", "Uuid", true),
+    /** Declared as {@code BigDecimal}. */
+    BIG_DECIMAL("BigDecimal", "BigDecimal", false),
+    /** Declared as {@code LocalDateTime}. */
+    LOCAL_DATE_TIME("LocalDateTime", "LocalDateTime", true),
+    /** Declared as {@code Integer}. */
+    INTEGER("Integer", "Integer", true),
+    /** Declared as {@code Long}. */
+    LONG("Long", "Long", true),
+    /** Declared as {@code Double}. */
+    DOUBLE("Double", "Double", true),
+    /** Declared as {@code Boolean}. */
+    BOOLEAN("Boolean", "Boolean", false),
+    /** Declared as {@code List<String>}. */
+    STRING_LIST("List<String>", "StringList", true),
+    /** Declared as {@code List<UUID>}. */
+    UUID_LIST("List<UUID>", "UuidList", true),
+    /** Declared as {@code Map<String,String>}. */
+    STRING_MAP("Map<String,String>", "StringMap", true);
+
+    private final String declaredName;
+    private final String codecName;
+    private final boolean reusable;
+
+    FieldType(final String declaredName, final String codecName, final boolean reusable) {
+        this.declaredName = declaredName;
+        this.codecName = codecName;
+        this.reusable = reusable;
+    }
+
+    public String getDeclaredName() {
+        return declaredName;
+    }
+
+    /**
+     * Suffix of the read/write methods that handle this type in generated codecs.
+     */
+    public String getCodecName() {
+        return codecName;
+    }
+
+    /**
+     * Whether the binary codec can decode this type reusing the previous value of a pooled DTO field.
+     */
+    public boolean isReusable() {
+        return reusable;
+    }
+
+    /**
+     * Resolves a declared field type, ignoring whitespace such as in {@code Map<String, String>}.
+     */
+    public static Optional<FieldType> of(final String declared) {
+        if (declared == null) {
+            return Optional.empty();
+        }
+        String normalized = declared.replace(" ", "");
+        for (FieldType type : values()) {
+            if (type.declaredName.equals(normalized)) {
+                return Optional.of(type);
+            }
+        }
+        return Optional.empty();
+    }
+}
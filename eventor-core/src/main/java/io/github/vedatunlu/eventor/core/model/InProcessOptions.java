@@ -0,0 +1,52 @@
+package io.github.vedatunlu.eventor.core.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public final class InProcessOptions {
+    @JsonProperty("bufferSize")
+    private Integer bufferSize;
+
+    @JsonProperty("waitStrategy")
+    private String waitStrategy;
+
+    @JsonProperty("maxBatchSize")
+    private Integer maxBatchSize;
+
+    @JsonProperty("failurePolicy")
+    private String failurePolicy;
+
+    public InProcessOptions() {
+    }
+
+    public Integer getBufferSize() {
+        return bufferSize;
+    }
+
+    public void setBufferSize(final Integer bufferSize) {
+        this.bufferSize = bufferSize;
+    }
+
+    public String getWaitStrategy() {
+        return waitStrategy;
+    }
+
+    public void setWaitStrategy(final String waitStrategy) {
+        this.waitStrategy = waitStrategy;
+    }
+
+    public Integer getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(final Integer maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public String getFailurePolicy() {
+        return failurePolicy;
+    }
+
+    public void setFailurePolicy(final String failurePolicy) {
+        this.failurePolicy = failurePolicy;
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.vedatunlu.eventor.core.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public final class MaterializeOptions {
+    @JsonProperty("storage")
+    private String storage;
+
+    @JsonProperty("snapshotFile")
+    private String snapshotFile;
+
+    @JsonProperty("snapshotIntervalSeconds")
+    private Long snapshotIntervalSeconds;
+
+    public MaterializeOptions() {
+    }
+
+    public String getStorage() {
+        return storage;
+    }
+
+    public void setStorage(final String storage) {
+        this.storage = storage;
+    }
+
+    public String getSnapshotFile() {
+        return snapshotFile;
+    }
+
+    public void setSnapshotFile(final String snapshotFile) {
+        this.snapshotFile = snapshotFile;
+    }
+
+    public Long getSnapshotIntervalSeconds() {
+        return snapshotIntervalSeconds;
+    }
+
+    public void setSnapshotIntervalSeconds(final Long snapshotIntervalSeconds) {
+        this.snapshotIntervalSeconds = snapshotIntervalSeconds;
+    }
+}
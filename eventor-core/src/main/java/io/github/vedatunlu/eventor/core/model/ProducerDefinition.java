@@ -1,6 +1,8 @@
 package io.github.vedatunlu.eventor.core.model;
 
+import com.fasterxml.jackson.annotation.JsonCreator;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import java.util.Map;
 
 public class ProducerDefinition {
     @JsonProperty("type")
@@ -18,6 +20,36 @@ public class ProducerDefinition {
     @JsonProperty("factoryBean")
     private String factoryBean;
 
+    @JsonProperty("transport")
+    private String transport;
+
+    @JsonProperty("inProcess")
+    private InProcessOptions inProcess;
+
+    @JsonProperty("profile")
+    private Profile profile;
+
+    @JsonProperty("maxInFlight")
+    private Integer maxInFlight;
+
+    @JsonProperty("maxRatePerSecond")
+    private Double maxRatePerSecond;
+
+    @JsonProperty("spillover")
+    private Spillover spillover;
+
+    @JsonProperty("envelope")
+    private EnvelopeOptions envelope;
+
+    @JsonProperty("claimCheck")
+    private ClaimCheckOptions claimCheck;
+
+    @JsonProperty("transactional")
+    private boolean transactional;
+
+    @JsonProperty("transactionBatch")
+    private TransactionBatchOptions transactionBatch;
+
     public ProducerDefinition() {}
 
     public ProducerDefinition(String type, String name, String dto, String topic, String factoryBean) {
@@ -67,4 +99,152 @@ public class ProducerDefinition {
     public void setFactoryBean(String factoryBean) {
         this.factoryBean = factoryBean;
     }
+
+    public String getTransport() {
+        return transport;
+    }
+
+    public void setTransport(final String transport) {
+        this.transport = transport;
+    }
+
+    public InProcessOptions getInProcess() {
+        return inProcess;
+    }
+
+    public void setInProcess(final InProcessOptions inProcess) {
+        this.inProcess = inProcess;
+    }
+
+    public Profile getProfile() {
+        return profile;
+    }
+
+    public void setProfile(final Profile profile) {
+        this.profile = profile;
+    }
+
+    public Integer getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    public void setMaxInFlight(final Integer maxInFlight) {
+        this.maxInFlight = maxInFlight;
+    }
+
+    public Double getMaxRatePerSecond() {
+        return maxRatePerSecond;
+    }
+
+    public void setMaxRatePerSecond(final Double maxRatePerSecond) {
+        this.maxRatePerSecond = maxRatePerSecond;
+    }
+
+    public Spillover getSpillover() {
+        return spillover;
+    }
+
+    public void setSpillover(final Spillover spillover) {
+        this.spillover = spillover;
+    }
+
+    public EnvelopeOptions getEnvelope() {
+        return envelope;
+    }
+
+    public void setEnvelope(final EnvelopeOptions envelope) {
+        this.envelope = envelope;
+    }
+
+    public ClaimCheckOptions getClaimCheck() {
+        return claimCheck;
+    }
+
+    public void setClaimCheck(final ClaimCheckOptions claimCheck) {
+        this.claimCheck = claimCheck;
+    }
+
+    public boolean isTransactional() {
+        return transactional;
+    }
+
+    public void setTransactional(final boolean transactional) {
+        this.transactional = transactional;
+    }
+
+    public TransactionBatchOptions getTransactionBatch() {
+        return transactionBatch;
+    }
+
+    public void setTransactionBatch(final TransactionBatchOptions transactionBatch) {
+        this.transactionBatch = transactionBatch;
+    }
+
+    public boolean hasBackpressure() {
+        return maxInFlight != null || maxRatePerSecond != null;
+    }
+
+    public static class Profile {
+        @JsonProperty("preset")
+        private String preset;
+
+        @JsonProperty("overrides")
+        private Map<String, String> overrides;
+
+        public Profile() {
+        }
+
+        /**
+         * Allows a profile to be declared as just the preset name, e.g. {@code "profile": "throughput"}.
+         */
+        @JsonCreator
+        public static Profile ofPreset(final String preset) {
+            Profile profile = new Profile();
+            profile.setPreset(preset);
+            return profile;
+        }
+
+        public String getPreset() {
+            return preset;
+        }
+
+        public void setPreset(final String preset) {
+            this.preset = preset;
+        }
+
+        public Map<String, String> getOverrides() {
+            return overrides;
+        }
+
+        public void setOverrides(final Map<String, String> overrides) {
+            this.overrides = overrides;
+        }
+    }
+
+    public static class Spillover {
+        @JsonProperty("maxPending")
+        private Integer maxPending;
+
+        @JsonProperty("segmentSize")
+        private Integer segmentSize;
+
+        public Spillover() {
+        }
+
+        public Integer getMaxPending() {
+            return maxPending;
+        }
+
+        public void setMaxPending(final Integer maxPending) {
+            this.maxPending = maxPending;
+        }
+
+        public Integer getSegmentSize() {
+            return segmentSize;
+        }
+
+        public void setSegmentSize(final Integer segmentSize) {
+            this.segmentSize = segmentSize;
+        }
+    }
 }
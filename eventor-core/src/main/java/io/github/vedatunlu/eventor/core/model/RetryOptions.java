@@ -0,0 +1,63 @@
+package io.github.vedatunlu.eventor.core.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public final class RetryOptions {
+    @JsonProperty("attempts")
+    private Integer attempts;
+
+    @JsonProperty("backoffMs")
+    private Long backoffMs;
+
+    @JsonProperty("multiplier")
+    private Double multiplier;
+
+    @JsonProperty("maxBackoffMs")
+    private Long maxBackoffMs;
+
+    @JsonProperty("dlt")
+    private String dlt;
+
+    public RetryOptions() {
+    }
+
+    public Integer getAttempts() {
+        return attempts;
+    }
+
+    public void setAttempts(final Integer attempts) {
+        this.attempts = attempts;
+    }
+
+    public Long getBackoffMs() {
+        return backoffMs;
+    }
+
+    public void setBackoffMs(final Long backoffMs) {
+        this.backoffMs = backoffMs;
+    }
+
+    public Double getMultiplier() {
+        return multiplier;
+    }
+
+    public void setMultiplier(final Double multiplier) {
+        this.multiplier = multiplier;
+    }
+
+    public Long getMaxBackoffMs() {
+        return maxBackoffMs;
+    }
+
+    public void setMaxBackoffMs(final Long maxBackoffMs) {
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    public String getDlt() {
+        return dlt;
+    }
+
+    public void setDlt(final String dlt) {
+        this.dlt = dlt;
+    }
+}
@@ -0,0 +1,41 @@
+package io.github.vedatunlu.eventor.core.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public final class TransactionBatchOptions {
+    @JsonProperty("maxEvents")
+    private Integer maxEvents;
+
+    @JsonProperty("maxDelayMs")
+    private Long maxDelayMs;
+
+    @JsonProperty("maxPending")
+    private Integer maxPending;
+
+    public TransactionBatchOptions() {
+    }
+
+    public Integer getMaxEvents() {
+        return maxEvents;
+    }
+
+    public void setMaxEvents(final Integer maxEvents) {
+        this.maxEvents = maxEvents;
+    }
+
+    public Long getMaxDelayMs() {
+        return maxDelayMs;
+    }
+
+    public void setMaxDelayMs(final Long maxDelayMs) {
+        this.maxDelayMs = maxDelayMs;
+    }
+
+    public Integer getMaxPending() {
+        return maxPending;
+    }
+
+    public void setMaxPending(final Integer maxPending) {
+        this.maxPending = maxPending;
+    }
+}
@@ -0,0 +1,19 @@
+package io.github.vedatunlu.eventor.core.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+public final class WarmupOptions {
+    @JsonProperty("iterations")
+    private Integer iterations;
+
+    public WarmupOptions() {
+    }
+
+    public Integer getIterations() {
+        return iterations;
+    }
+
+    public void setIterations(final Integer iterations) {
+        this.iterations = iterations;
+    }
+}
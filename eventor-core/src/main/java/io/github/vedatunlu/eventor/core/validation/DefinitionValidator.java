@@ -0,0 +1,185 @@
+package io.github.vedatunlu.eventor.core.validation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.vedatunlu.eventor.core.generator.DefinitionReader;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Checks every definition before anything is rendered: each one against eventor-schema.json, in parallel batches,
+ * and then the references between them, such as the DTO of a producer or the idempotency key of a consumer method.
+ * Definitions are streamed as in generation; only names, DTO fields and references are kept.
+ */
+public class DefinitionValidator {
+    /**
+     * Definitions validated per parallel task.
+     */
+    private static final int BATCH_SIZE = 256;
+
+    private final ObjectMapper objectMapper;
+    private final SchemaValidator schemaValidator;
+
+    public DefinitionValidator(final ObjectMapper objectMapper, final SchemaValidator schemaValidator) {
+        this.objectMapper = objectMapper;
+        this.schemaValidator = schemaValidator;
+    }
+
+    public DefinitionValidator(final ObjectMapper objectMapper) throws IOException {
+        this(objectMapper, SchemaValidator.load(objectMapper));
+    }
+
+    /**
+     * Validates the definitions of the given files.
+     * @return every error found: schema errors in file order, then unreadable files and duplicate names, then
+     *         broken references; empty when all definitions are valid
+     */
+    public List<ValidationError> validate(final List<Path> definitionFiles) throws IOException {
+        Semaphore inFlight = new Semaphore(ForkJoinPool.getCommonPoolParallelism() * 2);
+        List<CompletableFuture<List<ValidationError>>> batches = new ArrayList<>();
+        List<ValidationError> errors = new ArrayList<>();
+        Map<String, String> names = new HashMap<>();
+        Map<String, Set<String>> dtoFields = new HashMap<>();
+        List<Reference> references = new ArrayList<>();
+
+        List<JsonNode> batch = new ArrayList<>();
+        List<String> batchLocations = new ArrayList<>();
+        try {
+            for (Path definitionFile : definitionFiles) {
+                try (DefinitionReader reader = new DefinitionReader(objectMapper, definitionFile)) {
+                    for (JsonNode definition = reader.next(); definition != null; definition = reader.next()) {
+                        String location = reader.getLocation();
+                        collect(definition, location, names, dtoFields, references, errors);
+                        batch.add(definition);
+                        batchLocations.add(location);
+                        if (batch.size() == BATCH_SIZE) {
+                            batches.add(submit(batch, batchLocations, inFlight));
+                            batch = new ArrayList<>();
+                            batchLocations = new ArrayList<>();
+                        }
+                    }
+                } catch (JsonProcessingException e) {
+                    String position = e.getLocation() != null
+                        ? " at line " + e.getLocation().getLineNr() + ", column " + e.getLocation().getColumnNr() : "";
+                    errors.add(new ValidationError(definitionFile.getFileName().toString(), "",
+                        "malformed JSON: " + e.getOriginalMessage() + position));
+                } catch (IllegalArgumentException e) {
+                    errors.add(new ValidationError(definitionFile.getFileName().toString(), "", e.getMessage()));
+                }
+            }
+            if (!batch.isEmpty()) {
+                batches.add(submit(batch, batchLocations, inFlight));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while validating definitions", e);
+        }
+
+        List<ValidationError> ordered = new ArrayList<>();
+        batches.forEach(future -> ordered.addAll(future.join()));
+        ordered.addAll(errors);
+        for (Reference reference : references) {
+            reference.check(dtoFields, ordered);
+        }
+        return ordered;
+    }
+
+    private CompletableFuture<List<ValidationError>> submit(final List<JsonNode> batch, final List<String> locations,
+                                                           final Semaphore inFlight) throws InterruptedException {
+        inFlight.acquire();
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                List<ValidationError> batchErrors = new ArrayList<>();
+                for (int i = 0; i < batch.size(); i++) {
+                    schemaValidator.validate(batch.get(i), locations.get(i), batchErrors);
+                }
+                return batchErrors;
+            } finally {
+                inFlight.release();
+            }
+        });
+    }
+
+    /**
+     * Records what the cross-reference checks need from a definition; runs on the reading thread, in file order.
+     */
+    private static void collect(final JsonNode definition, final String location, final Map<String, String> names,
+                                final Map<String, Set<String>> dtoFields, final List<Reference> references,
+                                final List<ValidationError> errors) {
+        String type = definition.path("type").asText();
+        String name = definition.path("name").asText(null);
+        if (name != null) {
+            // Every generated class lands in the same output directory, whatever its kind
+            String previous = names.putIfAbsent(name, location);
+            if (previous != null) {
+                errors.add(new ValidationError(location, "/name",
+                    "'" + name + "' is already defined at " + previous));
+            }
+        }
+        if ("dto".equals(type) && name != null) {
+            Set<String> fields = new HashSet<>();
+            definition.path("fields").fieldNames().forEachRemaining(fields::add);
+            dtoFields.putIfAbsent(name, fields);
+        } else if ("producer".equals(type) && definition.path("dto").isTextual()) {
+            references.add(new Reference(location, "/dto", definition.path("dto").asText(), null));
+        } else if ("consumer".equals(type)) {
+            JsonNode methods = definition.path("methods");
+            for (int i = 0; i < methods.size(); i++) {
+                JsonNode method = methods.get(i);
+                if (!method.path("dto").isTextual()) {
+                    continue;
+                }
+                String dto = method.path("dto").asText();
+                String pointer = "/methods/" + i;
+                references.add(new Reference(location, pointer + "/dto", dto, null));
+                if (method.path("idempotencyKey").isTextual()) {
+                    references.add(new Reference(location, pointer + "/idempotencyKey", dto,
+                        method.path("idempotencyKey").asText()));
+                }
+                JsonNode fields = method.path("fields");
+                for (int j = 0; j < fields.size(); j++) {
+                    references.add(new Reference(location, pointer + "/fields/" + j, dto, fields.get(j).asText()));
+                }
+            }
+        }
+    }
+
+    /**
+     * A DTO, or a field of a DTO, named by another definition.
+     */
+    private static final class Reference {
+        private final String location;
+        private final String pointer;
+        private final String dto;
+        private final String field;
+
+        Reference(final String location, final String pointer, final String dto, final String field) {
+            this.location = location;
+            this.pointer = pointer;
+            this.dto = dto;
+            this.field = field;
+        }
+
+        void check(final Map<String, Set<String>> dtoFields, final List<ValidationError> errors) {
+            Set<String> fields = dtoFields.get(dto);
+            if (fields == null) {
+                if (field == null) {
+                    errors.add(new ValidationError(location, pointer, "DTO '" + dto + "' is not defined"));
+                }
+            } else if (field != null && !fields.contains(field)) {
+                errors.add(new ValidationError(location, pointer, "DTO " + dto + " has no field '" + field + "'"));
+            }
+        }
+    }
+}
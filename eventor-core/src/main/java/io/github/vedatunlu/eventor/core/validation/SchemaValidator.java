@@ -0,0 +1,392 @@
+package io.github.vedatunlu.eventor.core.validation;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * JSON Schema validator compiled once from eventor-schema.json into a tree of rules, so validating a definition only
+ * walks the definition. Supports the draft-07 keywords the schema uses; compiling a schema with any other keyword
+ * fails, so the schema cannot silently outgrow the validator. Instances are immutable and thread-safe.
+ */
+public class SchemaValidator {
+    /**
+     * Classpath location of the definition schema.
+     */
+    public static final String SCHEMA_RESOURCE = "/eventor-schema.json";
+
+    /**
+     * Keywords that document a schema without constraining it.
+     */
+    private static final Set<String> ANNOTATIONS = Set.of("$schema", "title", "description", "default");
+
+    /**
+     * Enums with up to this many values list them in their error message.
+     */
+    private static final int MAX_LISTED_VALUES = 12;
+
+    private final Rule root;
+
+    public SchemaValidator(final JsonNode schema) {
+        this.root = compile(schema);
+    }
+
+    /**
+     * Compiles the eventor-schema.json bundled with Eventor.
+     */
+    public static SchemaValidator load(final ObjectMapper objectMapper) throws IOException {
+        try (InputStream in = SchemaValidator.class.getResourceAsStream(SCHEMA_RESOURCE)) {
+            if (in == null) {
+                throw new IOException("Schema resource " + SCHEMA_RESOURCE + " is missing from the classpath");
+            }
+            return new SchemaValidator(objectMapper.readTree(in));
+        }
+    }
+
+    /**
+     * Adds an error for every violation in the definition read at the given location.
+     */
+    public void validate(final JsonNode definition, final String location, final List<ValidationError> errors) {
+        root.check(definition, "", new Context(location, errors));
+    }
+
+    private interface Rule {
+        void check(JsonNode node, String pointer, Context context);
+    }
+
+    private static final class Context {
+        private final String location;
+        private final List<ValidationError> errors;
+
+        Context(final String location, final List<ValidationError> errors) {
+            this.location = location;
+            this.errors = errors;
+        }
+
+        void fail(final String pointer, final String message) {
+            errors.add(new ValidationError(location, pointer, message));
+        }
+    }
+
+    private static Rule compile(final JsonNode schema) {
+        List<Rule> rules = new ArrayList<>();
+        Iterator<Map.Entry<String, JsonNode>> keywords = schema.properties().iterator();
+        while (keywords.hasNext()) {
+            Map.Entry<String, JsonNode> keyword = keywords.next();
+            JsonNode value = keyword.getValue();
+            switch (keyword.getKey()) {
+                case "type":
+                    rules.add(typeRule(value.asText()));
+                    break;
+                case "const":
+                    rules.add((node, pointer, context) -> {
+                        if (!value.equals(node)) {
+                            context.fail(pointer, "must be " + value);
+                        }
+                    });
+                    break;
+                case "enum":
+                    rules.add(enumRule(value));
+                    break;
+                case "pattern":
+                    rules.add(patternRule(Pattern.compile(value.asText())));
+                    break;
+                case "minLength":
+                    int minLength = value.asInt();
+                    rules.add((node, pointer, context) -> {
+                        if (node.isTextual() && node.asText().codePointCount(0, node.asText().length()) < minLength) {
+                            context.fail(pointer, "must have at least " + minLength + " character(s)");
+                        }
+                    });
+                    break;
+                case "minimum":
+                case "exclusiveMinimum":
+                case "maximum":
+                    rules.add(boundRule(keyword.getKey(), value.decimalValue()));
+                    break;
+                case "minItems":
+                    int minItems = value.asInt();
+                    rules.add((node, pointer, context) -> {
+                        if (node.isArray() && node.size() < minItems) {
+                            context.fail(pointer, "must have at least " + minItems + " item(s)");
+                        }
+                    });
+                    break;
+                case "uniqueItems":
+                    if (value.asBoolean()) {
+                        rules.add(SchemaValidator::checkUniqueItems);
+                    }
+                    break;
+                case "items":
+                    Rule items = compile(value);
+                    rules.add((node, pointer, context) -> {
+                        for (int i = 0; node.isArray() && i < node.size(); i++) {
+                            items.check(node.get(i), pointer + "/" + i, context);
+                        }
+                    });
+                    break;
+                case "required":
+                    List<String> required = new ArrayList<>();
+                    value.forEach(name -> required.add(name.asText()));
+                    rules.add((node, pointer, context) -> {
+                        for (String name : required) {
+                            if (node.isObject() && !node.has(name)) {
+                                context.fail(pointer, "missing required property '" + name + "'");
+                            }
+                        }
+                    });
+                    break;
+                case "properties":
+                case "patternProperties":
+                case "additionalProperties":
+                    break;
+                case "oneOf":
+                    rules.add(oneOfRule(value));
+                    break;
+                case "anyOf":
+                    rules.add(anyOfRule(value, schema.path("description").asText(null)));
+                    break;
+                default:
+                    if (!ANNOTATIONS.contains(keyword.getKey())) {
+                        throw new IllegalArgumentException("Unsupported schema keyword '" + keyword.getKey() + "'");
+                    }
+            }
+        }
+        if (schema.has("properties") || schema.has("patternProperties") || schema.has("additionalProperties")) {
+            rules.add(propertiesRule(schema));
+        }
+        return (node, pointer, context) -> {
+            for (Rule rule : rules) {
+                rule.check(node, pointer, context);
+            }
+        };
+    }
+
+    private static Rule typeRule(final String type) {
+        Predicate<JsonNode> matches;
+        switch (type) {
+            case "object":
+                matches = JsonNode::isObject;
+                break;
+            case "array":
+                matches = JsonNode::isArray;
+                break;
+            case "string":
+                matches = JsonNode::isTextual;
+                break;
+            case "integer":
+                matches = JsonNode::isIntegralNumber;
+                break;
+            case "number":
+                matches = JsonNode::isNumber;
+                break;
+            case "boolean":
+                matches = JsonNode::isBoolean;
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported schema type '" + type + "'");
+        }
+        return (node, pointer, context) -> {
+            if (!matches.test(node)) {
+                context.fail(pointer,
+                    "must be of type " + type + " but is " + node.getNodeType().toString().toLowerCase());
+            }
+        };
+    }
+
+    private static Rule enumRule(final JsonNode values) {
+        Set<JsonNode> allowed = new HashSet<>();
+        values.forEach(allowed::add);
+        String listed = allowed.size() <= MAX_LISTED_VALUES
+            ? ": " + toList(values).stream().map(JsonNode::asText).collect(Collectors.joining(", "))
+            : "";
+        return (node, pointer, context) -> {
+            if (!allowed.contains(node)) {
+                context.fail(pointer, node + " is not one of the allowed values" + listed);
+            }
+        };
+    }
+
+    private static Rule patternRule(final Pattern pattern) {
+        return (node, pointer, context) -> {
+            if (node.isTextual() && !pattern.matcher(node.asText()).find()) {
+                context.fail(pointer, node + " does not match " + pattern.pattern());
+            }
+        };
+    }
+
+    private static Rule boundRule(final String keyword, final BigDecimal bound) {
+        return (node, pointer, context) -> {
+            if (!node.isNumber()) {
+                return;
+            }
+            int comparison = node.decimalValue().compareTo(bound);
+            if ("minimum".equals(keyword) && comparison < 0) {
+                context.fail(pointer, "must be at least " + bound.toPlainString());
+            } else if ("exclusiveMinimum".equals(keyword) && comparison <= 0) {
+                context.fail(pointer, "must be greater than " + bound.toPlainString());
+            } else if ("maximum".equals(keyword) && comparison > 0) {
+                context.fail(pointer, "must be at most " + bound.toPlainString());
+            }
+        };
+    }
+
+    private static void checkUniqueItems(final JsonNode node, final String pointer, final Context context) {
+        Set<JsonNode> seen = new HashSet<>();
+        for (int i = 0; node.isArray() && i < node.size(); i++) {
+            if (!seen.add(node.get(i))) {
+                context.fail(pointer + "/" + i, "duplicates an earlier item " + node.get(i));
+            }
+        }
+    }
+
+    private static Rule propertiesRule(final JsonNode schema) {
+        Map<String, Rule> properties = new LinkedHashMap<>();
+        schema.path("properties").properties().forEach(entry ->
+            properties.put(entry.getKey(), compile(entry.getValue())));
+        Map<Pattern, Rule> patternProperties = new LinkedHashMap<>();
+        schema.path("patternProperties").properties().forEach(entry ->
+            patternProperties.put(Pattern.compile(entry.getKey()), compile(entry.getValue())));
+        JsonNode additional = schema.get("additionalProperties");
+        boolean closed = additional != null && additional.isBoolean() && !additional.asBoolean();
+        Rule additionalRule = additional != null && additional.isObject() ? compile(additional) : null;
+
+        return (node, pointer, context) -> {
+            if (!node.isObject()) {
+                return;
+            }
+            node.properties().forEach(entry -> {
+                String name = entry.getKey();
+                String childPointer = pointer + "/" + escape(name);
+                boolean matched = false;
+                Rule property = properties.get(name);
+                if (property != null) {
+                    property.check(entry.getValue(), childPointer, context);
+                    matched = true;
+                }
+                for (Map.Entry<Pattern, Rule> patternProperty : patternProperties.entrySet()) {
+                    if (patternProperty.getKey().matcher(name).find()) {
+                        patternProperty.getValue().check(entry.getValue(), childPointer, context);
+                        matched = true;
+                    }
+                }
+                if (!matched && closed) {
+                    context.fail(childPointer, patternProperties.isEmpty()
+                        ? "unknown property '" + name + "'"
+                        : "property name '" + name + "' does not match "
+                            + patternProperties.keySet().stream()
+                                .map(Pattern::pattern).collect(Collectors.joining(", ")));
+                } else if (!matched && additionalRule != null) {
+                    additionalRule.check(entry.getValue(), childPointer, context);
+                }
+            });
+        };
+    }
+
+    /**
+     * Branches of a oneOf that tell themselves apart by a const property, like the definition "type", are chosen by
+     * that property, so only the errors of the intended branch are reported.
+     */
+    private static Rule oneOfRule(final JsonNode branches) {
+        List<JsonNode> schemas = toList(branches);
+        List<Rule> rules = schemas.stream().map(SchemaValidator::compile).collect(Collectors.toList());
+        String discriminator = findDiscriminator(schemas);
+        if (discriminator != null) {
+            Map<JsonNode, Rule> byValue = new LinkedHashMap<>();
+            for (int i = 0; i < schemas.size(); i++) {
+                byValue.put(schemas.get(i).path("properties").path(discriminator).get("const"), rules.get(i));
+            }
+            String allowed = byValue.keySet().stream().map(JsonNode::asText).collect(Collectors.joining(", "));
+            return (node, pointer, context) -> {
+                if (!node.isObject()) {
+                    rules.get(0).check(node, pointer, context);
+                    return;
+                }
+                JsonNode value = node.get(discriminator);
+                Rule rule = value != null ? byValue.get(value) : null;
+                if (rule != null) {
+                    rule.check(node, pointer, context);
+                } else if (value == null) {
+                    context.fail(pointer, "missing required property '" + discriminator + "', one of " + allowed);
+                } else {
+                    context.fail(pointer + "/" + escape(discriminator), value + " is not one of " + allowed);
+                }
+            };
+        }
+        return (node, pointer, context) -> {
+            List<ValidationError> fewest = null;
+            int matches = 0;
+            for (Rule rule : rules) {
+                List<ValidationError> branchErrors = new ArrayList<>();
+                rule.check(node, pointer, new Context(context.location, branchErrors));
+                if (branchErrors.isEmpty()) {
+                    matches++;
+                } else if (fewest == null || branchErrors.size() < fewest.size()) {
+                    fewest = branchErrors;
+                }
+            }
+            if (matches == 0) {
+                context.errors.addAll(fewest);
+            } else if (matches > 1) {
+                context.fail(pointer, "matches more than one of the allowed forms");
+            }
+        };
+    }
+
+    private static String findDiscriminator(final List<JsonNode> schemas) {
+        Iterator<Map.Entry<String, JsonNode>> properties = schemas.get(0).path("properties").properties().iterator();
+        while (properties.hasNext()) {
+            String name = properties.next().getKey();
+            Set<JsonNode> values = new HashSet<>();
+            boolean discriminates = schemas.stream().allMatch(schema -> {
+                JsonNode constant = schema.path("properties").path(name).get("const");
+                return constant != null && values.add(constant);
+            });
+            if (discriminates) {
+                return name;
+            }
+        }
+        return null;
+    }
+
+    private static Rule anyOfRule(final JsonNode branches, final String description) {
+        List<Rule> rules = toList(branches).stream().map(SchemaValidator::compile).collect(Collectors.toList());
+        return (node, pointer, context) -> {
+            for (Rule rule : rules) {
+                List<ValidationError> branchErrors = new ArrayList<>();
+                rule.check(node, pointer, new Context(context.location, branchErrors));
+                if (branchErrors.isEmpty()) {
+                    return;
+                }
+            }
+            context.fail(pointer,
+                node + (description != null ? " is not " + description : " matches none of the allowed forms"));
+        };
+    }
+
+    private static List<JsonNode> toList(final JsonNode array) {
+        List<JsonNode> list = new ArrayList<>();
+        array.forEach(list::add);
+        return list;
+    }
+
+    /**
+     * Escapes a property name as a JSON pointer reference token.
+     */
+    static String escape(final String name) {
+        return name.replace("~", "~0").replace("/", "~1");
+    }
+}
@@ -0,0 +1,38 @@
+package io.github.vedatunlu.eventor.core.validation;
+
+/**
+ * A definition error, located by the file (with the array index or line inside a bundle) and a JSON pointer.
+ */
+public final class ValidationError {
+    private final String location;
+    private final String pointer;
+    private final String message;
+
+    public ValidationError(final String location, final String pointer, final String message) {
+        this.location = location;
+        this.pointer = pointer;
+        this.message = message;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    /**
+     * JSON pointer to the offending value inside the definition; empty for the definition itself.
+     */
+    public String getPointer() {
+        return pointer;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        // Inside an array bundle the location already ends in a pointer, so the two join into one
+        String separator = location.contains("#") || pointer.isEmpty() ? "" : "#";
+        return location + separator + pointer + ": " + message;
+    }
+}
@@ -0,0 +1,71 @@
+<#import "/lib/samples.ftl" as samples>
+package com.example.benchmark;
+
+import com.example.dto.${dto.name};
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Measures the bytes allocated per decoded ${dto.name} record, allocating a fresh instance per record
+ * versus decoding into a reused one as the pooled consumers do.
+ * Run with the record count as the only argument, default 1000000.
+ * Generated by Eventor Spring Event Generator
+ */
+public final class ${dto.name}AllocationBenchmark {
+
+    private static int sink;
+
+    private ${dto.name}AllocationBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int records = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        byte[] encoded = encode(sample());
+
+        measure(encoded, records, false);
+        measure(encoded, records, true);
+        System.out.printf("${dto.name} fresh:  %.1f bytes/record%n", measure(encoded, records, false));
+        System.out.printf("${dto.name} pooled: %.1f bytes/record%n", measure(encoded, records, true));
+    }
+
+    private static ${dto.name} sample() {
+        ${dto.name} sample = new ${dto.name}();
+<#list dto.fields as fieldName, fieldType>
+        sample.set${fieldName?cap_first}(${samples.sampleOf(fieldName, fieldTypes[fieldName])});
+</#list>
+        return sample;
+    }
+
+    private static byte[] encode(${dto.name} sample) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        sample.writeTo(new DataOutputStream(bytes));
+        return bytes.toByteArray();
+    }
+
+    private static double measure(byte[] encoded, int records, boolean pooled) throws IOException {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        ByteArrayInputStream bytes = new ByteArrayInputStream(encoded);
+        DataInputStream in = new DataInputStream(bytes);
+        ${dto.name} reuse = pooled ? new ${dto.name}() : null;
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < records; i++) {
+            bytes.reset();
+            ${dto.name} decoded = pooled ? ${dto.name}.readFrom(in, reuse) : ${dto.name}.readFrom(in);
+            sink += System.identityHashCode(decoded);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        return (double) allocated / records;
+    }
+}
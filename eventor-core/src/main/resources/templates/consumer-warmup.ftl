@@ -0,0 +1,310 @@
+<#import "/lib/samples.ftl" as samples>
+<#assign iterations = consumer.warmup.iterations!10000>
+<#assign warmedMethods = consumer.methods?filter(m -> (m.transport!"kafka") != "inprocess" || m.idempotencyKey??)>
+<#assign jsonMethods = warmedMethods?filter(m -> (m.transport!"kafka") == "kafka")>
+<#assign binaryMethods = warmedMethods?filter(m -> (m.transport!"kafka") == "mmap")>
+<#assign idempotentMethods = warmedMethods?filter(m -> m.idempotencyKey??)>
+<#assign sampledDtos = []>
+<#list warmedMethods as method>
+    <#if !sampledDtos?seq_contains(method.dto)>
+        <#assign sampledDtos = sampledDtos + [method.dto]>
+    </#if>
+</#list>
+<#assign dtoImports = sampledDtos>
+<#list warmedMethods as method>
+    <#if method.envelope?? && !dtoImports?seq_contains(method.dto + "Envelope")>
+        <#assign dtoImports = dtoImports + [method.dto + "Envelope"]>
+    </#if>
+    <#if method.projectionName?? && !dtoImports?seq_contains(method.projectionName)>
+        <#assign dtoImports = dtoImports + [method.projectionName]>
+    </#if>
+    <#if (method.transport!"kafka") == "kafka" && valueSerdes[method.dto]?? && !dtoImports?seq_contains(valueSerdes[method.dto])>
+        <#assign dtoImports = dtoImports + [valueSerdes[method.dto]]>
+    </#if>
+</#list>
+package com.example.consumer;
+
+<#if idempotentMethods?has_content>
+import com.example.support.IdempotencyCache;
+</#if>
+<#list dtoImports as dtoImport>
+import com.example.dto.${dtoImport};
+</#list>
+<#if binaryMethods?has_content>
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+</#if>
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+<#if jsonMethods?has_content>
+import java.util.HashMap;
+</#if>
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+<#if idempotentMethods?has_content>
+import java.util.Objects;
+</#if>
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+<#if jsonMethods?has_content>
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.Deserializer;
+</#if>
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+<#if jsonMethods?has_content>
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.BeanFactory;
+</#if>
+import org.springframework.context.SmartLifecycle;
+<#if jsonMethods?has_content>
+import org.springframework.kafka.config.AbstractKafkaListenerContainerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+</#if>
+<#if jsonMethods?filter(m -> !(valueSerdes[m.dto]??))?has_content>
+import org.springframework.kafka.support.serializer.JsonSerializer;
+</#if>
+import org.springframework.stereotype.Component;
+<#if jsonMethods?has_content>
+import org.springframework.util.ClassUtils;
+</#if>
+
+/**
+ * Generated warm-up of ${consumer.name}: runs ${iterations?c} synthetic events per method through the
+ * decoders and dispatch before the listeners start, so the first real records run compiled code.
+ * Kafka methods decode with the value deserializer of their listener container factory; idempotent methods
+ * claim keys in a cache of their own, so the listeners' caches and their hit ratios never see a synthetic key.
+ * Handler methods are not called, so dependencies never see a synthetic event.
+ * Generated by Eventor Spring Event Generator
+ */
+@Component
+public class ${consumer.name}Warmup implements SmartLifecycle {
+
+    /**
+     * Ahead of the Kafka listener containers (Integer.MAX_VALUE - 100) and the in-process and mmap transports
+     */
+    public static final int PHASE = Integer.MAX_VALUE - 200;
+
+    private static final int ITERATIONS = ${iterations?c};
+<#if idempotentMethods?has_content>
+
+    /**
+     * Smaller than ITERATIONS, so the warm-up also runs the eviction of a full cache
+     */
+    private static final int CACHE_ENTRIES = Math.max(1, ITERATIONS / 2);
+</#if>
+
+    private static final Logger logger = LoggerFactory.getLogger(${consumer.name}Warmup.class);
+
+<#if jsonMethods?has_content>
+    private final BeanFactory beanFactory;
+</#if>
+    private volatile boolean running;
+
+<#if jsonMethods?has_content>
+    public ${consumer.name}Warmup(BeanFactory beanFactory) {
+        this.beanFactory = beanFactory;
+    }
+
+</#if>
+    /**
+     * Warms up every method on the starting thread; a failure is logged and the listeners start cold
+     */
+    @Override
+    public void start() {
+        long startNanos = System.nanoTime();
+        try {
+<#list warmedMethods as method>
+            warmUp${method.methodName?cap_first}();
+</#list>
+            logger.info("Warmed up ${consumer.name} with {} events per method in {} ms",
+                ITERATIONS, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos));
+        } catch (Exception e) {
+            logger.warn("Warm-up of ${consumer.name} failed, its listeners start cold", e);
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+<#list warmedMethods as method>
+    <#assign transport = method.transport!"kafka">
+    <#assign eventType = method.envelope???then(method.dto + "Envelope", method.projectionName!method.dto)>
+    <#assign lookup = method.idempotencyKey??>
+    <#assign keyGetter = "get" + (method.idempotencyKey!"")?cap_first + "()">
+
+    <#if transport == "kafka">
+    <#assign overrides = []>
+    <#if method.projectionName??>
+        <#assign overrides = overrides + [["\"spring.json.value.default.type\"", "${method.projectionName}.class.getName()"],
+            ["\"spring.json.use.type.headers\"", "\"false\""]]>
+    </#if>
+    <#if valueSerdes[method.dto]??>
+        <#assign overrides = overrides + [["ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG", "${valueSerdes[method.dto]}.Deserializer.class"]]>
+    </#if>
+    private void warmUp${method.methodName?cap_first}() throws Exception {
+        <#if method.envelope??>
+        List<${method.dto}> events = new ArrayList<>();
+        events.add(sample${method.dto}());
+        events.add(sample${method.dto}());
+        ${eventType} sample = new ${eventType}(events);
+        <#else>
+        ${method.dto} sample = sample${method.dto}();
+        </#if>
+        Headers headers = new RecordHeaders();
+        byte[] payload;
+        <#if valueSerdes[method.dto]??>
+        try (${valueSerdes[method.dto]}.Serializer serializer = new ${valueSerdes[method.dto]}.Serializer()) {
+        <#else>
+        try (JsonSerializer<${method.envelope???then(eventType, method.dto)}> serializer = new JsonSerializer<>()) {
+        </#if>
+            payload = serializer.serialize("${method.topic}", headers, sample);
+        }
+        <#if overrides?has_content>
+        Map<String, Object> overrides = Map.of(
+        <#list overrides as override>
+            ${override[0]}, ${override[1]}<#sep>,</#sep>
+        </#list>
+        );
+        <#else>
+        Map<String, Object> overrides = Map.of();
+        </#if>
+        <#if lookup>
+        IdempotencyCache cache = new IdempotencyCache(CACHE_ENTRIES, TimeUnit.MINUTES.toMillis(1), null);
+        </#if>
+        ConsumerFactory<?, ?> consumerFactory = consumerFactory("${method.listenerFactory!"kafkaListenerContainerFactory"}");
+        Deserializer<?> shared = consumerFactory.getValueDeserializer();
+        Deserializer<?> deserializer = shared != null ? shared : valueDeserializer(consumerFactory, overrides);
+        try {
+            for (int i = 0; i < ITERATIONS; i++) {
+                // A copy per record, as a deserializer may add or remove headers
+                Headers received = new RecordHeaders(headers.toArray());
+                Object value = deserializer.deserialize("${method.topic}", received, payload);
+    <#assign bound = lookup || (valueSerdes[method.dto]!"") == method.dto + "Binary">
+                if (!(value instanceof ${eventType}<#if bound> event</#if>)) {
+                    throw new IllegalStateException("Read " + value + " from ${method.topic}, expected ${eventType}");
+                }
+        <#if lookup && method.envelope??>
+                for (${method.dto} element : event.getEvents()) {
+                    claim(cache, Objects.toString(element.${keyGetter}, null), i);
+                }
+        <#elseif lookup>
+                claim(cache, Objects.toString(event.${keyGetter}, null), i);
+        </#if>
+        <#if (valueSerdes[method.dto]!"") == method.dto + "Binary">
+                ${method.dto}Binary.release(event);
+        </#if>
+            }
+        } finally {
+            if (deserializer != shared) {
+                deserializer.close();
+            }
+        }
+    }
+    <#elseif transport == "mmap">
+    private void warmUp${method.methodName?cap_first}() throws IOException {
+        ${method.dto} sample = sample${method.dto}();
+        <#if pooledDtos?seq_contains(method.dto)>
+        ${method.dto} reuse = new ${method.dto}();
+        </#if>
+        <#if lookup>
+        IdempotencyCache cache = new IdempotencyCache(CACHE_ENTRIES, TimeUnit.MINUTES.toMillis(1), null);
+        </#if>
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        for (int i = 0; i < ITERATIONS; i++) {
+            bytes.reset();
+            sample.writeTo(out);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        <#if pooledDtos?seq_contains(method.dto)>
+            <#if lookup>${method.dto} event = </#if>${method.dto}.readFrom(in, reuse);
+        <#else>
+            <#if lookup>${method.dto} event = </#if>${method.dto}.readFrom(in);
+        </#if>
+        <#if lookup>
+            claim(cache, Objects.toString(event.${keyGetter}, null), i);
+        </#if>
+        }
+    }
+    <#else>
+    private void warmUp${method.methodName?cap_first}() {
+        ${method.dto} event = sample${method.dto}();
+        IdempotencyCache cache = new IdempotencyCache(CACHE_ENTRIES, TimeUnit.MINUTES.toMillis(1), null);
+        for (int i = 0; i < ITERATIONS; i++) {
+            claim(cache, Objects.toString(event.${keyGetter}, null), i);
+        }
+    }
+    </#if>
+</#list>
+<#if idempotentMethods?has_content>
+
+    /**
+     * Claims and records a key per iteration the way the listener does, then claims it again as a redelivery
+     */
+    private static void claim(IdempotencyCache cache, String key, int iteration) {
+        String claimed = key + "#" + iteration;
+        if (cache.tryAcquire(claimed)) {
+            cache.record(claimed);
+        }
+        cache.tryAcquire(claimed);
+    }
+</#if>
+<#if jsonMethods?has_content>
+
+    private ConsumerFactory<?, ?> consumerFactory(String containerFactoryName) {
+        AbstractKafkaListenerContainerFactory<?, ?, ?> containerFactory =
+            beanFactory.getBean(containerFactoryName, AbstractKafkaListenerContainerFactory.class);
+        return containerFactory.getConsumerFactory();
+    }
+
+    /**
+     * Creates the value deserializer a listener's consumer creates when its consumer factory has no instance:
+     * from value.deserializer of the factory's properties and the listener's overrides, configured with both
+     */
+    private Deserializer<?> valueDeserializer(ConsumerFactory<?, ?> consumerFactory, Map<String, Object> overrides)
+            throws ClassNotFoundException {
+        Map<String, Object> configs = new HashMap<>(consumerFactory.getConfigurationProperties());
+        configs.putAll(overrides);
+        Object type = configs.get(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG);
+        if (type == null) {
+            throw new IllegalStateException("No " + ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG + " configured");
+        }
+        Class<?> deserializerClass = type instanceof Class<?> configured
+            ? configured : ClassUtils.forName(type.toString().trim(), getClass().getClassLoader());
+        Deserializer<?> deserializer = (Deserializer<?>) BeanUtils.instantiateClass(deserializerClass);
+        deserializer.configure(configs, false);
+        return deserializer;
+    }
+</#if>
+<#list sampledDtos as dtoName>
+
+    private static ${dtoName} sample${dtoName}() {
+        ${dtoName} sample = new ${dtoName}();
+    <#if dtoFieldTypes[dtoName]??>
+        <#list dtoFieldTypes[dtoName] as fieldName, fieldType>
+        sample.set${fieldName?cap_first}(${samples.sampleOf(fieldName, fieldType)});
+        </#list>
+    </#if>
+        return sample;
+    }
+</#list>
+}
@@ -3,8 +3,21 @@ package com.example.consumer;
 <#-- Import all DTOs referenced in methods -->
 <#assign dtoImports = []>
 <#list consumer.methods as method>
-    <#if !dtoImports?seq_contains("com.example.dto." + method.dto)>
-        <#assign dtoImports = dtoImports + ["com.example.dto." + method.dto]>
+    <#assign eventType = method.projectionName!method.dto>
+    <#if !dtoImports?seq_contains("com.example.dto." + eventType)>
+        <#assign dtoImports = dtoImports + ["com.example.dto." + eventType]>
+    </#if>
+</#list>
+<#list consumer.methods?filter(m -> m.envelope??) as method>
+    <#if !dtoImports?seq_contains("com.example.dto." + method.dto + "Envelope")>
+        <#assign dtoImports = dtoImports + ["com.example.dto." + method.dto + "Envelope"]>
+    </#if>
+</#list>
+<#assign pooledKafkaMethods = consumer.methods?filter(m -> (m.transport!"kafka") == "kafka" && !m.materialized
+    && kafkaPooledDtos?seq_contains(m.dto))>
+<#list pooledKafkaMethods as method>
+    <#if !dtoImports?seq_contains("com.example.dto." + method.dto + "Binary")>
+        <#assign dtoImports = dtoImports + ["com.example.dto." + method.dto + "Binary"]>
     </#if>
 </#list>
 <#list dtoImports as dtoImport>
@@ -14,7 +27,7 @@ import ${dtoImport};
 <#-- Import all dependency types -->
 <#assign dependencyImports = []>
 <#list consumer.methods as method>
-    <#list method.dependencies as dep>
+    <#list method.dependencies![] as dep>
         <#if !dependencyImports?seq_contains(dep.type)>
             <#assign dependencyImports = dependencyImports + [dep.type]>
         </#if>
@@ -24,8 +37,151 @@ import ${dtoImport};
 import ${depImport};
 </#list>
 
+<#assign idempotentMethods = consumer.methods?filter(m -> m.idempotencyKey??)>
+<#assign inProcessMethods = consumer.methods?filter(m -> (m.transport!"kafka") == "inprocess")>
+<#assign mmapMethods = consumer.methods?filter(m -> (m.transport!"kafka") == "mmap")>
+<#assign kafkaMethods = consumer.methods?filter(m -> (m.transport!"kafka") == "kafka")>
+<#assign adaptiveMethods = consumer.methods?filter(m -> m.adaptiveBackpressure??)>
+<#assign materializedMethods = consumer.methods?filter(m -> m.materialized)>
+<#assign claimCheckMethods = consumer.methods?filter(m -> m.claimCheck??)>
+<#assign ackModeMethods = consumer.methods?filter(m -> m.ackMode??)>
+<#assign manualAckMethods = consumer.methods?filter(m -> m.manualAck)>
+<#assign asyncAckMethods = consumer.methods?filter(m -> (m.ackMode!"") == "manual-async")>
+<#assign interfaces = []>
+<#if inProcessMethods?has_content || mmapMethods?has_content>
+    <#assign interfaces = interfaces + ["InitializingBean"]>
+</#if>
+<#if adaptiveMethods?has_content || materializedMethods?has_content>
+    <#assign interfaces = interfaces + ["DisposableBean"]>
+</#if>
+<#if materializedMethods?has_content>
+    <#assign interfaces = interfaces + ["ConsumerSeekAware"]>
+</#if>
+<#if adaptiveMethods?has_content>
+import com.example.support.AdaptiveBackpressure;
+</#if>
+<#if claimCheckMethods?has_content>
+import com.example.support.ClaimCheck;
+import com.example.support.ClaimCheckCache;
+</#if>
+<#if asyncAckMethods?has_content>
+import com.example.support.CommitCoalescer;
+</#if>
+<#if consumer.methods?filter(m -> m.retry??)?has_content>
+import com.example.support.DeadLetterHandler;
+</#if>
+<#if idempotentMethods?has_content>
+import com.example.support.IdempotencyCache;
+</#if>
+<#if inProcessMethods?has_content>
+import com.example.support.InProcessEventBus;
+</#if>
+<#if mmapMethods?has_content>
+import com.example.support.MappedJournalTransport;
+</#if>
+<#if materializedMethods?has_content>
+import com.example.support.MaterializedView;
+</#if>
+<#if pooledDtos?has_content>
+import com.example.support.ObjectPool;
+</#if>
+<#assign batchMethods = consumer.methods?filter(m -> ((m.envelope.delivery)!"each") == "batch")>
+<#if pooledDtos?has_content>
+import java.io.IOException;
+</#if>
+<#if materializedMethods?has_content>
+import java.util.Collection;
+</#if>
+<#if batchMethods?has_content>
+import java.util.List;
+</#if>
+<#if materializedMethods?has_content>
+import java.util.Map;
+</#if>
+<#if asyncAckMethods?has_content || adaptiveMethods?has_content || materializedMethods?has_content>
+import org.apache.kafka.clients.consumer.Consumer;
+</#if>
+<#if materializedMethods?has_content>
+import org.apache.kafka.common.TopicPartition;
+</#if>
+<#assign retryMethods = consumer.methods?filter(m -> m.retry??)>
+<#assign retryTopics = []>
+<#list retryMethods as method>
+    <#if !retryTopics?seq_contains(method.topic)>
+        <#assign retryTopics = retryTopics + [method.topic]>
+    </#if>
+</#list>
+<#if retryMethods?has_content>
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+</#if>
+<#if interfaces?seq_contains("DisposableBean")>
+import org.springframework.beans.factory.DisposableBean;
+</#if>
+<#if interfaces?seq_contains("InitializingBean")>
+import org.springframework.beans.factory.InitializingBean;
+</#if>
+<#if retryMethods?has_content>
+import org.springframework.beans.factory.ObjectProvider;
+</#if>
 import org.springframework.beans.factory.annotation.Autowired;
+<#if adaptiveMethods?has_content>
+import org.springframework.context.ApplicationEventPublisher;
+</#if>
+<#if ackModeMethods?has_content || materializedMethods?has_content>
+import org.springframework.context.annotation.Bean;
+</#if>
+<#if asyncAckMethods?has_content || materializedMethods?has_content>
+import org.springframework.context.event.EventListener;
+</#if>
+<#if retryMethods?has_content>
+import org.springframework.kafka.annotation.DltHandler;
+</#if>
+<#if kafkaMethods?has_content>
 import org.springframework.kafka.annotation.KafkaListener;
+</#if>
+<#if ackModeMethods?has_content || materializedMethods?has_content>
+import org.springframework.kafka.config.ContainerPostProcessor;
+</#if>
+<#if adaptiveMethods?has_content>
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+</#if>
+<#if retryMethods?has_content>
+import org.springframework.kafka.annotation.RetryableTopic;
+import org.springframework.kafka.retrytopic.TopicSuffixingStrategy;
+</#if>
+<#if materializedMethods?has_content>
+import org.springframework.kafka.core.ConsumerFactory;
+</#if>
+<#if asyncAckMethods?has_content || materializedMethods?has_content>
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+</#if>
+<#if ackModeMethods?has_content || materializedMethods?has_content>
+import org.springframework.kafka.listener.AbstractMessageListenerContainer;
+</#if>
+<#if materializedMethods?has_content>
+import org.springframework.kafka.listener.ConsumerSeekAware;
+</#if>
+<#if ackModeMethods?has_content || materializedMethods?has_content>
+import org.springframework.kafka.listener.ContainerProperties;
+</#if>
+<#if manualAckMethods?has_content>
+import org.springframework.kafka.support.Acknowledgment;
+</#if>
+<#if retryMethods?has_content || materializedMethods?has_content || asyncAckMethods?has_content
+    || adaptiveMethods?has_content>
+import org.springframework.kafka.support.KafkaHeaders;
+</#if>
+<#if retryMethods?has_content || materializedMethods?has_content || claimCheckMethods?has_content
+    || asyncAckMethods?has_content || adaptiveMethods?has_content>
+import org.springframework.messaging.handler.annotation.Header;
+</#if>
+<#if materializedMethods?has_content>
+import org.springframework.messaging.handler.annotation.Payload;
+</#if>
+<#if retryMethods?has_content>
+import org.springframework.retry.annotation.Backoff;
+</#if>
 import org.springframework.stereotype.Component;
 
 /**
@@ -33,12 +189,12 @@ import org.springframework.stereotype.Component;
  * Generated by Eventor Spring Event Generator
  */
 @Component
-public class ${consumer.name} {
+public class ${consumer.name}<#if interfaces?has_content> implements ${interfaces?join(", ")}</#if> {
 
 <#-- Generate fields for all unique dependencies -->
 <#assign uniqueDependencies = []>
 <#list consumer.methods as method>
-    <#list method.dependencies as dep>
+    <#list method.dependencies![] as dep>
         <#assign found = false>
         <#list uniqueDependencies as uniqueDep>
             <#if uniqueDep.beanName == dep.beanName>
@@ -52,36 +208,571 @@ public class ${consumer.name} {
     </#list>
 </#list>
 
+<#-- Constructor-injected collaborators: dependencies first, then generated infrastructure -->
+<#assign injected = []>
 <#list uniqueDependencies as dep>
-    private final ${dep.type?split(".")?last} ${dep.beanName};
+    <#assign injected = injected + [{"type": dep.type?split(".")?last, "name": dep.beanName}]>
+</#list>
+<#if inProcessMethods?has_content>
+    <#assign injected = injected + [{"type": "InProcessEventBus", "name": "eventBus"}]>
+</#if>
+<#if mmapMethods?has_content>
+    <#assign injected = injected + [{"type": "MappedJournalTransport", "name": "journalTransport"}]>
+</#if>
+<#if adaptiveMethods?has_content>
+    <#assign injected = injected + [{"type": "KafkaListenerEndpointRegistry", "name": "listenerRegistry"},
+        {"type": "ApplicationEventPublisher", "name": "eventPublisher"}]>
+</#if>
+<#if materializedMethods?has_content>
+    <#assign injected = injected + [{"type": "ConsumerFactory<?, ?>", "name": "consumerFactory"}]>
+</#if>
+<#if claimCheckMethods?has_content>
+    <#assign injected = injected + [{"type": "ClaimCheck", "name": "claimCheck"}]>
+</#if>
+<#if retryMethods?has_content>
+    <#assign injected = injected + [{"type": "ObjectProvider<DeadLetterHandler>", "name": "deadLetterHandler"}]>
+</#if>
+<#if retryMethods?has_content>
+    private static final Logger logger = LoggerFactory.getLogger(${consumer.name}.class);
+
+</#if>
+<#list injected as field>
+    private final ${field.type} ${field.name};
+</#list>
+<#list idempotentMethods as method>
+    private final IdempotencyCache ${method.methodName}IdempotencyCache;
+</#list>
+<#list adaptiveMethods as method>
+    private final AdaptiveBackpressure ${method.methodName}Backpressure;
+</#list>
+<#list claimCheckMethods as method>
+    private final ClaimCheckCache ${method.methodName}ClaimCheckCache;
+</#list>
+<#list asyncAckMethods as method>
+    private final CommitCoalescer ${method.methodName}Commits;
+</#list>
+<#list materializedMethods as method>
+    private final MaterializedView<${method.dto}> ${method.methodName}View;
+</#list>
+<#list pooledDtos as dtoName>
+    private final ObjectPool<${dtoName}> ${dtoName?uncap_first}Pool = new ObjectPool<>(${dtoName}::new, 4);
 </#list>
 
     @Autowired
-    public ${consumer.name}(<#list uniqueDependencies as dep>${dep.type?split(".")?last} ${dep.beanName}<#if dep_has_next>, </#if></#list>) {
-<#list uniqueDependencies as dep>
-        this.${dep.beanName} = ${dep.beanName};
+    public ${consumer.name}(<#list injected as field>${field.type} ${field.name}<#if field_has_next>, </#if></#list>) {
+<#list injected as field>
+        this.${field.name} = ${field.name};
+</#list>
+<#list idempotentMethods as method>
+    <#assign cache = method.idempotencyCache!{}>
+        this.${method.methodName}IdempotencyCache = new IdempotencyCache(
+            ${(cache.maxEntries!100000)?c},
+            java.util.concurrent.TimeUnit.SECONDS.toMillis(${(cache.ttlSeconds!3600)?c}L),
+            <#if cache.persistFile??>java.nio.file.Paths.get("${cache.persistFile?j_string}")<#else>null</#if>);
+</#list>
+<#list adaptiveMethods as method>
+    <#assign adaptive = method.adaptiveBackpressure>
+        this.${method.methodName}Backpressure = new AdaptiveBackpressure("${consumer.name}.${method.methodName}",
+            ${(adaptive.maxLatencyMs!1000)?c}, ${(adaptive.maxQueueDepth!0)?c}, ${(adaptive.pauseMs!5000)?c},
+            ${(adaptive.smoothing!0.2)?c}, listenerRegistry, eventPublisher);
+</#list>
+<#list asyncAckMethods as method>
+        this.${method.methodName}Commits = new CommitCoalescer("${consumer.name}.${method.methodName}", "${method.topic}",
+            ${(method.ackTimeMs!1000)?c}L);
+</#list>
+<#list claimCheckMethods as method>
+        this.${method.methodName}ClaimCheckCache = new ClaimCheckCache(${((method.claimCheck.cacheMaxBytes)!67108864)?c}L);
+</#list>
+<#list materializedMethods as method>
+    <#assign view = method.materialize!{}>
+    <#assign offHeap = (view.storage!"heap") == "offheap">
+    <#assign encoded = offHeap || view.snapshotFile??>
+        this.${method.methodName}View = new MaterializedView<>("${consumer.name}.${method.methodName}", "${method.topic}",
+            ${offHeap?c}, <#if encoded>${method.dto}::writeTo, ${method.dto}::readFrom<#else>null, null</#if>,
+            <#if view.snapshotFile??>java.nio.file.Paths.get("${view.snapshotFile?j_string}")<#else>null</#if>, ${(view.snapshotIntervalSeconds!60)?c}L, consumerFactory);
 </#list>
     }
 
+<#-- Listener annotations of a Kafka method, with non-blocking retry topics when the method declares retry -->
+<#macro kafkaListener method>
+<#if method.retry??>
+    <#assign retry = method.retry>
+    @RetryableTopic(
+        attempts = "${(retry.attempts!3)?c}",
+        backoff = @Backoff(delay = ${(retry.backoffMs!1000)?c}<#if retry.multiplier??>, multiplier = ${retry.multiplier?c}</#if><#if retry.maxBackoffMs??>, maxDelay = ${retry.maxBackoffMs?c}</#if>),
+        topicSuffixingStrategy = TopicSuffixingStrategy.SUFFIX_WITH_INDEX_VALUE,
+        retryTopicSuffix = "-retry",
+        dltTopicSuffix = "${(retry.dlt?remove_beginning(method.topic))!"-dlt"}",
+        listenerContainerFactory = "${method.listenerFactory!"kafkaListenerContainerFactory"}"
+    )
+</#if>
+    @KafkaListener(
+<#if method.adaptiveBackpressure?? || (method.ackMode!"") == "manual-async" || method.materialized>
+        id = "${consumer.name}.${method.methodName}",
+</#if>
+<#assign properties = []>
+<#if method.materialized>
+    <#assign properties = properties + ["auto.offset.reset=earliest", "enable.auto.commit=false"]>
+<#elseif method.ackMode??>
+    <#assign properties = properties + ["enable.auto.commit=false"]>
+</#if>
+<#if method.projectionName??>
+    <#assign properties = properties + ["spring.json.value.default.type=com.example.dto." + method.projectionName,
+        "spring.json.use.type.headers=false"]>
+</#if>
+<#if valueSerdes[method.dto]??>
+    <#assign properties = properties + ["value.deserializer=com.example.dto." + valueSerdes[method.dto] + "$Deserializer"]>
+</#if>
+        topics = "${method.topic}",
+<#if method.materialized>
+        groupId = "${method.groupId}-${r"#{T(java.util.UUID).randomUUID()}"}",
+<#else>
+        groupId = "${method.groupId}",
+</#if>
+        containerFactory = "${method.listenerFactory!"kafkaListenerContainerFactory"}"<#if method.ackMode??>,
+        containerPostProcessor = "${consumer.name?uncap_first}${method.methodName?cap_first}AckMode"<#elseif method.materialized>,
+        containerPostProcessor = "${consumer.name?uncap_first}${method.methodName?cap_first}View"</#if><#if properties?has_content>,
+        properties = {
+    <#list properties as property>
+            "${property}"<#sep>,</#sep>
+    </#list>
+        }</#if>
+    )
+</#macro>
 <#list consumer.methods as method>
+<#assign batch = ((method.envelope.delivery)!"each") == "batch">
+<#assign eventType = method.projectionName!method.dto>
+<#if method.materialized>
+<#assign indent = ""?left_pad(method.methodName?length + 17)>
+    /**
+     * Applies ${method.dto} records of ${method.topic} topic to the ${method.methodName} view; a null payload is a tombstone
+<#if method.claimCheck??>
+     * Claim-checked records are read back from the blob store before they are applied
+</#if>
+     * @param event the latest value of the key, or null when the key was deleted
+<#if method.claimCheck??>
+     * @param reference the claim check of an offloaded event
+</#if>
+     * @param key the record key
+     * @param partition the partition of the record
+     * @param offset the offset of the record
+     * @param consumer the consumer of the listener thread, whose positions tell when the initial load is complete
+     */
+    <@kafkaListener method=method/>
+    public void ${method.methodName}(@Payload(required = false) ${method.dto} event,
+<#if method.claimCheck??>
+${indent}@Header(name = ClaimCheck.HEADER, required = false) byte[] reference,
+</#if>
+${indent}@Header(name = KafkaHeaders.RECEIVED_KEY, required = false) String key,
+${indent}@Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+${indent}@Header(KafkaHeaders.OFFSET) long offset,
+${indent}Consumer<?, ?> consumer) {
+<#if method.claimCheck??>
+        ${method.methodName}View.apply(partition, offset, key, reference != null
+            ? claimCheck.resolve(reference, ${method.dto}.class, ${method.methodName}ClaimCheckCache) : event);
+<#else>
+        ${method.methodName}View.apply(partition, offset, key, event);
+</#if>
+        ${method.methodName}View.checkInitialLoad(consumer);
+    }
+
+<#else>
+<#assign adaptive = method.adaptiveBackpressure??>
+<#assign receivedParameters = ["@Header(KafkaHeaders.RECEIVED_TOPIC) String topic",
+    "@Header(KafkaHeaders.RECEIVED_PARTITION) int partition", "@Header(KafkaHeaders.OFFSET) long offset",
+    "Consumer<?, ?> consumer"]>
+<#if method.envelope??>
+<#assign indent = ""?left_pad(method.methodName?length + 25)>
     /**
+     * Receives ${method.dto}Envelope records from ${method.topic} topic; offsets are committed per envelope
+     * @param envelope the received batch of events
+<#if adaptive>
+     * @param topic the topic of the record
+     * @param partition the partition of the record
+     * @param offset the offset of the record
+     * @param consumer the consumer of the listener thread, whose fetched records make up the queue depth
+</#if>
+     */
+    <@kafkaListener method=method/>
+    public void ${method.methodName}Envelope(${method.dto}Envelope envelope<#if adaptive>,
+${indent}${receivedParameters?join(",\n" + indent)}</#if>) {
+    <#if adaptive>
+        ${method.methodName}Backpressure.received(consumer, topic, partition, offset);
+    </#if>
+    <#if batch>
+        ${method.methodName}(envelope.getEvents());
+    <#else>
+        for (${method.dto} event : envelope.getEvents()) {
+            ${method.methodName}(event);
+        }
+    </#if>
+    }
+
+</#if>
+<#assign asyncAck = (method.ackMode!"") == "manual-async">
+<#assign manualAck = method.manualAck>
+<#assign pooledRecord = pooledKafkaMethods?seq_contains(method)>
+<#assign recordWrapper = !method.envelope?? && (method.claimCheck?? || asyncAck || adaptive || pooledRecord)>
+<#if recordWrapper>
+<#assign indent = ""?left_pad(method.methodName?length + 23)>
+<#assign recordParameters = [eventType + " event"]>
+<#if method.claimCheck??>
+    <#assign recordParameters = recordParameters + ["@Header(name = ClaimCheck.HEADER, required = false) byte[] reference"]>
+</#if>
+<#if adaptive>
+    <#assign recordParameters = recordParameters + receivedParameters>
+<#elseif asyncAck>
+    <#assign recordParameters = recordParameters + receivedParameters[1..]>
+</#if>
+<#if manualAck && !asyncAck>
+    <#assign recordParameters = recordParameters + ["Acknowledgment acknowledgment"]>
+</#if>
+<#if method.claimCheck??>
+    <#assign recordEvent = "reference != null\n            ? claimCheck.resolve(reference, " + eventType + ".class, "
+        + method.methodName + "ClaimCheckCache) : event">
+<#else>
+    <#assign recordEvent = "event">
+</#if>
+    /**
+<#if method.claimCheck??>
+     * Receives ${eventType} records from ${method.topic} topic, reading claim-checked events back from the blob store
+<#elseif asyncAck>
+     * Receives ${eventType} records from ${method.topic} topic and tracks their offsets until they are acknowledged
+<#elseif adaptive>
+     * Receives ${eventType} records from ${method.topic} topic and measures the fetched records not handled yet
+<#else>
+     * Receives ${eventType} records from ${method.topic} topic and returns each pooled event once it is handled
+</#if>
+     * @param event the received event<#if method.claimCheck??>, or the stub of an offloaded one</#if>
+<#if method.claimCheck??>
+     * @param reference the claim check of an offloaded event
+</#if>
+<#if adaptive>
+     * @param topic the topic of the record
+</#if>
+<#if adaptive || asyncAck>
+     * @param partition the partition of the record
+     * @param offset the offset of the record
+     * @param consumer the consumer of the listener thread<#if asyncAck>, which commits the acknowledged offsets</#if>
+</#if>
+<#if manualAck && !asyncAck>
+     * @param acknowledgment commits the record once acknowledged
+</#if>
+     */
+    <@kafkaListener method=method/>
+    public void ${method.methodName}Record(${recordParameters?join(",\n" + indent)}) {
+<#if adaptive>
+        ${method.methodName}Backpressure.received(consumer, topic, partition, offset);
+</#if>
+<#if asyncAck>
+        Acknowledgment acknowledgment = ${method.methodName}Commits.received(consumer, partition, offset);
+        try {
+            ${method.methodName}(${recordEvent?replace("\n", "\n    ")}, acknowledgment);
+        } catch (RuntimeException e) {
+            ${method.methodName}Commits.failed(partition, offset);
+            throw e;
+        }
+<#else>
+        ${method.methodName}(${recordEvent}<#if manualAck>, acknowledgment</#if>);
+</#if>
+<#if pooledRecord>
+        // Not after a failure, when the error handler may still send the event to a retry or dead-letter topic
+        ${method.dto}Binary.release(event);
+</#if>
+    }
+
+</#if>
+    /**
+<#if batch>
+     * Handles a batch of ${method.dto} events from ${method.topic} topic
+     * @param events the events of one envelope
+<#elseif ((method.transport!"kafka") == "mmap" && pooledDtos?seq_contains(method.dto))
+    || pooledKafkaMethods?seq_contains(method)>
+     * Handles ${method.dto} events from ${method.topic} topic
+     * @param event the received event; it is pooled and overwritten once this method returns, so do not keep it
+<#elseif method.projectionName??>
+     * Handles ${method.dto} events from ${method.topic} topic, decoding only ${method.fields?join(", ")}
+     * @param event the received event, projected to the fields this method needs
+<#else>
      * Handles ${method.dto} events from ${method.topic} topic
      * @param event the received event
+</#if>
+<#if manualAck>
+<#if asyncAck>
+     * @param acknowledgment acknowledge once the event is processed, from any thread and in any order;
+     *                       until then neither its offset nor any later one is committed
+<#else>
+     * @param acknowledgment acknowledge once the event is processed, in the order events arrive;
+     *                       the acknowledged offsets are committed after the records of the poll are handled
+</#if>
+</#if>
      */
-    @KafkaListener(
-        topics = "${method.topic}",
-        groupId = "${method.groupId}",
-        containerFactory = "${method.listenerFactory}"
-    )
-    public void ${method.methodName}(${method.dto} event) {
+<#if (method.transport!"kafka") == "kafka" && !method.envelope?? && !recordWrapper>
+    <@kafkaListener method=method/>
+</#if>
+    public void ${method.methodName}(<#if batch>List<${method.dto}> events<#else>${eventType} event</#if><#if manualAck>, Acknowledgment acknowledgment</#if>) {
+<#assign handlerBody>
         // TODO: Implement your business logic here
 
         // Generated dependency method calls:
-<#list method.dependencies as dep>
+<#if method.adaptiveBackpressure??>
+        long dependencyStart = ${method.methodName}Backpressure.beforeDependencies();
+        try {
+<#list method.dependencies![] as dep>
     <#list dep.methodCalls as methodCall>
-        ${dep.beanName}.${methodCall}(event);
+            ${dep.beanName}.${methodCall}(<#if batch>events<#else>event</#if>);
     </#list>
 </#list>
+        } finally {
+            ${method.methodName}Backpressure.afterDependencies(dependencyStart);
+        }
+<#else>
+<#list method.dependencies![] as dep>
+    <#list dep.methodCalls as methodCall>
+        ${dep.beanName}.${methodCall}(<#if batch>events<#else>event</#if>);
+    </#list>
+</#list>
+</#if>
+</#assign>
+<#if method.idempotencyKey??>
+        String idempotencyKey = java.util.Objects.toString(event.get${method.idempotencyKey?cap_first}(), null);
+        if (!${method.methodName}IdempotencyCache.tryAcquire(idempotencyKey)) {
+    <#if manualAck>
+            acknowledgment.acknowledge();
+    </#if>
+            return;
+        }
+
+        try {
+${handlerBody?replace("^(.)", "    $1", "rm")}        } catch (RuntimeException e) {
+            // Not handled, so a redelivery of the event must not be skipped
+            ${method.methodName}IdempotencyCache.release(idempotencyKey);
+            throw e;
+        }
+        ${method.methodName}IdempotencyCache.record(idempotencyKey);
+<#else>
+${handlerBody}<#t>
+</#if>
+<#if manualAck>
+
+        // Move this call to where the event is durably processed, e.g. an asynchronous completion
+        acknowledgment.acknowledge();
+</#if>
+    }
+
+</#if>
+</#list>
+<#if retryMethods?has_content>
+    /**
+     * Receives events that failed on every retry topic of ${retryTopics?join(", ")} and passes them to the
+     * application's {@link DeadLetterHandler}, or logs them when it declares none
+     * @param event the failed event
+     * @param topic the dead-letter topic it was read from
+     * @param partition its partition
+     * @param offset its offset
+     * @param error the message of the last exception, if present
+     */
+    @DltHandler
+    public void handleDeadLetter(Object event,
+                                 @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
+                                 @Header(KafkaHeaders.RECEIVED_PARTITION) int partition,
+                                 @Header(KafkaHeaders.OFFSET) long offset,
+                                 @Header(name = KafkaHeaders.EXCEPTION_MESSAGE, required = false) String error) {
+        DeadLetterHandler handler = deadLetterHandler.getIfUnique();
+        if (handler != null) {
+            handler.handle("${consumer.name}", event, topic, partition, offset, error);
+        } else {
+            logger.error("Event at {}-{}@{} exhausted its retries: {} ({})", topic, partition, offset, event, error);
+        }
+    }
+
+</#if>
+<#list ackModeMethods as method>
+    <#assign ackMode = method.ackMode>
+    /**
+    <#if ackMode == "manual-async">
+     * Listener container settings of ${method.methodName}: manual acks, committed by ${method.methodName}Commits every ${(method.ackTimeMs!1000)?c} ms
+    <#elseif ackMode == "manual">
+     * Listener container settings of ${method.methodName}: manual acks, committed after the records of each poll
+    <#elseif ackMode == "time">
+     * Listener container settings of ${method.methodName}: offsets committed every ${(method.ackTimeMs!1000)?c} ms
+    <#elseif ackMode == "count">
+     * Listener container settings of ${method.methodName}: offsets committed every ${(method.ackCount!100)?c} records
+    <#else>
+     * Listener container settings of ${method.methodName}: offsets committed after each ${ackMode}
+    </#if>
+     * @return the post-processor the listener refers to by bean name
+     */
+    @Bean
+    public ContainerPostProcessor<Object, Object, AbstractMessageListenerContainer<Object, Object>> ${consumer.name?uncap_first}${method.methodName?cap_first}AckMode() {
+        return container -> {
+            ContainerProperties properties = container.getContainerProperties();
+    <#if ackMode == "manual-async">
+            properties.setAckMode(ContainerProperties.AckMode.MANUAL);
+            properties.setIdleEventInterval(${(method.ackTimeMs!1000)?c}L);
+            properties.setConsumerRebalanceListener(
+                ${method.methodName}Commits.wrap(properties.getConsumerRebalanceListener()));
+    <#else>
+            properties.setAckMode(ContainerProperties.AckMode.${ackMode?upper_case});
+        <#if ackMode == "time">
+            properties.setAckTime(${(method.ackTimeMs!1000)?c}L);
+        <#elseif ackMode == "count">
+            properties.setAckCount(${(method.ackCount!100)?c});
+        </#if>
+    </#if>
+        };
+    }
+
+</#list>
+<#list materializedMethods as method>
+    /**
+     * Listener container settings of ${method.methodName}: manual acks that are never given, so the view's
+     * one-off consumer group commits no offsets and is removed by the broker once the application stops,
+     * and idle events that complete the initial load when the topic ends with transaction markers
+     * @return the post-processor the listener refers to by bean name
+     */
+    @Bean
+    public ContainerPostProcessor<Object, Object, AbstractMessageListenerContainer<Object, Object>> ${consumer.name?uncap_first}${method.methodName?cap_first}View() {
+        return container -> {
+            ContainerProperties properties = container.getContainerProperties();
+            properties.setAckMode(ContainerProperties.AckMode.MANUAL);
+            if (properties.getIdleEventInterval() == null) {
+                properties.setIdleEventInterval(MaterializedView.IDLE_EVENT_INTERVAL_MILLIS);
+            }
+        };
+    }
+
+</#list>
+<#if asyncAckMethods?has_content || materializedMethods?has_content>
+    /**
+    <#if asyncAckMethods?has_content>
+     * Commits the acknowledged offsets of the manual-async methods while their topics are quiet<#if materializedMethods?has_content>, and</#if>
+    </#if>
+    <#if materializedMethods?has_content>
+     * completes the initial load of the views once their consumers are positioned at the end of the topic
+    </#if>
+     * @param event published on the listener thread after a period without records
+     */
+    @EventListener
+    public void onListenerIdle(ListenerContainerIdleEvent event) {
+    <#list asyncAckMethods as method>
+        ${method.methodName}Commits.onIdle(event);
+    </#list>
+    <#list materializedMethods as method>
+        ${method.methodName}View.onIdle(event);
+    </#list>
+    }
+
+</#if>
+<#if interfaces?seq_contains("InitializingBean")>
+    /**
+     * Subscribes the non-Kafka handlers; they start receiving events together with their transport
+     */
+    @Override
+    public void afterPropertiesSet() {
+    <#list inProcessMethods as method>
+        eventBus.subscribe("${method.topic}", "${method.groupId}",
+            "${(method.inProcess.waitStrategy)!"blocking"}", ${((method.inProcess.maxBatchSize)!256)?c},
+            "${(method.inProcess.failurePolicy)!"skip"}", ${method.dto}.class, this::${method.methodName});
+    </#list>
+    <#list mmapMethods as method>
+        <#if pooledDtos?seq_contains(method.dto)>
+            <#assign pool = method.dto?uncap_first + "Pool">
+        journalTransport.subscribe("${method.topic}", "${method.groupId}", in -> {
+                ${method.dto} reuse = ${pool}.acquire();
+                try {
+                    return ${method.dto}.readFrom(in, reuse);
+                } catch (IOException | RuntimeException e) {
+                    ${pool}.release(reuse);
+                    throw e;
+                }
+            }, event -> {
+                try {
+                    ${method.methodName}(event);
+                } finally {
+                    ${pool}.release(event);
+                }
+            });
+        <#else>
+        journalTransport.subscribe("${method.topic}", "${method.groupId}",
+            ${method.dto}::readFrom, this::${method.methodName});
+        </#if>
+    </#list>
+    }
+
+</#if>
+<#list adaptiveMethods as method>
+    /**
+     * Adaptive backpressure of ${method.methodName}, exposed for latency, queue depth and pause metrics
+     * @return the controller pausing listener ${consumer.name}.${method.methodName}
+     */
+    public AdaptiveBackpressure get${method.methodName?cap_first}Backpressure() {
+        return ${method.methodName}Backpressure;
+    }
+
+</#list>
+<#list materializedMethods as method>
+    /**
+     * Latest ${method.dto} per key of ${method.topic} topic
+     * @return the view kept up to date by ${method.methodName}
+     */
+    public MaterializedView<${method.dto}> get${method.methodName?cap_first}View() {
+        return ${method.methodName}View;
+    }
+
+</#list>
+<#if materializedMethods?has_content>
+    /**
+     * Rewinds the materialized topics to their snapshot offsets, or to the beginning, on every assignment
+     */
+    @Override
+    public void onPartitionsAssigned(Map<TopicPartition, Long> assignments, ConsumerSeekCallback callback) {
+        Collection<TopicPartition> partitions = assignments.keySet();
+    <#list materializedMethods as method>
+        ${method.methodName}View.onPartitionsAssigned(partitions, callback);
+    </#list>
+    }
+
+</#if>
+<#if interfaces?seq_contains("DisposableBean")>
+    @Override
+    public void destroy() {
+    <#list adaptiveMethods as method>
+        ${method.methodName}Backpressure.close();
+    </#list>
+    <#list materializedMethods as method>
+        ${method.methodName}View.close();
+    </#list>
+    }
+
+</#if>
+<#list asyncAckMethods as method>
+    /**
+     * Offset commits of ${method.methodName}, exposed for pending-ack and commit metrics
+     * @return the coalescer committing the acknowledged offsets of ${method.topic}
+     */
+    public CommitCoalescer get${method.methodName?cap_first}Commits() {
+        return ${method.methodName}Commits;
+    }
+
+</#list>
+<#list claimCheckMethods as method>
+    /**
+     * Read-through cache of the claim-checked payloads of ${method.methodName}, exposed for hit-ratio metrics
+     * @return the cache in front of the blob store
+     */
+    public ClaimCheckCache get${method.methodName?cap_first}ClaimCheckCache() {
+        return ${method.methodName}ClaimCheckCache;
+    }
+
+</#list>
+<#list idempotentMethods as method>
+    /**
+     * Dedupe cache guarding ${method.methodName}, exposed for hit-ratio metrics
+     * @return the idempotency cache keyed by ${method.dto}.${method.idempotencyKey}
+     */
+    public IdempotencyCache get${method.methodName?cap_first}IdempotencyCache() {
+        return ${method.methodName}IdempotencyCache;
     }
 
 </#list>
@@ -0,0 +1,152 @@
+package com.example.dto;
+
+import com.example.support.DictionaryCodec;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import java.io.IOException;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.Map;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.kafka.support.JacksonUtils;
+
+/**
+ * Generated compression dictionary of ${dto.name}, trained from sample payloads into ${dictionaryFile}
+ * Its Serializer and Deserializer are the Kafka value serializer and deserializer of ${dto.name}
+ * topics: values are JSON, as with the Kafka JsonSerializer, compressed with the dictionary and
+ * tagged with its id in the {@value DictionaryCodec#HEADER} header.
+<#if previousDictionaries?has_content>
+ * Records compressed with one of the previous dictionaries, ${previousDictionaries?map(d -> d.id)?join(", ")}, are still read.
+</#if>
+<#if dto.versioned>
+ * Records are also stamped with their version and read by version, as with ${dto.name}Versions.
+</#if>
+ * Generated by Eventor Spring Event Generator
+ */
+public final class ${dto.name}Dictionary {
+
+    public static final int ID = ${dictionaryId};
+
+    public static final int LEVEL = ${level?c};
+
+    private static final String DICTIONARY =
+<#list dictionaryLines as line>
+        "${line}"<#if line?has_next> +<#else>;</#if>
+</#list>
+
+<#list previousDictionaries as previous>
+    private static final String DICTIONARY_${previous.id?substring(2)?upper_case} =
+<#list previous.lines as line>
+        "${line}"<#if line?has_next> +<#else>;</#if>
+</#list>
+
+</#list>
+    private static final byte[] ID_HEADER = {
+        (byte) (ID >>> 24), (byte) (ID >>> 16), (byte) (ID >>> 8), (byte) ID
+    };
+
+    private static final DictionaryCodec CODEC = new DictionaryCodec(Base64.getDecoder().decode(DICTIONARY), LEVEL);
+
+    /**
+     * Decompressors by the dictionary id records are tagged with: this dictionary and the previous ones
+     */
+    private static final Map<Integer, DictionaryCodec> CODECS = Map.ofEntries(
+        Map.entry(ID, CODEC)<#list previousDictionaries as previous>,
+        Map.entry(${previous.id}, new DictionaryCodec(Base64.getDecoder().decode(DICTIONARY_${previous.id?substring(2)?upper_case}), LEVEL))</#list>
+    );
+
+    private static final ObjectMapper OBJECT_MAPPER = JacksonUtils.enhancedObjectMapper();
+
+    private ${dto.name}Dictionary() {
+    }
+
+    /**
+     * Compresses each value with the dictionary; without record headers to tag it, the value is plain JSON
+     */
+    public static class Serializer implements org.apache.kafka.common.serialization.Serializer<${dto.name}> {
+
+        private final ObjectWriter writer = OBJECT_MAPPER.writerFor(${dto.name}.class);
+
+        @Override
+        public byte[] serialize(String topic, ${dto.name} data) {
+            if (data == null) {
+                return null;
+            }
+            try {
+                return writer.writeValueAsBytes(data);
+            } catch (IOException e) {
+                throw new SerializationException("Could not serialize ${dto.name}", e);
+            }
+        }
+
+        @Override
+        public byte[] serialize(String topic, Headers headers, ${dto.name} data) {
+            if (data == null) {
+                return null;
+            }
+            headers.remove(DictionaryCodec.HEADER);
+            headers.add(DictionaryCodec.HEADER, ID_HEADER);
+<#if dto.versioned>
+            ${dto.name}Versions.stamp(headers);
+</#if>
+            return CODEC.encode(writer, data);
+        }
+    }
+
+    /**
+     * Decompresses values with the dictionary their header names, this one or a previous one, and reads
+     * untagged values as plain JSON, so a topic can move to dictionary compression or to a newly trained
+     * dictionary while older records are still on it
+     */
+    public static class Deserializer implements org.apache.kafka.common.serialization.Deserializer<${dto.name}> {
+
+        private final ObjectReader reader = OBJECT_MAPPER.readerFor(${dto.name}.class);
+
+        @Override
+        public ${dto.name} deserialize(String topic, byte[] data) {
+            if (data == null) {
+                return null;
+            }
+            try {
+                return reader.readValue(data);
+            } catch (IOException e) {
+                throw new SerializationException("Could not deserialize ${dto.name}", e);
+            }
+        }
+
+        @Override
+        public ${dto.name} deserialize(String topic, Headers headers, byte[] data) {
+<#if dto.versioned>
+            if (data == null) {
+                return null;
+            }
+            ObjectReader versionReader = ${dto.name}Versions.reader(headers);
+            Header header = headers.lastHeader(DictionaryCodec.HEADER);
+            if (header == null || !DictionaryCodec.isCompressed(data)) {
+                return ${dto.name}Versions.read(versionReader, data);
+            }
+<#else>
+            Header header = headers.lastHeader(DictionaryCodec.HEADER);
+            if (data == null || header == null || !DictionaryCodec.isCompressed(data)) {
+                return deserialize(topic, data);
+            }
+</#if>
+            DictionaryCodec codec = codecOf(header.value());
+            if (codec == null) {
+                throw new SerializationException("Record of " + topic + " was compressed with dictionary "
+                    + HexFormat.of().formatHex(header.value()) + ", which is neither ${dto.name}Dictionary "
+                    + Integer.toHexString(ID) + " nor one of its previousDictionaries");
+            }
+            return codec.decode(<#if dto.versioned>versionReader<#else>reader</#if>, data);
+        }
+
+        private static DictionaryCodec codecOf(byte[] id) {
+            return id.length == ID_HEADER.length
+                ? CODECS.get((id[0] & 0xFF) << 24 | (id[1] & 0xFF) << 16 | (id[2] & 0xFF) << 8 | id[3] & 0xFF)
+                : null;
+        }
+    }
+}
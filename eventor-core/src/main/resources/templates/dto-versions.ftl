@@ -0,0 +1,237 @@
+<#assign directReaders = {
+    "String": "parser.getValueAsString()",
+    "Uuid": "UUID.fromString(parser.getText())",
+    "BigDecimal": "parser.getDecimalValue()",
+    "Integer": "parser.getIntValue()",
+    "Long": "parser.getLongValue()",
+    "Double": "parser.getDoubleValue()",
+    "Boolean": "parser.getBooleanValue()"
+}>
+<#function readerOf fieldName>
+    <#return directReaders[(fieldTypes[fieldName].codecName)!""]!"">
+</#function>
+<#function constantOf fieldName>
+    <#return fieldName?replace("([a-z0-9])([A-Z])", "$1_$2", "r")?upper_case>
+</#function>
+<#assign typedFields = []>
+<#list upcasters as upcaster>
+    <#list upcaster.reads as jsonName, fieldName>
+        <#if readerOf(fieldName) == "" && !typedFields?seq_contains(fieldName)>
+            <#assign typedFields = typedFields + [fieldName]>
+        </#if>
+    </#list>
+</#list>
+package com.example.dto;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.kafka.support.JacksonUtils;
+
+/**
+ * Generated version handling of ${dto.name}, at version ${dto.version?c}
+ * Producers stamp the version in the {@value #HEADER} header, and consumers read each record with
+ * the reader of its version: the current version and newer ones, whose unknown fields are ignored,
+ * with the ${dto.name} bean deserializer, and every previous version with a streaming deserializer
+ * that reads it straight into ${dto.name}, renaming and widening fields as it goes.
+ * Records without the header are read as version ${untaggedVersion?c}.
+ * Generated by Eventor Spring Event Generator
+ */
+public final class ${dto.name}Versions {
+
+    /**
+     * Record header carrying the DTO version a value was written with, in ASCII digits
+     */
+    public static final String HEADER = "eventor-version";
+
+    public static final int CURRENT = ${dto.version?c};
+
+    private static final byte[] CURRENT_HEADER = Integer.toString(CURRENT).getBytes(StandardCharsets.US_ASCII);
+
+    private static final ObjectMapper OBJECT_MAPPER = JacksonUtils.enhancedObjectMapper();
+
+    private static final ObjectReader CURRENT_READER = OBJECT_MAPPER.readerFor(${dto.name}.class);
+<#list upcasters as upcaster>
+
+    private static final ObjectReader V${upcaster.version?c}_READER = readerOf(new V${upcaster.version?c}Deserializer());
+</#list>
+<#list typedFields as fieldName>
+
+    private static final TypeReference<${dto.fields[fieldName]}> ${constantOf(fieldName)}_TYPE = new TypeReference<>() {};
+</#list>
+
+    private ${dto.name}Versions() {
+    }
+
+    /**
+     * Replaces any version header of the record with the current version.
+     */
+    public static void stamp(Headers headers) {
+        headers.remove(HEADER);
+        headers.add(HEADER, CURRENT_HEADER);
+    }
+
+    /**
+     * The reader of the version in the record's header.
+     */
+    public static ObjectReader reader(Headers headers) {
+        Header header = headers.lastHeader(HEADER);
+        return reader(header != null ? versionOf(header.value()) : ${untaggedVersion?c});
+    }
+
+    public static ObjectReader reader(int version) {
+        if (version >= CURRENT) {
+            return CURRENT_READER;
+        }
+        switch (version) {
+<#list upcasters as upcaster>
+            case ${upcaster.version?c}:
+                return V${upcaster.version?c}_READER;
+</#list>
+            default:
+                throw new SerializationException("${dto.name} version " + version + " is not one of its previousVersions");
+        }
+    }
+
+    public static ${dto.name} read(ObjectReader reader, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            return reader.readValue(data);
+        } catch (IOException e) {
+            throw new SerializationException("Could not deserialize ${dto.name}", e);
+        }
+    }
+
+    private static int versionOf(byte[] value) {
+        if (value == null || value.length == 0 || value.length > 9) {
+            throw new SerializationException("Invalid " + HEADER + " header of ${dto.name}");
+        }
+        int version = 0;
+        for (byte digit : value) {
+            if (digit < '0' || digit > '9') {
+                throw new SerializationException("Invalid " + HEADER + " header of ${dto.name}");
+            }
+            version = version * 10 + (digit - '0');
+        }
+        return version;
+    }
+
+    private static ObjectReader readerOf(StdDeserializer<${dto.name}> deserializer) {
+        SimpleModule module = new SimpleModule(deserializer.getClass().getSimpleName());
+        module.addDeserializer(${dto.name}.class, deserializer);
+        return OBJECT_MAPPER.copy().registerModule(module).readerFor(${dto.name}.class);
+    }
+
+    /**
+     * Writes values as JSON of the current version and stamps it in the record headers
+     */
+    public static class Serializer implements org.apache.kafka.common.serialization.Serializer<${dto.name}> {
+
+        private final ObjectWriter writer = OBJECT_MAPPER.writerFor(${dto.name}.class);
+
+        @Override
+        public byte[] serialize(String topic, ${dto.name} data) {
+            if (data == null) {
+                return null;
+            }
+            try {
+                return writer.writeValueAsBytes(data);
+            } catch (IOException e) {
+                throw new SerializationException("Could not serialize ${dto.name}", e);
+            }
+        }
+
+        @Override
+        public byte[] serialize(String topic, Headers headers, ${dto.name} data) {
+            if (data == null) {
+                return null;
+            }
+            stamp(headers);
+            return serialize(topic, data);
+        }
+    }
+
+    /**
+     * Reads each value with the reader of the version in its header; without record headers, as the current version
+     */
+    public static class Deserializer implements org.apache.kafka.common.serialization.Deserializer<${dto.name}> {
+
+        @Override
+        public ${dto.name} deserialize(String topic, byte[] data) {
+            return read(CURRENT_READER, data);
+        }
+
+        @Override
+        public ${dto.name} deserialize(String topic, Headers headers, byte[] data) {
+            return data == null ? null : read(reader(headers), data);
+        }
+    }
+<#list upcasters as upcaster>
+
+    /**
+     * Streams a version ${upcaster.version?c} object into ${dto.name}<#if upcaster.defaults?has_content>, defaulting ${upcaster.defaults?keys?join(", ")}</#if>
+     */
+    static final class V${upcaster.version?c}Deserializer extends StdDeserializer<${dto.name}> {
+
+        private static final long serialVersionUID = 1L;
+    <#list upcaster.defaults as fieldName, literal>
+        private static final ${dto.fields[fieldName]} ${constantOf(fieldName)} = ${literal};
+    </#list>
+
+        V${upcaster.version?c}Deserializer() {
+            super(${dto.name}.class);
+        }
+
+        @Override
+        public ${dto.name} deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            JsonToken token = parser.currentToken();
+            if (token == JsonToken.START_OBJECT) {
+                token = parser.nextToken();
+            } else if (token != JsonToken.FIELD_NAME) {
+                return (${dto.name}) context.handleUnexpectedToken(${dto.name}.class, parser);
+            }
+            ${dto.name} event = new ${dto.name}();
+    <#list upcaster.defaults as fieldName, literal>
+            event.set${fieldName?cap_first}(${constantOf(fieldName)});
+    </#list>
+            for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (name) {
+    <#list upcaster.reads as jsonName, fieldName>
+                    case "${jsonName}":
+        <#if readerOf(fieldName) == "">
+                        event.set${fieldName?cap_first}(value == JsonToken.VALUE_NULL ? null
+                            : context.readValue(parser, context.getTypeFactory().constructType(${constantOf(fieldName)}_TYPE)));
+        <#else>
+                        event.set${fieldName?cap_first}(value == JsonToken.VALUE_NULL ? null : ${readerOf(fieldName)});
+        </#if>
+                        break;
+    </#list>
+                    default:
+                        parser.skipChildren();
+                }
+            }
+            return event;
+        }
+    }
+</#list>
+}
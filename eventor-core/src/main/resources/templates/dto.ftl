@@ -1,5 +1,12 @@
+<#assign binary = dto.hasCodec("binary")>
 package com.example.dto;
 
+<#if binary>
+import com.example.support.BinaryCodec;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+</#if>
 import java.math.BigDecimal;
 import java.util.UUID;
 import java.time.LocalDateTime;
@@ -34,6 +41,67 @@ public class ${dto.name} {
     }
 
 </#list>
+<#if binary>
+    /**
+     * Writes this ${dto.name} with the compact binary codec
+     * @param out the target stream
+     */
+    public void writeTo(DataOutput out) throws IOException {
+<#list dto.fields as fieldName, fieldType>
+        BinaryCodec.write${fieldTypes[fieldName].codecName}(out, ${fieldName});
+</#list>
+    }
+
+    /**
+     * Reads a ${dto.name} written by {@link #writeTo(DataOutput)}
+     * @param in the source stream
+     * @return the decoded ${dto.name}
+     */
+    public static ${dto.name} readFrom(DataInput in) throws IOException {
+        ${dto.name} decoded = new ${dto.name}();
+<#list dto.fields as fieldName, fieldType>
+        decoded.${fieldName} = BinaryCodec.read${fieldTypes[fieldName].codecName}(in);
+</#list>
+        return decoded;
+    }
+
+</#if>
+<#if dto.pooled>
+    /**
+     * Reads a ${dto.name} written by {@link #writeTo(DataOutput)} into an existing instance, overwriting every field.
+     * Values equal to the previous ones are kept and collections are refilled in place.
+     * @param in the source stream
+     * @param reuse the instance to decode into, or null to allocate one
+     * @return the decoded ${dto.name}, which is reuse unless it was null
+     */
+    public static ${dto.name} readFrom(DataInput in, ${dto.name} reuse) throws IOException {
+        ${dto.name} decoded = reuse != null ? reuse : new ${dto.name}();
+<#list dto.fields as fieldName, fieldType>
+    <#if fieldTypes[fieldName].reusable>
+        decoded.${fieldName} = BinaryCodec.read${fieldTypes[fieldName].codecName}(in, decoded.${fieldName});
+    <#else>
+        decoded.${fieldName} = BinaryCodec.read${fieldTypes[fieldName].codecName}(in);
+    </#if>
+</#list>
+        return decoded;
+    }
+
+    /**
+     * Clears this ${dto.name} for reuse; collection fields are emptied rather than dropped
+     */
+    public void reset() {
+<#list dto.fields as fieldName, fieldType>
+    <#if fieldTypes[fieldName].codecName?ends_with("List") || fieldTypes[fieldName].codecName?ends_with("Map")>
+        if (${fieldName} != null) {
+            ${fieldName}.clear();
+        }
+    <#else>
+        ${fieldName} = null;
+    </#if>
+</#list>
+    }
+
+</#if>
     @Override
     public String toString() {
         return "${dto.name}{" +
@@ -0,0 +1,36 @@
+package com.example.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Generated envelope carrying a batch of ${dtoName} events in a single Kafka record
+ * Generated by Eventor Spring Event Generator
+ */
+public class ${dtoName}Envelope {
+
+    private List<${dtoName}> events;
+
+    public ${dtoName}Envelope() {
+        this.events = new ArrayList<>();
+    }
+
+    public ${dtoName}Envelope(List<${dtoName}> events) {
+        this.events = events;
+    }
+
+    public List<${dtoName}> getEvents() {
+        return events;
+    }
+
+    public void setEvents(List<${dtoName}> events) {
+        this.events = events;
+    }
+
+    @Override
+    public String toString() {
+        return "${dtoName}Envelope{" +
+                "events=" + events +
+                '}';
+    }
+}
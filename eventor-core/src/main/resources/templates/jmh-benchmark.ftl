@@ -0,0 +1,196 @@
+<#import "/lib/samples.ftl" as samples>
+<#assign binary = dto.hasCodec("binary")>
+package com.example.benchmark;
+
+import com.example.dto.${dto.name};
+<#if valueSerde??>
+import com.example.dto.${valueSerde};
+</#if>
+import com.fasterxml.jackson.databind.ObjectMapper;
+<#if binary>
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+</#if>
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+<#if !valueSerde??>
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serializer;
+</#if>
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.JacksonUtils;
+<#if !valueSerde??>
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+</#if>
+
+/**
+ * JMH benchmarks for ${dto.name}: construction, equals/hashCode, toString, every configured codec and
+<#if valueSerde??>
+ * the Kafka value serde the generated producers and consumers use, ${valueSerde}
+<#else>
+ * the Kafka value serde the generated producers and consumers use, Spring Kafka's JsonSerializer and JsonDeserializer
+</#if>
+ * Uses synthetic values derived from the declared field types
+ * Generated by Eventor Spring Event Generator
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ${dto.name}Benchmark {
+
+    private static final String TOPIC = "benchmark";
+
+    private ${dto.name} event;
+    private ${dto.name} copy;
+    private ObjectMapper objectMapper;
+    private String json;
+<#if valueSerde??>
+    private ${valueSerde}.Serializer serializer;
+    private ${valueSerde}.Deserializer deserializer;
+<#else>
+    private Serializer<${dto.name}> serializer;
+    private Deserializer<${dto.name}> deserializer;
+</#if>
+    private Headers headers;
+    private byte[] payload;
+<#if binary>
+    private byte[] binary;
+    private ByteArrayOutputStream binaryBuffer;
+</#if>
+<#if dto.pooled>
+    private ${dto.name} reuse;
+</#if>
+
+    @Setup
+    public void setUp() throws IOException {
+        event = sample();
+        copy = sample();
+        // The mapper Spring Kafka's JsonSerializer and the generated serdes are built on
+        objectMapper = JacksonUtils.enhancedObjectMapper();
+        json = objectMapper.writeValueAsString(event);
+<#if valueSerde??>
+        serializer = new ${valueSerde}.Serializer();
+        deserializer = new ${valueSerde}.Deserializer();
+<#else>
+        serializer = new JsonSerializer<>();
+        deserializer = new JsonDeserializer<>(${dto.name}.class, false);
+</#if>
+        headers = new RecordHeaders();
+        payload = serializer.serialize(TOPIC, headers, event);
+<#if binary>
+        binaryBuffer = new ByteArrayOutputStream(1024);
+        event.writeTo(new DataOutputStream(binaryBuffer));
+        binary = binaryBuffer.toByteArray();
+</#if>
+<#if dto.pooled>
+        reuse = new ${dto.name}();
+</#if>
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializer.close();
+        deserializer.close();
+    }
+
+    @Benchmark
+    public ${dto.name} construct() {
+        return new ${dto.name}(<#list dto.fields as fieldName, fieldType>event.get${fieldName?cap_first}()<#sep>, </#list>);
+    }
+
+    @Benchmark
+    public boolean equalsCopy() {
+        return event.equals(copy);
+    }
+
+    @Benchmark
+    public int hashCodeOf() {
+        return event.hashCode();
+    }
+
+    @Benchmark
+    public String toStringOf() {
+        return event.toString();
+    }
+
+    @Benchmark
+    public String jsonSerialize() throws IOException {
+        return objectMapper.writeValueAsString(event);
+    }
+
+    @Benchmark
+    public ${dto.name} jsonDeserialize() throws IOException {
+        return objectMapper.readValue(json, ${dto.name}.class);
+    }
+
+    @Benchmark
+    public byte[] kafkaSerialize() {
+        return serializer.serialize(TOPIC, new RecordHeaders(), event);
+    }
+
+    @Benchmark
+    public ${dto.name} kafkaDeserialize() {
+<#if valueSerde?? && valueSerde?ends_with("Binary")>
+        ${dto.name} decoded = deserializer.deserialize(TOPIC, headers, payload);
+        // As the generated listener does once its handler returns
+        ${valueSerde}.release(decoded);
+        return decoded;
+<#else>
+        return deserializer.deserialize(TOPIC, headers, payload);
+</#if>
+    }
+<#if binary>
+
+    @Benchmark
+    public int binarySerialize() throws IOException {
+        binaryBuffer.reset();
+        event.writeTo(new DataOutputStream(binaryBuffer));
+        return binaryBuffer.size();
+    }
+
+    @Benchmark
+    public ${dto.name} binaryDeserialize() throws IOException {
+        return ${dto.name}.readFrom(new DataInputStream(new ByteArrayInputStream(binary)));
+    }
+</#if>
+<#if dto.pooled>
+
+    @Benchmark
+    public ${dto.name} binaryDeserializeInPlace() throws IOException {
+        return ${dto.name}.readFrom(new DataInputStream(new ByteArrayInputStream(binary)), reuse);
+    }
+</#if>
+
+    private static ${dto.name} sample() {
+        ${dto.name} sample = new ${dto.name}();
+<#list dto.fields as fieldName, fieldType>
+        sample.set${fieldName?cap_first}(${samples.sampleOf(fieldName, fieldTypes[fieldName]!{})});
+</#list>
+        return sample;
+    }
+}
@@ -0,0 +1,17 @@
+<#-- Synthetic, deterministic values for DTO fields, used by the generated benchmarks -->
+<#function sampleOf fieldName fieldType>
+    <#switch (fieldType.codecName)!"">
+        <#case "String"><#return "\"" + fieldName + "-value\"">
+        <#case "Uuid"><#return "UUID.nameUUIDFromBytes(\"" + fieldName + "\".getBytes())">
+        <#case "BigDecimal"><#return "new BigDecimal(\"1234.56\")">
+        <#case "LocalDateTime"><#return "LocalDateTime.of(2024, 1, 1, 12, 30, 45, 123000000)">
+        <#case "Integer"><#return "42">
+        <#case "Long"><#return "4242L">
+        <#case "Double"><#return "42.5">
+        <#case "Boolean"><#return "Boolean.TRUE">
+        <#case "StringList"><#return "new ArrayList<>(List.of(\"" + fieldName + "-first\", \"" + fieldName + "-second\"))">
+        <#case "UuidList"><#return "new ArrayList<>(List.of(UUID.nameUUIDFromBytes(\"" + fieldName + "-first\".getBytes()), UUID.nameUUIDFromBytes(\"" + fieldName + "-second\".getBytes())))">
+        <#case "StringMap"><#return "new LinkedHashMap<>(Map.of(\"" + fieldName + "-key\", \"" + fieldName + "-value\"))">
+        <#default><#return "null">
+    </#switch>
+</#function>
@@ -0,0 +1,97 @@
+<#assign valueType = producer.envelope???then(producer.dto + "Envelope", producer.dto)>
+<#assign claimCheck = producer.claimCheck??>
+package com.example.producer;
+
+import com.example.dto.${valueType};
+<#if valueSerde??>
+import com.example.dto.${valueSerde};
+</#if>
+<#if claimCheck>
+import com.example.support.ClaimCheck;
+import com.example.support.ClaimCheckSerializer;
+</#if>
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Autowired;
+<#if transactional>
+import org.springframework.beans.factory.annotation.Value;
+</#if>
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.core.ProducerFactory;
+<#if claimCheck>
+import org.springframework.kafka.support.serializer.JsonSerializer;
+</#if>
+import org.springframework.stereotype.Component;
+
+/**
+ * Generated Kafka producer configuration for ${producer.name}<#if (producer.profile.preset)??> (profile: ${producer.profile.preset})</#if>
+ * Starts from the application's producer properties and applies the <#if producer.profile??>profile<#elseif valueSerde??>value serializer<#elseif claimCheck>claim check<#elseif producer.spillover??>spillover settings<#else>transaction settings</#if> on top, so the
+ * producer gets its own ProducerFactory and KafkaTemplate instead of sharing the default one.
+<#if valueSerde??>
+ * Values are written by ${valueSerde}.Serializer.
+</#if>
+<#if claimCheck>
+ * Values are written by a ClaimCheckSerializer around JsonSerializer, which offloads payloads above
+ * ${((producer.claimCheck.thresholdBytes)!262144)?c} bytes to the blob store after serializing them.
+</#if>
+<#if producer.spillover??>
+ * Sends block for at most max.block.ms=${profileProperties["max.block.ms"]} before they fail and the event is spilled.
+</#if>
+<#if transactional>
+ * The factory is transactional; its transactional ids start with eventor.transaction-id-prefix, which
+ * must be set and stable for each instance of the application to fence a previous run, and the producer name.
+</#if>
+ * Generated by Eventor Spring Event Generator
+ */
+@Component
+public class ${producer.name}KafkaConfig implements DisposableBean {
+
+    public static final Map<String, Object> PROFILE_PROPERTIES = Map.ofEntries(
+<#list profileProperties as name, value>
+        Map.entry("${name?j_string}", "${value?j_string}")<#if name?has_next || valueSerde??>,</#if>
+</#list>
+<#if valueSerde??>
+        Map.entry("value.serializer", ${valueSerde}.Serializer.class)
+</#if>
+    );
+
+    private final DefaultKafkaProducerFactory<String, ${valueType}> producerFactory;
+    private final KafkaTemplate<String, ${valueType}> kafkaTemplate;
+
+    @Autowired
+    public ${producer.name}KafkaConfig(ProducerFactory<?, ?> baseProducerFactory<#if claimCheck>, ClaimCheck claimCheck</#if><#if transactional>,
+            @Value("${r"${eventor.transaction-id-prefix:}"}") String transactionIdPrefix</#if>) {
+        Map<String, Object> properties = new HashMap<>(baseProducerFactory.getConfigurationProperties());
+        properties.putAll(PROFILE_PROPERTIES);
+<#if claimCheck>
+        this.producerFactory = new DefaultKafkaProducerFactory<>(properties, null,
+            () -> new ClaimCheckSerializer<>(claimCheck, new JsonSerializer<>(), ${((producer.claimCheck.thresholdBytes)!262144)?c}));
+<#else>
+        this.producerFactory = new DefaultKafkaProducerFactory<>(properties);
+</#if>
+<#if transactional>
+        // A random prefix would make every start a new transactional producer, so a zombie of the previous run is never fenced
+        if (transactionIdPrefix.isBlank()) {
+            throw new IllegalStateException("${producer.name} is transactional and needs eventor.transaction-id-prefix, "
+                + "a value that is stable for each instance of the application, such as the pod name");
+        }
+        this.producerFactory.setTransactionIdPrefix(transactionIdPrefix + "-${producer.name}-");
+</#if>
+        this.kafkaTemplate = new KafkaTemplate<>(producerFactory);
+    }
+
+    public ProducerFactory<String, ${valueType}> getProducerFactory() {
+        return producerFactory;
+    }
+
+    public KafkaTemplate<String, ${valueType}> getKafkaTemplate() {
+        return kafkaTemplate;
+    }
+
+    @Override
+    public void destroy() {
+        producerFactory.destroy();
+    }
+}
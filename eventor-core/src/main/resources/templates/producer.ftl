@@ -1,8 +1,67 @@
+<#assign transport = producer.transport!"kafka">
+<#assign factoryBean = producer.factoryBean!"kafkaTemplate">
+<#assign backpressure = producer.hasBackpressure()>
+<#assign spillover = producer.spillover??>
+<#assign envelope = producer.envelope??>
+<#assign claimCheck = producer.claimCheck??>
+<#assign transactional = producer.transactional>
+<#assign threshold = ((producer.claimCheck.thresholdBytes)!262144)?c>
+<#assign dispatched = backpressure || spillover || envelope || transactional>
+<#assign valueType = envelope?then(producer.dto + "Envelope", producer.dto)>
+<#assign resultType = "CompletableFuture<SendResult<String, " + producer.dto + ">>">
+<#assign returnType = transactional?then(resultType, "void")>
+<#assign returns = transactional?then("return ", "")>
+<#assign interfaces = []>
+<#if spillover>
+    <#assign interfaces = interfaces + ["InitializingBean", "DisposableBean"]>
+<#elseif envelope || transactional>
+    <#assign interfaces = interfaces + ["DisposableBean"]>
+</#if>
 package com.example.producer;
 
 import com.example.dto.${producer.dto};
+<#if envelope>
+import com.example.dto.${valueType};
+import com.example.support.EnvelopeCoalescer;
+</#if>
+<#if transport == "inprocess">
+import com.example.support.InProcessEventBus;
+<#elseif transport == "mmap">
+import com.example.support.MappedJournalTransport;
+</#if>
+<#if backpressure>
+import com.example.support.ProducerBackpressure;
+</#if>
+<#if transactional>
+import com.example.support.TransactionBatcher;
+</#if>
+<#if spillover>
+import com.example.support.SpilloverJournal;
+import java.io.IOException;
+import java.nio.file.Paths;
+</#if>
+<#if transactional>
+import java.util.concurrent.CompletableFuture;
+</#if>
+<#if backpressure>
+import java.util.concurrent.TimeUnit;
+</#if>
+<#if interfaces?seq_contains("DisposableBean")>
+import org.springframework.beans.factory.DisposableBean;
+</#if>
+<#if interfaces?seq_contains("InitializingBean")>
+import org.springframework.beans.factory.InitializingBean;
+</#if>
 import org.springframework.beans.factory.annotation.Autowired;
+<#if spillover>
+import org.springframework.beans.factory.annotation.Value;
+</#if>
+<#if transport == "kafka">
 import org.springframework.kafka.core.KafkaTemplate;
+</#if>
+<#if transactional>
+import org.springframework.kafka.support.SendResult;
+</#if>
 import org.springframework.stereotype.Component;
 
 /**
@@ -10,29 +69,260 @@ import org.springframework.stereotype.Component;
  * Generated by Eventor Spring Event Generator
  */
 @Component
-public class ${producer.name} {
+public class ${producer.name}<#if interfaces?has_content> implements ${interfaces?join(", ")}</#if> {
 
-    private final KafkaTemplate<String, ${producer.dto}> ${producer.factoryBean};
+<#if transport == "inprocess">
+    private final InProcessEventBus eventBus;
 
     @Autowired
-    public ${producer.name}(KafkaTemplate<String, ${producer.dto}> ${producer.factoryBean}) {
-        this.${producer.factoryBean} = ${producer.factoryBean};
+    public ${producer.name}(InProcessEventBus eventBus) {
+        this.eventBus = eventBus;
+    <#if (producer.inProcess.bufferSize)??>
+        this.eventBus.declareTopic("${producer.topic}", ${producer.inProcess.bufferSize?c});
+    </#if>
     }
+<#elseif transport == "mmap">
+    private final MappedJournalTransport journalTransport;
+
+    @Autowired
+    public ${producer.name}(MappedJournalTransport journalTransport) {
+        this.journalTransport = journalTransport;
+    }
+<#else>
+    private final KafkaTemplate<String, ${valueType}> ${factoryBean};
+    <#if backpressure>
+    private final ProducerBackpressure backpressure =
+        new ProducerBackpressure(${(producer.maxInFlight!0)?c}, ${(producer.maxRatePerSecond!0)?c});
+    </#if>
+    <#if spillover>
+    private final SpilloverJournal<${producer.dto}> spillover;
+    </#if>
+    <#if envelope>
+    private final EnvelopeCoalescer<${producer.dto}> coalescer;
+    </#if>
+    <#if transactional>
+    private final TransactionBatcher<${producer.dto}, SendResult<String, ${producer.dto}>> transactions;
+    </#if>
+
+    @Autowired
+    public ${producer.name}(<#if kafkaConfig>${producer.name}KafkaConfig kafkaConfig<#else>KafkaTemplate<String, ${valueType}> ${factoryBean}</#if><#if spillover>,
+            @Value("${r"${eventor.spillover.directory:${java.io.tmpdir}/eventor-spillover}"}") String spilloverDirectory</#if>) {
+    <#if kafkaConfig>
+        this.${factoryBean} = kafkaConfig.getKafkaTemplate();
+    <#else>
+        this.${factoryBean} = ${factoryBean};
+    </#if>
+    <#if spillover>
+        this.spillover = new SpilloverJournal<>("${producer.name}",
+            Paths.get(spilloverDirectory, "${producer.name}"),
+            ${(producer.spillover.segmentSize!67108864)?c}, ${(producer.spillover.maxPending!10000)?c},
+            ${producer.dto}::writeTo, ${producer.dto}::readFrom,
+            (key, event) -> this.${factoryBean}.send("${producer.topic}", key, event));
+    </#if>
+    <#if envelope>
+        this.coalescer = new EnvelopeCoalescer<>("${producer.name}",
+            ${(producer.envelope.maxEvents!100)?c}, ${(producer.envelope.maxDelayMs!10)?c}L,
+            (key, events) -> this.${factoryBean}.send("${producer.topic}", key, new ${valueType}(events)));
+    </#if>
+    <#if transactional>
+        this.transactions = new TransactionBatcher<>("${producer.name}",
+            ${((producer.transactionBatch.maxEvents)!100)?c}, ${((producer.transactionBatch.maxDelayMs)!10)?c}L, ${((producer.transactionBatch.maxPending)!10000)?c},
+            sends -> this.${factoryBean}.executeInTransaction(operations -> {
+                sends.run();
+                return null;
+            }),
+            (key, event) -> this.${factoryBean}.send("${producer.topic}", key, event));
+    </#if>
+    }
+</#if>
 
     /**
      * Sends ${producer.dto} to ${producer.topic} topic
+<#if backpressure>
+     * Blocks while the in-flight window or the rate limit is exhausted
+</#if>
+<#if spillover>
+     * Spills to the local journal instead of blocking when the broker is not keeping up
+</#if>
+<#if envelope>
+     * Batched per key into ${valueType} records of up to ${(producer.envelope.maxEvents!100)?c} events or ${(producer.envelope.maxDelayMs!10)?c} ms
+</#if>
+<#if claimCheck>
+     * Events larger than ${threshold} bytes are offloaded to the blob store and sent as a claim check
+</#if>
+<#if transactional>
+     * Written in a transaction shared with other sends, of up to ${((producer.transactionBatch.maxEvents)!100)?c} events or ${((producer.transactionBatch.maxDelayMs)!10)?c} ms
+</#if>
      * @param event the event to send
+<#if transactional>
+     * @return completes once the transaction holding the event has committed
+</#if>
      */
-    public void send${producer.dto}(${producer.dto} event) {
-        ${producer.factoryBean}.send("${producer.topic}", event);
+    public ${returnType} send${producer.dto}(${producer.dto} event) {
+<#if transport == "inprocess">
+        eventBus.publish("${producer.topic}", null, event);
+<#elseif transport == "mmap">
+        journalTransport.publish("${producer.topic}", null, event::writeTo);
+<#elseif dispatched>
+        ${returns}send${producer.dto}(null, event);
+<#else>
+        ${factoryBean}.send("${producer.topic}", event);
+</#if>
     }
 
     /**
      * Sends ${producer.dto} to ${producer.topic} topic with specific key
+<#if backpressure>
+     * Blocks while the in-flight window or the rate limit is exhausted
+</#if>
+<#if spillover>
+     * Spills to the local journal instead of blocking when the broker is not keeping up
+</#if>
+<#if envelope>
+     * Batched per key into ${valueType} records of up to ${(producer.envelope.maxEvents!100)?c} events or ${(producer.envelope.maxDelayMs!10)?c} ms
+</#if>
+<#if claimCheck>
+     * Events larger than ${threshold} bytes are offloaded to the blob store and sent as a claim check
+</#if>
+<#if transactional>
+     * Written in a transaction shared with other sends, of up to ${((producer.transactionBatch.maxEvents)!100)?c} events or ${((producer.transactionBatch.maxDelayMs)!10)?c} ms
+</#if>
      * @param key the partition key
      * @param event the event to send
+<#if transactional>
+     * @return completes once the transaction holding the event has committed
+</#if>
+     */
+    public ${returnType} send${producer.dto}(String key, ${producer.dto} event) {
+<#if transport == "inprocess">
+        eventBus.publish("${producer.topic}", key, event);
+<#elseif transport == "mmap">
+        journalTransport.publish("${producer.topic}", key, event::writeTo);
+<#elseif dispatched>
+    <#if backpressure>
+        backpressure.acquire();
+    </#if>
+        ${returns}dispatch(key, event);
+<#else>
+        ${factoryBean}.send("${producer.topic}", key, event);
+</#if>
+    }
+<#if backpressure>
+
+    /**
+     * Sends ${producer.dto} to ${producer.topic} topic only if capacity is available right now
+     * @param key the partition key, may be null
+     * @param event the event to send
+     * @return false if the send was rejected by backpressure
+     */
+    public boolean trySend${producer.dto}(String key, ${producer.dto} event) {
+        if (!backpressure.tryAcquire()) {
+            return false;
+        }
+        dispatch(key, event);
+        return true;
+    }
+
+    /**
+     * Sends ${producer.dto} to ${producer.topic} topic, waiting at most the given time for capacity
+     * @param key the partition key, may be null
+     * @param event the event to send
+     * @param timeout the maximum time to wait
+     * @param unit the unit of the timeout
+     * @return false if no capacity became available in time
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean trySend${producer.dto}(String key, ${producer.dto} event, long timeout, TimeUnit unit)
+            throws InterruptedException {
+        if (!backpressure.tryAcquire(timeout, unit)) {
+            return false;
+        }
+        dispatch(key, event);
+        return true;
+    }
+
+    /**
+     * Backpressure state of this producer, exposed for in-flight and wait-time metrics
+     * @return the admission control guarding the sends
+     */
+    public ProducerBackpressure getBackpressure() {
+        return backpressure;
+    }
+</#if>
+<#if spillover>
+
+    /**
+     * Spillover journal of this producer, exposed for spill and drain metrics
+     * @return the journal absorbing sends while the broker is slow
+     */
+    public SpilloverJournal<${producer.dto}> getSpillover() {
+        return spillover;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        spillover.start();
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        spillover.close();
+    }
+</#if>
+<#if envelope>
+
+    /**
+     * Envelope coalescer of this producer, exposed for batch-size metrics
+     * @return the coalescer batching events per key
      */
-    public void send${producer.dto}(String key, ${producer.dto} event) {
-        ${producer.factoryBean}.send("${producer.topic}", key, event);
+    public EnvelopeCoalescer<${producer.dto}> getCoalescer() {
+        return coalescer;
+    }
+
+    /**
+     * Sends the events still waiting for their batch to fill up
+     */
+    @Override
+    public void destroy() {
+        coalescer.close();
+    }
+</#if>
+<#if transactional>
+
+    /**
+     * Transaction batcher of this producer, exposed for transaction and pending-event metrics
+     * @return the batcher grouping sends into shared transactions
+     */
+    public TransactionBatcher<${producer.dto}, SendResult<String, ${producer.dto}>> getTransactions() {
+        return transactions;
+    }
+
+    /**
+     * Commits the events still waiting for their transaction
+     */
+    @Override
+    public void destroy() {
+        transactions.close();
+    }
+</#if>
+<#if dispatched>
+
+    private ${returnType} dispatch(String key, ${producer.dto} event) {
+    <#if backpressure>
+        try {
+            ${returns}<#if envelope>coalescer.add(key, event)<#elseif spillover>spillover.send(key, event)<#elseif transactional>transactions.add(key, event)<#else>${factoryBean}.send("${producer.topic}", key, event)</#if>
+                .whenComplete((result, failure) -> backpressure.release());
+        } catch (RuntimeException e) {
+            backpressure.release();
+            throw e;
+        }
+    <#elseif envelope>
+        coalescer.add(key, event);
+    <#elseif transactional>
+        return transactions.add(key, event);
+    <#else>
+        spillover.send(key, event);
+    </#if>
     }
+</#if>
 }
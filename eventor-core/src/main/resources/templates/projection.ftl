@@ -0,0 +1,112 @@
+<#assign directReaders = {
+    "String": "parser.getValueAsString()",
+    "Uuid": "UUID.fromString(parser.getText())",
+    "BigDecimal": "parser.getDecimalValue()",
+    "Integer": "parser.getIntValue()",
+    "Long": "parser.getLongValue()",
+    "Double": "parser.getDoubleValue()",
+    "Boolean": "parser.getBooleanValue()"
+}>
+<#function readerOf fieldName>
+    <#return directReaders[(fieldTypes[fieldName].codecName)!""]!"">
+</#function>
+<#function typeConstantOf fieldName>
+    <#return fieldName?replace("([a-z0-9])([A-Z])", "$1_$2", "r")?upper_case + "_TYPE">
+</#function>
+package com.example.dto;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.deser.std.StdDeserializer;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.UUID;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generated projection of ${dtoName} with the fields ${fields?keys?join(", ")}
+ * Decoded from ${dtoName} JSON; other fields are skipped by the parser without being decoded
+ * Generated by Eventor Spring Event Generator
+ */
+@JsonDeserialize(using = ${projectionName}.Deserializer.class)
+public class ${projectionName} {
+
+<#list fields as fieldName, fieldType>
+    private ${fieldType} ${fieldName};
+</#list>
+
+    public ${projectionName}() {}
+
+<#list fields as fieldName, fieldType>
+    public ${fieldType} get${fieldName?cap_first}() {
+        return ${fieldName};
+    }
+
+    public void set${fieldName?cap_first}(${fieldType} ${fieldName}) {
+        this.${fieldName} = ${fieldName};
+    }
+
+</#list>
+    @Override
+    public String toString() {
+        return "${projectionName}{" +
+<#list fields as fieldName, fieldType>
+                "<#if fieldName?index != 0>, </#if>${fieldName}=" + ${fieldName} +<#if fieldName_has_next>
+<#else>
+                '}';
+</#if>
+</#list>
+    }
+
+    /**
+     * Streams the fields of a ${dtoName} object, reading the projected ones and skipping the rest
+     */
+    public static class Deserializer extends StdDeserializer<${projectionName}> {
+
+        private static final long serialVersionUID = 1L;
+<#list fields as fieldName, fieldType>
+    <#if readerOf(fieldName) == "">
+        private static final TypeReference<${fieldType}> ${typeConstantOf(fieldName)} = new TypeReference<>() {};
+    </#if>
+</#list>
+
+        public Deserializer() {
+            super(${projectionName}.class);
+        }
+
+        @Override
+        public ${projectionName} deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            JsonToken token = parser.currentToken();
+            if (token == JsonToken.START_OBJECT) {
+                token = parser.nextToken();
+            } else if (token != JsonToken.FIELD_NAME) {
+                return (${projectionName}) context.handleUnexpectedToken(${projectionName}.class, parser);
+            }
+            ${projectionName} projection = new ${projectionName}();
+            for (; token == JsonToken.FIELD_NAME; token = parser.nextToken()) {
+                String name = parser.currentName();
+                JsonToken value = parser.nextToken();
+                switch (name) {
+<#list fields as fieldName, fieldType>
+                    case "${fieldName}":
+    <#if readerOf(fieldName) == "">
+                        projection.${fieldName} = value == JsonToken.VALUE_NULL ? null
+                            : context.readValue(parser, context.getTypeFactory().constructType(${typeConstantOf(fieldName)}));
+    <#else>
+                        projection.${fieldName} = value == JsonToken.VALUE_NULL ? null : ${readerOf(fieldName)};
+    </#if>
+                        break;
+</#list>
+                    default:
+                        parser.skipChildren();
+                }
+            }
+            return projection;
+        }
+    }
+}
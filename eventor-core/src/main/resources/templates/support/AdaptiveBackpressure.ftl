@@ -0,0 +1,242 @@
+package com.example.support;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.listener.MessageListenerContainer;
+
+/**
+ * Pauses a listener container while the dependencies called from its handler are slow.
+ * The handler reports every dependency call, and this class keeps an exponentially weighted moving
+ * average of their latency. The listener reports every record it receives, and this class samples the
+ * records its consumer has fetched but the listener not handled yet (the queue depth) at most every
+ * {@value #SAMPLE_INTERVAL_MILLIS} ms. Each container thread has its own consumer, so it keeps its own
+ * average and queue depth, and never contends with the others. When either crosses its threshold on any
+ * thread the container is paused, and it is resumed after pauseMillis; the averages carry over, so a
+ * dependency that is still slow pauses the container again after the first samples. Every transition is
+ * published as a {@link ListenerBackpressureEvent}.
+ * <p>
+ * The container pauses its consumer at the next poll, so the records of the current poll are still
+ * handled: pausing lags by one poll of up to max.poll.records records.
+ * Generated by Eventor Spring Event Generator
+ */
+public class AdaptiveBackpressure implements AutoCloseable {
+
+    public static final long SAMPLE_INTERVAL_MILLIS = 100;
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveBackpressure.class);
+    private static final long SAMPLE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(SAMPLE_INTERVAL_MILLIS);
+
+    private final String listenerId;
+    private final double maxLatencyNanos;
+    private final int maxQueueDepth;
+    private final long pauseMillis;
+    private final double smoothing;
+    private final KafkaListenerEndpointRegistry registry;
+    private final ApplicationEventPublisher publisher;
+    private final ScheduledExecutorService timer;
+
+    private final List<ThreadState> threads = new CopyOnWriteArrayList<>();
+    private final ThreadLocal<ThreadState> state = ThreadLocal.withInitial(this::register);
+    private final AtomicBoolean paused = new AtomicBoolean();
+    private final LongAdder pauses = new LongAdder();
+    private final LongAdder pausedNanos = new LongAdder();
+    private volatile long pausedAt;
+
+    /**
+     * Creates the controller; a maxQueueDepth of 0 disables the queue depth threshold.
+     */
+    public AdaptiveBackpressure(String listenerId, long maxLatencyMillis, int maxQueueDepth, long pauseMillis,
+                                double smoothing, KafkaListenerEndpointRegistry registry,
+                                ApplicationEventPublisher publisher) {
+        this.listenerId = listenerId;
+        this.maxLatencyNanos = TimeUnit.MILLISECONDS.toNanos(maxLatencyMillis);
+        this.maxQueueDepth = maxQueueDepth;
+        this.pauseMillis = pauseMillis;
+        this.smoothing = smoothing;
+        this.registry = registry;
+        this.publisher = publisher;
+        this.timer = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "eventor-backpressure-" + listenerId);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Called on the listener thread for every record before it is handled. The queue depth is the number of
+     * records the consumer's polls returned for its partitions beyond the last one received from each; a
+     * partition counts once one of its records was received. Only the first record of each sample interval
+     * asks the consumer for its positions.
+     */
+    public void received(Consumer<?, ?> consumer, String topic, int partition, long offset) {
+        ThreadState thread = state.get();
+        thread.received(topic, partition, offset);
+        long now = System.nanoTime();
+        if (now - thread.sampledAt < SAMPLE_INTERVAL_NANOS) {
+            return;
+        }
+        thread.sampledAt = now;
+        long depth = thread.sampleQueueDepth(consumer);
+        if (maxQueueDepth > 0 && depth >= maxQueueDepth) {
+            pause(thread);
+        }
+    }
+
+    /**
+     * Marks the start of the dependency calls for one event.
+     * @return the start time to pass to {@link #afterDependencies(long)}
+     */
+    public long beforeDependencies() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Records the latency of the dependency calls started at the given time.
+     */
+    public void afterDependencies(long startNanos) {
+        ThreadState thread = state.get();
+        long sample = System.nanoTime() - startNanos;
+        thread.latencyNanos = Double.isNaN(thread.latencyNanos)
+            ? sample
+            : thread.latencyNanos + smoothing * (sample - thread.latencyNanos);
+        if (thread.latencyNanos > maxLatencyNanos) {
+            pause(thread);
+        }
+    }
+
+    public boolean isPaused() {
+        return paused.get();
+    }
+
+    /**
+     * @return the highest latency average of the container threads
+     */
+    public double getLatencyMillis() {
+        double highest = 0.0;
+        for (ThreadState thread : threads) {
+            highest = Math.max(highest, thread.getLatencyMillis());
+        }
+        return highest;
+    }
+
+    /**
+     * @return the queue depths last sampled by the container threads, added up
+     */
+    public int getQueueDepth() {
+        long total = 0;
+        for (ThreadState thread : threads) {
+            total += thread.queueDepth;
+        }
+        return (int) Math.min(total, Integer.MAX_VALUE);
+    }
+
+    public long getPauseCount() {
+        return pauses.sum();
+    }
+
+    public long getPausedMillis() {
+        long total = pausedNanos.sum();
+        if (paused.get()) {
+            total += System.nanoTime() - pausedAt;
+        }
+        return TimeUnit.NANOSECONDS.toMillis(total);
+    }
+
+    @Override
+    public void close() {
+        timer.shutdownNow();
+    }
+
+    private ThreadState register() {
+        // Containers replace their threads when they restart; forget the ones that are gone
+        threads.removeIf(thread -> !thread.owner.isAlive());
+        ThreadState thread = new ThreadState(Thread.currentThread());
+        threads.add(thread);
+        return thread;
+    }
+
+    private void pause(ThreadState trigger) {
+        if (!paused.compareAndSet(false, true)) {
+            return;
+        }
+        MessageListenerContainer container = registry.getListenerContainer(listenerId);
+        if (container == null) {
+            logger.warn("No listener container with id {} to pause", listenerId);
+            paused.set(false);
+            return;
+        }
+        pausedAt = System.nanoTime();
+        container.pause();
+        pauses.increment();
+        logger.info("Paused listener {}: latency {} ms, queue depth {}",
+            listenerId, trigger.getLatencyMillis(), trigger.queueDepth);
+        publisher.publishEvent(new ListenerBackpressureEvent(this, listenerId, true,
+            trigger.getLatencyMillis(), trigger.queueDepth));
+        timer.schedule(() -> resume(container), pauseMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void resume(MessageListenerContainer container) {
+        pausedNanos.add(System.nanoTime() - pausedAt);
+        container.resume();
+        paused.set(false);
+        logger.info("Resumed listener {} after {} ms", listenerId, pauseMillis);
+        publisher.publishEvent(new ListenerBackpressureEvent(this, listenerId, false, getLatencyMillis(),
+            getQueueDepth()));
+    }
+
+    /**
+     * Latency average and queue depth of one container thread. Only that thread writes them.
+     */
+    private static final class ThreadState {
+        private final Thread owner;
+        private final Map<TopicPartition, long[]> nextOffsets = new HashMap<>();
+        private TopicPartition lastPartition;
+        private long[] lastNextOffset;
+        private long sampledAt = System.nanoTime() - SAMPLE_INTERVAL_NANOS;
+        private volatile double latencyNanos = Double.NaN;
+        private volatile int queueDepth;
+
+        private ThreadState(Thread owner) {
+            this.owner = owner;
+        }
+
+        private void received(String topic, int partition, long offset) {
+            // Records arrive in runs per partition, so the lookup is only repeated when the partition changes
+            if (lastPartition == null || lastPartition.partition() != partition || !lastPartition.topic().equals(topic)) {
+                lastPartition = new TopicPartition(topic, partition);
+                lastNextOffset = nextOffsets.computeIfAbsent(lastPartition, key -> new long[1]);
+            }
+            lastNextOffset[0] = offset + 1;
+        }
+
+        private long sampleQueueDepth(Consumer<?, ?> consumer) {
+            long depth = 0;
+            for (TopicPartition assigned : consumer.assignment()) {
+                long[] next = nextOffsets.get(assigned);
+                if (next != null) {
+                    depth += Math.max(0, consumer.position(assigned) - next[0]);
+                }
+            }
+            queueDepth = (int) Math.min(depth, Integer.MAX_VALUE);
+            return depth;
+        }
+
+        private double getLatencyMillis() {
+            double average = latencyNanos;
+            return Double.isNaN(average) ? 0.0 : average / TimeUnit.MILLISECONDS.toNanos(1);
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package com.example.support;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Compact binary encoding for the field types supported in DTO definitions.
+ * Every value is nullable: a negative length or a zero presence byte marks null.
+ * The read overloads taking a previous value return that value when it is equal to the decoded one, and refill
+ * collections in place, so pooled DTOs can be decoded without allocating for fields that did not change.
+ * Generated by Eventor Spring Event Generator
+ */
+public final class BinaryCodec {
+
+    private static final ThreadLocal<byte[][]> SCRATCH = ThreadLocal.withInitial(() -> new byte[][] {new byte[256]});
+
+    private BinaryCodec() {
+    }
+
+    public static void writeString(DataOutput out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    public static String readString(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public static String readString(DataInput in, String previous) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = scratch(length);
+        in.readFully(bytes, 0, length);
+        if (previous != null && previous.length() == length && equalsAscii(previous, bytes, length)) {
+            return previous;
+        }
+        return new String(bytes, 0, length, StandardCharsets.UTF_8);
+    }
+
+    public static void writeUuid(DataOutput out, UUID value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.getMostSignificantBits());
+            out.writeLong(value.getLeastSignificantBits());
+        }
+    }
+
+    public static UUID readUuid(DataInput in) throws IOException {
+        return in.readBoolean() ? new UUID(in.readLong(), in.readLong()) : null;
+    }
+
+    public static UUID readUuid(DataInput in, UUID previous) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        long mostSignificantBits = in.readLong();
+        long leastSignificantBits = in.readLong();
+        if (previous != null && previous.getMostSignificantBits() == mostSignificantBits
+                && previous.getLeastSignificantBits() == leastSignificantBits) {
+            return previous;
+        }
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    public static void writeBigDecimal(DataOutput out, BigDecimal value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] unscaled = value.unscaledValue().toByteArray();
+        out.writeInt(unscaled.length);
+        out.write(unscaled);
+        out.writeInt(value.scale());
+    }
+
+    public static BigDecimal readBigDecimal(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] unscaled = new byte[length];
+        in.readFully(unscaled);
+        return new BigDecimal(new BigInteger(unscaled), in.readInt());
+    }
+
+    public static void writeLocalDateTime(DataOutput out, LocalDateTime value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(value.getNano());
+        }
+    }
+
+    public static LocalDateTime readLocalDateTime(DataInput in) throws IOException {
+        return in.readBoolean() ? LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC) : null;
+    }
+
+    public static LocalDateTime readLocalDateTime(DataInput in, LocalDateTime previous) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        long epochSecond = in.readLong();
+        int nano = in.readInt();
+        if (previous != null && previous.toEpochSecond(ZoneOffset.UTC) == epochSecond && previous.getNano() == nano) {
+            return previous;
+        }
+        return LocalDateTime.ofEpochSecond(epochSecond, nano, ZoneOffset.UTC);
+    }
+
+    public static void writeInteger(DataOutput out, Integer value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeInt(value);
+        }
+    }
+
+    public static Integer readInteger(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readInt() : null;
+    }
+
+    public static Integer readInteger(DataInput in, Integer previous) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        int value = in.readInt();
+        return previous != null && previous == value ? previous : Integer.valueOf(value);
+    }
+
+    public static void writeLong(DataOutput out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    public static Long readLong(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    public static Long readLong(DataInput in, Long previous) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        long value = in.readLong();
+        return previous != null && previous == value ? previous : Long.valueOf(value);
+    }
+
+    public static void writeDouble(DataOutput out, Double value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeDouble(value);
+        }
+    }
+
+    public static Double readDouble(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readDouble() : null;
+    }
+
+    public static Double readDouble(DataInput in, Double previous) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        double value = in.readDouble();
+        return previous != null && Double.compare(previous, value) == 0 ? previous : Double.valueOf(value);
+    }
+
+    public static void writeBoolean(DataOutput out, Boolean value) throws IOException {
+        out.writeByte(value == null ? 0 : value ? 1 : 2);
+    }
+
+    public static Boolean readBoolean(DataInput in) throws IOException {
+        byte marker = in.readByte();
+        return marker == 0 ? null : marker == 1;
+    }
+
+    public static void writeStringList(DataOutput out, List<String> value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(value.size());
+        for (String element : value) {
+            writeString(out, element);
+        }
+    }
+
+    public static List<String> readStringList(DataInput in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        List<String> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(readString(in));
+        }
+        return list;
+    }
+
+    public static List<String> readStringList(DataInput in, List<String> previous) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        List<String> list = previous != null ? previous : new ArrayList<>(size);
+        int existing = list.size();
+        for (int i = 0; i < size; i++) {
+            if (i < existing) {
+                list.set(i, readString(in, list.get(i)));
+            } else {
+                list.add(readString(in));
+            }
+        }
+        truncate(list, size);
+        return list;
+    }
+
+    public static void writeUuidList(DataOutput out, List<UUID> value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(value.size());
+        for (UUID element : value) {
+            writeUuid(out, element);
+        }
+    }
+
+    public static List<UUID> readUuidList(DataInput in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        List<UUID> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(readUuid(in));
+        }
+        return list;
+    }
+
+    public static List<UUID> readUuidList(DataInput in, List<UUID> previous) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        List<UUID> list = previous != null ? previous : new ArrayList<>(size);
+        int existing = list.size();
+        for (int i = 0; i < size; i++) {
+            if (i < existing) {
+                list.set(i, readUuid(in, list.get(i)));
+            } else {
+                list.add(readUuid(in));
+            }
+        }
+        truncate(list, size);
+        return list;
+    }
+
+    public static void writeStringMap(DataOutput out, Map<String, String> value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        out.writeInt(value.size());
+        for (Map.Entry<String, String> entry : value.entrySet()) {
+            writeString(out, entry.getKey());
+            writeString(out, entry.getValue());
+        }
+    }
+
+    public static Map<String, String> readStringMap(DataInput in) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        Map<String, String> map = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            map.put(readString(in), readString(in));
+        }
+        return map;
+    }
+
+    public static Map<String, String> readStringMap(DataInput in, Map<String, String> previous) throws IOException {
+        int size = in.readInt();
+        if (size < 0) {
+            return null;
+        }
+        Map<String, String> map = previous != null ? previous : new LinkedHashMap<>();
+        map.clear();
+        for (int i = 0; i < size; i++) {
+            map.put(readString(in), readString(in));
+        }
+        return map;
+    }
+
+    private static byte[] scratch(int length) {
+        byte[][] holder = SCRATCH.get();
+        if (holder[0].length < length) {
+            holder[0] = new byte[Math.max(length, holder[0].length * 2)];
+        }
+        return holder[0];
+    }
+
+    private static boolean equalsAscii(String value, byte[] bytes, int length) {
+        for (int i = 0; i < length; i++) {
+            if (bytes[i] < 0 || value.charAt(i) != bytes[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static <T> void truncate(List<T> list, int size) {
+        for (int i = list.size() - 1; i >= size; i--) {
+            list.remove(i);
+        }
+    }
+}
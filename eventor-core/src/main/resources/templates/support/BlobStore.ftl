@@ -0,0 +1,27 @@
+package com.example.support;
+
+import java.io.IOException;
+
+/**
+ * Storage for the payloads that generated producers offload with a claim check.
+ * Declare a bean of this type to keep payloads in an object store or a database;
+ * without one, {@link ClaimCheck} falls back to a {@link FileSystemBlobStore}.
+ * Generated by Eventor Spring Event Generator
+ */
+public interface BlobStore {
+
+    /**
+     * Stores a payload.
+     * @param payload the serialized event
+     * @return the reference the payload can be read back with, at most a few hundred bytes
+     */
+    String put(byte[] payload) throws IOException;
+
+    /**
+     * Reads a payload stored by {@link #put(byte[])}, possibly by another process.
+     * @param reference the reference returned by put
+     * @return the stored payload
+     * @throws IOException if the payload does not exist or cannot be read
+     */
+    byte[] get(String reference) throws IOException;
+}
@@ -0,0 +1,103 @@
+package com.example.support;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.support.JacksonUtils;
+import org.springframework.stereotype.Component;
+
+/**
+ * Claim-check offloading for producers and consumer methods that declare claimCheck.
+ * A producer's {@link ClaimCheckSerializer} hands each serialized value above its threshold to
+ * {@link #offload}: the payload goes to the {@link BlobStore}, and the record carries the reference
+ * in the {@value #HEADER} header and a JSON stub holding it as its value, never a null tombstone.
+ * Consumers read the payload back through a {@link ClaimCheckCache} before their handler runs.
+ * Uses the BlobStore bean when one is declared, otherwise a {@link FileSystemBlobStore} under
+ * eventor.claim-check.directory.
+ * Generated by Eventor Spring Event Generator
+ */
+@Component
+public class ClaimCheck {
+
+    public static final String HEADER = "eventor-claim-check";
+
+    private final BlobStore blobStore;
+    private final ObjectMapper objectMapper = JacksonUtils.enhancedObjectMapper();
+
+    private final LongAdder offloaded = new LongAdder();
+    private final LongAdder offloadedBytes = new LongAdder();
+    private final LongAdder resolved = new LongAdder();
+
+    public ClaimCheck(ObjectProvider<BlobStore> blobStores,
+                      @Value("${r"${eventor.claim-check.directory:${java.io.tmpdir}/eventor-claim-check}"}") String directory) {
+        this.blobStore = blobStores.getIfAvailable(() -> new FileSystemBlobStore(Paths.get(directory)));
+    }
+
+    /**
+     * Stores a serialized value in the blob store.
+     * @param payload the value as the producer's serializer wrote it
+     * @return the value of the {@value #HEADER} header
+     */
+    public byte[] offload(byte[] payload) {
+        try {
+            String reference = blobStore.put(payload);
+            offloaded.increment();
+            offloadedBytes.add(payload.length);
+            return reference.getBytes(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not offload a payload of " + payload.length + " bytes", e);
+        }
+    }
+
+    /**
+     * The record value sent in place of an offloaded payload: a JSON object whose only field is the reference,
+     * which JSON deserializers read as an event without fields
+     * @param reference the value of the {@value #HEADER} header
+     */
+    public byte[] stub(byte[] reference) {
+        try {
+            return objectMapper.writeValueAsBytes(Map.of(HEADER, new String(reference, StandardCharsets.UTF_8)));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write the claim check stub", e);
+        }
+    }
+
+    /**
+     * Reads back an event offloaded by a producer.
+     * @param reference the value of the {@value #HEADER} header
+     * @param type the type the handler receives, the DTO or a projection of it
+     * @param cache the read-through cache of the consumer method
+     */
+    public <T> T resolve(byte[] reference, Class<T> type, ClaimCheckCache cache) {
+        String key = new String(reference, StandardCharsets.UTF_8);
+        try {
+            T event = objectMapper.readValue(cache.get(key, blobStore), type);
+            resolved.increment();
+            return event;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not resolve claim check " + key, e);
+        }
+    }
+
+    public BlobStore getBlobStore() {
+        return blobStore;
+    }
+
+    public long getOffloaded() {
+        return offloaded.sum();
+    }
+
+    public long getOffloadedBytes() {
+        return offloadedBytes.sum();
+    }
+
+    public long getResolved() {
+        return resolved.sum();
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.support;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded read-through cache of claim-checked payloads, used by generated consumer methods
+ * so redeliveries and retry topics do not read the same payload from the blob store again.
+ * Payloads are evicted least recently used first once their total size exceeds maxBytes;
+ * a payload larger than maxBytes is never cached. Events are decoded from the cached bytes
+ * on every delivery, so handlers never share an instance.
+ * Generated by Eventor Spring Event Generator
+ */
+public class ClaimCheckCache {
+
+    private final long maxBytes;
+    private final LinkedHashMap<String, byte[]> payloads = new LinkedHashMap<>(16, 0.75f, true);
+    private long bytes;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public ClaimCheckCache(long maxBytes) {
+        if (maxBytes < 0) {
+            throw new IllegalArgumentException("maxBytes must not be negative: " + maxBytes);
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Returns the cached payload, reading it from the blob store on a miss.
+     * Concurrent misses on the same reference may both read it; the store is not locked while reading.
+     */
+    public byte[] get(String reference, BlobStore blobStore) throws IOException {
+        synchronized (this) {
+            byte[] payload = payloads.get(reference);
+            if (payload != null) {
+                hits.increment();
+                return payload;
+            }
+        }
+        misses.increment();
+        byte[] payload = blobStore.get(reference);
+        if (payload.length <= maxBytes) {
+            cache(reference, payload);
+        }
+        return payload;
+    }
+
+    private synchronized void cache(String reference, byte[] payload) {
+        if (payloads.putIfAbsent(reference, payload) != null) {
+            return;
+        }
+        bytes += payload.length;
+        Iterator<Map.Entry<String, byte[]>> eldest = payloads.entrySet().iterator();
+        while (bytes > maxBytes && eldest.hasNext()) {
+            bytes -= eldest.next().getValue().length;
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    public synchronized int size() {
+        return payloads.size();
+    }
+
+    public synchronized long getBytes() {
+        return bytes;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+}
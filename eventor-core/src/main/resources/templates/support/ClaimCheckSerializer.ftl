@@ -0,0 +1,64 @@
+package com.example.support;
+
+import java.util.Map;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Serializer;
+
+/**
+ * Kafka value serializer of producers that declare claimCheck. Each value is serialized once, by the
+ * delegate; a payload above thresholdBytes is offloaded by the {@link ClaimCheck} after it was written,
+ * and the record carries the {@value ClaimCheck#HEADER} header and a stub value instead of the payload.
+ * Generated by Eventor Spring Event Generator
+ */
+public class ClaimCheckSerializer<T> implements Serializer<T> {
+
+    private final ClaimCheck claimCheck;
+    private final Serializer<T> delegate;
+    private final int thresholdBytes;
+
+    /**
+     * @param claimCheck the blob store access shared by the application's producers
+     * @param delegate the serializer values are written with
+     * @param thresholdBytes the largest payload sent inline
+     */
+    public ClaimCheckSerializer(ClaimCheck claimCheck, Serializer<T> delegate, int thresholdBytes) {
+        this.claimCheck = claimCheck;
+        this.delegate = delegate;
+        this.thresholdBytes = thresholdBytes;
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        delegate.configure(configs, isKey);
+    }
+
+    /**
+     * Without record headers there is nowhere to put the reference, so only payloads sent inline are accepted
+     */
+    @Override
+    public byte[] serialize(String topic, T data) {
+        byte[] payload = delegate.serialize(topic, data);
+        if (payload != null && payload.length > thresholdBytes) {
+            throw new SerializationException("A claim check of " + payload.length + " bytes for " + topic
+                + " needs record headers");
+        }
+        return payload;
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, T data) {
+        byte[] payload = delegate.serialize(topic, headers, data);
+        if (payload == null || payload.length <= thresholdBytes) {
+            return payload;
+        }
+        byte[] reference = claimCheck.offload(payload);
+        headers.add(ClaimCheck.HEADER, reference);
+        return claimCheck.stub(reference);
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+}
@@ -0,0 +1,258 @@
+package com.example.support;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.kafka.listener.ConsumerAwareRebalanceListener;
+import org.springframework.kafka.support.Acknowledgment;
+
+/**
+ * Offset commits of a consumer method with ackMode "manual-async". Handlers acknowledge records
+ * from any thread and in any order; every commitIntervalMs each listener thread commits, with a
+ * single asynchronous commit, the highest offset of each of its partitions below which every
+ * record has been acknowledged. Revoked partitions are committed synchronously before they move, so a
+ * rebalance only replays records that were not acknowledged yet.
+ * Generated by Eventor Spring Event Generator
+ */
+public class CommitCoalescer implements ConsumerAwareRebalanceListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(CommitCoalescer.class);
+
+    private final String listenerId;
+    private final String topic;
+    private final long commitIntervalMillis;
+    private final Map<Integer, PartitionAcks> partitions = new ConcurrentHashMap<>();
+    private volatile ConsumerRebalanceListener delegate;
+    private final Map<Consumer<?, ?>, Long> nextCommitAt = new ConcurrentHashMap<>();
+
+    private final LongAdder acknowledged = new LongAdder();
+    private final LongAdder commits = new LongAdder();
+    private final LongAdder failedCommits = new LongAdder();
+
+    public CommitCoalescer(String listenerId, String topic, long commitIntervalMillis) {
+        if (commitIntervalMillis <= 0) {
+            throw new IllegalArgumentException("commitIntervalMillis must be positive: " + commitIntervalMillis);
+        }
+        this.listenerId = listenerId;
+        this.topic = topic;
+        this.commitIntervalMillis = commitIntervalMillis;
+    }
+
+    /**
+     * Tracks a record about to be handled and commits if the interval has elapsed; listener thread only.
+     * @return the acknowledgment to hand to the handler
+     */
+    public Acknowledgment received(Consumer<?, ?> consumer, int partition, long offset) {
+        PartitionAcks acks = partitions.computeIfAbsent(partition, p -> new PartitionAcks());
+        acks.received(offset);
+        commitIfDue(consumer);
+        return new RecordAcknowledgment(acks, offset);
+    }
+
+    /**
+     * Marks a record whose handler threw; it stays uncommitted until it is redelivered and acknowledged,
+     * or until the error handler gives up on it and moves on to the next offset. Listener thread only.
+     */
+    public void failed(int partition, long offset) {
+        PartitionAcks acks = partitions.get(partition);
+        if (acks != null) {
+            acks.failed.add(offset);
+        }
+    }
+
+    /**
+     * Commits while no records arrive; listener thread only, as idle events are published from it.
+     */
+    public void onIdle(ListenerContainerIdleEvent event) {
+        String id = event.getListenerId();
+        if (id != null && (id.equals(listenerId) || id.startsWith(listenerId + "-")) && event.getConsumer() != null) {
+            commitIfDue(event.getConsumer());
+        }
+    }
+
+    public void commitIfDue(Consumer<?, ?> consumer) {
+        long now = System.currentTimeMillis();
+        if (now < nextCommitAt.getOrDefault(consumer, 0L)) {
+            return;
+        }
+        nextCommitAt.put(consumer, now + commitIntervalMillis);
+        // With concurrency above one, the child containers share this coalescer but not their partitions
+        Map<TopicPartition, OffsetAndMetadata> offsets = committable(partitionsOf(consumer.assignment()));
+        if (offsets.isEmpty()) {
+            return;
+        }
+        consumer.commitAsync(offsets, (committed, failure) -> {
+            if (failure != null) {
+                failedCommits.increment();
+                logger.warn("Asynchronous commit of {} failed, the next commit retries it: {}",
+                    committed, failure.toString());
+                // Callbacks run on the listener thread, inside poll
+                offsets.forEach((topicPartition, offset) -> {
+                    PartitionAcks acks = partitions.get(topicPartition.partition());
+                    if (acks != null && acks.committed == offset.offset()) {
+                        acks.committed = -1;
+                    }
+                });
+            } else {
+                commits.increment();
+            }
+        });
+    }
+
+    /**
+     * Wraps the rebalance listener configured on the container, if any, so both are called.
+     */
+    public ConsumerAwareRebalanceListener wrap(ConsumerRebalanceListener delegate) {
+        this.delegate = delegate;
+        return this;
+    }
+
+    @Override
+    public void onPartitionsRevokedBeforeCommit(Consumer<?, ?> consumer, Collection<TopicPartition> revoked) {
+        Map<TopicPartition, OffsetAndMetadata> offsets = committable(partitionsOf(revoked));
+        if (!offsets.isEmpty()) {
+            try {
+                consumer.commitSync(offsets);
+                commits.increment();
+            } catch (RuntimeException e) {
+                failedCommits.increment();
+                logger.warn("Commit of revoked partitions {} failed, their records will be replayed", revoked, e);
+            }
+        }
+        partitionsOf(revoked).forEach(partitions::remove);
+        nextCommitAt.remove(consumer);
+        if (delegate instanceof ConsumerAwareRebalanceListener) {
+            ((ConsumerAwareRebalanceListener) delegate).onPartitionsRevokedBeforeCommit(consumer, revoked);
+        } else if (delegate != null) {
+            delegate.onPartitionsRevoked(revoked);
+        }
+    }
+
+    @Override
+    public void onPartitionsRevokedAfterCommit(Consumer<?, ?> consumer, Collection<TopicPartition> revoked) {
+        if (delegate instanceof ConsumerAwareRebalanceListener) {
+            ((ConsumerAwareRebalanceListener) delegate).onPartitionsRevokedAfterCommit(consumer, revoked);
+        }
+    }
+
+    @Override
+    public void onPartitionsLost(Consumer<?, ?> consumer, Collection<TopicPartition> lost) {
+        partitionsOf(lost).forEach(partitions::remove);
+        if (delegate instanceof ConsumerAwareRebalanceListener) {
+            ((ConsumerAwareRebalanceListener) delegate).onPartitionsLost(consumer, lost);
+        } else if (delegate != null) {
+            delegate.onPartitionsLost(lost);
+        }
+    }
+
+    @Override
+    public void onPartitionsAssigned(Consumer<?, ?> consumer, Collection<TopicPartition> assigned) {
+        if (delegate instanceof ConsumerAwareRebalanceListener) {
+            ((ConsumerAwareRebalanceListener) delegate).onPartitionsAssigned(consumer, assigned);
+        } else if (delegate != null) {
+            delegate.onPartitionsAssigned(assigned);
+        }
+    }
+
+    public long getAcknowledged() {
+        return acknowledged.sum();
+    }
+
+    public long getCommits() {
+        return commits.sum();
+    }
+
+    public long getFailedCommits() {
+        return failedCommits.sum();
+    }
+
+    /**
+     * Records handled but not acknowledged yet, over all partitions
+     */
+    public int getPending() {
+        return partitions.values().stream().mapToInt(acks -> acks.pending.size()).sum();
+    }
+
+    private Map<TopicPartition, OffsetAndMetadata> committable(Collection<Integer> partitionNumbers) {
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        for (Integer partition : partitionNumbers) {
+            PartitionAcks acks = partitions.get(partition);
+            if (acks == null) {
+                continue;
+            }
+            long position = acks.position();
+            if (position > acks.committed) {
+                acks.committed = position;
+                offsets.put(new TopicPartition(topic, partition), new OffsetAndMetadata(position));
+            }
+        }
+        return offsets;
+    }
+
+    private Collection<Integer> partitionsOf(Collection<TopicPartition> topicPartitions) {
+        return topicPartitions.stream()
+            .filter(topicPartition -> topic.equals(topicPartition.topic()))
+            .map(TopicPartition::partition)
+            .toList();
+    }
+
+    /**
+     * Handled offsets of one partition; pending may shrink on any thread, everything else is listener thread only
+     */
+    private static final class PartitionAcks {
+        private final NavigableSet<Long> pending = new ConcurrentSkipListSet<>();
+        private final NavigableSet<Long> failed = new TreeSet<>();
+        private long next = -1;
+        private long committed = -1;
+
+        void received(long offset) {
+            if (!failed.isEmpty()) {
+                // Records are delivered in offset order, so a failed record behind this one was given up on
+                NavigableSet<Long> abandoned = failed.headSet(offset, false);
+                pending.removeAll(abandoned);
+                abandoned.clear();
+                failed.remove(offset);
+            }
+            pending.add(offset);
+            next = Math.max(next, offset + 1);
+        }
+
+        /**
+         * The offset to commit: the oldest record not acknowledged yet, or the one after the last record handled
+         */
+        long position() {
+            Iterator<Long> oldest = pending.iterator();
+            return oldest.hasNext() ? oldest.next() : next;
+        }
+    }
+
+    private final class RecordAcknowledgment implements Acknowledgment {
+        private final PartitionAcks acks;
+        private final long offset;
+
+        RecordAcknowledgment(PartitionAcks acks, long offset) {
+            this.acks = acks;
+            this.offset = offset;
+        }
+
+        @Override
+        public void acknowledge() {
+            if (acks.pending.remove(offset)) {
+                acknowledged.increment();
+            }
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.support;
+
+/**
+ * Handles the events that exhausted the retry topics of a generated consumer. Declare a bean of this type to
+ * alert on, park or compensate them; without one, the consumer logs each event as an error.
+ * Generated by Eventor Spring Event Generator
+ */
+@FunctionalInterface
+public interface DeadLetterHandler {
+
+    /**
+     * Called on the dead-letter listener thread; an exception leaves the record to the container's error handler.
+     *
+     * @param consumer the simple name of the generated consumer class
+     * @param event the failed event
+     * @param topic the dead-letter topic it was read from
+     * @param partition its partition
+     * @param offset its offset
+     * @param error the message of the last exception, or null
+     */
+    void handle(String consumer, Object event, String topic, int partition, long offset, String error);
+}
@@ -0,0 +1,191 @@
+package com.example.support;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects events per key and hands them to a sink as one batch once maxEvents have been added or
+ * maxDelayMillis have passed since the first one. Keys are striped over a fixed set of locks; a
+ * completed batch is queued on its stripe, and one thread at a time hands a stripe's queue to the sink
+ * outside the lock, so batches of the same key leave in order without adds waiting on the sink.
+ * Generated by Eventor Spring Event Generator
+ */
+public class EnvelopeCoalescer<T> implements AutoCloseable {
+
+    private static final int STRIPES = 64;
+    private static final Object NULL_KEY = new Object();
+
+    private final int maxEvents;
+    private final long maxDelayMillis;
+    private final Sink<T> sink;
+    private final Stripe<T>[] stripes;
+    private final ScheduledExecutorService timer;
+    private volatile boolean closed;
+
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder events = new LongAdder();
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public EnvelopeCoalescer(String name, int maxEvents, long maxDelayMillis, Sink<T> sink) {
+        if (maxEvents <= 0) {
+            throw new IllegalArgumentException("maxEvents must be positive: " + maxEvents);
+        }
+        this.maxEvents = maxEvents;
+        this.maxDelayMillis = maxDelayMillis;
+        this.sink = sink;
+        this.stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe<>();
+        }
+        this.timer = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "eventor-envelope-" + name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Adds an event to the open batch of its key.
+     * The returned future completes when the sink has acknowledged the batch holding the event,
+     * and fails with an IllegalStateException once the coalescer is closed.
+     */
+    public CompletableFuture<?> add(String key, T event) {
+        Object batchKey = key == null ? NULL_KEY : key;
+        Stripe<T> stripe = stripe(batchKey);
+        CompletableFuture<Void> result;
+        synchronized (stripe) {
+            if (closed) {
+                return CompletableFuture.failedFuture(new IllegalStateException("Envelope coalescer is closed"));
+            }
+            Batch<T> batch = stripe.open.get(batchKey);
+            if (batch == null) {
+                batch = new Batch<>(key, maxEvents);
+                stripe.open.put(batchKey, batch);
+                Batch<T> scheduled = batch;
+                timer.schedule(() -> expire(batchKey, scheduled), maxDelayMillis, TimeUnit.MILLISECONDS);
+            }
+            batch.events.add(event);
+            result = batch.result;
+            if (batch.events.size() < maxEvents) {
+                return result;
+            }
+            stripe.open.remove(batchKey);
+            stripe.ready.add(batch);
+        }
+        flush(stripe);
+        return result;
+    }
+
+    /**
+     * Hands over every open batch and stops the delay timer. Adds after this fail.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        for (Stripe<T> stripe : stripes) {
+            synchronized (stripe) {
+                stripe.ready.addAll(stripe.open.values());
+                stripe.open.clear();
+            }
+            flush(stripe);
+        }
+        // Every add that saw the coalescer open has left its stripe, so none schedules on a stopped timer
+        timer.shutdownNow();
+    }
+
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    public long getEventCount() {
+        return events.sum();
+    }
+
+    private void expire(Object batchKey, Batch<T> batch) {
+        Stripe<T> stripe = stripe(batchKey);
+        synchronized (stripe) {
+            if (!stripe.open.remove(batchKey, batch)) {
+                return;
+            }
+            stripe.ready.add(batch);
+        }
+        flush(stripe);
+    }
+
+    /**
+     * Hands the queued batches of a stripe to the sink in order. A thread that finds another one
+     * flushing leaves its batch to it.
+     */
+    private void flush(Stripe<T> stripe) {
+        synchronized (stripe) {
+            if (stripe.flushing) {
+                return;
+            }
+            stripe.flushing = true;
+        }
+        while (true) {
+            Batch<T> batch;
+            synchronized (stripe) {
+                batch = stripe.ready.poll();
+                if (batch == null) {
+                    stripe.flushing = false;
+                    return;
+                }
+            }
+            dispatch(batch);
+        }
+    }
+
+    private void dispatch(Batch<T> batch) {
+        batches.increment();
+        events.add(batch.events.size());
+        try {
+            sink.send(batch.key, batch.events).whenComplete((result, failure) -> {
+                if (failure != null) {
+                    batch.result.completeExceptionally(failure);
+                } else {
+                    batch.result.complete(null);
+                }
+            });
+        } catch (RuntimeException e) {
+            batch.result.completeExceptionally(e);
+        }
+    }
+
+    private Stripe<T> stripe(Object batchKey) {
+        return stripes[(batchKey.hashCode() & Integer.MAX_VALUE) % STRIPES];
+    }
+
+    /**
+     * Sends a complete batch, usually wrapped in the DTO's envelope.
+     */
+    @FunctionalInterface
+    public interface Sink<T> {
+        CompletableFuture<?> send(String key, List<T> events);
+    }
+
+    private static final class Stripe<T> {
+        private final Map<Object, Batch<T>> open = new HashMap<>();
+        private final ArrayDeque<Batch<T>> ready = new ArrayDeque<>();
+        private boolean flushing;
+    }
+
+    private static final class Batch<T> {
+        private final String key;
+        private final List<T> events;
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+        private Batch(String key, int capacity) {
+            this.key = key;
+            this.events = new ArrayList<>(Math.min(capacity, 1024));
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.support;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+
+/**
+ * {@link BlobStore} keeping every payload in its own file under a directory that producers and
+ * consumers share, such as a local disk on a single host or a network mount. Files are written
+ * next to their final name and moved into place, so a reader never sees a partial payload.
+ * Nothing is deleted here; expire old files with the retention of the topics they belong to.
+ * Generated by Eventor Spring Event Generator
+ */
+public class FileSystemBlobStore implements BlobStore {
+
+    private final Path directory;
+
+    public FileSystemBlobStore(Path directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public String put(byte[] payload) throws IOException {
+        String reference = UUID.randomUUID().toString();
+        Path file = resolve(reference);
+        Files.createDirectories(file.getParent());
+        Path partial = file.resolveSibling(reference + ".partial");
+        Files.write(partial, payload);
+        Files.move(partial, file, StandardCopyOption.ATOMIC_MOVE);
+        return reference;
+    }
+
+    @Override
+    public byte[] get(String reference) throws IOException {
+        return Files.readAllBytes(resolve(reference));
+    }
+
+    /**
+     * Spreads the files over 256 subdirectories so no single directory grows too large.
+     */
+    private Path resolve(String reference) {
+        if (reference.length() < 3 || reference.contains("/") || reference.contains("\\") || reference.contains("..")) {
+            throw new IllegalArgumentException("Invalid claim-check reference: " + reference);
+        }
+        return directory.resolve(reference.substring(0, 2)).resolve(reference + ".blob");
+    }
+}
@@ -0,0 +1,332 @@
+package com.example.support;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.CRC32C;
+
+/**
+ * Bounded dedupe cache used by generated consumers to skip replayed records.
+ * A consumer claims the key of each event with {@link #tryAcquire} before handling it, so
+ * concurrent deliveries of the same key cannot both pass, then either records it once handled
+ * or releases it when handling failed, so the redelivery is not skipped.
+ * Entries are evicted in insertion order once maxEntries is reached and are
+ * ignored after their TTL expires. When a persist file is given, every recorded entry is
+ * mirrored into a fixed-size slot of a memory-mapped file so the cache survives restarts.
+ * Each slot is written under its lock stripe and carries a CRC32C, so a slot torn by a crash is skipped
+ * on restore; the file header records maxEntries, and a file written with another size is rehashed,
+ * keeping its newest entries.
+ * Generated by Eventor Spring Event Generator
+ */
+public class IdempotencyCache {
+
+    private static final int FILE_MAGIC = 0x45564944;
+    private static final int FILE_VERSION = 2;
+    private static final int FILE_HEADER_SIZE = 16;
+    private static final int SLOT_SIZE = 256;
+    // sequence, expiresAt, key length and checksum, then the UTF-8 key
+    private static final int SLOT_HEADER_SIZE = Long.BYTES + Long.BYTES + Short.BYTES + Integer.BYTES;
+    private static final int EXPIRES_AT_OFFSET = Long.BYTES;
+    private static final int LENGTH_OFFSET = Long.BYTES + Long.BYTES;
+    private static final int CHECKSUM_OFFSET = LENGTH_OFFSET + Short.BYTES;
+    private static final int MAX_PERSISTED_KEY_BYTES = SLOT_SIZE - SLOT_HEADER_SIZE;
+    private static final int LOCK_STRIPES = 1024;
+
+    private final int maxEntries;
+    private final long ttlMillis;
+    private final ConcurrentHashMap<String, Entry> entries;
+    private final AtomicReferenceArray<Entry> slots;
+    private final AtomicLong sequence = new AtomicLong();
+    private final MappedByteBuffer store;
+    private final Object[] slotLocks;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public IdempotencyCache(int maxEntries, long ttlMillis, Path persistFile) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+        }
+        if (persistFile != null && fileSize(maxEntries) > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("maxEntries too large for a persisted cache: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.ttlMillis = ttlMillis;
+        this.entries = new ConcurrentHashMap<>(Math.min(maxEntries, 1 << 16));
+        this.slots = new AtomicReferenceArray<>(maxEntries);
+        this.store = persistFile == null ? null : open(persistFile, maxEntries);
+        this.slotLocks = new Object[store == null ? 0 : Math.min(maxEntries, LOCK_STRIPES)];
+        for (int i = 0; i < slotLocks.length; i++) {
+            slotLocks[i] = new Object();
+        }
+        if (store != null) {
+            restore();
+        }
+    }
+
+    /**
+     * Returns true when the key has been claimed and has not expired yet. This is a lookup only;
+     * consumers gate their events with {@link #tryAcquire}.
+     * A null key is never considered a duplicate.
+     */
+    public boolean isDuplicate(String key) {
+        if (key == null) {
+            return false;
+        }
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            if (entry.expiresAt > System.currentTimeMillis()) {
+                hits.increment();
+                return true;
+            }
+            entries.remove(key, entry);
+        }
+        misses.increment();
+        return false;
+    }
+
+    /**
+     * Claims a key for processing in a single atomic step, evicting the oldest entry once the cache is full.
+     * A null key is always claimed.
+     * @return false when the key was already claimed and has not expired, so the event is a duplicate
+     */
+    public boolean tryAcquire(String key) {
+        if (key == null) {
+            return true;
+        }
+        long now = System.currentTimeMillis();
+        Entry[] claimed = new Entry[1];
+        entries.compute(key, (k, current) -> {
+            if (current != null && current.expiresAt > now) {
+                return current;
+            }
+            claimed[0] = new Entry(k, sequence.getAndIncrement(), now + ttlMillis);
+            return claimed[0];
+        });
+        Entry entry = claimed[0];
+        if (entry == null) {
+            hits.increment();
+            return false;
+        }
+        misses.increment();
+        int slot = (int) (entry.sequence % maxEntries);
+        Entry evicted = slots.getAndSet(slot, entry);
+        if (evicted != null && entries.remove(evicted.key, evicted)) {
+            evictions.increment();
+        }
+        if (store != null) {
+            // The slot is persisted again once the claimed key is recorded; until then the evicted key must not restore
+            synchronized (lockOf(slot)) {
+                store.putLong(slotOffset(slot) + EXPIRES_AT_OFFSET, 0L);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Marks a claimed key as processed, persisting it when the cache has a persist file.
+     */
+    public void record(String key) {
+        if (key == null || store == null) {
+            return;
+        }
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return;
+        }
+        int slot = (int) (entry.sequence % maxEntries);
+        synchronized (lockOf(slot)) {
+            // A slot taken over by a newer key while this one was processed belongs to that key
+            if (slots.get(slot) == entry) {
+                writeSlot(store, slot, entry.sequence, entry.expiresAt, entry.key);
+            }
+        }
+    }
+
+    /**
+     * Gives up the claim of a key whose event failed, so its redelivery is processed.
+     */
+    public void release(String key) {
+        if (key != null) {
+            Entry entry = entries.get(key);
+            if (entry != null) {
+                entries.remove(key, entry);
+            }
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    public double getHitRatio() {
+        long hitCount = hits.sum();
+        long total = hitCount + misses.sum();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    private Object lockOf(int slot) {
+        return slotLocks[slot % slotLocks.length];
+    }
+
+    private void restore() {
+        long now = System.currentTimeMillis();
+        long nextSequence = 0;
+        for (int slot = 0; slot < maxEntries; slot++) {
+            Entry entry = readSlot(store, slot, now);
+            if (entry == null) {
+                continue;
+            }
+            entries.put(entry.key, entry);
+            slots.set(slot, entry);
+            nextSequence = Math.max(nextSequence, entry.sequence + 1);
+        }
+        sequence.set(nextSequence);
+    }
+
+    private static void writeSlot(MappedByteBuffer store, int slot, long seq, long expiresAt, String key) {
+        int offset = slotOffset(slot);
+        byte[] keyBytes = key.getBytes(StandardCharsets.UTF_8);
+        // Expire the slot first, so a crash in the middle of the write leaves nothing to restore
+        store.putLong(offset + EXPIRES_AT_OFFSET, 0L);
+        if (keyBytes.length > MAX_PERSISTED_KEY_BYTES) {
+            // Oversized keys stay in memory only
+            return;
+        }
+        store.putLong(offset, seq);
+        store.putShort(offset + LENGTH_OFFSET, (short) keyBytes.length);
+        store.putInt(offset + CHECKSUM_OFFSET, checksum(seq, expiresAt, keyBytes));
+        store.put(offset + SLOT_HEADER_SIZE, keyBytes);
+        store.putLong(offset + EXPIRES_AT_OFFSET, expiresAt);
+    }
+
+    /**
+     * The entry of a slot, or null when the slot is empty, expired or fails its checksum.
+     */
+    private static Entry readSlot(MappedByteBuffer store, int slot, long now) {
+        int offset = slotOffset(slot);
+        long seq = store.getLong(offset);
+        long expiresAt = store.getLong(offset + EXPIRES_AT_OFFSET);
+        int length = store.getShort(offset + LENGTH_OFFSET);
+        if (expiresAt <= now || length <= 0 || length > MAX_PERSISTED_KEY_BYTES) {
+            return null;
+        }
+        byte[] keyBytes = new byte[length];
+        store.get(offset + SLOT_HEADER_SIZE, keyBytes);
+        if (store.getInt(offset + CHECKSUM_OFFSET) != checksum(seq, expiresAt, keyBytes)) {
+            return null;
+        }
+        return new Entry(new String(keyBytes, StandardCharsets.UTF_8), seq, expiresAt);
+    }
+
+    private static int checksum(long seq, long expiresAt, byte[] keyBytes) {
+        CRC32C crc = new CRC32C();
+        crc.update(ByteBuffer.allocate(Long.BYTES + Long.BYTES).putLong(seq).putLong(expiresAt).flip());
+        crc.update(keyBytes);
+        return (int) crc.getValue();
+    }
+
+    private static int slotOffset(int slot) {
+        return FILE_HEADER_SIZE + slot * SLOT_SIZE;
+    }
+
+    private static long fileSize(int maxEntries) {
+        return FILE_HEADER_SIZE + (long) maxEntries * SLOT_SIZE;
+    }
+
+    /**
+     * Maps the persist file for maxEntries slots. A file of another size is rehashed: its newest unexpired
+     * entries are renumbered into the new slots. A file without a valid header starts empty.
+     */
+    private static MappedByteBuffer open(Path file, int maxEntries) {
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                int storedEntries = -1;
+                if (channel.size() >= FILE_HEADER_SIZE) {
+                    ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE);
+                    channel.read(header, 0);
+                    if (header.getInt(0) == FILE_MAGIC && header.getInt(Integer.BYTES) == FILE_VERSION
+                            && channel.size() >= fileSize(header.getInt(2 * Integer.BYTES))) {
+                        storedEntries = header.getInt(2 * Integer.BYTES);
+                    }
+                }
+                if (storedEntries == maxEntries) {
+                    return channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize(maxEntries));
+                }
+                List<Entry> kept = storedEntries > 0
+                    ? newestEntries(channel.map(FileChannel.MapMode.READ_ONLY, 0, fileSize(storedEntries)),
+                        storedEntries, maxEntries)
+                    : List.of();
+                channel.truncate(0);
+                MappedByteBuffer store = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize(maxEntries));
+                for (int i = 0; i < kept.size(); i++) {
+                    Entry entry = kept.get(i);
+                    writeSlot(store, i, i, entry.expiresAt, entry.key);
+                }
+                store.putInt(0, FILE_MAGIC);
+                store.putInt(Integer.BYTES, FILE_VERSION);
+                store.putInt(2 * Integer.BYTES, maxEntries);
+                store.force();
+                return store;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map idempotency cache file: " + file, e);
+        }
+    }
+
+    private static List<Entry> newestEntries(MappedByteBuffer previous, int storedEntries, int maxEntries) {
+        long now = System.currentTimeMillis();
+        List<Entry> restored = new ArrayList<>();
+        for (int slot = 0; slot < storedEntries; slot++) {
+            Entry entry = readSlot(previous, slot, now);
+            if (entry != null) {
+                restored.add(entry);
+            }
+        }
+        restored.sort(Comparator.comparingLong(entry -> entry.sequence));
+        return restored.subList(Math.max(0, restored.size() - maxEntries), restored.size());
+    }
+
+    private static final class Entry {
+        private final String key;
+        private final long sequence;
+        private final long expiresAt;
+
+        private Entry(String key, long sequence, long expiresAt) {
+            this.key = key;
+            this.sequence = sequence;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
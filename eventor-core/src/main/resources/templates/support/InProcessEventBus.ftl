@@ -0,0 +1,106 @@
+package com.example.support;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-process transport for producers and consumers generated with transport "inprocess".
+ * Every topic is backed by its own {@link InProcessRingBuffer}; each subscribed consumer method
+ * gets a processor thread that receives every event published to the topic.
+ * Generated by Eventor Spring Event Generator
+ */
+@Component
+public class InProcessEventBus implements SmartLifecycle {
+
+    public static final int DEFAULT_BUFFER_SIZE = 1024;
+
+    private static final long HALT_TIMEOUT_SECONDS = 5;
+
+    private final Map<String, Integer> declaredBufferSizes = new ConcurrentHashMap<>();
+    private final Map<String, InProcessRingBuffer> topics = new ConcurrentHashMap<>();
+    private final List<InProcessRingBuffer.Processor> processors = new CopyOnWriteArrayList<>();
+    private volatile boolean running;
+
+    /**
+     * Declares the ring buffer size of a topic. Must be called before the topic is first used.
+     */
+    public void declareTopic(String topic, int bufferSize) {
+        Integer previous = declaredBufferSizes.putIfAbsent(topic, bufferSize);
+        if (previous != null && previous != bufferSize) {
+            throw new IllegalStateException(String.format(
+                "Topic %s is declared with buffer sizes %d and %d", topic, previous, bufferSize));
+        }
+        InProcessRingBuffer existing = topics.get(topic);
+        if (existing != null && existing.getBufferSize() != bufferSize) {
+            throw new IllegalStateException(String.format(
+                "Topic %s was already created with buffer size %d", topic, existing.getBufferSize()));
+        }
+    }
+
+    /**
+     * Publishes an event to every processor subscribed to the topic. While the bus is running a full topic
+     * waits for its slowest processor; while it is not, events are buffered until the topic is full.
+     *
+     * @throws IllegalStateException if the topic is full and the bus is not running
+     */
+    public void publish(String topic, String key, Object event) {
+        ringBuffer(topic).publish(key, event);
+    }
+
+    /**
+     * Subscribes a handler to a topic. Events published after this call are delivered once the bus is running.
+     * failurePolicy names what happens to an event the handler throws on: skip, or halt before it.
+     */
+    public <T> void subscribe(String topic, String groupId, String waitStrategy, int maxBatchSize,
+                              String failurePolicy, Class<T> eventType, Consumer<T> handler) {
+        InProcessRingBuffer.Processor processor = ringBuffer(topic).newProcessor(
+            "eventor-inprocess-" + topic + "-" + groupId,
+            InProcessRingBuffer.WaitStrategy.named(waitStrategy),
+            maxBatchSize,
+            InProcessRingBuffer.FailurePolicy.named(failurePolicy),
+            (key, event, endOfBatch) -> handler.accept(eventType.cast(event)));
+        processors.add(processor);
+        if (running) {
+            processor.start();
+        }
+    }
+
+    private InProcessRingBuffer ringBuffer(String topic) {
+        return topics.computeIfAbsent(topic, name ->
+            new InProcessRingBuffer(declaredBufferSizes.getOrDefault(name, DEFAULT_BUFFER_SIZE)));
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        processors.forEach(InProcessRingBuffer.Processor::start);
+    }
+
+    /**
+     * Halts the processors. Their subscriptions stay, so events published until the bus starts again are
+     * delivered then, as far as the topics can buffer them.
+     */
+    @Override
+    public void stop() {
+        running = false;
+        for (InProcessRingBuffer.Processor processor : processors) {
+            try {
+                processor.halt(HALT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+}
@@ -0,0 +1,474 @@
+package com.example.support;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Preallocated, lock-free multi-producer ring buffer in the style of the LMAX Disruptor.
+ * Publishers claim a sequence with a CAS and store the event reference into its slot, so a
+ * handoff never allocates. Each processor follows the buffer on its own thread and its
+ * sequence gates publishers so that unread slots are never overwritten, including while the
+ * processor is halted; a publisher only waits for a full buffer while every processor runs.
+ * A slot drops its references once every processor has handled it, so the buffer does not keep
+ * handled events reachable until the slot is reused.
+ * Generated by Eventor Spring Event Generator
+ */
+public class InProcessRingBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(InProcessRingBuffer.class);
+
+    private final int bufferSize;
+    private final int indexMask;
+    private final int indexShift;
+    private final Object[] events;
+    private final String[] keys;
+    private final AtomicIntegerArray published;
+    private final AtomicIntegerArray handled;
+
+    private final Sequence cursor = new Sequence(-1L);
+    private final Sequence gatingCache = new Sequence(-1L);
+    private volatile Processor[] gatingProcessors = new Processor[0];
+    private volatile BlockingWaitStrategy[] blockingStrategies = new BlockingWaitStrategy[0];
+
+    public InProcessRingBuffer(int bufferSize) {
+        if (bufferSize < 1 || Integer.bitCount(bufferSize) != 1) {
+            throw new IllegalArgumentException("bufferSize must be a power of 2: " + bufferSize);
+        }
+        this.bufferSize = bufferSize;
+        this.indexMask = bufferSize - 1;
+        this.indexShift = Integer.numberOfTrailingZeros(bufferSize);
+        this.events = new Object[bufferSize];
+        this.keys = new String[bufferSize];
+        this.published = new AtomicIntegerArray(bufferSize);
+        this.handled = new AtomicIntegerArray(bufferSize);
+        for (int i = 0; i < bufferSize; i++) {
+            published.set(i, -1);
+        }
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * Publishes an event, waiting for the slowest processor when the buffer is full.
+     *
+     * @throws IllegalStateException if the buffer is full and one of its processors is not running
+     */
+    public void publish(String key, Object event) {
+        long sequence = next();
+        int index = (int) sequence & indexMask;
+        events[index] = event;
+        keys[index] = key;
+        handled.set(index, 0);
+        published.lazySet(index, (int) (sequence >>> indexShift));
+        for (BlockingWaitStrategy strategy : blockingStrategies) {
+            strategy.signalAllWhenBlocking();
+        }
+    }
+
+    /**
+     * Creates a processor that receives every event published from now on. It gates publishers
+     * immediately and for as long as the buffer lives, so events published before {@link Processor#start}
+     * or while it is halted are buffered rather than lost. A failing event is logged and skipped.
+     */
+    public Processor newProcessor(String name, WaitStrategy waitStrategy, int maxBatchSize, Handler handler) {
+        return newProcessor(name, waitStrategy, maxBatchSize, FailurePolicy.SKIP, handler);
+    }
+
+    /**
+     * Creates a processor like {@link #newProcessor(String, WaitStrategy, int, Handler)} that applies failurePolicy
+     * to events its handler throws on.
+     */
+    public Processor newProcessor(String name, WaitStrategy waitStrategy, int maxBatchSize,
+                                  FailurePolicy failurePolicy, Handler handler) {
+        Processor processor = new Processor(name, waitStrategy, Math.max(1, maxBatchSize), failurePolicy, handler);
+        addGatingProcessor(processor);
+        return processor;
+    }
+
+    private long next() {
+        while (true) {
+            long current = cursor.get();
+            long next = current + 1;
+            long wrapPoint = next - bufferSize;
+            if (wrapPoint > gatingCache.get()) {
+                long minimum = minimumGatingSequence(current);
+                if (wrapPoint > minimum) {
+                    if (!allProcessorsRunning()) {
+                        throw new IllegalStateException("Ring buffer is full and not all of its processors are running");
+                    }
+                    LockSupport.parkNanos(1L);
+                    continue;
+                }
+                gatingCache.set(minimum);
+            } else if (cursor.compareAndSet(current, next)) {
+                return next;
+            }
+        }
+    }
+
+    private long minimumGatingSequence(long defaultMinimum) {
+        long minimum = defaultMinimum;
+        for (Processor processor : gatingProcessors) {
+            minimum = Math.min(minimum, processor.sequence.get());
+        }
+        return minimum;
+    }
+
+    private boolean allProcessorsRunning() {
+        for (Processor processor : gatingProcessors) {
+            if (!processor.isRunning()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long highestPublished(long lowerBound, long availableSequence) {
+        for (long sequence = lowerBound; sequence <= availableSequence; sequence++) {
+            if (published.get((int) sequence & indexMask) != (int) (sequence >>> indexShift)) {
+                return sequence - 1;
+            }
+        }
+        return availableSequence;
+    }
+
+    /**
+     * Drops the references of a slot once the last processor has handled it. Publishers cannot reuse the
+     * slot before that processor moves its sequence past it, so the slot is never cleared under a new event.
+     */
+    private void release(int index) {
+        int processors = gatingProcessors.length;
+        if (processors == 1 || handled.incrementAndGet(index) == processors) {
+            events[index] = null;
+            keys[index] = null;
+        }
+    }
+
+    private synchronized void addGatingProcessor(Processor processor) {
+        processor.sequence.set(cursor.get());
+        Processor[] updated = Arrays.copyOf(gatingProcessors, gatingProcessors.length + 1);
+        updated[updated.length - 1] = processor;
+        gatingProcessors = updated;
+        // Events claimed before the processor counted as gating may be released without it; it starts after them
+        processor.sequence.set(cursor.get());
+        if (processor.waitStrategy instanceof BlockingWaitStrategy) {
+            BlockingWaitStrategy[] strategies = Arrays.copyOf(blockingStrategies, blockingStrategies.length + 1);
+            strategies[strategies.length - 1] = (BlockingWaitStrategy) processor.waitStrategy;
+            blockingStrategies = strategies;
+        }
+    }
+
+    /**
+     * Receives events from a processor; endOfBatch is true for the last event currently available.
+     */
+    @FunctionalInterface
+    public interface Handler {
+        void onEvent(String key, Object event, boolean endOfBatch) throws Exception;
+    }
+
+    /**
+     * What a processor does with an event its handler threw on.
+     */
+    public enum FailurePolicy {
+        /** Logs the failure and goes on with the next event. */
+        SKIP,
+        /** Logs the failure and halts the processor before the event, so it is handled again once restarted. */
+        HALT;
+
+        /**
+         * Resolves a policy by its definition name: skip or halt.
+         */
+        public static FailurePolicy named(String name) {
+            switch (name == null ? "skip" : name) {
+                case "skip":
+                    return SKIP;
+                case "halt":
+                    return HALT;
+                default:
+                    throw new IllegalArgumentException("Unknown failure policy: " + name);
+            }
+        }
+    }
+
+    /**
+     * Follows the ring buffer on a dedicated thread and hands every event to its handler in order.
+     * Halting keeps its sequence, and starting again resumes after the last event it handled.
+     */
+    public final class Processor implements Runnable {
+        private final String name;
+        private final WaitStrategy waitStrategy;
+        private final int maxBatchSize;
+        private final FailurePolicy failurePolicy;
+        private final Handler handler;
+        private final Sequence sequence = new Sequence(-1L);
+        private volatile boolean running;
+        private Thread thread;
+
+        private Processor(String name, WaitStrategy waitStrategy, int maxBatchSize, FailurePolicy failurePolicy,
+                          Handler handler) {
+            this.name = name;
+            this.waitStrategy = waitStrategy;
+            this.maxBatchSize = maxBatchSize;
+            this.failurePolicy = failurePolicy;
+            this.handler = handler;
+        }
+
+        public synchronized void start() {
+            if (running) {
+                return;
+            }
+            if (thread != null && thread.isAlive()) {
+                throw new IllegalStateException("Processor " + name + " has not finished halting");
+            }
+            running = true;
+            thread = new Thread(this, name);
+            thread.start();
+        }
+
+        /**
+         * Stops the processor after the event it is handling and waits up to timeout for its thread to finish.
+         * The handler is never interrupted; the processor sees the halt through its wait strategy.
+         */
+        public synchronized void halt(long timeout, TimeUnit unit) throws InterruptedException {
+            boolean wasRunning = running;
+            running = false;
+            if (wasRunning) {
+                waitStrategy.signalAllWhenBlocking();
+                thread.join(unit.toMillis(timeout));
+            }
+        }
+
+        public boolean isRunning() {
+            return running;
+        }
+
+        public long getSequence() {
+            return sequence.get();
+        }
+
+        @Override
+        public void run() {
+            long nextSequence = sequence.get() + 1;
+            while (running) {
+                long available = waitStrategy.waitFor(nextSequence, cursor, this);
+                if (available < nextSequence) {
+                    continue;
+                }
+                available = highestPublished(nextSequence, Math.min(available, nextSequence + maxBatchSize - 1));
+                if (available < nextSequence) {
+                    Thread.onSpinWait();
+                    continue;
+                }
+                // A halt takes effect between events; the sequence covers only the events handled
+                while (nextSequence <= available && running && handle(nextSequence, nextSequence == available)) {
+                    release((int) nextSequence & indexMask);
+                    nextSequence++;
+                }
+                sequence.setRelease(nextSequence - 1);
+            }
+        }
+
+        private boolean handle(long eventSequence, boolean endOfBatch) {
+            int index = (int) eventSequence & indexMask;
+            try {
+                handler.onEvent(keys[index], events[index], endOfBatch);
+                return true;
+            } catch (Exception e) {
+                if (failurePolicy == FailurePolicy.HALT) {
+                    logger.error("Processor {} failed to handle event at sequence {} and halts before it",
+                        name, eventSequence, e);
+                    running = false;
+                    return false;
+                }
+                logger.error("Processor {} failed to handle event at sequence {}", name, eventSequence, e);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Strategy used by processors to wait until the cursor reaches a sequence.
+     */
+    public interface WaitStrategy {
+
+        /**
+         * Waits until cursor reaches sequence and returns the cursor, or returns early once the processor halts.
+         */
+        long waitFor(long sequence, Sequence cursor, Processor processor);
+
+        default void signalAllWhenBlocking() {
+        }
+
+        /**
+         * Resolves a strategy by its definition name: blocking, sleeping, yielding or busy-spin.
+         */
+        static WaitStrategy named(String name) {
+            switch (name == null ? "blocking" : name) {
+                case "blocking":
+                    return new BlockingWaitStrategy();
+                case "sleeping":
+                    return new SleepingWaitStrategy();
+                case "yielding":
+                    return new YieldingWaitStrategy();
+                case "busy-spin":
+                    return new BusySpinWaitStrategy();
+                default:
+                    throw new IllegalArgumentException("Unknown wait strategy: " + name);
+            }
+        }
+    }
+
+    /**
+     * Parks on a condition; publishers only take the lock while a processor is actually waiting.
+     * The processor raises its waiting flag before it checks the cursor and the halt again, and publishers
+     * signal under the lock, so a publish or halt either is seen by that check or wakes the processor.
+     */
+    public static final class BlockingWaitStrategy implements WaitStrategy {
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Condition published = lock.newCondition();
+        private volatile boolean waiting;
+
+        @Override
+        public long waitFor(long sequence, Sequence cursor, Processor processor) {
+            long available = cursor.get();
+            if (available >= sequence || !processor.isRunning()) {
+                return available;
+            }
+            lock.lock();
+            try {
+                waiting = true;
+                while ((available = cursor.get()) < sequence && processor.isRunning()) {
+                    published.awaitUninterruptibly();
+                }
+            } finally {
+                waiting = false;
+                lock.unlock();
+            }
+            return available;
+        }
+
+        @Override
+        public void signalAllWhenBlocking() {
+            if (waiting) {
+                lock.lock();
+                try {
+                    published.signalAll();
+                } finally {
+                    lock.unlock();
+                }
+            }
+        }
+    }
+
+    /**
+     * Spins, then yields, then parks for short periods; a good default for latency without burning a core.
+     */
+    public static final class SleepingWaitStrategy implements WaitStrategy {
+        private static final int SPIN_TRIES = 100;
+        private static final int RETRIES = 200;
+        private static final long SLEEP_NANOS = 100_000L;
+
+        @Override
+        public long waitFor(long sequence, Sequence cursor, Processor processor) {
+            int counter = RETRIES;
+            long available;
+            while ((available = cursor.get()) < sequence && processor.isRunning()) {
+                if (counter > SPIN_TRIES) {
+                    counter--;
+                    Thread.onSpinWait();
+                } else if (counter > 0) {
+                    counter--;
+                    Thread.yield();
+                } else {
+                    LockSupport.parkNanos(SLEEP_NANOS);
+                }
+            }
+            return available;
+        }
+    }
+
+    /**
+     * Spins briefly and then yields the core between checks.
+     */
+    public static final class YieldingWaitStrategy implements WaitStrategy {
+        private static final int SPIN_TRIES = 100;
+
+        @Override
+        public long waitFor(long sequence, Sequence cursor, Processor processor) {
+            int counter = SPIN_TRIES;
+            long available;
+            while ((available = cursor.get()) < sequence && processor.isRunning()) {
+                if (counter > 0) {
+                    counter--;
+                    Thread.onSpinWait();
+                } else {
+                    Thread.yield();
+                }
+            }
+            return available;
+        }
+    }
+
+    /**
+     * Spins on the cursor; lowest latency, but keeps one core busy per processor.
+     */
+    public static final class BusySpinWaitStrategy implements WaitStrategy {
+        @Override
+        public long waitFor(long sequence, Sequence cursor, Processor processor) {
+            long available;
+            while ((available = cursor.get()) < sequence && processor.isRunning()) {
+                Thread.onSpinWait();
+            }
+            return available;
+        }
+    }
+
+    /**
+     * Cache-line padded sequence counter to avoid false sharing between publishers and processors.
+     */
+    public static final class Sequence {
+        private static final VarHandle VALUE;
+
+        static {
+            try {
+                VALUE = MethodHandles.lookup().findVarHandle(Sequence.class, "value", long.class);
+            } catch (ReflectiveOperationException e) {
+                throw new ExceptionInInitializerError(e);
+            }
+        }
+
+        private long p1, p2, p3, p4, p5, p6, p7;
+        private volatile long value;
+        private long p9, p10, p11, p12, p13, p14, p15;
+
+        Sequence(long initialValue) {
+            VALUE.setRelease(this, initialValue);
+        }
+
+        public long get() {
+            return value;
+        }
+
+        void set(long newValue) {
+            value = newValue;
+        }
+
+        void setRelease(long newValue) {
+            VALUE.setRelease(this, newValue);
+        }
+
+        boolean compareAndSet(long expected, long newValue) {
+            return VALUE.compareAndSet(this, expected, newValue);
+        }
+    }
+}
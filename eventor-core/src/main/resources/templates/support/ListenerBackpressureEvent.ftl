@@ -0,0 +1,55 @@
+package com.example.support;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published by {@link AdaptiveBackpressure} whenever it pauses or resumes a listener container.
+ * Generated by Eventor Spring Event Generator
+ */
+public class ListenerBackpressureEvent extends ApplicationEvent {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String listenerId;
+    private final boolean paused;
+    private final double latencyMillis;
+    private final int queueDepth;
+
+    public ListenerBackpressureEvent(Object source, String listenerId, boolean paused,
+                                     double latencyMillis, int queueDepth) {
+        super(source);
+        this.listenerId = listenerId;
+        this.paused = paused;
+        this.latencyMillis = latencyMillis;
+        this.queueDepth = queueDepth;
+    }
+
+    public String getListenerId() {
+        return listenerId;
+    }
+
+    /**
+     * @return true if the listener was paused, false if it was resumed
+     */
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public double getLatencyMillis() {
+        return latencyMillis;
+    }
+
+    public int getQueueDepth() {
+        return queueDepth;
+    }
+
+    @Override
+    public String toString() {
+        return "ListenerBackpressureEvent{" +
+                "listenerId=" + listenerId +
+                ", paused=" + paused +
+                ", latencyMillis=" + latencyMillis +
+                ", queueDepth=" + queueDepth +
+                '}';
+    }
+}
@@ -0,0 +1,365 @@
+package com.example.support;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.stream.Stream;
+
+/**
+ * Append-only journal stored in fixed-size, memory-mapped segment files.
+ * A single writer (guarded by an OS file lock, so one per host) appends records; any number of
+ * readers, in the same or other processes, tail the journal and persist their own position.
+ * A position is a single 8-byte word, the segment index in the high and the offset in the low half,
+ * so it is always committed whole; retention never deletes a segment a reader has not committed past.
+ * Records are 8-byte aligned: a 4-byte length published with release semantics, 4 bytes of
+ * padding and the payload. A length of -1 marks the end of a segment.
+ * Generated by Eventor Spring Event Generator
+ */
+public class MappedJournal implements AutoCloseable {
+
+    private static final VarHandle INT_VIEW =
+        MethodHandles.byteBufferViewVarHandle(int[].class, ByteOrder.nativeOrder());
+    private static final VarHandle LONG_VIEW =
+        MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+    private static final int HEADER_SIZE = 8;
+    private static final int END_OF_SEGMENT = -1;
+    private static final int POSITION_FILE_SIZE = Long.BYTES;
+    private static final String SEGMENT_SUFFIX = ".segment";
+    private static final String POSITION_SUFFIX = ".position";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int retainedSegments;
+
+    private FileChannel lockChannel;
+    private FileLock writerLock;
+    private MappedByteBuffer writeSegment;
+    private long writeSegmentIndex;
+    private int writeOffset;
+
+    /**
+     * Opens a journal directory; retainedSegments of 0 keeps every segment until it is deleted explicitly.
+     * Otherwise the writer keeps the last retainedSegments segments, and any older ones a reader still needs.
+     */
+    public MappedJournal(Path directory, int segmentSize, int retainedSegments) {
+        if (segmentSize % HEADER_SIZE != 0 || segmentSize < 2 * HEADER_SIZE) {
+            throw new IllegalArgumentException("segmentSize must be a multiple of 8 bytes: " + segmentSize);
+        }
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.retainedSegments = retainedSegments;
+        try {
+            Files.createDirectories(directory.resolve("readers"));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to create journal directory: " + directory, e);
+        }
+    }
+
+    /**
+     * Appends a record, rolling to a new segment when the current one is full.
+     * The first call takes the writer lock for this journal.
+     */
+    public synchronized void append(byte[] payload, int offset, int length) throws IOException {
+        int recordSize = align(HEADER_SIZE + length);
+        if (length <= 0 || recordSize > segmentSize - HEADER_SIZE) {
+            throw new IllegalArgumentException("Record of " + length + " bytes does not fit a journal segment");
+        }
+        if (writeSegment == null) {
+            openWriter();
+        }
+        if (writeOffset + recordSize > segmentSize - HEADER_SIZE) {
+            roll();
+        }
+        writeSegment.put(writeOffset + HEADER_SIZE, payload, offset, length);
+        INT_VIEW.setRelease(writeSegment, writeOffset, length);
+        writeOffset += recordSize;
+    }
+
+    /**
+     * Opens a reader that persists its position under the given name.
+     * A new reader starts at the oldest retained segment, and holds it from then on; delete the position
+     * file of a reader that is gone for good, or retention keeps its segments forever.
+     */
+    public Reader reader(String name) throws IOException {
+        return new Reader(name);
+    }
+
+    /**
+     * Deletes every segment with an index lower than the given one.
+     */
+    public void deleteSegmentsBefore(long segmentIndex) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                .filter(file -> segmentIndex(file) < segmentIndex)
+                .forEach(file -> file.toFile().delete());
+        }
+    }
+
+    /**
+     * Deletes every segment that all readers have committed past.
+     */
+    public void deleteConsumedSegments() throws IOException {
+        deleteSegmentsBefore(minimumReaderSegment());
+    }
+
+    /**
+     * Releases the writer lock; a later append takes it again and continues after the last record.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (writerLock != null) {
+            writerLock.release();
+            lockChannel.close();
+            writerLock = null;
+            lockChannel = null;
+            writeSegment = null;
+        }
+    }
+
+    private void openWriter() throws IOException {
+        lockChannel = FileChannel.open(directory.resolve("writer.lock"),
+            StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            writerLock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            writerLock = null;
+        }
+        if (writerLock == null) {
+            lockChannel.close();
+            throw new IllegalStateException("Journal " + directory + " already has a writer");
+        }
+        writeSegmentIndex = Math.max(0, lastSegmentIndex());
+        writeSegment = map(writeSegmentIndex, FileChannel.MapMode.READ_WRITE);
+        writeOffset = 0;
+        while (writeOffset < segmentSize - HEADER_SIZE) {
+            int length = (int) INT_VIEW.getAcquire(writeSegment, writeOffset);
+            if (length == 0) {
+                return;
+            }
+            if (length == END_OF_SEGMENT) {
+                roll();
+                return;
+            }
+            writeOffset += align(HEADER_SIZE + length);
+        }
+        roll();
+    }
+
+    private void roll() throws IOException {
+        MappedByteBuffer next = map(writeSegmentIndex + 1, FileChannel.MapMode.READ_WRITE);
+        if (writeOffset <= segmentSize - HEADER_SIZE) {
+            INT_VIEW.setRelease(writeSegment, writeOffset, END_OF_SEGMENT);
+        }
+        writeSegment = next;
+        writeSegmentIndex++;
+        writeOffset = 0;
+        if (retainedSegments > 0) {
+            deleteSegmentsBefore(Math.min(writeSegmentIndex - retainedSegments + 1, minimumReaderSegment()));
+        }
+    }
+
+    /**
+     * The lowest segment any reader has committed to, read from the position files of every process.
+     */
+    private long minimumReaderSegment() throws IOException {
+        long minimum = Long.MAX_VALUE;
+        try (Stream<Path> files = Files.list(directory.resolve("readers"))) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                if (file.getFileName().toString().endsWith(POSITION_SUFFIX)) {
+                    minimum = Math.min(minimum, segmentOf(readPosition(file)));
+                }
+            }
+        }
+        return minimum;
+    }
+
+    private static long readPosition(Path file) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(POSITION_FILE_SIZE).order(ByteOrder.nativeOrder());
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            channel.read(buffer, 0);
+        }
+        return buffer.getLong(0);
+    }
+
+    private MappedByteBuffer map(long segmentIndex, FileChannel.MapMode mode) throws IOException {
+        Path file = segmentPath(segmentIndex);
+        if (mode == FileChannel.MapMode.READ_WRITE) {
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                return channel.map(mode, 0, segmentSize);
+            }
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(mode, 0, segmentSize);
+        }
+    }
+
+    private boolean isComplete(long segmentIndex) {
+        Path file = segmentPath(segmentIndex);
+        try {
+            return Files.exists(file) && Files.size(file) >= segmentSize;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private Path segmentPath(long segmentIndex) {
+        return directory.resolve(String.format("%020d%s", segmentIndex, SEGMENT_SUFFIX));
+    }
+
+    private long firstSegmentIndex() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                .mapToLong(MappedJournal::segmentIndex).min().orElse(0L);
+        }
+    }
+
+    private long lastSegmentIndex() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                .mapToLong(MappedJournal::segmentIndex).max().orElse(-1L);
+        }
+    }
+
+    private static long segmentIndex(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static long packPosition(long segmentIndex, int offset) {
+        return segmentIndex << Integer.SIZE | offset;
+    }
+
+    private static long segmentOf(long position) {
+        return position >>> Integer.SIZE;
+    }
+
+    private static int offsetOf(long position) {
+        return (int) position;
+    }
+
+    private static int align(int size) {
+        return (size + HEADER_SIZE - 1) & -HEADER_SIZE;
+    }
+
+    /**
+     * Tails the journal from its last committed position. Not thread-safe; use one reader per thread.
+     */
+    public final class Reader {
+        private final MappedByteBuffer position;
+        private MappedByteBuffer segment;
+        private long segmentIndex;
+        private int offset;
+
+        private Reader(String name) throws IOException {
+            Path file = directory.resolve("readers").resolve(name + POSITION_SUFFIX);
+            boolean existing = Files.exists(file);
+            try (FileChannel channel = FileChannel.open(file,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                this.position = channel.map(FileChannel.MapMode.READ_WRITE, 0, POSITION_FILE_SIZE);
+            }
+            if (existing) {
+                long committed = (long) LONG_VIEW.getAcquire(position, 0);
+                this.segmentIndex = segmentOf(committed);
+                this.offset = offsetOf(committed);
+            } else {
+                this.segmentIndex = firstSegmentIndex();
+                this.offset = 0;
+                // Hold the starting segment against retention right away
+                commit();
+            }
+        }
+
+        /**
+         * Returns the next record, or null when the reader has caught up with the writer.
+         */
+        public byte[] poll() throws IOException {
+            int length = nextLength();
+            if (length == 0) {
+                return null;
+            }
+            byte[] payload = new byte[length];
+            segment.get(offset + HEADER_SIZE, payload);
+            offset += align(HEADER_SIZE + length);
+            return payload;
+        }
+
+        /**
+         * Returns true when {@link #poll} would return a record.
+         */
+        public boolean hasNext() throws IOException {
+            return nextLength() != 0;
+        }
+
+        /**
+         * Persists the position after the last polled record.
+         */
+        public void commit() {
+            commit(position());
+        }
+
+        /**
+         * Persists a position returned by {@link #position} earlier, such as the one after the last record
+         * that was processed successfully.
+         */
+        public void commit(long committed) {
+            LONG_VIEW.setRelease(position, 0, committed);
+        }
+
+        /**
+         * The position after the last polled record.
+         */
+        public long position() {
+            return packPosition(segmentIndex, offset);
+        }
+
+        public long getSegmentIndex() {
+            return segmentIndex;
+        }
+
+        /**
+         * Moves to the segment holding the next record and returns its length, or 0 when there is none yet.
+         */
+        private int nextLength() throws IOException {
+            while (true) {
+                if (segment == null && !openSegment()) {
+                    return 0;
+                }
+                int length = (int) INT_VIEW.getAcquire(segment, offset);
+                if (length != END_OF_SEGMENT) {
+                    return length;
+                }
+                if (!isComplete(segmentIndex + 1)) {
+                    return 0;
+                }
+                segmentIndex++;
+                offset = 0;
+                segment = null;
+            }
+        }
+
+        private boolean openSegment() throws IOException {
+            if (!isComplete(segmentIndex)) {
+                long first = firstSegmentIndex();
+                if (first <= segmentIndex || !isComplete(first)) {
+                    return false;
+                }
+                // Retention removed the segment this reader was on; continue with the oldest one left.
+                segmentIndex = first;
+                offset = 0;
+            }
+            segment = map(segmentIndex, FileChannel.MapMode.READ_ONLY);
+            return true;
+        }
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.support;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cross-process transport for producers and consumers generated with transport "mmap".
+ * Every topic is a {@link MappedJournal} under eventor.mmap.directory. Producers append records
+ * encoded with the DTO's binary codec; each consumer method tails the journal on its own thread
+ * and commits its position per consumer group after the handler returns.
+ * Generated by Eventor Spring Event Generator
+ */
+@Component
+public class MappedJournalTransport implements SmartLifecycle {
+
+    private static final Logger logger = LoggerFactory.getLogger(MappedJournalTransport.class);
+
+    private static final int SPIN_TRIES = 1000;
+    private static final int YIELD_TRIES = 100;
+    private static final long PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+    private static final long STOP_TIMEOUT_MILLIS = 5000;
+
+    private static final ThreadLocal<EncodeBuffer> ENCODE_BUFFER = ThreadLocal.withInitial(EncodeBuffer::new);
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int retainedSegments;
+    private final Map<String, MappedJournal> journals = new ConcurrentHashMap<>();
+    private final List<Tailer<?>> tailers = new CopyOnWriteArrayList<>();
+    private volatile boolean running;
+
+    public MappedJournalTransport(
+            @Value("${r"${eventor.mmap.directory:${java.io.tmpdir}/eventor-journal}"}") String directory,
+            @Value("${r"${eventor.mmap.segment-size:67108864}"}") int segmentSize,
+            @Value("${r"${eventor.mmap.retained-segments:16}"}") int retainedSegments) {
+        this.directory = Paths.get(directory);
+        this.segmentSize = segmentSize;
+        this.retainedSegments = retainedSegments;
+    }
+
+    /**
+     * Appends an event to the topic journal. The encoder is usually the DTO's writeTo method.
+     */
+    public void publish(String topic, String key, Encoder encoder) {
+        EncodeBuffer buffer = ENCODE_BUFFER.get();
+        buffer.reset();
+        try {
+            buffer.out.writeBoolean(key != null);
+            if (key != null) {
+                BinaryCodec.writeString(buffer.out, key);
+            }
+            encoder.writeTo(buffer.out);
+            journal(topic).append(buffer.array(), 0, buffer.size());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to journal of topic " + topic, e);
+        }
+    }
+
+    /**
+     * Tails a topic journal for a consumer group. The decoder is usually the DTO's static readFrom method.
+     */
+    public <T> void subscribe(String topic, String groupId, Decoder<T> decoder, Consumer<T> handler) {
+        Tailer<T> tailer = new Tailer<>(topic, groupId, decoder, handler);
+        tailers.add(tailer);
+        if (running) {
+            tailer.start();
+        }
+    }
+
+    private MappedJournal journal(String topic) {
+        return journals.computeIfAbsent(topic,
+            name -> new MappedJournal(directory.resolve(name), segmentSize, retainedSegments));
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        tailers.forEach(Tailer::start);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        for (Tailer<?> tailer : tailers) {
+            tailer.halt();
+        }
+        for (MappedJournal journal : journals.values()) {
+            try {
+                journal.close();
+            } catch (IOException e) {
+                logger.warn("Failed to release journal writer lock", e);
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Writes an event into the record payload.
+     */
+    @FunctionalInterface
+    public interface Encoder {
+        void writeTo(DataOutput out) throws IOException;
+    }
+
+    /**
+     * Reads an event from the record payload.
+     */
+    @FunctionalInterface
+    public interface Decoder<T> {
+        T readFrom(DataInput in) throws IOException;
+    }
+
+    private final class Tailer<T> implements Runnable {
+        private final String topic;
+        private final String groupId;
+        private final Decoder<T> decoder;
+        private final Consumer<T> handler;
+        private volatile boolean active;
+        private Thread thread;
+
+        private Tailer(String topic, String groupId, Decoder<T> decoder, Consumer<T> handler) {
+            this.topic = topic;
+            this.groupId = groupId;
+            this.decoder = decoder;
+            this.handler = handler;
+        }
+
+        private synchronized void start() {
+            if (active) {
+                return;
+            }
+            active = true;
+            thread = new Thread(this, "eventor-mmap-" + topic + "-" + groupId);
+            thread.start();
+        }
+
+        private synchronized void halt() {
+            if (!active) {
+                return;
+            }
+            active = false;
+            LockSupport.unpark(thread);
+            try {
+                thread.join(STOP_TIMEOUT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                MappedJournal.Reader reader = journal(topic).reader(groupId);
+                int idle = 0;
+                while (active) {
+                    byte[] record = reader.poll();
+                    if (record == null) {
+                        idle = idle(idle);
+                        continue;
+                    }
+                    idle = 0;
+                    dispatch(record);
+                    reader.commit();
+                }
+            } catch (IOException e) {
+                logger.error("Tailer for topic {} and group {} stopped", topic, groupId, e);
+            }
+        }
+
+        private void dispatch(byte[] record) {
+            try {
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+                if (in.readBoolean()) {
+                    BinaryCodec.readString(in);
+                }
+                handler.accept(decoder.readFrom(in));
+            } catch (Exception e) {
+                logger.error("Failed to handle record from topic {} for group {}", topic, groupId, e);
+            }
+        }
+
+        private int idle(int idle) {
+            if (idle < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else if (idle < SPIN_TRIES + YIELD_TRIES) {
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+                return idle;
+            }
+            return idle + 1;
+        }
+    }
+
+    private static final class EncodeBuffer extends ByteArrayOutputStream {
+        private final DataOutputStream out = new DataOutputStream(this);
+
+        private EncodeBuffer() {
+            super(256);
+        }
+
+        private byte[] array() {
+            return buf;
+        }
+    }
+}
@@ -0,0 +1,684 @@
+package com.example.support;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.common.TopicPartition;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.core.ConsumerFactory;
+import org.springframework.kafka.event.ListenerContainerIdleEvent;
+import org.springframework.kafka.listener.ConsumerSeekAware;
+
+/**
+ * Key to latest value view of a compacted topic, kept by a consumer method in materialize mode.
+ * Values live on the heap or, encoded with the DTO's binary codec, in direct-memory slabs that are
+ * compacted in place once more than half of their bytes belong to overwritten or deleted values.
+ * Tombstones remove keys. With a snapshot file the view is written to disk periodically and on shutdown
+ * together with the offsets it reflects, so a restart resumes from there instead of replaying the topic.
+ * The listener never commits offsets, so its consumer group, which is new on every start, leaves nothing
+ * behind. Writes are serialized and reads share a read lock; a snapshot copies the view under the read
+ * lock and writes the file after releasing it.
+ * Generated by Eventor Spring Event Generator
+ */
+public class MaterializedView<T> implements AutoCloseable {
+
+    /**
+     * Idle event interval of the listener container, unless its factory sets one.
+     */
+    public static final long IDLE_EVENT_INTERVAL_MILLIS = 1000;
+
+    private static final Logger logger = LoggerFactory.getLogger(MaterializedView.class);
+
+    private static final int SNAPSHOT_MAGIC = 0x45564d56;
+    private static final int SLAB_SIZE = 16 * 1024 * 1024;
+
+    private final String listenerId;
+    private final String topic;
+    private final Encoder<T> encoder;
+    private final Decoder<T> decoder;
+    private final Path snapshotFile;
+    private final ConsumerFactory<?, ?> consumerFactory;
+    private final Storage storage;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Long> nextOffsets = new HashMap<>();
+    private final Map<Integer, Long> loadTargets = new ConcurrentHashMap<>();
+    private final CompletableFuture<Void> initialLoad = new CompletableFuture<>();
+    private final ScheduledExecutorService snapshotter;
+    private final Object snapshotLock = new Object();
+
+    /**
+     * Creates the view and restores the snapshot file if there is one.
+     * The encoder and decoder are required for off-heap storage and snapshots, otherwise they may be null.
+     */
+    public MaterializedView(String listenerId, String topic, boolean offHeap, Encoder<T> encoder, Decoder<T> decoder,
+                            Path snapshotFile, long snapshotIntervalSeconds, ConsumerFactory<?, ?> consumerFactory) {
+        if ((offHeap || snapshotFile != null) && (encoder == null || decoder == null)) {
+            throw new IllegalArgumentException("Off-heap storage and snapshots need the binary codec of the value type");
+        }
+        this.listenerId = listenerId;
+        this.topic = topic;
+        this.encoder = encoder;
+        this.decoder = decoder;
+        this.snapshotFile = snapshotFile;
+        this.consumerFactory = consumerFactory;
+        this.storage = offHeap ? new OffHeapStorage() : new HeapStorage();
+        if (snapshotFile != null) {
+            restore();
+        }
+        if (snapshotFile != null && snapshotIntervalSeconds > 0) {
+            this.snapshotter = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "eventor-snapshot-" + topic);
+                thread.setDaemon(true);
+                return thread;
+            });
+            snapshotter.scheduleWithFixedDelay(this::snapshotQuietly,
+                snapshotIntervalSeconds, snapshotIntervalSeconds, TimeUnit.SECONDS);
+        } else {
+            this.snapshotter = null;
+        }
+    }
+
+    /**
+     * Returns the latest value of a key, or null if the key is absent or was deleted.
+     */
+    @SuppressWarnings("unchecked")
+    public T get(String key) {
+        lock.readLock().lock();
+        try {
+            return (T) storage.get(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Visits every key and its latest value. Writes wait until the scan is complete.
+     */
+    @SuppressWarnings("unchecked")
+    public void scan(BiConsumer<String, ? super T> visitor) {
+        lock.readLock().lock();
+        try {
+            storage.forEach((key, value) -> visitor.accept(key, (T) value));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return storage.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return the bytes of direct memory held by the off-heap slabs, 0 for heap storage
+     */
+    public long getAllocatedBytes() {
+        lock.readLock().lock();
+        try {
+            return storage.allocatedBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Completes once every partition assigned at startup has been read up to its end offset at that time.
+     */
+    public CompletableFuture<Void> getInitialLoad() {
+        return initialLoad;
+    }
+
+    public boolean isInitialLoadComplete() {
+        return initialLoad.isDone();
+    }
+
+    /**
+     * Waits for the initial load.
+     * @return false if it did not complete in time
+     */
+    public boolean awaitInitialLoad(long timeout, TimeUnit unit) throws InterruptedException {
+        try {
+            initialLoad.get(timeout, unit);
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * Applies a record of the topic; a null value is a tombstone.
+     */
+    public void apply(int partition, long offset, String key, T value) {
+        lock.writeLock().lock();
+        try {
+            if (key != null) {
+                if (value == null) {
+                    storage.remove(key);
+                } else {
+                    storage.put(key, value);
+                }
+            }
+            nextOffsets.put(partition, offset + 1);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Completes the initial load once the consumer is positioned at the load target of each of its partitions;
+     * listener thread only. Positions are compared rather than record offsets because the end offset of a
+     * transactional topic lies beyond the marker that follows its last record.
+     */
+    public void checkInitialLoad(Consumer<?, ?> consumer) {
+        if (initialLoad.isDone()) {
+            return;
+        }
+        for (TopicPartition partition : consumer.assignment()) {
+            Long target = partition.topic().equals(topic) ? loadTargets.get(partition.partition()) : null;
+            if (target != null && consumer.position(partition) >= target) {
+                loadTargets.remove(partition.partition());
+            }
+        }
+        completeLoadIfCaughtUp();
+    }
+
+    /**
+     * Checks the initial load while no records arrive, such as after the markers at the end of a transactional topic.
+     */
+    public void onIdle(ListenerContainerIdleEvent event) {
+        String id = event.getListenerId();
+        if (id != null && (id.equals(listenerId) || id.startsWith(listenerId + "-")) && event.getConsumer() != null) {
+            checkInitialLoad(event.getConsumer());
+        }
+    }
+
+    /**
+     * Positions the assigned partitions of this view's topic at the snapshot offsets, or at the beginning
+     * without a snapshot, and records their end offsets as the initial load target.
+     */
+    public void onPartitionsAssigned(Collection<TopicPartition> partitions,
+                                     ConsumerSeekAware.ConsumerSeekCallback callback) {
+        List<TopicPartition> assigned = partitions.stream()
+            .filter(partition -> partition.topic().equals(topic))
+            .collect(Collectors.toList());
+        if (assigned.isEmpty()) {
+            return;
+        }
+        Map<TopicPartition, Long> beginningOffsets;
+        Map<TopicPartition, Long> endOffsets;
+        try (Consumer<?, ?> consumer = consumerFactory.createConsumer()) {
+            beginningOffsets = consumer.beginningOffsets(assigned);
+            endOffsets = consumer.endOffsets(assigned);
+        }
+        Map<Integer, Long> restored;
+        lock.readLock().lock();
+        try {
+            restored = new HashMap<>(nextOffsets);
+        } finally {
+            lock.readLock().unlock();
+        }
+        for (TopicPartition partition : assigned) {
+            long beginning = beginningOffsets.getOrDefault(partition, 0L);
+            Long resumeAt = restored.get(partition.partition());
+            long start;
+            if (resumeAt != null && resumeAt >= beginning) {
+                callback.seek(topic, partition.partition(), resumeAt);
+                start = resumeAt;
+            } else {
+                callback.seekToBeginning(List.of(partition));
+                start = beginning;
+            }
+            long end = endOffsets.getOrDefault(partition, 0L);
+            if (end > start && !initialLoad.isDone()) {
+                loadTargets.put(partition.partition(), end);
+            }
+        }
+        completeLoadIfCaughtUp();
+    }
+
+    /**
+     * Writes the view and its offsets to the snapshot file, replacing the previous snapshot atomically.
+     */
+    public void snapshot() throws IOException {
+        if (snapshotFile == null) {
+            return;
+        }
+        Map<Integer, Long> offsets;
+        Entries entries;
+        lock.readLock().lock();
+        try {
+            offsets = new HashMap<>(nextOffsets);
+            entries = storage.copyEntries();
+        } finally {
+            lock.readLock().unlock();
+        }
+        // Writes go on while the copy is encoded and written; the periodic and the final snapshot take turns
+        synchronized (snapshotLock) {
+            Path temporary = snapshotFile.resolveSibling(snapshotFile.getFileName() + ".tmp");
+            try (DataOutputStream out = new DataOutputStream(
+                    new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeInt(SNAPSHOT_MAGIC);
+                out.writeUTF(topic);
+                out.writeInt(offsets.size());
+                for (Map.Entry<Integer, Long> entry : offsets.entrySet()) {
+                    out.writeInt(entry.getKey());
+                    out.writeLong(entry.getValue());
+                }
+                out.writeInt(entries.size());
+                entries.writeTo(out);
+            }
+            Files.move(temporary, snapshotFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+    }
+
+    /**
+     * Stops periodic snapshots and writes a final one.
+     */
+    @Override
+    public void close() {
+        if (snapshotter != null) {
+            snapshotter.shutdownNow();
+        }
+        snapshotQuietly();
+    }
+
+    private void completeLoadIfCaughtUp() {
+        if (loadTargets.isEmpty()) {
+            initialLoad.complete(null);
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Failed to snapshot view of topic {} to {}", topic, snapshotFile, e);
+        }
+    }
+
+    private void restore() {
+        if (!Files.exists(snapshotFile)) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+            if (in.readInt() != SNAPSHOT_MAGIC || !topic.equals(in.readUTF())) {
+                logger.warn("Ignoring snapshot {}, it does not belong to topic {}", snapshotFile, topic);
+                return;
+            }
+            int partitions = in.readInt();
+            for (int i = 0; i < partitions; i++) {
+                nextOffsets.put(in.readInt(), in.readLong());
+            }
+            int entries = in.readInt();
+            for (int i = 0; i < entries; i++) {
+                String key = in.readUTF();
+                byte[] value = new byte[in.readInt()];
+                in.readFully(value);
+                storage.putEncoded(key, value);
+            }
+            logger.info("Restored {} entries of topic {} from {}", entries, topic, snapshotFile);
+        } catch (IOException e) {
+            nextOffsets.clear();
+            storage.clear();
+            logger.warn("Failed to restore snapshot {}, replaying topic {}", snapshotFile, topic, e);
+        }
+    }
+
+    private byte[] encode(T value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try {
+            encoder.writeTo(value, new DataOutputStream(bytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private T decode(byte[] bytes) {
+        try {
+            return decoder.readFrom(new DataInputStream(new ByteArrayInputStream(bytes)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Writes a value with the binary codec, usually the DTO's writeTo method.
+     */
+    @FunctionalInterface
+    public interface Encoder<T> {
+        void writeTo(T value, DataOutput out) throws IOException;
+    }
+
+    /**
+     * Reads a value with the binary codec, usually the DTO's static readFrom method.
+     */
+    @FunctionalInterface
+    public interface Decoder<T> {
+        T readFrom(DataInput in) throws IOException;
+    }
+
+    /**
+     * Entries copied out of the storage, written to a snapshot without holding the lock.
+     */
+    private interface Entries {
+        int size();
+
+        void writeTo(DataOutput out) throws IOException;
+    }
+
+    private interface Storage {
+        Object get(String key);
+
+        void put(String key, Object value);
+
+        void putEncoded(String key, byte[] value);
+
+        void remove(String key);
+
+        int size();
+
+        void clear();
+
+        void forEach(BiConsumer<String, Object> visitor);
+
+        long allocatedBytes();
+
+        Entries copyEntries();
+    }
+
+    private final class HeapStorage implements Storage {
+        private final Map<String, Object> values = new HashMap<>();
+
+        @Override
+        public Object get(String key) {
+            return values.get(key);
+        }
+
+        @Override
+        public void put(String key, Object value) {
+            values.put(key, value);
+        }
+
+        @Override
+        public void putEncoded(String key, byte[] value) {
+            values.put(key, decode(value));
+        }
+
+        @Override
+        public void remove(String key) {
+            values.remove(key);
+        }
+
+        @Override
+        public int size() {
+            return values.size();
+        }
+
+        @Override
+        public void clear() {
+            values.clear();
+        }
+
+        @Override
+        public void forEach(BiConsumer<String, Object> visitor) {
+            values.forEach(visitor);
+        }
+
+        @Override
+        public long allocatedBytes() {
+            return 0;
+        }
+
+        /**
+         * Copies the references only; values are replaced rather than changed, so they are encoded later.
+         */
+        @Override
+        public Entries copyEntries() {
+            Map<String, Object> copy = new HashMap<>(values);
+            return new Entries() {
+                @Override
+                public int size() {
+                    return copy.size();
+                }
+
+                @Override
+                @SuppressWarnings("unchecked")
+                public void writeTo(DataOutput out) throws IOException {
+                    for (Map.Entry<String, Object> entry : copy.entrySet()) {
+                        byte[] value = encode((T) entry.getValue());
+                        out.writeUTF(entry.getKey());
+                        out.writeInt(value.length);
+                        out.write(value);
+                    }
+                }
+            };
+        }
+    }
+
+    /**
+     * Stores encoded values in direct-memory slabs; a location packs the slab index and offset into a long.
+     */
+    private final class OffHeapStorage implements Storage {
+        private static final int COPY_CHUNK = 64 * 1024;
+
+        private final Map<String, Long> locations = new HashMap<>();
+        private final byte[] copyBuffer = new byte[COPY_CHUNK];
+        private List<ByteBuffer> slabs = new ArrayList<>();
+        private int writeOffset = SLAB_SIZE;
+        private long usedBytes;
+        private long liveBytes;
+
+        @Override
+        public Object get(String key) {
+            Long location = locations.get(key);
+            return location == null ? null : decode(read(location));
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public void put(String key, Object value) {
+            putEncoded(key, encode((T) value));
+        }
+
+        @Override
+        public void putEncoded(String key, byte[] value) {
+            release(key);
+            locations.put(key, write(value));
+            liveBytes += Integer.BYTES + value.length;
+            compactIfSparse();
+        }
+
+        @Override
+        public void remove(String key) {
+            if (release(key)) {
+                compactIfSparse();
+            }
+        }
+
+        @Override
+        public int size() {
+            return locations.size();
+        }
+
+        @Override
+        public void clear() {
+            locations.clear();
+            slabs = new ArrayList<>();
+            writeOffset = SLAB_SIZE;
+            usedBytes = 0;
+            liveBytes = 0;
+        }
+
+        @Override
+        public void forEach(BiConsumer<String, Object> visitor) {
+            locations.forEach((key, location) -> visitor.accept(key, decode(read(location))));
+        }
+
+        @Override
+        public long allocatedBytes() {
+            return (long) slabs.size() * SLAB_SIZE;
+        }
+
+        /**
+         * Copies the encoded values onto the heap, since compaction moves them once the lock is released.
+         */
+        @Override
+        public Entries copyEntries() {
+            String[] keys = new String[locations.size()];
+            byte[][] values = new byte[keys.length][];
+            int i = 0;
+            for (Map.Entry<String, Long> entry : locations.entrySet()) {
+                keys[i] = entry.getKey();
+                values[i++] = read(entry.getValue());
+            }
+            return new Entries() {
+                @Override
+                public int size() {
+                    return keys.length;
+                }
+
+                @Override
+                public void writeTo(DataOutput out) throws IOException {
+                    for (int j = 0; j < keys.length; j++) {
+                        out.writeUTF(keys[j]);
+                        out.writeInt(values[j].length);
+                        out.write(values[j]);
+                    }
+                }
+            };
+        }
+
+        private boolean release(String key) {
+            Long previous = locations.remove(key);
+            if (previous == null) {
+                return false;
+            }
+            liveBytes -= Integer.BYTES + length(previous);
+            return true;
+        }
+
+        /**
+         * Compacts once overwritten and deleted values take up more than half of the bytes written.
+         */
+        private void compactIfSparse() {
+            if (usedBytes > SLAB_SIZE && usedBytes > 2 * liveBytes) {
+                compact();
+            }
+        }
+
+        private long write(byte[] value) {
+            int recordSize = Integer.BYTES + value.length;
+            if (recordSize > SLAB_SIZE) {
+                throw new IllegalArgumentException("Encoded value of " + value.length + " bytes exceeds the slab size");
+            }
+            long location = allocate(recordSize);
+            ByteBuffer slab = slabs.get((int) (location >>> 32));
+            slab.putInt((int) location, value.length);
+            slab.put((int) location + Integer.BYTES, value);
+            return location;
+        }
+
+        private long allocate(int recordSize) {
+            if (writeOffset + recordSize > SLAB_SIZE) {
+                slabs.add(ByteBuffer.allocateDirect(SLAB_SIZE));
+                writeOffset = 0;
+            }
+            long location = ((long) (slabs.size() - 1) << 32) | writeOffset;
+            writeOffset += recordSize;
+            usedBytes += recordSize;
+            return location;
+        }
+
+        private byte[] read(long location) {
+            ByteBuffer slab = slabs.get((int) (location >>> 32));
+            int offset = (int) location;
+            byte[] value = new byte[slab.getInt(offset)];
+            slab.get(offset + Integer.BYTES, value);
+            return value;
+        }
+
+        private int length(long location) {
+            return slabs.get((int) (location >>> 32)).getInt((int) location);
+        }
+
+        /**
+         * Slides the live records toward the start of the slabs, in the order they were written, and releases
+         * the slabs left empty. Packing a subset of the records with the same rule never places one beyond
+         * where it was, so a record is only ever moved down, over space that is free or already moved.
+         */
+        @SuppressWarnings("unchecked")
+        private void compact() {
+            Map.Entry<String, Long>[] live = locations.entrySet().toArray(new Map.Entry[0]);
+            Arrays.sort(live, Map.Entry.comparingByValue());
+            int slabIndex = 0;
+            int offset = 0;
+            for (Map.Entry<String, Long> entry : live) {
+                long location = entry.getValue();
+                int recordSize = Integer.BYTES + length(location);
+                if (offset + recordSize > SLAB_SIZE) {
+                    slabIndex++;
+                    offset = 0;
+                }
+                long moved = ((long) slabIndex << 32) | offset;
+                if (moved != location) {
+                    move(location, moved, recordSize);
+                    entry.setValue(moved);
+                }
+                offset += recordSize;
+            }
+            int slabsInUse = live.length == 0 ? 0 : slabIndex + 1;
+            slabs.subList(slabsInUse, slabs.size()).clear();
+            writeOffset = live.length == 0 ? SLAB_SIZE : offset;
+            usedBytes = liveBytes;
+        }
+
+        /**
+         * Copies a record to a lower location in chunks, so an overlapping source is read before it is overwritten.
+         */
+        private void move(long from, long to, int recordSize) {
+            ByteBuffer source = slabs.get((int) (from >>> 32));
+            ByteBuffer target = slabs.get((int) (to >>> 32));
+            for (int copied = 0; copied < recordSize; copied += COPY_CHUNK) {
+                int chunk = Math.min(COPY_CHUNK, recordSize - copied);
+                source.get((int) from + copied, copyBuffer, 0, chunk);
+                target.put((int) to + copied, copyBuffer, 0, chunk);
+            }
+        }
+    }
+}
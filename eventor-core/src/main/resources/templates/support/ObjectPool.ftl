@@ -0,0 +1,51 @@
+package com.example.support;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Per-thread free list of reusable instances, such as pooled DTOs that are decoded in place.
+ * An instance must be released on the thread that acquired it, and nothing may keep a reference to it
+ * afterwards: its next owner overwrites it. Released instances keep their field values, so decoding can
+ * reuse values that did not change.
+ * Generated by Eventor Spring Event Generator
+ */
+public final class ObjectPool<T> {
+
+    private final Supplier<T> factory;
+    private final int maxPerThread;
+    private final ThreadLocal<ArrayDeque<T>> free = ThreadLocal.withInitial(ArrayDeque::new);
+    private final LongAdder created = new LongAdder();
+    private final LongAdder reused = new LongAdder();
+
+    public ObjectPool(Supplier<T> factory, int maxPerThread) {
+        this.factory = factory;
+        this.maxPerThread = maxPerThread;
+    }
+
+    public T acquire() {
+        T instance = free.get().pollLast();
+        if (instance == null) {
+            created.increment();
+            return factory.get();
+        }
+        reused.increment();
+        return instance;
+    }
+
+    public void release(T instance) {
+        ArrayDeque<T> instances = free.get();
+        if (instances.size() < maxPerThread) {
+            instances.addLast(instance);
+        }
+    }
+
+    public long getCreatedCount() {
+        return created.sum();
+    }
+
+    public long getReusedCount() {
+        return reused.sum();
+    }
+}
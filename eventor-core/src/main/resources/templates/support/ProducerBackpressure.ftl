@@ -0,0 +1,138 @@
+package com.example.support;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admission control for generated producers: a semaphore bounds the sends awaiting a broker
+ * acknowledgement and a {@link TokenBucket} caps the send rate. Time spent waiting for either is
+ * recorded so callers can see when the producer is pushing back.
+ * Generated by Eventor Spring Event Generator
+ */
+public class ProducerBackpressure {
+
+    private final int maxInFlight;
+    private final Semaphore window;
+    private final TokenBucket rateLimiter;
+
+    private final LongAdder waitNanos = new LongAdder();
+    private final LongAdder waits = new LongAdder();
+    private final LongAdder rejections = new LongAdder();
+
+    /**
+     * Creates the limits; a maxInFlight or maxRatePerSecond of 0 disables that limit.
+     * The rate limiter allows bursts of up to one second worth of sends.
+     */
+    public ProducerBackpressure(int maxInFlight, double maxRatePerSecond) {
+        this.maxInFlight = maxInFlight;
+        this.window = maxInFlight > 0 ? new Semaphore(maxInFlight) : null;
+        this.rateLimiter = maxRatePerSecond > 0
+            ? new TokenBucket(maxRatePerSecond, (int) Math.max(1, Math.ceil(maxRatePerSecond)))
+            : null;
+    }
+
+    /**
+     * Admits a send without waiting; the caller must {@link #release()} once the send completes.
+     */
+    public boolean tryAcquire() {
+        if (tryAcquireQuietly()) {
+            return true;
+        }
+        rejections.increment();
+        return false;
+    }
+
+    /**
+     * Admits a send, waiting at most the given time for capacity.
+     */
+    public boolean tryAcquire(long timeout, TimeUnit unit) throws InterruptedException {
+        if (tryAcquireQuietly()) {
+            return true;
+        }
+        long start = System.nanoTime();
+        long deadline = start + unit.toNanos(timeout);
+        try {
+            if (window != null && !window.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                rejections.increment();
+                return false;
+            }
+            try {
+                if (rateLimiter != null
+                        && !rateLimiter.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS)) {
+                    releaseWindow();
+                    rejections.increment();
+                    return false;
+                }
+            } catch (InterruptedException e) {
+                releaseWindow();
+                throw e;
+            }
+            return true;
+        } finally {
+            recordWait(start);
+        }
+    }
+
+    /**
+     * Admits a send, waiting as long as needed for capacity.
+     */
+    public void acquire() {
+        if (tryAcquireQuietly()) {
+            return;
+        }
+        long start = System.nanoTime();
+        if (window != null) {
+            window.acquireUninterruptibly();
+        }
+        if (rateLimiter != null) {
+            rateLimiter.acquire();
+        }
+        recordWait(start);
+    }
+
+    /**
+     * Returns the in-flight slot of a completed send.
+     */
+    public void release() {
+        releaseWindow();
+    }
+
+    public int getInFlight() {
+        return window == null ? 0 : maxInFlight - window.availablePermits();
+    }
+
+    public long getWaitTimeNanos() {
+        return waitNanos.sum();
+    }
+
+    public long getWaitCount() {
+        return waits.sum();
+    }
+
+    public long getRejectedCount() {
+        return rejections.sum();
+    }
+
+    private boolean tryAcquireQuietly() {
+        if (window != null && !window.tryAcquire()) {
+            return false;
+        }
+        if (rateLimiter != null && !rateLimiter.tryAcquire()) {
+            releaseWindow();
+            return false;
+        }
+        return true;
+    }
+
+    private void releaseWindow() {
+        if (window != null) {
+            window.release();
+        }
+    }
+
+    private void recordWait(long start) {
+        waitNanos.add(System.nanoTime() - start);
+        waits.increment();
+    }
+}
@@ -0,0 +1,291 @@
+package com.example.support;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Local overflow for a generated Kafka producer. Sends go straight to the broker while fewer than
+ * maxPending are unacknowledged; beyond that, events are appended to a {@link MappedJournal} instead,
+ * and while the journal holds events every new send is appended too. A direct send that fails goes to
+ * a second journal of failed sends, which is replayed first, so events keep the order they were sent in.
+ * A drainer thread waits until no direct send is in flight, replays both journals to the broker and
+ * commits after every acknowledged record, so a failed replay only repeats records from the failed one on.
+ * Generated by Eventor Spring Event Generator
+ */
+public class SpilloverJournal<T> implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(SpilloverJournal.class);
+
+    private static final String READER_NAME = "drainer";
+    private static final String FAILED_SENDS_DIRECTORY = "failed";
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long RETRY_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(1);
+    private static final long STOP_TIMEOUT_MILLIS = 5000;
+
+    private final String name;
+    private final MappedJournal journal;
+    private final MappedJournal failedSends;
+    private final int maxPending;
+    private final Encoder<T> encoder;
+    private final Decoder<T> decoder;
+    private final Sender<T> sender;
+
+    private final Object appendLock = new Object();
+    private final EncodeBuffer buffer = new EncodeBuffer();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final LongAdder spilled = new LongAdder();
+    private final LongAdder drained = new LongAdder();
+
+    // Starts in spilling mode so events left over from a previous run are drained before new direct sends.
+    private volatile boolean spilling = true;
+    private volatile boolean running;
+    private Thread drainer;
+
+    public SpilloverJournal(String name, Path directory, int segmentSize, int maxPending,
+                            Encoder<T> encoder, Decoder<T> decoder, Sender<T> sender) {
+        this.name = name;
+        this.journal = new MappedJournal(directory, segmentSize, 0);
+        this.failedSends = new MappedJournal(directory.resolve(FAILED_SENDS_DIRECTORY), segmentSize, 0);
+        this.maxPending = maxPending;
+        this.encoder = encoder;
+        this.decoder = decoder;
+        this.sender = sender;
+    }
+
+    /**
+     * Sends an event, spilling it to the journal when the broker is not keeping up.
+     * The returned future completes when the broker acknowledged the event or it was spilled.
+     */
+    public CompletableFuture<?> send(String key, T event) {
+        // Counted before the mode is checked, so the drainer never misses a direct send in flight
+        if (pending.incrementAndGet() <= maxPending && !spilling) {
+            CompletableFuture<?> sent;
+            try {
+                sent = sender.send(key, event);
+            } catch (RuntimeException e) {
+                logger.debug("Direct send of {} failed, spilling", name, e);
+                spill(failedSends, key, event);
+                pending.decrementAndGet();
+                return CompletableFuture.completedFuture(null);
+            }
+            return sent.handle((result, failure) -> {
+                if (failure != null) {
+                    spill(failedSends, key, event);
+                }
+                pending.decrementAndGet();
+                return result;
+            });
+        }
+        pending.decrementAndGet();
+        spill(journal, key, event);
+        return CompletableFuture.completedFuture(null);
+    }
+
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        running = true;
+        drainer = new Thread(this::drain, "eventor-spillover-" + name);
+        drainer.setDaemon(true);
+        drainer.start();
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (running) {
+            running = false;
+            LockSupport.unpark(drainer);
+            try {
+                drainer.join(STOP_TIMEOUT_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        journal.close();
+        failedSends.close();
+    }
+
+    public boolean isSpilling() {
+        return spilling;
+    }
+
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    public long getSpilledCount() {
+        return spilled.sum();
+    }
+
+    public long getDrainedCount() {
+        return drained.sum();
+    }
+
+    private void spill(MappedJournal target, String key, T event) {
+        synchronized (appendLock) {
+            spilling = true;
+            buffer.reset();
+            try {
+                buffer.out.writeBoolean(key != null);
+                if (key != null) {
+                    BinaryCodec.writeString(buffer.out, key);
+                }
+                encoder.writeTo(event, buffer.out);
+                target.append(buffer.array(), 0, buffer.size());
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to spill event of " + name, e);
+            }
+        }
+        spilled.increment();
+    }
+
+    private void drain() {
+        try {
+            Replay failed = new Replay(failedSends);
+            Replay overflow = new Replay(journal);
+            while (running) {
+                // Direct sends in flight come before anything in the journals, and may still fail into them
+                if (!spilling || pending.get() > 0) {
+                    LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                    continue;
+                }
+                int replayed = failed.next();
+                if (replayed == 0) {
+                    replayed = overflow.next();
+                }
+                if (replayed < 0) {
+                    LockSupport.parkNanos(this, RETRY_BACKOFF_NANOS);
+                } else if (replayed == 0) {
+                    synchronized (appendLock) {
+                        if (!failed.hasNext() && !overflow.hasNext()) {
+                            spilling = false;
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Spillover drainer of {} stopped", name, e);
+        }
+    }
+
+    /**
+     * Replays one journal to the broker from its committed position.
+     */
+    private final class Replay {
+        private final MappedJournal source;
+        private final List<CompletableFuture<?>> sends = new ArrayList<>();
+        private final long[] positions = new long[Math.max(1, maxPending)];
+        private MappedJournal.Reader reader;
+
+        private Replay(MappedJournal source) throws IOException {
+            this.source = source;
+            this.reader = source.reader(READER_NAME);
+        }
+
+        private boolean hasNext() throws IOException {
+            return reader.hasNext();
+        }
+
+        /**
+         * Sends up to maxPending records and waits for them in order, committing after the last one
+         * acknowledged before the first failure; from that one on, the records are replayed again.
+         *
+         * @return the number of records replayed, or -1 when one of them failed
+         */
+        private int next() throws IOException {
+            int count = 0;
+            for (byte[] record; count < positions.length && (record = reader.poll()) != null; count++) {
+                sends.add(replay(record));
+                positions[count] = reader.position();
+            }
+            int acknowledged = 0;
+            try {
+                for (CompletableFuture<?> send : sends) {
+                    send.get();
+                    acknowledged++;
+                }
+            } catch (ExecutionException e) {
+                logger.warn("Replaying spilled events of {} failed, retrying", name, e.getCause());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            } finally {
+                sends.clear();
+            }
+            if (acknowledged > 0) {
+                reader.commit(positions[acknowledged - 1]);
+                source.deleteConsumedSegments();
+                drained.add(acknowledged);
+            }
+            if (acknowledged < count) {
+                reader = source.reader(READER_NAME);
+                return -1;
+            }
+            return count;
+        }
+
+        private CompletableFuture<?> replay(byte[] record) throws IOException {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(record));
+            String key = in.readBoolean() ? BinaryCodec.readString(in) : null;
+            try {
+                return sender.send(key, decoder.readFrom(in));
+            } catch (RuntimeException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+    }
+
+    /**
+     * Writes an event into the journal record, usually the DTO's writeTo method.
+     */
+    @FunctionalInterface
+    public interface Encoder<T> {
+        void writeTo(T event, DataOutput out) throws IOException;
+    }
+
+    /**
+     * Reads an event from the journal record, usually the DTO's static readFrom method.
+     */
+    @FunctionalInterface
+    public interface Decoder<T> {
+        T readFrom(DataInput in) throws IOException;
+    }
+
+    /**
+     * Hands an event to the broker.
+     */
+    @FunctionalInterface
+    public interface Sender<T> {
+        CompletableFuture<?> send(String key, T event);
+    }
+
+    private static final class EncodeBuffer extends ByteArrayOutputStream {
+        private final DataOutputStream out = new DataOutputStream(this);
+
+        private EncodeBuffer() {
+            super(256);
+        }
+
+        private byte[] array() {
+            return buf;
+        }
+    }
+}
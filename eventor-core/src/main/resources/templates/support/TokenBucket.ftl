@@ -0,0 +1,85 @@
+package com.example.support;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Lock-free token bucket. Instead of counting tokens it keeps the theoretical arrival time of the
+ * next permit (GCRA); a permit is granted when that time is no further ahead than the burst allows,
+ * and claiming it is a single compare-and-set.
+ * Generated by Eventor Spring Event Generator
+ */
+public final class TokenBucket {
+
+    private final long intervalNanos;
+    private final long toleranceNanos;
+    private final AtomicLong nextArrival;
+
+    /**
+     * Creates a bucket refilled at permitsPerSecond that holds up to burst permits; it starts full.
+     */
+    public TokenBucket(double permitsPerSecond, int burst) {
+        if (permitsPerSecond <= 0 || burst <= 0) {
+            throw new IllegalArgumentException("permitsPerSecond and burst must be positive");
+        }
+        this.intervalNanos = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.toleranceNanos = intervalNanos * burst;
+        this.nextArrival = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Takes a permit if one is available right now.
+     */
+    public boolean tryAcquire() {
+        return reserve(0L) == 0L;
+    }
+
+    /**
+     * Takes a permit, waiting at most the given time for it.
+     */
+    public boolean tryAcquire(long timeout, TimeUnit unit) throws InterruptedException {
+        long waitNanos = reserve(unit.toNanos(timeout));
+        if (waitNanos < 0) {
+            return false;
+        }
+        long deadline = System.nanoTime() + waitNanos;
+        for (long remaining = waitNanos; remaining > 0; remaining = deadline - System.nanoTime()) {
+            LockSupport.parkNanos(this, remaining);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Takes a permit, waiting as long as needed.
+     */
+    public void acquire() {
+        long waitNanos = reserve(Long.MAX_VALUE);
+        long deadline = System.nanoTime() + waitNanos;
+        for (long remaining = waitNanos; remaining > 0; remaining = deadline - System.nanoTime()) {
+            LockSupport.parkNanos(this, remaining);
+        }
+    }
+
+    /**
+     * Claims the next permit and returns how long the caller has to wait for it,
+     * or -1 without claiming anything when that would exceed maxWaitNanos.
+     */
+    private long reserve(long maxWaitNanos) {
+        while (true) {
+            long now = System.nanoTime();
+            long arrival = nextArrival.get();
+            long next = Math.max(arrival, now) + intervalNanos;
+            long waitNanos = next - now - toleranceNanos;
+            if (waitNanos > maxWaitNanos) {
+                return -1L;
+            }
+            if (nextArrival.compareAndSet(arrival, next)) {
+                return Math.max(0L, waitNanos);
+            }
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package com.example.support;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Group commit for a transactional producer: events from any number of callers are queued and a
+ * single sender thread writes them in shared transactions of up to maxEvents, waiting at most
+ * maxDelayMillis after the first event of a transaction for more to arrive. Each caller's future
+ * completes once the transaction holding its event has committed, or fails with the reason it did
+ * not, so the commit cost is paid once per group while every caller still learns its own outcome.
+ * An event whose send fails before it reaches the producer, such as a serialization error, fails
+ * only its own caller and is left out of the transaction. Transactions are written one at a time
+ * in the order events were queued, so events of the same key stay in order.
+ * Generated by Eventor Spring Event Generator
+ */
+public class TransactionBatcher<T, R> implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TransactionBatcher.class);
+
+    private final String name;
+    private final int maxEvents;
+    private final long maxDelayNanos;
+    private final Transaction transaction;
+    private final Sender<T, R> sender;
+    private final BlockingQueue<Pending<T, R>> queue;
+    private final Thread thread;
+    private volatile boolean running = true;
+
+    private final LongAdder transactions = new LongAdder();
+    private final LongAdder committedEvents = new LongAdder();
+    private final LongAdder failedTransactions = new LongAdder();
+    private final LongAdder rejectedEvents = new LongAdder();
+
+    public TransactionBatcher(String name, int maxEvents, long maxDelayMillis, int maxPending,
+                              Transaction transaction, Sender<T, R> sender) {
+        if (maxEvents <= 0 || maxDelayMillis < 0 || maxPending <= 0) {
+            throw new IllegalArgumentException(String.format(
+                "maxEvents and maxPending must be positive and maxDelayMillis not negative: %d, %d, %d",
+                maxEvents, maxPending, maxDelayMillis));
+        }
+        this.name = name;
+        this.maxEvents = maxEvents;
+        this.maxDelayNanos = TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+        this.transaction = transaction;
+        this.sender = sender;
+        this.queue = new ArrayBlockingQueue<>(maxPending);
+        this.thread = new Thread(this::run, "eventor-transactions-" + name);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    /**
+     * Queues an event for the next transaction, blocking while maxPending events are already waiting.
+     * @return completes with the send result once the transaction has committed
+     */
+    public CompletableFuture<R> add(String key, T event) {
+        Pending<T, R> pending = new Pending<>(key, event);
+        if (!running) {
+            pending.result.completeExceptionally(new IllegalStateException(name + " is closed"));
+            return pending.result;
+        }
+        try {
+            queue.put(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            pending.result.completeExceptionally(e);
+            return pending.result;
+        }
+        if (!thread.isAlive() && queue.remove(pending)) {
+            // Closed while this event was being queued
+            pending.result.completeExceptionally(new IllegalStateException(name + " is closed"));
+        }
+        return pending.result;
+    }
+
+    /**
+     * Commits the events already queued and stops the sender thread.
+     */
+    @Override
+    public void close() {
+        running = false;
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Whatever the thread did not get to is failed rather than left hanging
+        List<Pending<T, R>> abandoned = new ArrayList<>();
+        queue.drainTo(abandoned);
+        abandoned.forEach(pending -> pending.result.completeExceptionally(
+            new IllegalStateException(name + " closed before the event was sent")));
+    }
+
+    public long getTransactionCount() {
+        return transactions.sum();
+    }
+
+    public long getCommittedEventCount() {
+        return committedEvents.sum();
+    }
+
+    public long getFailedTransactionCount() {
+        return failedTransactions.sum();
+    }
+
+    public long getRejectedEventCount() {
+        return rejectedEvents.sum();
+    }
+
+    public int getPending() {
+        return queue.size();
+    }
+
+    private void run() {
+        List<Pending<T, R>> batch = new ArrayList<>(Math.min(maxEvents, 1024));
+        while (running || !queue.isEmpty()) {
+            try {
+                Pending<T, R> first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                queue.drainTo(batch, maxEvents - batch.size());
+                while (batch.size() < maxEvents && running) {
+                    Pending<T, R> next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                    queue.drainTo(batch, maxEvents - batch.size());
+                }
+            } catch (InterruptedException e) {
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                commit(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void commit(List<Pending<T, R>> batch) {
+        List<CompletableFuture<R>> results = new ArrayList<>(batch.size());
+        // Failures of sends rejected before reaching the producer, by position; null for events in the transaction
+        List<RuntimeException> rejections = new ArrayList<>(batch.size());
+        try {
+            transaction.execute(() -> {
+                results.clear();
+                rejections.clear();
+                for (Pending<T, R> pending : batch) {
+                    try {
+                        results.add(sender.send(pending.key, pending.event));
+                        rejections.add(null);
+                    } catch (RuntimeException e) {
+                        results.add(CompletableFuture.failedFuture(e));
+                        rejections.add(e);
+                    }
+                }
+            });
+        } catch (RuntimeException e) {
+            failedTransactions.increment();
+            logger.warn("Transaction of {} with {} events was aborted: {}", name, batch.size(), e.toString());
+            for (int i = 0; i < batch.size(); i++) {
+                RuntimeException rejection = i < rejections.size() ? rejections.get(i) : null;
+                batch.get(i).result.completeExceptionally(rejection != null ? rejection : e);
+            }
+            return;
+        }
+        transactions.increment();
+        for (int i = 0; i < batch.size(); i++) {
+            if (rejections.get(i) != null) {
+                rejectedEvents.increment();
+            } else {
+                committedEvents.increment();
+            }
+            forward(results.get(i), batch.get(i).result);
+        }
+    }
+
+    private static <R> void forward(CompletableFuture<R> from, CompletableFuture<R> to) {
+        from.whenComplete((value, failure) -> {
+            if (failure != null) {
+                to.completeExceptionally(failure);
+            } else {
+                to.complete(value);
+            }
+        });
+    }
+
+    /**
+     * Runs the sends of one group in a transaction and commits it, throwing if it was aborted;
+     * usually KafkaTemplate.executeInTransaction.
+     */
+    @FunctionalInterface
+    public interface Transaction {
+        void execute(Runnable sends);
+    }
+
+    /**
+     * Sends one event inside the running transaction.
+     */
+    @FunctionalInterface
+    public interface Sender<T, R> {
+        CompletableFuture<R> send(String key, T event);
+    }
+
+    private static final class Pending<T, R> {
+        private final String key;
+        private final T event;
+        private final CompletableFuture<R> result = new CompletableFuture<>();
+
+        private Pending(String key, T event) {
+            this.key = key;
+            this.event = event;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.vedatunlu.eventor.core.generator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DefinitionReaderTest {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @TempDir
+    Path jsonDir;
+
+    @Test
+    void readsSingleDefinition() throws IOException {
+        Path file = Files.writeString(jsonDir.resolve("user-event.json"), "{\"type\": \"dto\", \"name\": \"UserEvent\"}");
+
+        try (DefinitionReader reader = new DefinitionReader(OBJECT_MAPPER, file)) {
+            assertEquals("UserEvent", reader.next().path("name").asText());
+            assertEquals("user-event.json", reader.getLocation());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void readsArrayBundleWithPointers() throws IOException {
+        Path file = Files.writeString(jsonDir.resolve("registry.json"),
+            "[\n  {\"name\": \"A\"},\n  {\"name\": \"B\"},\n  {\"name\": \"C\"}\n]\n");
+
+        assertEquals(List.of("A@registry.json#/0", "B@registry.json#/1", "C@registry.json#/2"), readAll(file));
+    }
+
+    @Test
+    void readsNdjsonWithLineNumbers() throws IOException {
+        Path file = Files.writeString(jsonDir.resolve("registry.ndjson"),
+            "{\"name\": \"A\"}\n\n{\"name\": \"B\"}\n{\"name\": \"C\"}\n");
+
+        assertEquals(List.of("A@registry.ndjson:1", "B@registry.ndjson:3", "C@registry.ndjson:4"), readAll(file));
+    }
+
+    @Test
+    void rejectsValuesThatAreNotObjects() throws IOException {
+        Path file = Files.writeString(jsonDir.resolve("registry.json"), "[{\"name\": \"A\"}, 42]");
+
+        try (DefinitionReader reader = new DefinitionReader(OBJECT_MAPPER, file)) {
+            reader.next();
+            IllegalArgumentException error = assertThrows(IllegalArgumentException.class, reader::next);
+            assertTrue(error.getMessage().startsWith("Expected a definition object at registry.json#/1"),
+                error.getMessage());
+        }
+    }
+
+    @Test
+    void listsJsonAndNdjsonFilesInPathOrder() throws IOException {
+        Files.createDirectories(jsonDir.resolve("orders"));
+        Files.writeString(jsonDir.resolve("orders/order-event.json"), "{}");
+        Files.writeString(jsonDir.resolve("b.ndjson"), "{}");
+        Files.writeString(jsonDir.resolve("a-event.json"), "{}");
+        Files.writeString(jsonDir.resolve("notes.txt"), "");
+        Files.writeString(jsonDir.resolve("UserEvent.dict"), "");
+
+        List<Path> files = DefinitionReader.definitionFiles(jsonDir);
+
+        assertEquals(List.of(jsonDir.resolve("a-event.json"), jsonDir.resolve("b.ndjson"),
+            jsonDir.resolve("orders/order-event.json")), files);
+    }
+
+    private static List<String> readAll(Path file) throws IOException {
+        List<String> read = new ArrayList<>();
+        try (DefinitionReader reader = new DefinitionReader(OBJECT_MAPPER, file)) {
+            for (JsonNode definition = reader.next(); definition != null; definition = reader.next()) {
+                read.add(definition.path("name").asText() + "@" + reader.getLocation());
+            }
+        }
+        return read;
+    }
+}
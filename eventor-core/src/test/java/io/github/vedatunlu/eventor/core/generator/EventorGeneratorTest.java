@@ -0,0 +1,145 @@
+package io.github.vedatunlu.eventor.core.generator;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventorGeneratorTest {
+    private static final String AUDIT_EVENT = "{\"type\": \"dto\", \"name\": \"AuditEvent\", \"codecs\": [\"binary\"], "
+        + "\"fields\": {\"id\": \"Long\", \"action\": \"String\"}}";
+    private static final String POOLED_AUDIT_EVENT = AUDIT_EVENT.replace("\"codecs\"", "\"pooled\": true, \"codecs\"");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void generatesValidDefinitions() throws Exception {
+        Path jsonDir = Files.createDirectories(tempDir.resolve("json"));
+        Files.writeString(jsonDir.resolve("audit-event.json"), AUDIT_EVENT);
+        Files.writeString(jsonDir.resolve("audit-producer.json"), "{\"type\": \"producer\", "
+            + "\"name\": \"AuditEventProducer\", \"dto\": \"AuditEvent\", \"topic\": \"audit\", \"spillover\": {}}");
+        Path outputDir = tempDir.resolve("out");
+
+        new EventorGenerator().generateFromJsonDirectory(jsonDir.toString(), outputDir.toString());
+
+        assertTrue(Files.isRegularFile(outputDir.resolve("AuditEvent.java")));
+        assertTrue(Files.isRegularFile(outputDir.resolve("AuditEventProducer.java")));
+        assertTrue(Files.isRegularFile(outputDir.resolve("AuditEventProducerKafkaConfig.java")));
+        assertTrue(Files.isRegularFile(outputDir.resolve("SpilloverJournal.java")));
+    }
+
+    @Test
+    void writesNothingWhenAnOptionCombinationIsUnsupported() throws IOException {
+        Path jsonDir = Files.createDirectories(tempDir.resolve("json"));
+        // Sorted first, so it would be rendered before the broken producer
+        Files.writeString(jsonDir.resolve("audit-event.json"), AUDIT_EVENT);
+        Files.writeString(jsonDir.resolve("audit-producer.json"), "{\"type\": \"producer\", "
+            + "\"name\": \"AuditEventProducer\", \"dto\": \"AuditEvent\", \"topic\": \"audit\", "
+            + "\"transport\": \"inprocess\", \"spillover\": {}}");
+        Path outputDir = tempDir.resolve("out");
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+            () -> new EventorGenerator().generateFromJsonDirectory(jsonDir.toString(), outputDir.toString()));
+
+        assertTrue(error.getMessage().contains("audit-producer.json: Producer AuditEventProducer declares spillover "
+            + "but uses transport 'inprocess'"), error.getMessage());
+        assertFalse(Files.exists(outputDir));
+    }
+
+    @Test
+    void pointsAtTheBrokenConsumerMethod() throws IOException {
+        Path jsonDir = Files.createDirectories(tempDir.resolve("json"));
+        Files.writeString(jsonDir.resolve("audit-event.json"), AUDIT_EVENT);
+        Files.writeString(jsonDir.resolve("audit-consumer.json"), "{\"type\": \"consumer\", "
+            + "\"name\": \"AuditConsumer\", \"methods\": ["
+            + "{\"methodName\": \"handle\", \"dto\": \"AuditEvent\", \"topic\": \"audit\", \"groupId\": \"audit\"}, "
+            + "{\"methodName\": \"replay\", \"dto\": \"AuditEvent\", \"topic\": \"audit-replay\", "
+            + "\"groupId\": \"audit\", \"transport\": \"mmap\", \"retry\": {}}]}");
+        Path outputDir = tempDir.resolve("out");
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+            () -> new EventorGenerator().generateFromJsonDirectory(jsonDir.toString(), outputDir.toString()));
+
+        assertTrue(error.getMessage().contains("audit-consumer.json#/methods/1: Consumer method AuditConsumer.replay "
+            + "declares retry but uses transport 'mmap'"), error.getMessage());
+        assertFalse(Files.exists(outputDir));
+    }
+
+    @Test
+    void requiresTheBinaryCodecOfSpilledEvents() throws IOException {
+        Path jsonDir = Files.createDirectories(tempDir.resolve("json"));
+        Files.writeString(jsonDir.resolve("audit-event.json"), AUDIT_EVENT.replace("\"codecs\": [\"binary\"], ", ""));
+        Files.writeString(jsonDir.resolve("audit-producer.json"), "{\"type\": \"producer\", "
+            + "\"name\": \"AuditEventProducer\", \"dto\": \"AuditEvent\", \"topic\": \"audit\", \"spillover\": {}}");
+        Path outputDir = tempDir.resolve("out");
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+            () -> new EventorGenerator().generateFromJsonDirectory(jsonDir.toString(), outputDir.toString()));
+
+        assertTrue(error.getMessage().contains("audit-producer.json: Producer AuditEventProducer declares spillover, "
+            + "which writes events with the binary codec, but DTO AuditEvent does not declare it"), error.getMessage());
+        assertFalse(Files.exists(outputDir));
+    }
+
+    @Test
+    void readsPooledDtosFromKafkaWithTheirBinarySerde() throws Exception {
+        Path jsonDir = Files.createDirectories(tempDir.resolve("json"));
+        Files.writeString(jsonDir.resolve("audit-event.json"), POOLED_AUDIT_EVENT);
+        Files.writeString(jsonDir.resolve("audit-consumer.json"), "{\"type\": \"consumer\", "
+            + "\"name\": \"AuditConsumer\", \"methods\": ["
+            + "{\"methodName\": \"handle\", \"dto\": \"AuditEvent\", \"topic\": \"audit\", \"groupId\": \"audit\"}]}");
+        Path outputDir = tempDir.resolve("out");
+
+        new EventorGenerator().generateFromJsonDirectory(jsonDir.toString(), outputDir.toString());
+
+        assertTrue(Files.isRegularFile(outputDir.resolve("AuditEventBinary.java")));
+        assertTrue(Files.isRegularFile(outputDir.resolve("ObjectPool.java")));
+        assertTrue(Files.readString(outputDir.resolve("AuditConsumer.java"))
+            .contains("AuditEventBinary.release(event);"));
+    }
+
+    @Test
+    void rejectsPooledDtosAcknowledgedAsynchronously() throws IOException {
+        Path jsonDir = Files.createDirectories(tempDir.resolve("json"));
+        Files.writeString(jsonDir.resolve("audit-event.json"), POOLED_AUDIT_EVENT);
+        Files.writeString(jsonDir.resolve("audit-consumer.json"), "{\"type\": \"consumer\", "
+            + "\"name\": \"AuditConsumer\", \"methods\": ["
+            + "{\"methodName\": \"handle\", \"dto\": \"AuditEvent\", \"topic\": \"audit\", \"groupId\": \"audit\", "
+            + "\"ackMode\": \"manual-async\"}]}");
+        Path outputDir = tempDir.resolve("out");
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+            () -> new EventorGenerator().generateFromJsonDirectory(jsonDir.toString(), outputDir.toString()));
+
+        assertTrue(error.getMessage().contains("Consumer method AuditConsumer.handle acknowledges asynchronously"),
+            error.getMessage());
+        assertFalse(Files.exists(outputDir));
+    }
+
+    @Test
+    void benchmarksTheKafkaSerdeOfEachDto() throws Exception {
+        Path jsonDir = Files.createDirectories(tempDir.resolve("json"));
+        Files.writeString(jsonDir.resolve("audit-event.json"), AUDIT_EVENT);
+        Files.writeString(jsonDir.resolve("pooled-event.json"),
+            POOLED_AUDIT_EVENT.replace("AuditEvent", "PooledEvent"));
+        Path benchmarkDir = tempDir.resolve("benchmarks");
+        EventorGenerator generator = new EventorGenerator();
+        generator.setBenchmarkDir(benchmarkDir.toString());
+
+        generator.generateFromJsonDirectory(jsonDir.toString(), tempDir.resolve("out").toString());
+
+        String plain = Files.readString(benchmarkDir.resolve("AuditEventBenchmark.java"));
+        assertTrue(plain.contains("objectMapper = JacksonUtils.enhancedObjectMapper();"));
+        assertTrue(plain.contains("deserializer = new JsonDeserializer<>(AuditEvent.class, false);"));
+        String pooled = Files.readString(benchmarkDir.resolve("PooledEventBenchmark.java"));
+        assertTrue(pooled.contains("deserializer = new PooledEventBinary.Deserializer();"));
+        assertTrue(pooled.contains("PooledEventBinary.release(decoded);"));
+    }
+}
@@ -0,0 +1,83 @@
+package io.github.vedatunlu.eventor.core.generator;
+
+import io.github.vedatunlu.eventor.core.model.ProducerDefinition;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ProducerProfilesTest {
+
+    @Test
+    void resolvesPreset() {
+        Map<String, String> properties = ProducerProfiles.resolve(ProducerDefinition.Profile.ofPreset("throughput"),
+            "OrderProducer");
+
+        assertEquals("262144", properties.get("batch.size"));
+        assertEquals("20", properties.get("linger.ms"));
+        assertEquals("lz4", properties.get("compression.type"));
+        assertEquals("all", properties.get("acks"));
+        assertEquals("true", properties.get("enable.idempotence"));
+    }
+
+    @Test
+    void appliesOverridesOnTopOfPresetAndExpandsAliases() {
+        ProducerDefinition.Profile profile = ProducerDefinition.Profile.ofPreset("low-latency");
+        profile.setOverrides(Map.of("linger.ms", "1", "compression", "zstd", "max.in.flight", "2"));
+
+        Map<String, String> properties = ProducerProfiles.resolve(profile, "OrderProducer");
+
+        assertEquals("1", properties.get("linger.ms"));
+        assertEquals("zstd", properties.get("compression.type"));
+        assertEquals("2", properties.get("max.in.flight.requests.per.connection"));
+        assertEquals("1", properties.get("acks"));
+        assertFalse(properties.containsKey("compression"));
+        assertFalse(properties.containsKey("max.in.flight"));
+    }
+
+    @Test
+    void acceptsOverridesWithoutPreset() {
+        ProducerDefinition.Profile profile = new ProducerDefinition.Profile();
+        profile.setOverrides(Map.of("idempotence", "true"));
+
+        assertEquals(Map.of("enable.idempotence", "true"), ProducerProfiles.resolve(profile, "OrderProducer"));
+    }
+
+    @Test
+    void rejectsUnknownAndEmptyProfiles() {
+        IllegalArgumentException unknown = assertThrows(IllegalArgumentException.class,
+            () -> ProducerProfiles.resolve(ProducerDefinition.Profile.ofPreset("turbo"), "OrderProducer"));
+        assertEquals("Unknown profile preset 'turbo' in OrderProducer; expected one of "
+            + "[throughput, low-latency, durable]", unknown.getMessage());
+
+        assertThrows(IllegalArgumentException.class,
+            () -> ProducerProfiles.resolve(new ProducerDefinition.Profile(), "OrderProducer"));
+    }
+
+    @Test
+    void transactionsForceIdempotenceUnlessTheProfileContradictsIt() {
+        Map<String, String> properties = new LinkedHashMap<>(Map.of("linger.ms", "5"));
+        ProducerProfiles.applyTransactional(properties, "OrderProducer");
+        assertEquals(Map.of("linger.ms", "5", "enable.idempotence", "true", "acks", "all"), properties);
+
+        Map<String, String> lowLatency = ProducerProfiles.resolve(
+            ProducerDefinition.Profile.ofPreset("low-latency"), "OrderProducer");
+        assertThrows(IllegalArgumentException.class,
+            () -> ProducerProfiles.applyTransactional(lowLatency, "OrderProducer"));
+    }
+
+    @Test
+    void spilloverBoundsMaxBlockUnlessTheProfileSetsIt() {
+        Map<String, String> properties = new LinkedHashMap<>();
+        ProducerProfiles.applySpillover(properties);
+        assertEquals("100", properties.get("max.block.ms"));
+
+        Map<String, String> explicit = new LinkedHashMap<>(Map.of("max.block.ms", "2000"));
+        ProducerProfiles.applySpillover(explicit);
+        assertEquals("2000", explicit.get("max.block.ms"));
+    }
+}
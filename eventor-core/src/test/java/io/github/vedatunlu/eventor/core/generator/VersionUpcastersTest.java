@@ -0,0 +1,103 @@
+package io.github.vedatunlu.eventor.core.generator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.github.vedatunlu.eventor.core.model.DtoDefinition;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VersionUpcastersTest {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final String CURRENT_FIELDS = "\"fields\": {\"orderId\": \"UUID\", \"customerId\": \"String\", "
+        + "\"amount\": \"BigDecimal\", \"quantity\": \"Long\", \"currency\": \"String\", \"placedAt\": \"LocalDateTime\"}";
+
+    @Test
+    void compilesPreviousVersionsOldestFirst() throws IOException {
+        List<Map<String, Object>> upcasters = compile("{\"version\": 2, \"fields\": {\"orderId\": \"UUID\", "
+            + "\"customerId\": \"UUID\", \"amount\": \"Double\", \"quantity\": \"Integer\", \"placedAt\": \"LocalDateTime\"}, "
+            + "\"defaults\": {\"currency\": \"EUR\"}}, "
+            + "{\"version\": 1, \"fields\": {\"id\": \"UUID\", \"customer\": \"UUID\", \"total\": \"Integer\", "
+            + "\"note\": \"String\"}, \"renamed\": {\"id\": \"orderId\", \"customer\": \"customerId\", \"total\": \"amount\"}, "
+            + "\"defaults\": {\"quantity\": 1, \"currency\": \"EUR\", \"placedAt\": \"2020-01-01T00:00\"}}");
+
+        assertEquals(2, upcasters.size());
+        Map<String, Object> v1 = upcasters.get(0);
+        assertEquals(1, v1.get("version"));
+        // The removed note field is skipped by the parser, so it is not read
+        assertEquals(Map.of("id", "orderId", "customer", "customerId", "total", "amount"), v1.get("reads"));
+        assertEquals(Map.of("quantity", "1L", "currency", "\"EUR\"",
+            "placedAt", "LocalDateTime.parse(\"2020-01-01T00:00\")"), v1.get("defaults"));
+        Map<String, Object> v2 = upcasters.get(1);
+        assertEquals(2, v2.get("version"));
+        assertEquals(Map.of("currency", "\"EUR\""), v2.get("defaults"));
+    }
+
+    @Test
+    void unversionedDtosHaveNoUpcasters() throws IOException {
+        DtoDefinition dto = OBJECT_MAPPER.readValue("{\"type\": \"dto\", \"name\": \"OrderEvent\", " + CURRENT_FIELDS + "}",
+            DtoDefinition.class);
+
+        assertEquals(List.of(), VersionUpcasters.compile(dto, OBJECT_MAPPER));
+    }
+
+    @Test
+    void rejectsVersionsOutsideTheHistory() {
+        assertRejected("previous version 3; expected distinct versions from 1 to 2",
+            "{\"version\": 3, \"fields\": {\"orderId\": \"UUID\"}}");
+        assertRejected("previous version 1; expected distinct versions from 1 to 2",
+            "{\"version\": 1, \"fields\": {\"orderId\": \"UUID\"}}, {\"version\": 1, \"fields\": {\"orderId\": \"UUID\"}}");
+    }
+
+    @Test
+    void rejectsNarrowingAndUnrelatedTypeChanges() {
+        assertRejected("cannot read amount of type String into OrderEvent.amount of type BigDecimal",
+            "{\"version\": 1, \"fields\": {\"amount\": \"String\"}}");
+        assertRejected("cannot read quantity of type Double into OrderEvent.quantity of type Long",
+            "{\"version\": 1, \"fields\": {\"quantity\": \"Double\"}}");
+    }
+
+    @Test
+    void rejectsBrokenRenames() {
+        assertRejected("renames total, which is not one of its fields",
+            "{\"version\": 1, \"fields\": {\"amount\": \"Integer\"}, \"renamed\": {\"total\": \"amount\"}}");
+        assertRejected("renames total to sum, which is not a field of OrderEvent",
+            "{\"version\": 1, \"fields\": {\"total\": \"Integer\"}, \"renamed\": {\"total\": \"sum\"}}");
+        assertRejected("reads two of its fields into OrderEvent.amount",
+            "{\"version\": 1, \"fields\": {\"amount\": \"Integer\", \"total\": \"Integer\"}, "
+                + "\"renamed\": {\"total\": \"amount\"}}");
+    }
+
+    @Test
+    void rejectsDefaultsThatDoNotFit() {
+        assertRejected("declares a default for discount, which is not a field of OrderEvent",
+            "{\"version\": 1, \"fields\": {\"orderId\": \"UUID\"}, \"defaults\": {\"discount\": 0}}");
+        assertRejected("declares a default for orderId, which it already has",
+            "{\"version\": 1, \"fields\": {\"orderId\": \"UUID\"}, "
+                + "\"defaults\": {\"orderId\": \"6f1c2a9e-0000-4000-8000-000000000000\"}}");
+        assertRejected("declares the default yesterday for placedAt, which is not a LocalDateTime",
+            "{\"version\": 1, \"fields\": {\"orderId\": \"UUID\"}, \"defaults\": {\"placedAt\": \"yesterday\"}}");
+        assertRejected("declares the default 1.5 for quantity, which is not a Long",
+            "{\"version\": 1, \"fields\": {\"orderId\": \"UUID\"}, \"defaults\": {\"quantity\": 1.5}}");
+    }
+
+    private static List<Map<String, Object>> compile(String previousVersions) throws IOException {
+        return VersionUpcasters.compile(dto(previousVersions), OBJECT_MAPPER);
+    }
+
+    private static void assertRejected(String message, String previousVersions) {
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class, () -> compile(previousVersions));
+        assertTrue(error.getMessage().contains(message), error.getMessage());
+    }
+
+    private static DtoDefinition dto(String previousVersions) throws IOException {
+        return OBJECT_MAPPER.readValue("{\"type\": \"dto\", \"name\": \"OrderEvent\", \"version\": 3, "
+            + CURRENT_FIELDS + ", \"previousVersions\": [" + previousVersions + "]}", DtoDefinition.class);
+    }
+}
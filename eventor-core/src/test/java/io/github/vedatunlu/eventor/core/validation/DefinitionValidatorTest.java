@@ -0,0 +1,123 @@
+package io.github.vedatunlu.eventor.core.validation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DefinitionValidatorTest {
+    private static final String USER_EVENT =
+        "{\"type\": \"dto\", \"name\": \"UserEvent\", \"fields\": {\"userId\": \"UUID\", \"email\": \"String\"}}";
+
+    @TempDir
+    Path jsonDir;
+
+    private DefinitionValidator validator;
+
+    @BeforeEach
+    void createValidator() throws IOException {
+        validator = new DefinitionValidator(new ObjectMapper());
+    }
+
+    @Test
+    void acceptsDefinitionsThatReferenceEachOther() throws IOException {
+        List<Path> files = List.of(
+            write("user-consumer.json", consumer("\"idempotencyKey\": \"userId\", \"fields\": [\"userId\"]")),
+            write("user-event.json", USER_EVENT),
+            write("user-producer.json",
+                "{\"type\": \"producer\", \"name\": \"UserProducer\", \"dto\": \"UserEvent\", \"topic\": \"users\"}"));
+
+        assertEquals(List.of(), validator.validate(files));
+    }
+
+    @Test
+    void reportsBrokenReferencesAtTheirPointer() throws IOException {
+        List<Path> files = List.of(
+            write("user-event.json", USER_EVENT),
+            write("user-consumer.json", consumer("\"idempotencyKey\": \"id\", \"fields\": [\"email\", \"name\"]")),
+            write("user-producer.json",
+                "{\"type\": \"producer\", \"name\": \"UserProducer\", \"dto\": \"UserEvnt\", \"topic\": \"users\"}"));
+
+        List<String> errors = describe(validator.validate(files));
+
+        assertEquals(List.of(
+            "user-consumer.json#/methods/0/idempotencyKey: DTO UserEvent has no field 'id'",
+            "user-consumer.json#/methods/0/fields/1: DTO UserEvent has no field 'name'",
+            "user-producer.json#/dto: DTO 'UserEvnt' is not defined"), errors);
+    }
+
+    @Test
+    void locatesErrorsInsideBundles() throws IOException {
+        List<Path> files = List.of(
+            write("registry.json", "[" + USER_EVENT + ", {\"type\": \"dto\", \"name\": \"UserEvent\", "
+                + "\"fields\": {\"amount\": \"Decimal\"}}]"),
+            write("registry.ndjson", USER_EVENT.replace("UserEvent", "OrderEvent") + "\n"
+                + "{\"type\": \"producer\", \"name\": \"OrderProducer\", \"dto\": \"OrderEvent\"}\n"));
+
+        List<ValidationError> errors = validator.validate(files);
+
+        assertEquals(3, errors.size());
+        ValidationError fieldType = errors.get(0);
+        assertEquals("registry.json#/1", fieldType.getLocation());
+        assertEquals("/fields/amount", fieldType.getPointer());
+        assertTrue(fieldType.toString().startsWith("registry.json#/1/fields/amount: \"Decimal\""), fieldType.toString());
+        ValidationError missingTopic = errors.get(1);
+        assertEquals("registry.ndjson:2", missingTopic.getLocation());
+        assertEquals("registry.ndjson:2: missing required property 'topic'", missingTopic.toString());
+        ValidationError duplicate = errors.get(2);
+        assertEquals("registry.json#/1/name: 'UserEvent' is already defined at registry.json#/0", duplicate.toString());
+    }
+
+    @Test
+    void reportsMalformedFilesAndCarriesOn() throws IOException {
+        List<Path> files = List.of(
+            write("broken-event.json", "{\"type\": \"dto\", \"name\": "),
+            write("user-event.json", USER_EVENT.replace("\"UUID\"", "42")));
+
+        List<ValidationError> errors = validator.validate(files);
+
+        assertEquals(2, errors.size());
+        assertEquals("user-event.json", errors.get(0).getLocation());
+        assertEquals("/fields/userId", errors.get(0).getPointer());
+        assertEquals("broken-event.json", errors.get(1).getLocation());
+        assertTrue(errors.get(1).getMessage().startsWith("malformed JSON: "), errors.get(1).getMessage());
+    }
+
+    @Test
+    void validatesLargeBundlesAcrossBatches() throws IOException {
+        StringBuilder bundle = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            String name = i == 700 ? "Event0" : "Event" + i;
+            bundle.append(USER_EVENT.replace("UserEvent", name)).append('\n');
+        }
+
+        List<ValidationError> errors = validator.validate(List.of(write("events.ndjson", bundle.toString())));
+
+        assertEquals(List.of("events.ndjson:701#/name: 'Event0' is already defined at events.ndjson:1"),
+            describe(errors));
+    }
+
+    private Path write(String fileName, String content) throws IOException {
+        return Files.writeString(jsonDir.resolve(fileName), content);
+    }
+
+    private static String consumer(String options) {
+        return "{\"type\": \"consumer\", \"name\": \"UserConsumer\", \"methods\": [{\"methodName\": \"handle\", "
+            + "\"dto\": \"UserEvent\", \"topic\": \"users\", \"groupId\": \"users\", " + options + "}]}";
+    }
+
+    private static List<String> describe(List<ValidationError> errors) {
+        List<String> described = new ArrayList<>();
+        errors.forEach(error -> described.add(error.toString()));
+        return described;
+    }
+}
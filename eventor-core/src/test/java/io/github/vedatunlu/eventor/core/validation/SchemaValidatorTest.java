@@ -0,0 +1,93 @@
+package io.github.vedatunlu.eventor.core.validation;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SchemaValidatorTest {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static SchemaValidator validator;
+
+    @BeforeAll
+    static void loadSchema() throws IOException {
+        validator = SchemaValidator.load(OBJECT_MAPPER);
+    }
+
+    @Test
+    void acceptsValidDefinitions() throws IOException {
+        assertTrue(validate("{\"type\": \"dto\", \"name\": \"UserEvent\", "
+            + "\"fields\": {\"id\": \"UUID\", \"tags\": \"List<String>\", \"at\": \"LocalDateTime\"}}").isEmpty());
+        assertTrue(validate("{\"type\": \"producer\", \"name\": \"UserEventProducer\", \"dto\": \"UserEvent\", "
+            + "\"topic\": \"user-events\", \"profile\": \"throughput\"}").isEmpty());
+        assertTrue(validate("{\"type\": \"consumer\", \"name\": \"UserEventConsumer\", \"methods\": [{"
+            + "\"methodName\": \"handle\", \"dto\": \"UserEvent\", \"topic\": \"user-events\", "
+            + "\"groupId\": \"users\", \"ackMode\": \"manual-async\"}]}").isEmpty());
+    }
+
+    @Test
+    void reportsWrongTypeAtItsPointer() throws IOException {
+        List<ValidationError> errors = validate(
+            "{\"type\": \"producer\", \"name\": \"UserEventProducer\", \"dto\": \"UserEvent\", \"topic\": 7}");
+
+        assertEquals(1, errors.size());
+        assertEquals("/topic", errors.get(0).getPointer());
+        assertEquals("must be of type string but is number", errors.get(0).getMessage());
+    }
+
+    @Test
+    void reportsValueOutsideEnum() throws IOException {
+        List<ValidationError> errors = validate("{\"type\": \"consumer\", \"name\": \"UserEventConsumer\", "
+            + "\"methods\": [{\"methodName\": \"handle\", \"dto\": \"UserEvent\", \"topic\": \"user-events\", "
+            + "\"groupId\": \"users\", \"transport\": \"carrier-pigeon\"}]}");
+
+        assertEquals(1, errors.size());
+        assertEquals("/methods/0/transport", errors.get(0).getPointer());
+        assertTrue(errors.get(0).getMessage().startsWith("\"carrier-pigeon\" is not one of the allowed values"),
+            errors.get(0).getMessage());
+    }
+
+    @Test
+    void reportsMissingRequiredProperty() throws IOException {
+        List<ValidationError> errors = validate("{\"type\": \"dto\", \"name\": \"UserEvent\"}");
+
+        assertEquals(1, errors.size());
+        assertEquals("", errors.get(0).getPointer());
+        assertEquals("missing required property 'fields'", errors.get(0).getMessage());
+    }
+
+    @Test
+    void reportsEveryErrorWithTheLocationOfTheDefinition() throws IOException {
+        List<ValidationError> errors = new ArrayList<>();
+        validator.validate(OBJECT_MAPPER.readTree("{\"type\": \"consumer\", \"name\": \"UserEventConsumer\", "
+            + "\"methods\": [{\"methodName\": \"handle\", \"topic\": \"user-events\", \"groupId\": \"users\", "
+            + "\"ackCount\": 0}]}"), "registry.json#/3", errors);
+
+        assertEquals(2, errors.size());
+        assertTrue(errors.stream().allMatch(error -> error.getLocation().equals("registry.json#/3")));
+        assertTrue(errors.stream().anyMatch(error -> error.getPointer().equals("/methods/0")
+            && error.getMessage().equals("missing required property 'dto'")));
+        assertTrue(errors.stream().anyMatch(error -> error.getPointer().equals("/methods/0/ackCount")
+            && error.getMessage().equals("must be at least 1")));
+    }
+
+    @Test
+    void rejectsSchemasWithUnsupportedKeywords() throws IOException {
+        assertThrows(IllegalArgumentException.class,
+            () -> new SchemaValidator(OBJECT_MAPPER.readTree("{\"type\": \"object\", \"if\": {}}")));
+    }
+
+    private static List<ValidationError> validate(String definition) throws IOException {
+        List<ValidationError> errors = new ArrayList<>();
+        validator.validate(OBJECT_MAPPER.readTree(definition), "definition.json", errors);
+        return errors;
+    }
+}
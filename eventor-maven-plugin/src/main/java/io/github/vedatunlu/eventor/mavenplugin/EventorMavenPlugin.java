@@ -19,12 +19,18 @@ public class EventorMavenPlugin extends AbstractMojo {
     @Parameter(property = "Eventor.outputDir", defaultValue = "${project.build.directory}/generated-sources/Eventor")
     private File outputDir;
 
+    @Parameter(property = "Eventor.benchmarkDir")
+    private File benchmarkDir;
+
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException {
         try {
             getLog().info("Eventor Spring Event Generator Maven Plugin");
             getLog().info("JSON Directory: " + jsonDir.getAbsolutePath());
             getLog().info("Output Directory: " + outputDir.getAbsolutePath());
+            if (benchmarkDir != null) {
+                getLog().info("Benchmark Directory: " + benchmarkDir.getAbsolutePath());
+            }
 
             if (!jsonDir.exists()) {
                 getLog().warn("JSON directory does not exist: " + jsonDir.getAbsolutePath());
@@ -38,6 +44,9 @@ public class EventorMavenPlugin extends AbstractMojo {
             }
 
             EventorGenerator generator = new EventorGenerator();
+            if (benchmarkDir != null) {
+                generator.setBenchmarkDir(benchmarkDir.getAbsolutePath());
+            }
             generator.generateFromJsonDirectory(jsonDir.getAbsolutePath(), outputDir.getAbsolutePath());
 
             getLog().info("Code generation completed successfully!");